@@ -0,0 +1,9 @@
+package exceptions;
+
+/* Thrown when the cards of a lazily loaded deck cannot be read from the store. Unchecked, since cards are read
+   on first use from methods (like Deck.getCards) that cannot report a checked exception. */
+public class DeckLoadException extends RuntimeException {
+    public DeckLoadException(String deckName, Throwable cause) {
+        super("Unable to load the cards of deck: " + deckName, cause);
+    }
+}
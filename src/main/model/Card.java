@@ -4,18 +4,30 @@ import exceptions.ExceedThresholdException;
 import exceptions.InvalidCardException;
 import org.json.JSONObject;
 
+import persistence.JsonStreamWriter;
 import persistence.Writable;
 
-/* A flashcard that a user can create and review. Each flashcard "remembers" how well the user remembers them.
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/* A flashcard that a user can create and review. Each flashcard "remembers" how well the user remembers them, and
+   has a Schedule saying when it is next due for review.
    Method toJson Made with reference: https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo */
 
 public class Card implements Writable {
     public static final int BEST_THRESHOLD = 5;
     public static final int WORST_THRESHOLD = -3;
+    public static final int SCORE_CHANGED = 0;
+    public static final int SCORE_AT_BEST = 1;
+    public static final int SCORE_AT_WORST = 2;
 
     private String front;
     private String back;
     private int score;
+    private Schedule schedule;
+    private CardList owner;
+    private List<CardList> otherOwners;
 
     // EFFECTS: throws InvalidCardException if either the front or back of the card is empty.
     public Card(String front, String back) throws InvalidCardException {
@@ -25,6 +37,24 @@ public class Card implements Writable {
         this.front = front;
         this.back = back;
         this.score = 0;
+        this.schedule = Schedule.NEW;
+    }
+
+    // REQUIRES: validate(front, back, score) == CardReport.VALID
+    // EFFECTS: constructs a card with the given score, without checking it (see Deck.addCards)
+    Card(String front, String back, int score) {
+        this.front = front;
+        this.back = back;
+        this.score = score;
+        this.schedule = Schedule.NEW;
+    }
+
+    // EFFECTS: constructs a copy of card c, with the same front, back, score and schedule
+    Card(Card c) {
+        this.front = c.getFront();
+        this.back = c.getBack();
+        this.score = c.getScore();
+        this.schedule = c.getSchedule();
     }
 
     // EFFECTS: Returns the score of the card
@@ -42,27 +72,201 @@ public class Card implements Writable {
         return this.back;
     }
 
+    // EFFECTS: Returns when the card is next due for review
+    public Schedule getSchedule() {
+        return this.schedule;
+    }
+
     // MODIFIES: this
     // EFFECTS: increases the current score by n if increasing/decreasing does not exceed thresholds.
     //          - throws ExceedThresholdException otherwise.
     public void changeScoreBy(int n) throws ExceedThresholdException {
-        if (!((this.score + n >= WORST_THRESHOLD) && (this.score + n <= BEST_THRESHOLD))) {
+        int score = getScore();
+        if (!((score + n >= WORST_THRESHOLD) && (score + n <= BEST_THRESHOLD))) {
             throw new ExceedThresholdException();
         } else {
-            this.score += n;
+            setScore(score + n);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: changes the current score by n, stopping at BEST_THRESHOLD or WORST_THRESHOLD instead of going past it,
+    //          and returns SCORE_AT_BEST or SCORE_AT_WORST if it stopped there, SCORE_CHANGED otherwise. Unlike
+    //          changeScoreBy this never throws, so reaching a threshold costs no more than any other answer.
+    public int changeScoreSaturating(int n) {
+        long target = (long) getScore() + n;
+        int outcome = SCORE_CHANGED;
+        if (target > BEST_THRESHOLD) {
+            target = BEST_THRESHOLD;
+            outcome = SCORE_AT_BEST;
+        } else if (target < WORST_THRESHOLD) {
+            target = WORST_THRESHOLD;
+            outcome = SCORE_AT_WORST;
+        }
+        if (target != getScore()) {
+            setScore((int) target);
+        }
+        return outcome;
+    }
+
+    // REQUIRES: WORST_THRESHOLD <= score <= BEST_THRESHOLD
+    // MODIFIES: this, every CardList holding this card
+    // EFFECTS: sets the score of the card, counting it as a change, and tells the lists holding it
+    void setScore(int score) {
+        int oldScore = getScore();
+        storeScore(score);
+        if (this.owner != null) {
+            this.owner.scoreChanged(oldScore, score);
         }
+        if (this.otherOwners != null) {
+            for (CardList list : this.otherOwners) {
+                list.scoreChanged(oldScore, score);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores the new score of the card
+    void storeScore(int score) {
+        this.score = score;
+    }
+
+    // MODIFIES: this, every CardList holding this card
+    // EFFECTS: sets the schedule of the card, counting it as a change, and tells the lists holding it
+    void setSchedule(Schedule schedule) {
+        storeSchedule(schedule);
+        if (this.owner != null) {
+            this.owner.scheduleChanged();
+        }
+        if (this.otherOwners != null) {
+            for (CardList list : this.otherOwners) {
+                list.scheduleChanged();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores the new schedule of the card
+    void storeSchedule(Schedule schedule) {
+        this.schedule = schedule;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that list holds this card (once more, if it already held it)
+    void addOwner(CardList list) {
+        if (this.owner == null) {
+            this.owner = list;
+        } else {
+            if (this.otherOwners == null) {
+                this.otherOwners = new ArrayList<>(1);
+            }
+            this.otherOwners.add(list);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that list holds this card once less
+    void removeOwner(CardList list) {
+        if (this.owner == list) {
+            this.owner = this.otherOwners == null ? null : this.otherOwners.remove(this.otherOwners.size() - 1);
+        } else if (this.otherOwners != null) {
+            for (int i = 0; i < this.otherOwners.size(); i++) {
+                if (this.otherOwners.get(i) == list) {
+                    this.otherOwners.remove(i);
+                    break;
+                }
+            }
+        }
+        if (this.otherOwners != null && this.otherOwners.isEmpty()) {
+            this.otherOwners = null;
+        }
+    }
+
+    // EFFECTS: returns score as it counts towards mastery (negative scores count as 0)
+    static int masteryPoints(int score) {
+        return Math.max(score, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the contents of the card without counting it as a change (see CardView.detach)
+    void assign(String front, String back, int score, Schedule schedule) {
+        this.front = front;
+        this.back = back;
+        this.score = score;
+        this.schedule = schedule;
+    }
+
+    // EFFECTS: returns CardReport.VALID if a card with the given front, back and score can be created, or the reason
+    //          it cannot (CardReport.EMPTY_SIDE or CardReport.SCORE_OUT_OF_RANGE)
+    static int validate(String front, String back, int score) {
+        if (front == null || back == null || front.isEmpty() || back.isEmpty()) {
+            return CardReport.EMPTY_SIDE;
+        } else if (score < WORST_THRESHOLD || score > BEST_THRESHOLD) {
+            return CardReport.SCORE_OUT_OF_RANGE;
+        }
+        return CardReport.VALID;
     }
 
     @Override
     // EFFECTS: converts information on card to JSONObject
     public JSONObject toJson() {
+        return cardJson(getFront(), getBack(), getScore(), getSchedule(), 0);
+    }
+
+    // EFFECTS: returns a card with the given front, back, score, schedule and id (within its deck) as a JSONObject.
+    //          The schedule of a card that has never been reviewed is left out, so such a card is written as before
+    //          schedules existed, and so is an id of 0 (for a card written on its own, outside of a deck).
+    static JSONObject cardJson(String front, String back, int score, Schedule schedule, int id) {
         JSONObject json = new JSONObject();
-        json.put("front", this.front);
-        json.put("back", this.back);
-        json.put("score", this.score);
+        if (id != 0) {
+            json.put("id", id);
+        }
+        json.put("front", front);
+        json.put("back", back);
+        json.put("score", score);
+        if (!schedule.isNew()) {
+            json.put("repetitions", schedule.getRepetitions());
+            json.put("interval", schedule.getInterval());
+            json.put("ease", schedule.getEase());
+            json.put("due", schedule.getDue());
+        }
         return json;
     }
 
+    @Override
+    // EFFECTS: writes information on card to the JSON token stream
+    public void writeJson(JsonStreamWriter out) throws IOException {
+        writeCardJson(out, getFront(), getBack(), getScore(), getSchedule(), 0);
+    }
+
+    // EFFECTS: writes a card with the given front, back, score, schedule and id to the JSON token stream (leaving out
+    //          the schedule of a card that has never been reviewed and an id of 0, as cardJson does)
+    static void writeCardJson(JsonStreamWriter out, String front, String back, int score, Schedule schedule, int id)
+            throws IOException {
+        out.beginObject();
+        if (id != 0) {
+            out.name("id");
+            out.value(id);
+        }
+        out.name("front");
+        out.value(front);
+        out.name("back");
+        out.value(back);
+        out.name("score");
+        out.value(score);
+        if (!schedule.isNew()) {
+            out.name("repetitions");
+            out.value(schedule.getRepetitions());
+            out.name("interval");
+            out.value(schedule.getInterval());
+            out.name("ease");
+            out.value(schedule.getEase());
+            out.name("due");
+            out.value(schedule.getDue());
+        }
+        out.endObject();
+    }
+
     @Override
     // EFFECTS: gives the card a "name" for JComboBox
     public String toString() {
@@ -0,0 +1,79 @@
+package model;
+
+import java.io.IOException;
+
+/* A place in a listing of the cards of a deck (see Deck.listing), from which the listing goes on one page at a time,
+   optionally filtered to the cards with some text on them. The deck should not change while it is in use. */
+public class CardCursor {
+    private final Deck deck;
+    private final String filter;
+    private int position;
+    private int numListed;
+
+    // EFFECTS: constructs a cursor at the start of a listing of the cards of deck with filter (with leading and
+    //          trailing whitespace removed) on their front or back; an empty or null filter lists every card
+    CardCursor(Deck deck, String filter) {
+        this.deck = deck;
+        this.filter = filter == null ? "" : filter.trim();
+        this.position = 1;
+    }
+
+    // EFFECTS: returns the text the listed cards have on them, or an empty string if every card is listed
+    public String getFilter() {
+        return this.filter;
+    }
+
+    // EFFECTS: returns the number of cards listed so far
+    public int getNumListed() {
+        return this.numListed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if there are cards left to list
+    public boolean hasNext() {
+        while (this.position <= this.deck.getNumOfCards() && !matches(this.position)) {
+            this.position++;
+        }
+        return this.position <= this.deck.getNumOfCards();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns n for the Nth card of the deck, the next card in the listing, or 0 if every card has been
+    //          listed
+    public int next() {
+        if (!hasNext()) {
+            return 0;
+        }
+        this.numListed++;
+        return this.position++;
+    }
+
+    // MODIFIES: this, out
+    // EFFECTS: writes a line "n: front" to out for each of the next count cards in the listing (fewer if the listing
+    //          ends first), and returns the number of cards written. Throws IOException if out does.
+    public int writePage(Appendable out, int count) throws IOException {
+        int written = 0;
+        while (written < count && hasNext()) {
+            int n = next();
+            out.append(Integer.toString(n)).append(": ").append(this.deck.getNthFront(n)).append('\n');
+            written++;
+        }
+        return written;
+    }
+
+    // EFFECTS: returns true if the Nth card of the deck has the filter on its front or back
+    private boolean matches(int n) {
+        return this.filter.isEmpty() || containsIgnoreCase(this.deck.getNthFront(n), this.filter)
+                || containsIgnoreCase(this.deck.getNthBack(n), this.filter);
+    }
+
+    // EFFECTS: returns true if part is somewhere in text, ignoring case, without making lower case copies of either
+    private static boolean containsIgnoreCase(String text, String part) {
+        for (int i = 0; i + part.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
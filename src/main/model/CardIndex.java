@@ -0,0 +1,125 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/* Finds the cards of a deck by id, by front or by Card object without scanning the deck. The deck keeps it up to
+   date as it adds and removes cards itself, and builds it again after any other change (see isCurrent). */
+class CardIndex {
+    private static final int NONE = -1;
+
+    private final CardStorage cards;
+    private final Map<String, Integer> idsByFront;
+    private final Map<Card, Integer> idsByCard;
+    private int[] positions;
+    private boolean sharedFronts;
+    private int modifications;
+
+    // EFFECTS: constructs an index of the cards currently in cards, in O(n)
+    CardIndex(CardStorage cards) {
+        this.cards = cards;
+        this.idsByFront = new HashMap<>(Math.max(16, cards.size() * 4 / 3 + 1));
+        this.idsByCard = cards instanceof CompactCardList ? null : new IdentityHashMap<>(cards.size());
+        this.positions = new int[cards.getNextId()];
+        Arrays.fill(this.positions, NONE);
+        for (int i = 0; i < cards.size(); i++) {
+            put(i);
+        }
+        this.modifications = cards.getModifications();
+    }
+
+    // EFFECTS: returns true if the index still matches cards, the list it was built from
+    boolean isCurrent(CardStorage cards) {
+        return this.cards == cards && this.cards.getModifications() == this.modifications;
+    }
+
+    // EFFECTS: returns the position of the card with the given id, or -1 if no card has it
+    int positionOfId(int id) {
+        return id >= 0 && id < this.positions.length ? this.positions[id] : NONE;
+    }
+
+    // EFFECTS: returns the position of a card whose front matches front once both are normalized (the first such
+    //          card added, if there are several), or -1 if there is none
+    int positionOfFront(String front) {
+        Integer id = this.idsByFront.get(normalize(front));
+        return id == null ? NONE : this.positions[id];
+    }
+
+    // EFFECTS: returns the position of c in the list (the first, if it is in the list more than once), or -1
+    int positionOf(Card c) {
+        if (this.idsByCard == null) {
+            return this.cards.indexOf(c);
+        }
+        Integer id = this.idsByCard.get(c);
+        return id == null ? NONE : this.positions[id];
+    }
+
+    // REQUIRES: isCurrent(cards) apart from a card having just been added to the end of the list
+    // MODIFIES: this
+    // EFFECTS: adds the new card to the index
+    void added() {
+        put(this.cards.size() - 1);
+        this.modifications = this.cards.getModifications();
+    }
+
+    // REQUIRES: isCurrent(cards) apart from the card removed (with the given id and front) having just been taken
+    //           out of the list at index
+    // MODIFIES: this
+    // EFFECTS: removes the card from the index and moves the cards after it back one position
+    void removed(int index, int id, String front, Card removed) {
+        if (this.sharedFronts) {
+            return;
+        }
+        this.positions[id] = NONE;
+        this.idsByFront.remove(normalize(front));
+        if (this.idsByCard != null) {
+            this.idsByCard.remove(removed);
+        }
+        for (int i = index; i < this.cards.size(); i++) {
+            this.positions[this.cards.getId(i)] = i;
+        }
+        this.modifications = this.cards.getModifications();
+    }
+
+    // EFFECTS: returns front with leading and trailing whitespace removed, every run of whitespace inside it turned
+    //          into a single space, and in lower case, so that fronts that differ only in those ways are found as
+    //          the same front
+    static String normalize(String front) {
+        StringBuilder normalized = new StringBuilder(front.length());
+        boolean space = false;
+        for (int i = 0; i < front.length(); i++) {
+            char c = front.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the card at index to the index
+    private void put(int index) {
+        int id = this.cards.getId(index);
+        if (id >= this.positions.length) {
+            int length = this.positions.length;
+            this.positions = Arrays.copyOf(this.positions, Math.max(id + 1, length + (length >> 1)));
+            Arrays.fill(this.positions, length, this.positions.length, NONE);
+        }
+        this.positions[id] = index;
+        if (this.idsByFront.putIfAbsent(normalize(this.cards.getFront(index)), id) != null) {
+            this.sharedFronts = true;
+        }
+        if (this.idsByCard != null) {
+            this.idsByCard.putIfAbsent(this.cards.get(index), id);
+        }
+    }
+}
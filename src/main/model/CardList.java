@@ -0,0 +1,233 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/* The list of cards held by a deck, as a Card object per card (see CardStorage). Keeps the deck's score histogram
+   up to date as cards come and go, and the ids of its cards by position. */
+class CardList extends AbstractList<Card> implements CardStorage, RandomAccess {
+    private final ArrayList<Card> elements;
+    private int[] ids;
+    private int nextId = 1;
+    private int replacements;
+    private final ScoreHistogram histogram = new ScoreHistogram();
+    private long scoreChanges;
+    private long scheduleChanges;
+    private FrozenCardList frozen;
+
+    // EFFECTS: constructs an empty list
+    CardList() {
+        this.elements = new ArrayList<>();
+        this.ids = new int[10];
+    }
+
+    // EFFECTS: constructs a list holding the given cards, in order
+    CardList(Collection<? extends Card> cards) {
+        this.elements = new ArrayList<>(cards.size());
+        this.ids = new int[Math.max(cards.size(), 10)];
+        addAll(cards);
+    }
+
+    @Override
+    // EFFECTS: returns the number of cards in the list
+    public int size() {
+        return this.elements.size();
+    }
+
+    @Override
+    // EFFECTS: returns the card at index
+    public Card get(int index) {
+        return this.elements.get(index);
+    }
+
+    @Override
+    // MODIFIES: this, c
+    // EFFECTS: inserts c at index, giving it the next unused id
+    public void add(int index, Card c) {
+        insert(index, c, this.nextId);
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: removes the card at index and returns it
+    public Card remove(int index) {
+        Card removed = this.elements.remove(index);
+        System.arraycopy(this.ids, index + 1, this.ids, index, this.elements.size() - index);
+        removed.removeOwner(this);
+        this.histogram.remove(removed.getScore());
+        this.modCount++;
+        return removed;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: replaces the card at index with c (giving it the next unused id) and returns the card it replaced
+    public Card set(int index, Card c) {
+        Card replaced = this.elements.set(index, c);
+        this.ids[index] = this.nextId++;
+        replaced.removeOwner(this);
+        c.addOwner(this);
+        this.histogram.move(replaced.getScore(), c.getScore());
+        this.replacements++;
+        return replaced;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: removes the cards from index from up to (but not including) index to
+    protected void removeRange(int from, int to) {
+        for (int i = from; i < to; i++) {
+            Card removed = this.elements.get(i);
+            removed.removeOwner(this);
+            this.histogram.remove(removed.getScore());
+        }
+        System.arraycopy(this.ids, to, this.ids, from, this.elements.size() - to);
+        this.elements.subList(from, to).clear();
+        this.modCount++;
+    }
+
+    // REQUIRES: a card in this list has just changed its score from oldScore to newScore
+    // MODIFIES: this
+    // EFFECTS: updates the score histogram for the change
+    void scoreChanged(int oldScore, int newScore) {
+        this.histogram.move(oldScore, newScore);
+        this.scoreChanges++;
+    }
+
+    // REQUIRES: a card in this list has just changed its schedule
+    // MODIFIES: this
+    // EFFECTS: records the change
+    void scheduleChanged() {
+        this.scoreChanges++;
+        this.scheduleChanges++;
+    }
+
+    @Override
+    // EFFECTS: returns a number that changes every time the list is changed
+    public int getModifications() {
+        return this.modCount + this.replacements;
+    }
+
+    @Override
+    // EFFECTS: returns a number that grows every time the score or schedule of a card in the list changes
+    public long getCardVersions() {
+        return this.scoreChanges;
+    }
+
+    @Override
+    // EFFECTS: returns the sum of the scores of the cards, counting negative scores as 0
+    public int getScoreSum() {
+        return this.histogram.getScoreSum();
+    }
+
+    @Override
+    // EFFECTS: returns the number of cards with the given score
+    public int getScoreCount(int score) {
+        return this.histogram.count(score);
+    }
+
+    @Override
+    // EFFECTS: returns a number that grows every time the schedule of a card in the list changes
+    public long getScheduleChanges() {
+        return this.scheduleChanges;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: makes room for at least minCapacity cards without growing again
+    public void ensureCapacity(int minCapacity) {
+        this.elements.ensureCapacity(minCapacity);
+        if (minCapacity > this.ids.length) {
+            this.ids = Arrays.copyOf(this.ids, Math.max(minCapacity, this.ids.length + (this.ids.length >> 1)));
+        }
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: adds a new card with the given front, back, score, schedule and id to the end of the list
+    public void append(String front, String back, int score, Schedule schedule, int id) {
+        Card c = new Card(front, back, score);
+        c.storeSchedule(schedule);
+        insert(size(), c, id == NEW_ID ? this.nextId : id);
+    }
+
+    @Override
+    // EFFECTS: returns the id of the card at index
+    public int getId(int index) {
+        return this.ids[index];
+    }
+
+    @Override
+    // EFFECTS: returns the id the next card added will be given
+    public int getNextId() {
+        return this.nextId;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: makes sure no card added from now on is given an id lower than nextId
+    public void reserveIds(int nextId) {
+        this.nextId = Math.max(this.nextId, nextId);
+    }
+
+    @Override
+    // EFFECTS: returns the front of the card at index
+    public String getFront(int index) {
+        return get(index).getFront();
+    }
+
+    @Override
+    // EFFECTS: returns the back of the card at index
+    public String getBack(int index) {
+        return get(index).getBack();
+    }
+
+    @Override
+    // EFFECTS: returns the score of the card at index
+    public int getScore(int index) {
+        return get(index).getScore();
+    }
+
+    @Override
+    // EFFECTS: returns the schedule of the card at index
+    public Schedule getSchedule(int index) {
+        return get(index).getSchedule();
+    }
+
+    @Override
+    // EFFECTS: returns a list holding a copy of each card, with the same ids
+    public CardStorage copy() {
+        CardList copy = new CardList();
+        copy.ensureCapacity(size());
+        for (int i = 0; i < size(); i++) {
+            copy.insert(i, new Card(get(i)), this.ids[i]);
+        }
+        copy.reserveIds(this.nextId);
+        return copy;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: returns an unchangeable copy of the contents of these cards, sharing every part of the last one returned
+    //          whose cards have not changed since
+    public CardStorage snapshot() {
+        this.frozen = new FrozenCardList(this, this.frozen);
+        return this.frozen;
+    }
+
+    // MODIFIES: this, c
+    // EFFECTS: inserts c at index with the given id
+    private void insert(int index, Card c, int id) {
+        this.elements.add(index, c);
+        ensureCapacity(this.elements.size());
+        System.arraycopy(this.ids, index, this.ids, index + 1, this.elements.size() - 1 - index);
+        this.ids[index] = id;
+        this.nextId = Math.max(this.nextId, id + 1);
+        c.addOwner(this);
+        this.histogram.add(c.getScore());
+        this.modCount++;
+    }
+}
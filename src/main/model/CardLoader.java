@@ -0,0 +1,14 @@
+package model;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+
+import java.io.IOException;
+import java.util.List;
+
+/* Reads the cards of a deck that was loaded from a store's index without its cards */
+public interface CardLoader {
+    // EFFECTS: reads the cards of the deck from the store and returns them in order;
+    // throws IOException if an error occurs reading data from the store
+    List<Card> loadCards() throws IOException, ExceedThresholdException, InvalidCardException;
+}
@@ -0,0 +1,79 @@
+package model;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+
+import java.util.Arrays;
+
+/* The outcome of adding a batch of cards to a deck with Deck.addCards: how many of them were added, and which were
+   skipped and why. Nothing is allocated for a batch in which every card is valid. */
+public class CardReport {
+    public static final int VALID = 0;
+    public static final int EMPTY_SIDE = 1;
+    public static final int SCORE_OUT_OF_RANGE = 2;
+
+    private final int size;
+    private int numRejected;
+    private int[] rejected;
+    private int[] reasons;
+
+    // EFFECTS: constructs a report for a batch of size cards, none of them rejected yet
+    CardReport(int size) {
+        this.size = size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the card at index in the batch was skipped for the given reason
+    void reject(int index, int reason) {
+        if (this.rejected == null) {
+            this.rejected = new int[4];
+            this.reasons = new int[4];
+        } else if (this.numRejected == this.rejected.length) {
+            this.rejected = Arrays.copyOf(this.rejected, this.numRejected * 2);
+            this.reasons = Arrays.copyOf(this.reasons, this.numRejected * 2);
+        }
+        this.rejected[this.numRejected] = index;
+        this.reasons[this.numRejected] = reason;
+        this.numRejected++;
+    }
+
+    // EFFECTS: returns true if every card in the batch was added
+    public boolean isValid() {
+        return this.numRejected == 0;
+    }
+
+    // EFFECTS: returns the number of cards in the batch that were added
+    public int getNumAdded() {
+        return this.size - this.numRejected;
+    }
+
+    // EFFECTS: returns the number of cards in the batch that were skipped
+    public int getNumRejected() {
+        return this.numRejected;
+    }
+
+    // REQUIRES: 0 <= n < getNumRejected()
+    // EFFECTS: returns the index in the batch of the nth skipped card
+    public int getRejectedIndex(int n) {
+        return this.rejected[n];
+    }
+
+    // REQUIRES: 0 <= n < getNumRejected()
+    // EFFECTS: returns why the nth skipped card was skipped (EMPTY_SIDE or SCORE_OUT_OF_RANGE)
+    public int getRejectedReason(int n) {
+        return this.reasons[n];
+    }
+
+    // EFFECTS: does nothing if every card was added; otherwise throws the exception that creating the first skipped
+    //          card one at a time would have thrown (InvalidCardException for an empty side, ExceedThresholdException
+    //          for a score out of range)
+    public void throwIfRejected() throws ExceedThresholdException, InvalidCardException {
+        if (this.numRejected == 0) {
+            return;
+        } else if (this.reasons[0] == EMPTY_SIDE) {
+            throw new InvalidCardException();
+        } else {
+            throw new ExceedThresholdException();
+        }
+    }
+}
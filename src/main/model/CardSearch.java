@@ -0,0 +1,162 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/* One search for cards across one or more decks, keeping the best limit hits. A card matches if one of the words on
+   it starts with each term of the query (see TextIndex); the rarest term is looked up first. */
+class CardSearch {
+    private static final int MERGE_RATIO = 16;
+
+    private final String[] terms;
+    private final int limit;
+    private final PriorityQueue<SearchHit> best;
+    private int numDecks;
+
+    // REQUIRES: limit > 0
+    // EFFECTS: constructs a search for query that keeps the best limit hits
+    CardSearch(String query, int limit) {
+        this.terms = TextIndex.tokenize(query).toArray(new String[0]);
+        this.limit = limit;
+        this.best = new PriorityQueue<>(limit + 1, (a, b) -> b.compareRank(a));
+    }
+
+    // MODIFIES: this, deck
+    // EFFECTS: searches the cards of deck (reading them and building its indexes first if needed), keeping any hits
+    //          that rank among the best found so far
+    void search(Deck deck) {
+        int order = this.numDecks++;
+        TextIndex text = this.terms.length == 0 ? null : deck.textIndex();
+        int[] counts = countMatches(text);
+        int rarest = rarestTerm(counts);
+        if (rarest < 0) {
+            return;
+        }
+        boolean[] unmerged = new boolean[this.terms.length];
+        for (long match : mergeTerms(text, counts, rarest, unmerged)) {
+            int id = (int) (match >>> TextIndex.SCORE_BITS);
+            int n = deck.findId(id);
+            int score = n == 0 ? -1 : scoreUnmergedTerms(deck, n, unmerged);
+            if (score >= 0) {
+                offer(deck, id, n, score + (int) (match & TextIndex.MAX_SCORE), order);
+            }
+        }
+    }
+
+    // EFFECTS: returns the hits kept, best first
+    List<SearchHit> getHits() {
+        List<SearchHit> hits = new ArrayList<>(this.best);
+        hits.sort(SearchHit::compareRank);
+        return Collections.unmodifiableList(hits);
+    }
+
+    // EFFECTS: returns the number of cards listed under each term in text (none if text is null)
+    private int[] countMatches(TextIndex text) {
+        int[] counts = new int[text == null ? 0 : this.terms.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = text.countMatches(this.terms[i]);
+        }
+        return counts;
+    }
+
+    // EFFECTS: returns the position of the smallest of counts, or -1 if there are none or one of them is 0 (so no
+    //          card can match every term)
+    private static int rarestTerm(int[] counts) {
+        int rarest = -1;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                return -1;
+            }
+            if (rarest < 0 || counts[i] < counts[rarest]) {
+                rarest = i;
+            }
+        }
+        return rarest;
+    }
+
+    // MODIFIES: unmerged
+    // EFFECTS: returns the cards in text with a word starting with the rarest term, and with a word starting with
+    //          each term listed under at most MERGE_RATIO times as many cards as are left to match it, in order of id
+    //          along with the sum of their scores for those terms. Marks the other terms in unmerged.
+    private long[] mergeTerms(TextIndex text, int[] counts, int rarest, boolean[] unmerged) {
+        long[] found = text.matches(this.terms[rarest]);
+        for (int i = 0; i < this.terms.length; i++) {
+            if (i != rarest && counts[i] <= (long) found.length * MERGE_RATIO) {
+                found = intersect(found, text.matches(this.terms[i]));
+            } else if (i != rarest) {
+                unmerged[i] = true;
+            }
+        }
+        return found;
+    }
+
+    // EFFECTS: returns the cards in both a and b (both in order of id, as TextIndex.matches returns them), in order of
+    //          id, each with the sum of its scores in a and b
+    private static long[] intersect(long[] a, long[] b) {
+        long[] both = new long[Math.min(a.length, b.length)];
+        int count = 0;
+        int j = 0;
+        for (long match : a) {
+            long id = match >>> TextIndex.SCORE_BITS;
+            while (j < b.length && b[j] >>> TextIndex.SCORE_BITS < id) {
+                j++;
+            }
+            if (j < b.length && b[j] >>> TextIndex.SCORE_BITS == id) {
+                long score = (match & TextIndex.MAX_SCORE) + (b[j] & TextIndex.MAX_SCORE);
+                both[count++] = id << TextIndex.SCORE_BITS | Math.min(score, TextIndex.MAX_SCORE);
+            }
+        }
+        return Arrays.copyOf(both, count);
+    }
+
+    // EFFECTS: returns the sum of the scores of the Nth card of deck for every term marked in unmerged (0 if none
+    //          are), or -1 if the card does not match one of them
+    private int scoreUnmergedTerms(Deck deck, int n, boolean[] unmerged) {
+        List<String> front = null;
+        List<String> back = null;
+        int sum = 0;
+        for (int i = 0; i < this.terms.length; i++) {
+            if (unmerged[i]) {
+                if (front == null) {
+                    front = TextIndex.tokenize(deck.getNthFront(n));
+                    back = TextIndex.tokenize(deck.getNthBack(n));
+                }
+                int score = Math.max(scoreTerm(this.terms[i], front, TextIndex.FRONT),
+                        scoreTerm(this.terms[i], back, TextIndex.BACK));
+                if (score == 0) {
+                    return -1;
+                }
+                sum += score;
+            }
+        }
+        return sum;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: keeps a hit for the Nth card of deck if it ranks among the best limit hits found so far, without making
+    //          one for a card that does not
+    private void offer(Deck deck, int id, int n, int score, int deckOrder) {
+        if (this.best.size() == this.limit && this.best.peek().compareRank(score, deckOrder, n) < 0) {
+            return;
+        }
+        this.best.add(new SearchHit(deck, id, n, score, deckOrder));
+        if (this.best.size() > this.limit) {
+            this.best.poll();
+        }
+    }
+
+    // EFFECTS: returns the best score (see TextIndex.score) term gets from one of words, all of which are in the
+    //          given field of a card
+    private static int scoreTerm(String term, List<String> words, int field) {
+        int best = 0;
+        for (String word : words) {
+            if (word.startsWith(term)) {
+                best = Math.max(best, TextIndex.score(field, word.length() == term.length()));
+            }
+        }
+        return best;
+    }
+}
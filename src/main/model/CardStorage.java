@@ -0,0 +1,89 @@
+package model;
+
+import java.util.List;
+
+/* The list of cards held by a deck. Gives the contents of each card by position, counts every change made to it and
+   gives each card an id that is never reused. Implemented by CardList and CompactCardList. */
+interface CardStorage extends List<Card> {
+    // passed to append in place of an id to give the card the next unused one
+    int NEW_ID = 0;
+
+    // EFFECTS: returns a number that changes every time cards are added, removed or replaced
+    int getModifications();
+
+    // EFFECTS: returns a number that changes every time the score of a card in the list changes
+    long getCardVersions();
+
+    // EFFECTS: returns the sum of the scores of the cards, counting negative scores as 0, kept up to date as cards
+    //          are added, removed or change score, so that it takes constant time
+    int getScoreSum();
+
+    // EFFECTS: returns the number of cards with the given score, kept up to date like the score sum
+    int getScoreCount(int score);
+
+    // EFFECTS: returns a number that changes every time the schedule of a card in the list changes
+    long getScheduleChanges();
+
+    // MODIFIES: this
+    // EFFECTS: makes room for at least minCapacity cards without growing again
+    void ensureCapacity(int minCapacity);
+
+    // REQUIRES: Card.validate(front, back, score) == CardReport.VALID
+    // MODIFIES: this
+    // EFFECTS: adds a card with the given front, back and score, which has never been reviewed, to the end of the list
+    default void append(String front, String back, int score) {
+        append(front, back, score, Schedule.NEW);
+    }
+
+    // REQUIRES: Card.validate(front, back, score) == CardReport.VALID
+    // MODIFIES: this
+    // EFFECTS: adds a card with the given front, back, score and schedule to the end of the list
+    default void append(String front, String back, int score, Schedule schedule) {
+        append(front, back, score, schedule, NEW_ID);
+    }
+
+    // REQUIRES: Card.validate(front, back, score) == CardReport.VALID, and id is NEW_ID or an id no card in the list
+    //           has (e.g. one the card was saved with)
+    // MODIFIES: this
+    // EFFECTS: adds a card with the given front, back, score, schedule and id (or the next unused id, for NEW_ID) to
+    //          the end of the list
+    void append(String front, String back, int score, Schedule schedule, int id);
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the id of the card at index
+    int getId(int index);
+
+    // EFFECTS: returns the id the next card added to the list will be given; every id in use (or used before) is
+    //          lower
+    int getNextId();
+
+    // MODIFIES: this
+    // EFFECTS: makes sure no card added from now on is given an id lower than nextId (e.g. the id of a card that was
+    //          removed before the list was saved)
+    void reserveIds(int nextId);
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the front of the card at index
+    String getFront(int index);
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the back of the card at index
+    String getBack(int index);
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the score of the card at index
+    int getScore(int index);
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the schedule of the card at index
+    Schedule getSchedule(int index);
+
+    // EFFECTS: returns a list of the same kind holding copies of these cards, which later changes to this list (or
+    //          its cards) do not affect
+    CardStorage copy();
+
+    // MODIFIES: this
+    // EFFECTS: returns a read-only list holding the contents these cards have now, which later changes to this list
+    //          do not affect (see Deck.snapshot)
+    CardStorage snapshot();
+}
@@ -0,0 +1,86 @@
+package model;
+
+/* A card held in a CompactCardList, whose contents are read from and written to the list's arrays. Once removed from
+   the list it keeps a copy of its contents. */
+class CardView extends Card {
+    private CompactCardList owner;
+    private int index;
+
+    // EFFECTS: constructs a view of the card at index in owner
+    CardView(CompactCardList owner, int index) {
+        super(null, null, 0);
+        this.owner = owner;
+        this.index = index;
+    }
+
+    // EFFECTS: returns true if this is a view of a card still in list
+    boolean isViewOf(CompactCardList list) {
+        return this.owner == list;
+    }
+
+    // REQUIRES: isViewOf(some list)
+    // EFFECTS: returns the position of this card in its list
+    int getIndex() {
+        return this.index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that this card is now at index in its list
+    void moveTo(int index) {
+        this.index = index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the contents of this card out of its list, which no longer holds it
+    void detach() {
+        assign(this.owner.getFront(this.index), this.owner.getBack(this.index), this.owner.getScore(this.index),
+                this.owner.getSchedule(this.index));
+        this.owner = null;
+    }
+
+    @Override
+    // EFFECTS: Returns the score of the card
+    public int getScore() {
+        return this.owner == null ? super.getScore() : this.owner.getScore(this.index);
+    }
+
+    @Override
+    // EFFECTS: Returns the front of the card
+    public String getFront() {
+        return this.owner == null ? super.getFront() : this.owner.getFront(this.index);
+    }
+
+    @Override
+    // EFFECTS: Returns the back of the card
+    public String getBack() {
+        return this.owner == null ? super.getBack() : this.owner.getBack(this.index);
+    }
+
+    @Override
+    // EFFECTS: Returns when the card is next due for review
+    public Schedule getSchedule() {
+        return this.owner == null ? super.getSchedule() : this.owner.getSchedule(this.index);
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: stores the new score of the card in its list if it is still in one, or in this card otherwise
+    void storeScore(int score) {
+        if (this.owner != null) {
+            this.owner.setScore(this.index, score);
+        } else {
+            super.storeScore(score);
+        }
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: stores the new schedule of the card in its list if it is still in one, or in this card otherwise
+    void storeSchedule(Schedule schedule) {
+        if (this.owner != null) {
+            this.owner.setSchedule(this.index, schedule);
+        } else {
+            super.storeSchedule(schedule);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/* The list of cards held by a compactly stored deck (see Deck.compact), keeping the cards' contents in a few arrays
+   rather than as a Card object per card. get hands out views (see CardView) that read and write those arrays. */
+class CompactCardList extends AbstractList<Card> implements CardStorage, RandomAccess {
+    private byte[] text;
+    private int textSize;
+    private int[] ends;
+    private byte[] scores;
+    private int[] ids;
+    private int nextId = 1;
+    private Schedule[] schedules;
+    private int size;
+    private CardView[] views;
+    private int replacements;
+    private long scoreChanges;
+    private long scheduleChanges;
+    private ScoreHistogram histogram = new ScoreHistogram();
+    private int sharedCards;
+
+    // EFFECTS: constructs an empty list with room for capacity cards before it needs to grow
+    CompactCardList(int capacity) {
+        int initial = Math.max(capacity, 1);
+        this.text = new byte[initial * 16];
+        this.ends = new int[initial * 2];
+        this.scores = new byte[initial];
+        this.ids = new int[initial];
+    }
+
+    @Override
+    // EFFECTS: returns the number of cards in the list
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    // EFFECTS: returns the view of the card at index; throws IndexOutOfBoundsException if there is no such card
+    public Card get(int index) {
+        checkIndex(index, this.size);
+        if (this.views == null) {
+            this.views = new CardView[this.scores.length];
+        }
+        CardView view = this.views[index];
+        if (view == null) {
+            view = new CardView(this, index);
+            this.views[index] = view;
+        }
+        return view;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: inserts a card with the contents of c at index; throws IndexOutOfBoundsException if index is not
+    //          between 0 and size()
+    public void add(int index, Card c) {
+        checkIndex(index, this.size + 1);
+        insert(index, c.getFront(), c.getBack(), c.getScore(), c.getSchedule(), this.nextId);
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: removes the card at index and returns it (with a copy of its contents); throws
+    //          IndexOutOfBoundsException if there is no such card
+    public Card remove(int index) {
+        CardView removed = (CardView) get(index);
+        beforeWrite(index);
+        removed.detach();
+        this.histogram.remove(this.scores[index]);
+        int start = textStart(index);
+        int length = this.ends[2 * index + 1] - start;
+        moveText(start + length, -length);
+        shiftCards(index + 1, -1, -length);
+        this.size--;
+        this.views[this.size] = null;
+        if (this.schedules != null) {
+            this.schedules[this.size] = null;
+        }
+        this.modCount++;
+        return removed;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: replaces the card at index with one with the contents of c and returns the card it replaced (with a
+    //          copy of its contents); throws IndexOutOfBoundsException if there is no such card
+    public Card set(int index, Card c) {
+        Card replaced = remove(index);
+        insert(index, c.getFront(), c.getBack(), c.getScore(), c.getSchedule(), this.nextId);
+        this.modCount -= 2;
+        this.replacements++;
+        return replaced;
+    }
+
+    @Override
+    // EFFECTS: returns the position of o in the list (a view of this list knows its position), or -1
+    public int indexOf(Object o) {
+        if (o instanceof CardView && ((CardView) o).isViewOf(this)) {
+            return ((CardView) o).getIndex();
+        }
+        return -1;
+    }
+
+    @Override
+    // EFFECTS: returns the position of o in the list (a card appears at most once), or -1
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    // EFFECTS: returns a number that changes every time the list is changed
+    public int getModifications() {
+        return this.modCount + this.replacements;
+    }
+
+    @Override
+    // EFFECTS: returns a number that grows every time the score or schedule of a card in the list changes
+    public long getCardVersions() {
+        return this.scoreChanges;
+    }
+
+    @Override
+    // EFFECTS: returns the sum of the scores of the cards, counting negative scores as 0
+    public int getScoreSum() {
+        return this.histogram.getScoreSum();
+    }
+
+    @Override
+    // EFFECTS: returns the number of cards with the given score
+    public int getScoreCount(int score) {
+        return this.histogram.count(score);
+    }
+
+    @Override
+    // EFFECTS: returns a number that grows every time the schedule of a card in the list changes
+    public long getScheduleChanges() {
+        return this.scheduleChanges;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: makes room for at least minCapacity cards without growing the card arrays again (growing them by
+    //          at least half each time, so that adding cards one at a time takes amortised constant time)
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > this.scores.length) {
+            int capacity = Math.max(minCapacity, this.scores.length + (this.scores.length >> 1));
+            this.scores = Arrays.copyOf(this.scores, capacity);
+            this.ends = Arrays.copyOf(this.ends, 2 * capacity);
+            this.ids = Arrays.copyOf(this.ids, capacity);
+            if (this.views != null) {
+                this.views = Arrays.copyOf(this.views, capacity);
+            }
+            if (this.schedules != null) {
+                this.schedules = Arrays.copyOf(this.schedules, capacity);
+            }
+        }
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: adds a card with the given front, back, score, schedule and id to the end of the list
+    public void append(String front, String back, int score, Schedule schedule, int id) {
+        insert(this.size, front, back, score, schedule, id == NEW_ID ? this.nextId : id);
+    }
+
+    @Override
+    // EFFECTS: returns the id of the card at index
+    public int getId(int index) {
+        return this.ids[index];
+    }
+
+    @Override
+    // EFFECTS: returns the id the next card added will be given
+    public int getNextId() {
+        return this.nextId;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: makes sure no card added from now on is given an id lower than nextId
+    public void reserveIds(int nextId) {
+        this.nextId = Math.max(this.nextId, nextId);
+    }
+
+    @Override
+    // EFFECTS: returns the front of the card at index
+    public String getFront(int index) {
+        int start = textStart(index);
+        return new String(this.text, start, this.ends[2 * index] - start, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    // EFFECTS: returns the back of the card at index
+    public String getBack(int index) {
+        int start = this.ends[2 * index];
+        return new String(this.text, start, this.ends[2 * index + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    // EFFECTS: returns the score of the card at index
+    public int getScore(int index) {
+        return this.scores[index];
+    }
+
+    @Override
+    // EFFECTS: returns the schedule of the card at index
+    public Schedule getSchedule(int index) {
+        Schedule schedule = this.schedules == null ? null : this.schedules[index];
+        return schedule == null ? Schedule.NEW : schedule;
+    }
+
+    // REQUIRES: 0 <= index < size(), WORST_THRESHOLD <= score <= BEST_THRESHOLD
+    // MODIFIES: this
+    // EFFECTS: sets the score of the card at index
+    void setScore(int index, int score) {
+        beforeWrite(index);
+        this.histogram.move(this.scores[index], score);
+        this.scores[index] = (byte) score;
+        this.scoreChanges++;
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // MODIFIES: this
+    // EFFECTS: sets the schedule of the card at index
+    void setSchedule(int index, Schedule schedule) {
+        beforeWrite(index);
+        storeSchedule(index, schedule);
+        this.scoreChanges++;
+        this.scheduleChanges++;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: returns a list holding the contents of these cards (without any of their views), which shares the
+    //          arrays holding them with this list until either list changes one of the cards
+    public CardStorage copy() {
+        CompactCardList copy = new CompactCardList(0);
+        copy.text = this.text;
+        copy.textSize = this.textSize;
+        copy.ends = this.ends;
+        copy.scores = this.scores;
+        copy.ids = this.ids;
+        copy.nextId = this.nextId;
+        copy.schedules = this.schedules;
+        copy.size = this.size;
+        copy.histogram = new ScoreHistogram(this.histogram);
+        copy.sharedCards = Integer.MAX_VALUE;
+        this.sharedCards = this.size;
+        return copy;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: returns a copy of these cards (see copy), which takes constant time and memory until this list next
+    //          changes one of the cards in it
+    public CardStorage snapshot() {
+        return copy();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: inserts a card with the given contents and id at index, moving the cards after it along
+    private void insert(int index, String front, String back, int score, Schedule schedule, int id) {
+        beforeWrite(index);
+        byte[] frontBytes = front.getBytes(StandardCharsets.UTF_8);
+        byte[] backBytes = back.getBytes(StandardCharsets.UTF_8);
+        int length = frontBytes.length + backBytes.length;
+        ensureCapacity(this.size + 1);
+        int start = textStart(index);
+        moveText(start, length);
+        shiftCards(index, 1, length);
+        System.arraycopy(frontBytes, 0, this.text, start, frontBytes.length);
+        System.arraycopy(backBytes, 0, this.text, start + frontBytes.length, backBytes.length);
+        this.ends[2 * index] = start + frontBytes.length;
+        this.ends[2 * index + 1] = start + length;
+        this.scores[index] = (byte) score;
+        this.ids[index] = id;
+        this.nextId = Math.max(this.nextId, id + 1);
+        storeSchedule(index, schedule);
+        this.histogram.add(score);
+        this.size++;
+        this.modCount++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the text from offset to the end by shift bytes (growing the text array if needed)
+    private void moveText(int offset, int shift) {
+        if (this.textSize + shift > this.text.length) {
+            int capacity = Math.max(this.text.length + (this.text.length >> 1), this.textSize + shift);
+            this.text = Arrays.copyOf(this.text, capacity);
+        }
+        System.arraycopy(this.text, offset, this.text, offset + shift, this.textSize - offset);
+        this.textSize += shift;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the cards from index to the end by shift positions (1 to make room for a card at index, -1 to
+    //          close the gap left by the card before index), along with their views, and moves their text offsets by
+    //          textShift bytes
+    private void shiftCards(int index, int shift, int textShift) {
+        int count = this.size - index;
+        System.arraycopy(this.ends, 2 * index, this.ends, 2 * (index + shift), 2 * count);
+        System.arraycopy(this.scores, index, this.scores, index + shift, count);
+        System.arraycopy(this.ids, index, this.ids, index + shift, count);
+        if (this.schedules != null) {
+            System.arraycopy(this.schedules, index, this.schedules, index + shift, count);
+        }
+        for (int i = 2 * (index + shift); i < 2 * (index + shift + count); i++) {
+            this.ends[i] += textShift;
+        }
+        if (this.views != null) {
+            System.arraycopy(this.views, index, this.views, index + shift, count);
+            for (int i = index + shift; i < index + shift + count; i++) {
+                if (this.views[i] != null) {
+                    this.views[i].moveTo(i);
+                }
+            }
+            if (shift > 0) {
+                this.views[index] = null;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores the schedule of the card at index, making the schedule array the first time a card has one
+    //          other than Schedule.NEW
+    private void storeSchedule(int index, Schedule schedule) {
+        if (this.schedules == null && !schedule.isNew()) {
+            this.schedules = new Schedule[this.scores.length];
+        }
+        if (this.schedules != null) {
+            this.schedules[index] = schedule.isNew() ? null : schedule;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the arrays for this list alone if changing the card at index (or inserting one there) would
+    //          change what a copy sharing them sees
+    private void beforeWrite(int index) {
+        if (index < this.sharedCards) {
+            this.text = this.text.clone();
+            this.ends = this.ends.clone();
+            this.scores = this.scores.clone();
+            this.ids = this.ids.clone();
+            if (this.schedules != null) {
+                this.schedules = this.schedules.clone();
+            }
+            this.sharedCards = 0;
+        }
+    }
+
+    // EFFECTS: returns the offset of the text of the card at index (where the card before it ends)
+    private int textStart(int index) {
+        return index == 0 ? 0 : this.ends[2 * index - 1];
+    }
+
+    // EFFECTS: throws IndexOutOfBoundsException unless 0 <= index < limit
+    private static void checkIndex(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* A deck that several threads can review and edit at once. Its cards are split by id across a number of stripes,
+   each an ordinary Deck guarded by its own lock, so threads working on different stripes never wait for each other. */
+public class ConcurrentDeck {
+    public static final int NO_CARD = -1;
+
+    private final String name;
+    private final Deck[] stripes;
+    private final AtomicInteger nextStripe;
+    private final boolean compact;
+
+    // REQUIRES: numStripes > 0
+    // EFFECTS: constructs a concurrent deck holding copies of the cards of deck, with the same name and ids, split
+    //          across numStripes stripes; throws DeckLoadException if the cards cannot be read
+    public ConcurrentDeck(Deck deck, int numStripes) {
+        this.name = deck.getName();
+        this.stripes = new Deck[numStripes];
+        this.compact = deck.isCompact();
+        int[] counts = new int[numStripes];
+        for (int n = 1; n <= deck.getNumOfCards(); n++) {
+            counts[stripeIndex(deck.getNthId(n))]++;
+        }
+        Columns[] columns = new Columns[numStripes];
+        for (int s = 0; s < numStripes; s++) {
+            columns[s] = new Columns(counts[s]);
+        }
+        for (int n = 1; n <= deck.getNumOfCards(); n++) {
+            columns[stripeIndex(deck.getNthId(n))].add(deck, n);
+        }
+        for (int s = 0; s < numStripes; s++) {
+            this.stripes[s] = newDeck(columns[s], deck.getNextId());
+        }
+        this.nextStripe = new AtomicInteger(Math.floorMod(deck.getNextId() - 1, numStripes));
+    }
+
+    // EFFECTS: returns the name of the deck
+    public String getName() {
+        return this.name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a card with the contents of c (not c itself) to the deck and returns its id
+    public int addCard(Card c) {
+        int index = Math.floorMod(this.nextStripe.getAndIncrement(), this.stripes.length);
+        Deck stripe = this.stripes[index];
+        synchronized (stripe) {
+            int from = stripe.getNextId();
+            int id = from + Math.floorMod(index - (from - 1), this.stripes.length);
+            stripe.reserveIds(id);
+            stripe.addCard(new Card(c));
+            return id;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the card with the given id and returns true, or returns false if the deck has no such card
+    public boolean removeCard(int id) {
+        Deck stripe = stripeOf(id);
+        if (stripe == null) {
+            return false;
+        }
+        synchronized (stripe) {
+            int n = stripe.findId(id);
+            if (n != 0) {
+                stripe.removeNthCard(n);
+            }
+            return n != 0;
+        }
+    }
+
+    // EFFECTS: returns a copy of the card with the given id as it is now, or null if the deck has no such card
+    public Card getCard(int id) {
+        Deck stripe = stripeOf(id);
+        if (stripe == null) {
+            return null;
+        }
+        synchronized (stripe) {
+            int n = stripe.findId(id);
+            return n == 0 ? null : new Card(stripe.getNthCard(n));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: changes the score of the card with the given id by points (see Card.changeScoreSaturating) and
+    //          reschedules it as reviewed at time now, as one step; returns what happened to the score, or NO_CARD
+    public int review(int id, int points, boolean correct, long now) {
+        Deck stripe = stripeOf(id);
+        if (stripe == null) {
+            return NO_CARD;
+        }
+        synchronized (stripe) {
+            int n = stripe.findId(id);
+            if (n == 0) {
+                return NO_CARD;
+            }
+            int outcome = stripe.getNthCard(n).changeScoreSaturating(points);
+            stripe.reviewNthCard(n, correct, now);
+            return outcome;
+        }
+    }
+
+    // EFFECTS: returns the number of cards in the deck
+    public int getNumOfCards() {
+        int count = 0;
+        for (Deck stripe : this.stripes) {
+            synchronized (stripe) {
+                count += stripe.getNumOfCards();
+            }
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the sum of the scores of the cards in the deck, counting negative scores as 0
+    public int getScoreSum() {
+        int sum = 0;
+        for (Deck stripe : this.stripes) {
+            synchronized (stripe) {
+                sum += stripe.getScoreSum();
+            }
+        }
+        return sum;
+    }
+
+    // EFFECTS: returns the number of cards in the deck at each score, as Deck.getScoreHistogram does
+    public int[] getScoreHistogram() {
+        int[] histogram = new int[ScoreHistogram.NUM_SCORES];
+        for (Deck stripe : this.stripes) {
+            int[] counts;
+            synchronized (stripe) {
+                counts = stripe.getScoreHistogram();
+            }
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += counts[i];
+            }
+        }
+        return histogram;
+    }
+
+    // EFFECTS: returns the number of cards in the deck that are due for review at time now (in milliseconds since the
+    //          epoch)
+    public int getNumDue(long now) {
+        int count = 0;
+        for (Deck stripe : this.stripes) {
+            synchronized (stripe) {
+                count += stripe.getNumDue(now);
+            }
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the id of the card that has been due for review the longest at time now (in milliseconds since
+    //          the epoch), the lowest id first among cards due at the same time, or 0 if no card is due
+    public int getNextDue(long now) {
+        int bestId = 0;
+        long bestDue = 0;
+        for (Deck stripe : this.stripes) {
+            synchronized (stripe) {
+                int n = stripe.getNextDue(now);
+                if (n != 0) {
+                    long due = stripe.getNthSchedule(n).getDue();
+                    int id = stripe.getNthId(n);
+                    if (bestId == 0 || due < bestDue || due == bestDue && id < bestId) {
+                        bestId = id;
+                        bestDue = due;
+                    }
+                }
+            }
+        }
+        return bestId;
+    }
+
+    // EFFECTS: returns an ordinary deck holding the cards of this deck in order of id, with their ids, stored compactly
+    //          if this deck is. Each stripe is copied from a snapshot taken under its lock, so the stripes are only
+    //          locked one at a time and only for as long as taking a snapshot takes.
+    public Deck toDeck() {
+        Deck[] snapshots = new Deck[this.stripes.length];
+        int total = 0;
+        int nextId = 1;
+        for (int s = 0; s < this.stripes.length; s++) {
+            synchronized (this.stripes[s]) {
+                snapshots[s] = this.stripes[s].snapshot();
+                nextId = Math.max(nextId, this.stripes[s].getNextId());
+            }
+            total += snapshots[s].getNumOfCards();
+        }
+        Columns columns = new Columns(total);
+        for (Deck snapshot : snapshots) {
+            for (int n = 1; n <= snapshot.getNumOfCards(); n++) {
+                columns.add(snapshot, n);
+            }
+        }
+        return newDeck(columns.sortedById(), nextId);
+    }
+
+    // EFFECTS: returns the number of the stripe holding the card with the given id
+    private int stripeIndex(int id) {
+        return Math.floorMod(id - 1, this.stripes.length);
+    }
+
+    // EFFECTS: returns the stripe holding the card with the given id, or null if no card can have the id
+    private Deck stripeOf(int id) {
+        return id <= 0 ? null : this.stripes[stripeIndex(id)];
+    }
+
+    // EFFECTS: returns a new deck with this deck's name holding the cards in columns, in order and with their ids,
+    //          which gives out ids from nextId on and is stored compactly if this deck is
+    private Deck newDeck(Columns columns, int nextId) {
+        Deck deck = new Deck(this.name);
+        deck.addCards(columns.fronts, columns.backs, columns.scores, columns.schedules, columns.ids, columns.size);
+        deck.reserveIds(nextId);
+        if (this.compact) {
+            deck.compact();
+        }
+        return deck;
+    }
+
+    /* The contents and ids of cards gathered from one or more decks, to be added to a deck with one
+       Deck.addCards call. */
+    private static final class Columns {
+        final String[] fronts;
+        final String[] backs;
+        final int[] scores;
+        final Schedule[] schedules;
+        final int[] ids;
+        int size;
+
+        // EFFECTS: constructs empty columns with room for capacity cards
+        Columns(int capacity) {
+            this.fronts = new String[capacity];
+            this.backs = new String[capacity];
+            this.scores = new int[capacity];
+            this.schedules = new Schedule[capacity];
+            this.ids = new int[capacity];
+        }
+
+        // REQUIRES: size < the capacity the columns were made with
+        // MODIFIES: this
+        // EFFECTS: appends the contents and id of the Nth card of deck
+        void add(Deck deck, int n) {
+            this.fronts[this.size] = deck.getNthFront(n);
+            this.backs[this.size] = deck.getNthBack(n);
+            this.scores[this.size] = deck.getNthScore(n);
+            this.schedules[this.size] = deck.getNthSchedule(n);
+            this.ids[this.size] = deck.getNthId(n);
+            this.size++;
+        }
+
+        // EFFECTS: returns new columns holding these cards in order of id, by sorting (id, position) pairs packed
+        //          into longs rather than sorting objects
+        Columns sortedById() {
+            long[] keys = new long[this.size];
+            for (int i = 0; i < this.size; i++) {
+                keys[i] = (long) this.ids[i] << Integer.SIZE | i;
+            }
+            Arrays.sort(keys);
+            Columns sorted = new Columns(this.size);
+            for (long key : keys) {
+                int i = (int) key;
+                sorted.fronts[sorted.size] = this.fronts[i];
+                sorted.backs[sorted.size] = this.backs[i];
+                sorted.scores[sorted.size] = this.scores[i];
+                sorted.schedules[sorted.size] = this.schedules[i];
+                sorted.ids[sorted.size] = this.ids[i];
+                sorted.size++;
+            }
+            return sorted;
+        }
+    }
+}
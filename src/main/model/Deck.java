@@ -1,52 +1,386 @@
 package model;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
+import java.util.Random;
 
+import exceptions.DeckLoadException;
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import persistence.JsonStreamWriter;
 import persistence.Writable;
 
-/* A holder for a collection of flashcards (Card) to be stored and reviewed by the user.
+/* A holder for a collection of flashcards (Card) to be stored and reviewed by the user. A deck read from a store's
+   index reads its cards the first time they are needed, and remembers whether it has changed since it was saved.
    Method toJson & cardsToJson Made with reference: https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo*/
 public class Deck implements Writable {
     private String name;
-    private ArrayList<Card> cards;
+    private CardStorage cards;
+    private CardLoader loader;
+    private int indexedNumOfCards;
+    private int indexedScoreSum;
+    private boolean saved;
+    private long savedHash;
+    private int savedModifications;
+    private long savedCardVersions;
+    private Deck snapshot;
+    private boolean snapshotOfCards;
+    private int snapshotModifications;
+    private long snapshotCardVersions;
+    private volatile Long markedHash;
+    private ReviewQueue queue;
+    private CardIndex index;
+    private TextIndex text;
+    private String label;
+    private int labelNumOfCards;
+    private int labelScoreSum;
+    private ReviewHistory history;
     public static final String ERROR_MESSAGE = "You have no cards in this deck!";
 
     public Deck(String name) {
         this.name = name;
-        this.cards = new ArrayList<>();
+        this.cards = new CardList();
+    }
+
+    // REQUIRES: numOfCards and scoreSum match the cards that loader will return
+    // EFFECTS: constructs a deck whose cards are not read until they are first needed. Until then, the number of
+    //          cards and the mastery are answered from numOfCards and scoreSum (the sum of the non-negative scores).
+    public Deck(String name, int numOfCards, int scoreSum, CardLoader loader) {
+        this(name);
+        this.loader = loader;
+        this.indexedNumOfCards = numOfCards;
+        this.indexedScoreSum = scoreSum;
+    }
+
+    // EFFECTS: returns true if the cards of this deck have been read from the store
+    public boolean isLoaded() {
+        return this.loader == null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the cards of this deck from the store if they have not been read yet;
+    //          throws DeckLoadException if they cannot be read (the deck stays unloaded, so it can be retried)
+    public void load() {
+        if (this.loader != null) {
+            try {
+                this.cards = adopt(this.loader.loadCards());
+                this.loader = null;
+                recordSavedState();
+            } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+                throw new DeckLoadException(this.name, e);
+            }
+        }
+    }
+
+    // EFFECTS: returns true if this deck (its cards, their order or any of their scores) has changed since it was last
+    //          marked as saved. A deck that has never been marked as saved counts as changed.
+    public boolean isModified() {
+        if (!this.saved) {
+            return true;
+        }
+        return isLoaded() && (this.cards.getModifications() != this.savedModifications
+                || this.cards.getCardVersions() != this.savedCardVersions);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the current contents of this deck have been saved, with the given content hash. May be
+    //          called on a snapshot from another thread than the one that took it (see snapshot).
+    public void markSaved(long contentHash) {
+        this.saved = true;
+        this.savedHash = contentHash;
+        this.snapshot = null;
+        recordSavedState();
+        this.markedHash = contentHash;
+    }
+
+    // REQUIRES: !isModified()
+    // EFFECTS: returns the content hash this deck was last marked as saved with
+    public long getSavedHash() {
+        return this.savedHash;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a read-only copy of this deck, safe to read on another thread, that later changes to this deck
+    //          do not affect (the same copy again if it has not changed); throws DeckLoadException if its cards cannot
+    //          be read
+    public Deck snapshot() {
+        if (!isLoaded() && !this.saved) {
+            load();
+        }
+        if (this.snapshot != null && isSnapshotCurrent()) {
+            adoptSavedHash(this.snapshot);
+            return this.snapshot;
+        }
+        Deck copy;
+        if (isLoaded()) {
+            copy = new Deck(this.name);
+            copy.cards = this.cards.snapshot();
+            this.snapshotOfCards = true;
+            this.snapshotModifications = this.cards.getModifications();
+            this.snapshotCardVersions = this.cards.getCardVersions();
+        } else {
+            copy = new Deck(this.name, this.indexedNumOfCards, this.indexedScoreSum, this.loader);
+        }
+        if (!isModified()) {
+            copy.markSaved(this.savedHash);
+        }
+        this.snapshot = copy;
+        return copy;
+    }
+
+    // REQUIRES: copy is this deck's last snapshot and still matches this deck
+    // MODIFIES: this
+    // EFFECTS: marks this deck as saved with the hash copy was last marked as saved with, if any, keeping copy as
+    //          the last snapshot
+    private void adoptSavedHash(Deck copy) {
+        Long hash = copy.markedHash;
+        if (hash != null && (isModified() || this.savedHash != hash)) {
+            this.saved = true;
+            this.savedHash = hash;
+            recordSavedState();
+        }
+    }
+
+    // EFFECTS: returns true if the last snapshot still matches this deck (an unloaded deck cannot have changed)
+    private boolean isSnapshotCurrent() {
+        if (!isLoaded()) {
+            return true;
+        }
+        return this.snapshotOfCards && this.cards.getModifications() == this.snapshotModifications
+                && this.cards.getCardVersions() == this.snapshotCardVersions;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers the current state of the cards, so that later changes to them can be detected
+    private void recordSavedState() {
+        if (isLoaded()) {
+            this.savedModifications = this.cards.getModifications();
+            this.savedCardVersions = this.cards.getCardVersions();
+        }
+    }
+
+    // EFFECTS: returns loaded as the list of cards of a deck, keeping it if it already is one (e.g. the cards of a
+    //          deck a store just built for this deck's loader)
+    private static CardStorage adopt(List<Card> loaded) {
+        return loaded instanceof CardStorage ? (CardStorage) loaded : new CardList(loaded);
     }
 
     // MODIFIES: this
-    // EFFECTS: Adds given card to the list of cards and returns the added card.
+    // EFFECTS: stores this deck's cards compactly from now on (reading them first if needed); cards handed out before
+    //          are no longer part of this deck
+    public void compact() {
+        load();
+        if (isCompact()) {
+            return;
+        }
+        boolean modified = isModified();
+        CardStorage compact = new CompactCardList(this.cards.size());
+        for (int i = 0; i < this.cards.size(); i++) {
+            compact.append(this.cards.getFront(i), this.cards.getBack(i), this.cards.getScore(i),
+                    this.cards.getSchedule(i), this.cards.getId(i));
+        }
+        compact.reserveIds(this.cards.getNextId());
+        this.cards = compact;
+        this.snapshot = null;
+        this.queue = null;
+        this.index = null;
+        this.text = null;
+        recordSavedState();
+        this.saved = this.saved && !modified;
+    }
+
+    // EFFECTS: returns true if this deck's cards are stored compactly (see compact)
+    public boolean isCompact() {
+        return this.cards instanceof CompactCardList;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Adds given card to the list of cards and returns the added card. A compactly stored deck copies the
+    //          contents of c and returns its own card for them instead, which later changes should be made to.
     public Card addCard(Card c) {
+        load();
+        CardIndex current = currentIndex();
+        TextIndex currentText = currentTextIndex();
         this.cards.add(c);
-        return c;
+        if (current != null) {
+            current.added();
+        }
+        if (currentText != null) {
+            currentText.added();
+        }
+        return this.cards.get(this.cards.size() - 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds given card as addCard does and returns it, unless the deck already has a card with the same front
+    //          (ignoring case and extra whitespace), in which case returns null
+    public Card addCardIfAbsent(Card c) {
+        if (findFront(c.getFront()) != 0) {
+            return null;
+        }
+        return addCard(c);
+    }
+
+    // REQUIRES: fronts, backs and scores each hold at least count entries
+    // MODIFIES: this
+    // EFFECTS: adds a card for each of the first count entries of fronts, backs and scores (in order), skipping any
+    //          that would not make a valid card, and returns a report of which were skipped and why
+    public CardReport addCards(String[] fronts, String[] backs, int[] scores, int count) {
+        return addCards(fronts, backs, scores, null, count);
+    }
+
+    // REQUIRES: fronts, backs and scores each hold at least count entries, and so does schedules unless it is null
+    // MODIFIES: this
+    // EFFECTS: adds cards as addCards(fronts, backs, scores, count) does, giving each the schedule at the same entry
+    //          of schedules (a null array or entry leaves the card with Schedule.NEW)
+    public CardReport addCards(String[] fronts, String[] backs, int[] scores, Schedule[] schedules, int count) {
+        return addCards(fronts, backs, scores, schedules, null, count);
     }
 
-    // EFFECTS: creates a message that when outputted, lists out all the cards in the deck
+    // REQUIRES: fronts, backs and scores each hold at least count entries, and so do schedules and ids unless they
+    //           are null; each id in ids is 0 or one no other card in the deck has
+    // MODIFIES: this
+    // EFFECTS: adds cards as addCards(fronts, backs, scores, schedules, count) does, giving each the id at the same
+    //          entry of ids (a null array or an id of 0 gives the card the next unused id)
+    public CardReport addCards(String[] fronts, String[] backs, int[] scores, Schedule[] schedules, int[] ids,
+                               int count) {
+        load();
+        CardReport report = new CardReport(count);
+        this.cards.ensureCapacity(this.cards.size() + count);
+        for (int i = 0; i < count; i++) {
+            int reason = Card.validate(fronts[i], backs[i], scores[i]);
+            if (reason == CardReport.VALID) {
+                Schedule schedule = schedules == null || schedules[i] == null ? Schedule.NEW : schedules[i];
+                this.cards.append(fronts[i], backs[i], scores[i], schedule, ids == null ? 0 : ids[i]);
+            } else {
+                report.reject(i, reason);
+            }
+        }
+        return report;
+    }
+
+    // EFFECTS: creates a message that when outputted, lists out all the cards in the deck. A large deck should be
+    //          listed a page at a time instead (see listing).
     public String listCards() {
-        String output = "";
+        load();
         if (cards.size() == 0) {
-            output += ERROR_MESSAGE;
-        } else {
-            for (int i = 1; i <= cards.size(); i++) {
-                output += i + ": " + getNthCard(i).getFront() + "\n";
-            }
+            return ERROR_MESSAGE;
+        }
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < cards.size(); i++) {
+            output.append(i + 1).append(": ").append(cards.getFront(i)).append('\n');
         }
-        return output;
+        return output.toString();
+    }
+
+    // EFFECTS: returns a cursor at the start of a listing of the cards in the deck with filter on their front or back
+    //          (ignoring case), or of every card if filter is null or empty, from which the listing can be written a
+    //          page at a time (see CardCursor). Reads the cards first if needed.
+    public CardCursor listing(String filter) {
+        load();
+        return new CardCursor(this, filter);
     }
 
     // REQUIRES: 1 <= n <= cards.size()
     // MODIFIES: this
     // EFFECTS: Removes selected card from deck and returns card removed
     public Card removeNthCard(int n) {
-        Card c = this.cards.get(n - 1);
-        this.cards.remove(n - 1);
-        return c;
+        load();
+        CardIndex current = currentIndex();
+        TextIndex currentText = currentTextIndex();
+        int id = this.cards.getId(n - 1);
+        String front = this.cards.getFront(n - 1);
+        Card removed = this.cards.remove(n - 1);
+        if (current != null) {
+            current.removed(n - 1, id, front, removed);
+        }
+        if (currentText != null) {
+            currentText.removed();
+        }
+        return removed;
+    }
+
+    // REQUIRES: 1 <= n <= card.size()
+    // EFFECTS: Returns the id of the Nth card of the deck, which stays the same as cards are added and removed
+    public int getNthId(int n) {
+        load();
+        return this.cards.getId(n - 1);
+    }
+
+    // EFFECTS: Returns the id the next card added to the deck will be given (every id a card of the deck has, or
+    //          had before it was removed, is lower)
+    public int getNextId() {
+        load();
+        return this.cards.getNextId();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes sure no card added to the deck from now on is given an id lower than nextId (e.g. to keep the
+    //          ids of cards removed before the deck was saved from being given to new cards once it is read again)
+    public void reserveIds(int nextId) {
+        load();
+        this.cards.reserveIds(nextId);
+    }
+
+    // EFFECTS: Returns n for the Nth card of the deck, the card with the given id, or 0 if no card in the deck has it
+    public int findId(int id) {
+        return index().positionOfId(id) + 1;
+    }
+
+    // EFFECTS: Returns n for the Nth card of the deck, a card with the given front (ignoring case and extra
+    //          whitespace), or 0 if the deck has no such card
+    public int findFront(String front) {
+        return index().positionOfFront(front) + 1;
+    }
+
+    // EFFECTS: Returns n for the Nth card of the deck, the given card (the first place it is in, if it is in the deck
+    //          more than once), or 0 if it is not in the deck
+    public int findCard(Card c) {
+        return index().positionOf(c) + 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the index of this deck's cards, reading the cards and building the index first if needed
+    private CardIndex index() {
+        load();
+        if (currentIndex() == null) {
+            this.index = new CardIndex(this.cards);
+        }
+        return this.index;
+    }
+
+    // EFFECTS: returns the index of this deck's cards if it is up to date, or null
+    private CardIndex currentIndex() {
+        return this.index != null && this.index.isCurrent(this.cards) ? this.index : null;
+    }
+
+    // REQUIRES: limit > 0
+    // MODIFIES: this
+    // EFFECTS: returns the best limit cards of this deck matching query, best first (see CardSearch); returns no
+    //          cards for a query with no terms
+    public List<SearchHit> search(String query, int limit) {
+        CardSearch search = new CardSearch(query, limit);
+        search.search(this);
+        return search.getHits();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the index of the words on this deck's cards, reading the cards and building the index first if
+    //          needed
+    TextIndex textIndex() {
+        load();
+        if (currentTextIndex() == null) {
+            this.text = new TextIndex(this.cards);
+        }
+        return this.text;
+    }
+
+    // EFFECTS: returns the index of the words on this deck's cards if it is up to date, or null
+    private TextIndex currentTextIndex() {
+        return this.text != null && this.text.isCurrent(this.cards) ? this.text : null;
     }
 
     // EFFECTS: Returns the name of the deck
@@ -56,28 +390,156 @@ public class Deck implements Writable {
 
     // EFFECTS: Returns a list of cards in the deck.
     public List<Card> getCards() {
+        load();
         return this.cards;
     }
 
     // EFFECTS: Returns the number of cards in the deck
     public int getNumOfCards() {
-        return this.cards.size();
+        return isLoaded() ? this.cards.size() : this.indexedNumOfCards;
     }
 
     // REQUIRES: 1 <= n <= card.size()
     // EFFECTS: Return the Nth card of the deck.
     public Card getNthCard(int n) {
+        load();
         return this.cards.get(n - 1);
     }
 
-    // EFFECTS: Calculate the mastery (%) attained for the deck.
-    public double getMastery() {
-        double totalMastery = 0;
-        double maxMastery = this.cards.size() * Card.BEST_THRESHOLD;
+    // REQUIRES: 1 <= n <= card.size()
+    // EFFECTS: Returns the front of the Nth card of the deck, without handing out the card itself.
+    public String getNthFront(int n) {
+        load();
+        return this.cards.getFront(n - 1);
+    }
+
+    // REQUIRES: 1 <= n <= card.size()
+    // EFFECTS: Returns the back of the Nth card of the deck, without handing out the card itself.
+    public String getNthBack(int n) {
+        load();
+        return this.cards.getBack(n - 1);
+    }
+
+    // REQUIRES: 1 <= n <= card.size()
+    // EFFECTS: Returns the score of the Nth card of the deck, without handing out the card itself.
+    public int getNthScore(int n) {
+        load();
+        return this.cards.getScore(n - 1);
+    }
+
+    // REQUIRES: 1 <= n <= card.size()
+    // EFFECTS: Returns when the Nth card of the deck is next due for review, without handing out the card itself.
+    public Schedule getNthSchedule(int n) {
+        load();
+        return this.cards.getSchedule(n - 1);
+    }
+
+    // REQUIRES: 1 <= n <= card.size()
+    // MODIFIES: this
+    // EFFECTS: reschedules the Nth card of the deck after it was reviewed at time now (in milliseconds since the
+    //          epoch) and answered correctly or not (see Schedule.next), and returns its new schedule
+    public Schedule reviewNthCard(int n, boolean correct, long now) {
+        Schedule schedule = getNthSchedule(n).next(correct, now);
+        setNthSchedule(n, schedule);
+        return schedule;
+    }
+
+    // REQUIRES: 1 <= n <= card.size()
+    // MODIFIES: this
+    // EFFECTS: sets when the Nth card of the deck is next due for review (e.g. to replay a recorded review)
+    public void setNthSchedule(int n, Schedule schedule) {
+        load();
+        ReviewQueue current = this.queue != null && this.queue.isCurrent() ? this.queue : null;
+        this.cards.get(n - 1).setSchedule(schedule);
+        if (current != null) {
+            current.update(n - 1);
+        }
+    }
+
+    // EFFECTS: Returns the number of cards in the deck that are due for review at time now (in milliseconds since
+    //          the epoch), in time proportional to that number rather than to the size of the deck.
+    public int getNumDue(long now) {
+        return queue().countDue(now);
+    }
+
+    // EFFECTS: Returns n for the Nth card of the deck, the one that has been due for review the longest at time now
+    //          (in milliseconds since the epoch), or 0 if no card is due. Cards due at the same time, such as cards
+    //          that have never been reviewed, come in deck order.
+    public int getNextDue(long now) {
+        return queue().peekDue(now) + 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the history of the reviews of this deck's cards (by id), which review sessions add to as they
+    //          commit their grades (see ReviewSession.commit); it is not read from or saved with the deck
+    public ReviewHistory getHistory() {
+        if (this.history == null) {
+            this.history = new ReviewHistory();
+        }
+        return this.history;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a walk through the cards of the deck that are due for review at time now, in the order
+    //          getNextDue would return them if each were rescheduled in turn, which holds until the deck changes
+    ReviewQueue.DueWalk walkDue(long now) {
+        return queue().walkDue(now);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the review queue of this deck, reading the cards and building the queue first if needed
+    private ReviewQueue queue() {
+        load();
+        if (this.queue == null || !this.queue.isCurrent()) {
+            this.queue = new ReviewQueue(this.cards);
+        }
+        return this.queue;
+    }
 
-        for (Card c : this.cards) {
-            totalMastery += Math.max(c.getScore(), 0);
+    // EFFECTS: Returns the sum of the scores of the cards in the deck, counting negative scores as 0. The list of
+    //          cards keeps this sum up to date as it changes, so it takes constant time however large the deck is.
+    public int getScoreSum() {
+        return isLoaded() ? this.cards.getScoreSum() : this.indexedScoreSum;
+    }
+
+    // EFFECTS: Returns the number of cards in the deck at each score, from Card.WORST_THRESHOLD (at index 0) to
+    //          Card.BEST_THRESHOLD. The list of cards keeps these counts up to date as it changes, so this takes
+    //          constant time however large the deck is.
+    public int[] getScoreHistogram() {
+        load();
+        int[] histogram = new int[Card.BEST_THRESHOLD - Card.WORST_THRESHOLD + 1];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = this.cards.getScoreCount(Card.WORST_THRESHOLD + i);
         }
+        return histogram;
+    }
+
+    // EFFECTS: Returns an order in which to review every card in the deck, lowest score first (cards with the same
+    //          score in deck order), made in time proportional to the size of the deck without sorting it.
+    public ScoreOrder weakestFirst() {
+        load();
+        return new ScoreOrder(this.cards, 1, null);
+    }
+
+    // EFFECTS: Returns an order in which to review every card in the deck, highest score first (cards with the same
+    //          score in deck order), made in time proportional to the size of the deck without sorting it.
+    public ScoreOrder strongestFirst() {
+        load();
+        return new ScoreOrder(this.cards, -1, null);
+    }
+
+    // EFFECTS: Returns a random order in which to review every card in the deck, in which each card still to come is
+    //          picked with a chance weighted by its score (a card at Card.WORST_THRESHOLD is nine times as likely to
+    //          be picked as one at Card.BEST_THRESHOLD). The same seed gives the same order for the same deck.
+    public ScoreOrder weightedRandom(long seed) {
+        load();
+        return new ScoreOrder(this.cards, 1, new Random(seed));
+    }
+
+    // EFFECTS: Calculate the mastery (%) attained for the deck.
+    public double getMastery() {
+        double totalMastery = getScoreSum();
+        double maxMastery = getNumOfCards() * Card.BEST_THRESHOLD;
 
         if (maxMastery == 0) {
             return 100.0;
@@ -89,8 +551,10 @@ public class Deck implements Writable {
     @Override
     // EFFECTS: represents contents of deck as a JSONObject
     public JSONObject toJson() {
+        load();
         JSONObject json = new JSONObject();
         json.put("name", name);
+        json.put("nextId", this.cards.getNextId());
         json.put("flashcards", cardsToJson());
         return json;
     }
@@ -99,16 +563,44 @@ public class Deck implements Writable {
     private JSONArray cardsToJson() {
         JSONArray jsonArray = new JSONArray();
 
-        for (Card c : this.cards) {
-            jsonArray.put(c.toJson());
+        for (int i = 0; i < this.cards.size(); i++) {
+            jsonArray.put(Card.cardJson(this.cards.getFront(i), this.cards.getBack(i), this.cards.getScore(i),
+                    this.cards.getSchedule(i), this.cards.getId(i)));
         }
 
         return jsonArray;
     }
 
     @Override
-    // EFFECTS: returns a nice looking string for JComboBox
+    // EFFECTS: writes contents of deck to the JSON token stream, one card at a time
+    public void writeJson(JsonStreamWriter out) throws IOException {
+        load();
+        out.beginObject();
+        out.name("name");
+        out.value(this.name);
+        out.name("nextId");
+        out.value(this.cards.getNextId());
+        out.name("flashcards");
+        out.beginArray();
+        for (int i = 0; i < this.cards.size(); i++) {
+            Card.writeCardJson(out, this.cards.getFront(i), this.cards.getBack(i), this.cards.getScore(i),
+                    this.cards.getSchedule(i), this.cards.getId(i));
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    // EFFECTS: returns a nice looking string for JComboBox. The string only depends on the number of cards and their
+    //          score sum, so it is kept and returned again until either of them changes.
     public String toString() {
-        return this.getName() + " | MASTERY: " + this.getMastery() + "%";
+        int numOfCards = getNumOfCards();
+        int scoreSum = getScoreSum();
+        if (this.label == null || numOfCards != this.labelNumOfCards || scoreSum != this.labelScoreSum) {
+            this.label = this.getName() + " | MASTERY: " + this.getMastery() + "%";
+            this.labelNumOfCards = numOfCards;
+            this.labelScoreSum = scoreSum;
+        }
+        return this.label;
     }
 }
@@ -0,0 +1,194 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/* The decks of the application, in the order they were added, with an index of them by name so that a deck can be
+   found (or a name checked for being taken) without going through every deck. */
+public class DeckRegistry extends AbstractList<Deck> implements RandomAccess {
+    private final List<Deck> decks;
+    private final Map<String, Deck> byName;
+    private final Map<String, Deck> byFoldedName;
+    private int shadowed;
+    private List<Deck> snapshot;
+
+    // EFFECTS: constructs an empty registry
+    public DeckRegistry() {
+        this.decks = new ArrayList<>();
+        this.byName = new HashMap<>();
+        this.byFoldedName = new HashMap<>();
+    }
+
+    // EFFECTS: constructs a registry holding the given decks, in order (e.g. the decks just read from a store). A deck
+    //          whose name is already taken is kept, but only the first deck with a name is found by it.
+    public DeckRegistry(Collection<Deck> decks) {
+        this();
+        for (Deck d : decks) {
+            this.decks.add(d);
+            index(d);
+        }
+    }
+
+    @Override
+    // EFFECTS: returns the number of decks
+    public int size() {
+        return this.decks.size();
+    }
+
+    @Override
+    // EFFECTS: returns the deck at index
+    public Deck get(int index) {
+        return this.decks.get(index);
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: inserts d at index; throws IllegalArgumentException if another deck already has its name
+    public void add(int index, Deck d) {
+        checkNameFree(d);
+        this.decks.add(index, d);
+        index(d);
+        changed();
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: removes the deck at index and returns it
+    public Deck remove(int index) {
+        Deck removed = this.decks.remove(index);
+        unindex(removed);
+        changed();
+        return removed;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: replaces the deck at index with d and returns the deck it replaced; throws IllegalArgumentException if
+    //          a deck other than the one replaced already has the name of d
+    public Deck set(int index, Deck d) {
+        Deck replaced = this.decks.get(index);
+        if (!replaced.getName().equals(d.getName())) {
+            checkNameFree(d);
+        }
+        this.decks.set(index, d);
+        unindex(replaced);
+        index(d);
+        changed();
+        return replaced;
+    }
+
+    @Override
+    // EFFECTS: returns true if o is one of the decks, looking it up by name (only going through the decks if
+    //          another deck is found by its name)
+    public boolean contains(Object o) {
+        if (!(o instanceof Deck)) {
+            return false;
+        }
+        Deck found = this.byName.get(((Deck) o).getName());
+        return found == o || found != null && this.decks.contains(o);
+    }
+
+    // EFFECTS: returns the deck with the given name, or null if there is none
+    public Deck find(String name) {
+        return this.byName.get(name);
+    }
+
+    // EFFECTS: returns the deck with the given name, or else a deck whose name only differs from it in case, or null
+    //          if there is neither
+    public Deck findIgnoreCase(String name) {
+        Deck d = this.byName.get(name);
+        return d != null ? d : this.byFoldedName.get(fold(name));
+    }
+
+    // EFFECTS: returns true if a deck already has the given name, ignoring case
+    public boolean isNameTaken(String name) {
+        return this.byFoldedName.containsKey(fold(name));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a new, empty deck with the given name (with leading and trailing whitespace removed) to the end of
+    //          the list and returns it, or returns null if the name is empty or taken (ignoring case)
+    public Deck create(String name) {
+        String trimmed = name.trim();
+        if (trimmed.isEmpty() || isNameTaken(trimmed)) {
+            return null;
+        }
+        Deck d = new Deck(trimmed);
+        add(d);
+        return d;
+    }
+
+    // EFFECTS: returns an unmodifiable copy of the list of decks, in order, which later changes to the registry do not
+    //          affect. The same copy is returned again until the registry changes.
+    public List<Deck> snapshot() {
+        if (this.snapshot == null) {
+            this.snapshot = Collections.unmodifiableList(new ArrayList<>(this.decks));
+        }
+        return this.snapshot;
+    }
+
+    // REQUIRES: limit > 0
+    // MODIFIES: this
+    // EFFECTS: returns the best limit cards matching query across every deck, best first (see Deck.search); throws
+    //          DeckLoadException if a deck's cards cannot be read
+    public List<SearchHit> search(String query, int limit) {
+        CardSearch search = new CardSearch(query, limit);
+        for (Deck d : this.decks) {
+            search.search(d);
+        }
+        return search.getHits();
+    }
+
+    // EFFECTS: throws IllegalArgumentException if a deck already has the name of d
+    private void checkNameFree(Deck d) {
+        if (this.byName.containsKey(d.getName())) {
+            throw new IllegalArgumentException("A deck named " + d.getName() + " already exists");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds d to the name indexes, unless another deck is already found by its name (or by its name ignoring
+    //          case), in which case d is counted as shadowed
+    private void index(Deck d) {
+        boolean shadowedByName = this.byName.putIfAbsent(d.getName(), d) != null;
+        boolean shadowedByFoldedName = this.byFoldedName.putIfAbsent(fold(d.getName()), d) != null;
+        if (shadowedByName || shadowedByFoldedName) {
+            this.shadowed++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes d (which is no longer in the list) from the name indexes, building them again if a deck was
+    //          shadowed by d
+    private void unindex(Deck d) {
+        this.byName.remove(d.getName(), d);
+        this.byFoldedName.remove(fold(d.getName()), d);
+        if (this.shadowed > 0) {
+            this.byName.clear();
+            this.byFoldedName.clear();
+            this.shadowed = 0;
+            for (Deck other : this.decks) {
+                index(other);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the list has changed
+    private void changed() {
+        this.modCount++;
+        this.snapshot = null;
+    }
+
+    // EFFECTS: returns name in lower case, the key of its deck in the case-insensitive index
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,135 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/* Statistics of a deck (or of several decks together, see combine) as of a given day. Made by StatsEngine; a DeckStats
+   never changes once made. */
+public final class DeckStats {
+    public static final int NUM_DAYS = 30;
+    public static final int MAX_TROUBLE_FRONTS = 10;
+
+    private final String name;
+    private final int numOfCards;
+    private final int[] histogram;
+    private final int numTrouble;
+    private final List<String> troubleFronts;
+    private final int[] volume;
+    private final int numCorrect;
+
+    // EFFECTS: constructs the statistics of the deck with the given name: its histogram (see Deck.getScoreHistogram),
+    //          the fronts of its first trouble cards, the number of answers given each day (volume[i] i days before)
+    //          and the number of those that were correct
+    DeckStats(String name, int[] histogram, List<String> troubleFronts, int[] volume, int numCorrect) {
+        this.name = name;
+        this.histogram = histogram;
+        this.numTrouble = histogram[0];
+        this.troubleFronts = Collections.unmodifiableList(troubleFronts);
+        this.volume = volume;
+        this.numCorrect = numCorrect;
+        int count = 0;
+        for (int cards : histogram) {
+            count += cards;
+        }
+        this.numOfCards = count;
+    }
+
+    // EFFECTS: returns the statistics of all the given decks together, under the given name: their histograms and
+    //          volumes added up, and the fronts of the first MAX_TROUBLE_FRONTS trouble cards in order of the decks
+    public static DeckStats combine(String name, List<DeckStats> stats) {
+        int[] histogram = new int[ScoreHistogram.NUM_SCORES];
+        int[] volume = new int[NUM_DAYS];
+        List<String> fronts = new ArrayList<>();
+        int numCorrect = 0;
+        for (DeckStats s : stats) {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += s.histogram[i];
+            }
+            for (int i = 0; i < volume.length; i++) {
+                volume[i] += s.volume[i];
+            }
+            for (String front : s.troubleFronts) {
+                if (fronts.size() < MAX_TROUBLE_FRONTS) {
+                    fronts.add(front);
+                }
+            }
+            numCorrect += s.numCorrect;
+        }
+        return new DeckStats(name, histogram, fronts, volume, numCorrect);
+    }
+
+    // EFFECTS: returns the name of the deck (or decks) the statistics are of
+    public String getName() {
+        return this.name;
+    }
+
+    // EFFECTS: returns the number of cards
+    public int getNumOfCards() {
+        return this.numOfCards;
+    }
+
+    // EFFECTS: returns the number of cards at each score, from Card.WORST_THRESHOLD at index 0 to
+    //          Card.BEST_THRESHOLD
+    public int[] getScoreHistogram() {
+        return this.histogram.clone();
+    }
+
+    // EFFECTS: returns the mastery (%), as Deck.getMastery would for the same cards
+    public double getMastery() {
+        if (this.numOfCards == 0) {
+            return 100.0;
+        }
+        double total = 0;
+        for (int i = 0; i < this.histogram.length; i++) {
+            total += Math.max(i + Card.WORST_THRESHOLD, 0) * (double) this.histogram[i];
+        }
+        return Math.round(total / ((double) this.numOfCards * Card.BEST_THRESHOLD) * 100.0);
+    }
+
+    // EFFECTS: returns the number of cards at Card.WORST_THRESHOLD
+    public int getNumTrouble() {
+        return this.numTrouble;
+    }
+
+    // EFFECTS: returns the fronts of the first (at most MAX_TROUBLE_FRONTS) cards at Card.WORST_THRESHOLD
+    public List<String> getTroubleFronts() {
+        return this.troubleFronts;
+    }
+
+    // EFFECTS: returns the number of answers given on each of the last NUM_DAYS days, the day the statistics were
+    //          computed on at index 0
+    public int[] getVolume() {
+        return this.volume.clone();
+    }
+
+    // EFFECTS: returns the number of answers given over the last NUM_DAYS days
+    public int getNumAnswered() {
+        int answered = 0;
+        for (int answers : this.volume) {
+            answered += answers;
+        }
+        return answered;
+    }
+
+    // EFFECTS: returns the share (%) of the answers given over the last NUM_DAYS days that were correct, or 0 if none
+    //          were given
+    public double getRetention() {
+        int answered = getNumAnswered();
+        return answered == 0 ? 0.0 : Math.round(1000.0 * this.numCorrect / answered) / 10.0;
+    }
+
+    // EFFECTS: returns the statistics as a few lines of text
+    public String summary() {
+        StringBuilder scores = new StringBuilder();
+        for (int i = 0; i < this.histogram.length; i++) {
+            scores.append(i == 0 ? "" : ", ").append(i + Card.WORST_THRESHOLD).append(": ").append(this.histogram[i]);
+        }
+        String trouble = this.troubleFronts.isEmpty() ? "" : " - " + String.join(", ", this.troubleFronts);
+        return this.name + " | CARDS: " + this.numOfCards + " | MASTERY LEVEL: " + getMastery() + "%"
+                + "\n  Cards at each score: " + scores
+                + "\n  Trouble cards: " + this.numTrouble + trouble
+                + "\n  Last " + NUM_DAYS + " days: " + getNumAnswered() + " answers (" + this.volume[0] + " today), "
+                + getRetention() + "% correct";
+    }
+}
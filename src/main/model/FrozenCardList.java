@@ -0,0 +1,204 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/* An unchangeable copy of the cards of a CardList, taken by CardList.snapshot, that any thread can read. Its cards are
+   kept in chunks, and a chunk whose cards have not changed is shared with the previous snapshot. */
+final class FrozenCardList extends AbstractList<Card> implements CardStorage, RandomAccess {
+    static final int CHUNK_SIZE = 512;
+
+    private final Chunk[] chunks;
+    private final int size;
+    private final int nextId;
+    private final int[] scoreCounts;
+    private final int scoreSum;
+
+    // EFFECTS: constructs a snapshot of the cards in cards, sharing every chunk of previous (an earlier snapshot of the
+    //          same list, or null) whose cards have not changed since
+    FrozenCardList(CardStorage cards, FrozenCardList previous) {
+        this.size = cards.size();
+        this.nextId = cards.getNextId();
+        this.scoreCounts = new int[ScoreHistogram.NUM_SCORES];
+        for (int b = 0; b < ScoreHistogram.NUM_SCORES; b++) {
+            this.scoreCounts[b] = cards.getScoreCount(Card.WORST_THRESHOLD + b);
+        }
+        this.scoreSum = cards.getScoreSum();
+        this.chunks = new Chunk[(this.size + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        for (int c = 0; c < this.chunks.length; c++) {
+            int start = c * CHUNK_SIZE;
+            int length = Math.min(CHUNK_SIZE, this.size - start);
+            Chunk old = previous != null && c < previous.chunks.length ? previous.chunks[c] : null;
+            this.chunks[c] = old != null && old.holds(cards, start, length) ? old : new Chunk(cards, start, length);
+        }
+    }
+
+    @Override
+    // EFFECTS: returns the number of cards
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    // EFFECTS: returns a new card with the contents of the card at index; throws IndexOutOfBoundsException if there is
+    //          no such card
+    public Card get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        Card c = new Card(getFront(index), getBack(index), getScore(index));
+        c.storeSchedule(getSchedule(index));
+        return c;
+    }
+
+    @Override
+    // EFFECTS: returns 0, as the list never changes
+    public int getModifications() {
+        return 0;
+    }
+
+    @Override
+    // EFFECTS: returns 0, as the cards never change
+    public long getCardVersions() {
+        return 0;
+    }
+
+    @Override
+    // EFFECTS: returns the sum of the scores of the cards, counting negative scores as 0
+    public int getScoreSum() {
+        return this.scoreSum;
+    }
+
+    @Override
+    // EFFECTS: returns the number of cards with the given score
+    public int getScoreCount(int score) {
+        if (score < Card.WORST_THRESHOLD || score > Card.BEST_THRESHOLD) {
+            return 0;
+        }
+        return this.scoreCounts[score - Card.WORST_THRESHOLD];
+    }
+
+    @Override
+    // EFFECTS: returns 0, as the cards never change
+    public long getScheduleChanges() {
+        return 0;
+    }
+
+    @Override
+    // EFFECTS: throws UnsupportedOperationException, as the list never changes
+    public void ensureCapacity(int minCapacity) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    // EFFECTS: throws UnsupportedOperationException, as the list never changes
+    public void append(String front, String back, int score, Schedule schedule, int id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    // EFFECTS: returns the id of the card at index
+    public int getId(int index) {
+        return this.chunks[index / CHUNK_SIZE].ids[index % CHUNK_SIZE];
+    }
+
+    @Override
+    // EFFECTS: returns the id the next card added to the list this is a snapshot of would have been given
+    public int getNextId() {
+        return this.nextId;
+    }
+
+    @Override
+    // EFFECTS: throws UnsupportedOperationException, as the list never changes
+    public void reserveIds(int nextId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    // EFFECTS: returns the front of the card at index
+    public String getFront(int index) {
+        return this.chunks[index / CHUNK_SIZE].fronts[index % CHUNK_SIZE];
+    }
+
+    @Override
+    // EFFECTS: returns the back of the card at index
+    public String getBack(int index) {
+        return this.chunks[index / CHUNK_SIZE].backs[index % CHUNK_SIZE];
+    }
+
+    @Override
+    // EFFECTS: returns the score of the card at index
+    public int getScore(int index) {
+        return this.chunks[index / CHUNK_SIZE].scores[index % CHUNK_SIZE];
+    }
+
+    @Override
+    // EFFECTS: returns the schedule of the card at index
+    public Schedule getSchedule(int index) {
+        return this.chunks[index / CHUNK_SIZE].schedules[index % CHUNK_SIZE];
+    }
+
+    @Override
+    // EFFECTS: returns this list, which no changes can affect
+    public CardStorage copy() {
+        return this;
+    }
+
+    @Override
+    // EFFECTS: returns this list, which no changes can affect
+    public CardStorage snapshot() {
+        return this;
+    }
+
+    // EFFECTS: returns the number of chunks shared with other, e.g. to tell how much a snapshot shares with the one
+    //          before it
+    int countSharedChunks(FrozenCardList other) {
+        int count = 0;
+        for (int c = 0; c < Math.min(this.chunks.length, other.chunks.length); c++) {
+            if (this.chunks[c] == other.chunks[c]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /* The contents of up to CHUNK_SIZE cards in a row, by position in the chunk. */
+    private static final class Chunk {
+        final int[] ids;
+        final String[] fronts;
+        final String[] backs;
+        final byte[] scores;
+        final Schedule[] schedules;
+
+        // EFFECTS: constructs a chunk holding the contents of the length cards of cards from start on
+        Chunk(CardStorage cards, int start, int length) {
+            this.ids = new int[length];
+            this.fronts = new String[length];
+            this.backs = new String[length];
+            this.scores = new byte[length];
+            this.schedules = new Schedule[length];
+            for (int i = 0; i < length; i++) {
+                this.ids[i] = cards.getId(start + i);
+                this.fronts[i] = cards.getFront(start + i);
+                this.backs[i] = cards.getBack(start + i);
+                this.scores[i] = (byte) cards.getScore(start + i);
+                this.schedules[i] = cards.getSchedule(start + i);
+            }
+        }
+
+        // EFFECTS: returns true if this chunk holds the current contents of the length cards of cards from start on:
+        //          the same ids, scores and schedules in the same order
+        boolean holds(CardStorage cards, int start, int length) {
+            if (this.ids.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (this.ids[i] != cards.getId(start + i) || this.scores[i] != cards.getScore(start + i)
+                        || this.schedules[i] != cards.getSchedule(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
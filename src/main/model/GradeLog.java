@@ -0,0 +1,106 @@
+package model;
+
+import java.util.Arrays;
+
+/* The answers graded in a review session that have not been applied to the deck yet (see ReviewSession), in the
+   order they were graded, kept in parallel arrays so that the last grade can be undone in constant time. */
+class GradeLog {
+    private static final int CORRECT = 1;
+    private static final int OUTCOME_SHIFT = 1;
+
+    private int[] cards;
+    private byte[] flags;
+    private long[] times;
+    private long[] millis;
+    private long[] slowest;
+    private int size;
+
+    // EFFECTS: constructs an empty log
+    GradeLog() {
+        this.cards = new int[16];
+        this.flags = new byte[16];
+        this.times = new long[16];
+        this.millis = new long[16];
+        this.slowest = new long[16];
+    }
+
+    // EFFECTS: returns the number of grades in the log
+    int size() {
+        return this.size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a grade to the end of the log: an answer to the Nth card of the deck that was correct or not,
+    //          with the given outcome (see Card.changeScoreSaturating), graded at time and taking the given millis
+    void add(int n, boolean correct, int outcome, long time, long millis) {
+        if (this.size == this.cards.length) {
+            grow();
+        }
+        this.cards[this.size] = n;
+        this.flags[this.size] = (byte) (outcome << OUTCOME_SHIFT | (correct ? CORRECT : 0));
+        this.times[this.size] = time;
+        this.millis[this.size] = millis;
+        this.slowest[this.size] = Math.max(millis, getSlowestMillis());
+        this.size++;
+    }
+
+    // REQUIRES: size() > 0
+    // MODIFIES: this
+    // EFFECTS: drops the last grade
+    void removeLast() {
+        this.size--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops every grade
+    void clear() {
+        this.size = 0;
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns n for the Nth card of the deck, the card the ith grade is for
+    int getCard(int i) {
+        return this.cards[i];
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns true if the ith grade was for a correct answer
+    boolean isCorrect(int i) {
+        return (this.flags[i] & CORRECT) != 0;
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns what the ith grade does to the card's score (Card.SCORE_CHANGED, SCORE_AT_BEST or
+    //          SCORE_AT_WORST)
+    int getOutcome(int i) {
+        return this.flags[i] >> OUTCOME_SHIFT;
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns when the ith grade was made
+    long getTime(int i) {
+        return this.times[i];
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns how long the answer of the ith grade took, in milliseconds
+    long getMillis(int i) {
+        return this.millis[i];
+    }
+
+    // EFFECTS: returns how long the slowest answer in the log took, in milliseconds (0 if the log is empty)
+    long getSlowestMillis() {
+        return this.size == 0 ? 0 : this.slowest[this.size - 1];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the room in the arrays
+    private void grow() {
+        int capacity = 2 * this.cards.length;
+        this.cards = Arrays.copyOf(this.cards, capacity);
+        this.flags = Arrays.copyOf(this.flags, capacity);
+        this.times = Arrays.copyOf(this.times, capacity);
+        this.millis = Arrays.copyOf(this.millis, capacity);
+        this.slowest = Arrays.copyOf(this.slowest, capacity);
+    }
+}
@@ -0,0 +1,192 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/* The history of every review of the cards of a deck, a row per review kept in columns of primitives. Old rows can be
+   downsampled to a row per card per period (see downsample). */
+public class ReviewHistory {
+    private int[] ids;
+    private long[] times;
+    private int[] correct;
+    private int[] incorrect;
+    private int[] millis;
+    private int size;
+
+    // EFFECTS: constructs an empty history
+    public ReviewHistory() {
+        this.ids = new int[16];
+        this.times = new long[16];
+        this.correct = new int[16];
+        this.incorrect = new int[16];
+        this.millis = new int[16];
+    }
+
+    // EFFECTS: returns the number of rows in the history
+    public int size() {
+        return this.size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a row for a single answer to the card with the given id at time (in milliseconds since the
+    //          epoch), correct or not, that took the given millis
+    public void record(int id, long time, boolean correct, long millis) {
+        add(id, time, correct ? 1 : 0, correct ? 0 : 1, (int) Math.min(millis, Integer.MAX_VALUE));
+    }
+
+    // REQUIRES: numCorrect >= 0, numIncorrect >= 0, millis >= 0
+    // MODIFIES: this
+    // EFFECTS: adds a row for the given numbers of correct and incorrect answers to the card with the given id, the
+    //          last of them at time, that took the given millis together
+    public void add(int id, long time, int numCorrect, int numIncorrect, int millis) {
+        if (this.size == this.ids.length) {
+            grow(2 * this.size);
+        }
+        this.ids[this.size] = id;
+        this.times[this.size] = time;
+        this.correct[this.size] = numCorrect;
+        this.incorrect[this.size] = numIncorrect;
+        this.millis[this.size] = millis;
+        this.size++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every row
+    public void clear() {
+        this.size = 0;
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns the id of the card the ith row is for
+    public int getId(int i) {
+        return this.ids[i];
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns when the last answer of the ith row was given
+    public long getTime(int i) {
+        return this.times[i];
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns the number of correct answers of the ith row
+    public int getNumCorrect(int i) {
+        return this.correct[i];
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns the number of incorrect answers of the ith row
+    public int getNumIncorrect(int i) {
+        return this.incorrect[i];
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns how long the answers of the ith row took together, in milliseconds
+    public int getMillis(int i) {
+        return this.millis[i];
+    }
+
+    // EFFECTS: returns when the card with the given id was last answered incorrectly, or 0 if it never has been
+    public long getLastMiss(int id) {
+        for (int i = this.size - 1; i >= 0; i--) {
+            if (this.ids[i] == id && this.incorrect[i] > 0) {
+                return this.times[i];
+            }
+        }
+        return 0;
+    }
+
+    // EFFECTS: returns when the card with the given id was last reviewed, or 0 if it never has been
+    public long getLastReview(int id) {
+        for (int i = this.size - 1; i >= 0; i--) {
+            if (this.ids[i] == id) {
+                return this.times[i];
+            }
+        }
+        return 0;
+    }
+
+    // EFFECTS: returns the number of times the card with the given id has been reviewed
+    public int getNumReviews(int id) {
+        int count = 0;
+        for (int i = 0; i < this.size; i++) {
+            if (this.ids[i] == id) {
+                count += this.correct[i] + this.incorrect[i];
+            }
+        }
+        return count;
+    }
+
+    // REQUIRES: period > 0
+    // MODIFIES: this
+    // EFFECTS: merges the rows from before time before that are for the same card and period into one row at the
+    //          time of the latest of them, ahead of the later rows; returns the number of rows removed
+    public int downsample(long before, long period) {
+        Map<Long, Integer> merged = new HashMap<>();
+        ReviewHistory old = new ReviewHistory();
+        ReviewHistory recent = new ReviewHistory();
+        for (int i = 0; i < this.size; i++) {
+            if (this.times[i] >= before) {
+                recent.add(this.ids[i], this.times[i], this.correct[i], this.incorrect[i], this.millis[i]);
+                continue;
+            }
+            Long key = Math.floorDiv(this.times[i], period) << Integer.SIZE | this.ids[i] & 0xFFFFFFFFL;
+            Integer row = merged.get(key);
+            if (row == null) {
+                merged.put(key, old.size);
+                old.add(this.ids[i], this.times[i], this.correct[i], this.incorrect[i], this.millis[i]);
+            } else {
+                old.mergeInto(row, this.times[i], this.correct[i], this.incorrect[i], this.millis[i]);
+            }
+        }
+        int removed = this.size - old.size - recent.size;
+        old.addAll(recent);
+        adopt(old);
+        return removed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the answers of another row, the last of them at time, to the ith row
+    private void mergeInto(int i, long time, int numCorrect, int numIncorrect, int millis) {
+        this.times[i] = Math.max(this.times[i], time);
+        this.correct[i] += numCorrect;
+        this.incorrect[i] += numIncorrect;
+        this.millis[i] = (int) Math.min((long) this.millis[i] + millis, Integer.MAX_VALUE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the rows of other to the end of this history, in order
+    private void addAll(ReviewHistory other) {
+        if (this.size + other.size > this.ids.length) {
+            grow(this.size + other.size);
+        }
+        System.arraycopy(other.ids, 0, this.ids, this.size, other.size);
+        System.arraycopy(other.times, 0, this.times, this.size, other.size);
+        System.arraycopy(other.correct, 0, this.correct, this.size, other.size);
+        System.arraycopy(other.incorrect, 0, this.incorrect, this.size, other.size);
+        System.arraycopy(other.millis, 0, this.millis, this.size, other.size);
+        this.size += other.size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this history hold the rows of other instead of its own
+    private void adopt(ReviewHistory other) {
+        this.ids = other.ids;
+        this.times = other.times;
+        this.correct = other.correct;
+        this.incorrect = other.incorrect;
+        this.millis = other.millis;
+        this.size = other.size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes room in the columns for capacity rows
+    private void grow(int capacity) {
+        this.ids = Arrays.copyOf(this.ids, capacity);
+        this.times = Arrays.copyOf(this.times, capacity);
+        this.correct = Arrays.copyOf(this.correct, capacity);
+        this.incorrect = Arrays.copyOf(this.incorrect, capacity);
+        this.millis = Arrays.copyOf(this.millis, capacity);
+    }
+}
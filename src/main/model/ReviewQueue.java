@@ -0,0 +1,213 @@
+package model;
+
+import java.util.Arrays;
+
+/* The cards of a deck in the order they are due for review, as a binary min-heap of card positions keyed by due time
+   (ties broken by position). The deck builds a new one once cards are added, removed or replaced (see isCurrent). */
+class ReviewQueue {
+    private final CardStorage cards;
+    private final int[] heap;
+    private final long[] keys;
+    private final int[] slots;
+    private final int modifications;
+    private long scheduleChanges;
+
+    // EFFECTS: constructs a queue of the cards currently in cards, in O(n)
+    ReviewQueue(CardStorage cards) {
+        int size = cards.size();
+        this.cards = cards;
+        this.heap = new int[size];
+        this.keys = new long[size];
+        this.slots = new int[size];
+        for (int i = 0; i < size; i++) {
+            this.heap[i] = i;
+            this.keys[i] = cards.getSchedule(i).getDue();
+            this.slots[i] = i;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        this.modifications = cards.getModifications();
+        this.scheduleChanges = cards.getScheduleChanges();
+    }
+
+    // EFFECTS: returns true if no card has been added, removed, replaced or rescheduled (other than through update)
+    //          since the queue was built
+    boolean isCurrent() {
+        return this.cards.getModifications() == this.modifications
+                && this.cards.getScheduleChanges() == this.scheduleChanges;
+    }
+
+    // REQUIRES: isCurrent() apart from the card at index having just been rescheduled
+    // MODIFIES: this
+    // EFFECTS: moves the card at index to its place for its new due time
+    void update(int index) {
+        int slot = this.slots[index];
+        this.keys[slot] = this.cards.getSchedule(index).getDue();
+        siftDown(siftUp(slot));
+        this.scheduleChanges = this.cards.getScheduleChanges();
+    }
+
+    // EFFECTS: returns the position of the card that has been due the longest at time now, or -1 if no card is due
+    int peekDue(long now) {
+        return this.heap.length > 0 && this.keys[0] <= now ? this.heap[0] : -1;
+    }
+
+    // EFFECTS: returns the number of cards due at time now. Only the part of the heap holding due cards is visited,
+    //          so this takes time in proportion to the number of due cards rather than to the size of the deck.
+    int countDue(long now) {
+        int count = 0;
+        int[] pending = new int[Math.min(this.heap.length, 64)];
+        int top = 0;
+        if (this.heap.length > 0) {
+            pending[top++] = 0;
+        }
+        while (top > 0) {
+            int slot = pending[--top];
+            if (this.keys[slot] <= now) {
+                count++;
+                for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < this.heap.length; child++) {
+                    if (top == pending.length) {
+                        pending = Arrays.copyOf(pending, 2 * pending.length);
+                    }
+                    pending[top++] = child;
+                }
+            }
+        }
+        return count;
+    }
+
+    // EFFECTS: returns a walk through the cards due at time now, in the order they are due
+    DueWalk walkDue(long now) {
+        return new DueWalk(now);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the card in slot up the heap until its parent comes before it, and returns its new slot
+    private int siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (!before(slot, parent)) {
+                break;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+        return slot;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the card in slot down the heap until it comes before both of its children
+    private void siftDown(int slot) {
+        while (true) {
+            int first = slot;
+            int left = 2 * slot + 1;
+            if (left < this.heap.length && before(left, first)) {
+                first = left;
+            }
+            if (left + 1 < this.heap.length && before(left + 1, first)) {
+                first = left + 1;
+            }
+            if (first == slot) {
+                return;
+            }
+            swap(slot, first);
+            slot = first;
+        }
+    }
+
+    // EFFECTS: returns true if the card in slot a is due before the card in slot b
+    private boolean before(int a, int b) {
+        return this.keys[a] < this.keys[b] || (this.keys[a] == this.keys[b] && this.heap[a] < this.heap[b]);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: swaps the cards in slots a and b
+    private void swap(int a, int b) {
+        int card = this.heap[a];
+        long key = this.keys[a];
+        this.heap[a] = this.heap[b];
+        this.keys[a] = this.keys[b];
+        this.heap[b] = card;
+        this.keys[b] = key;
+        this.slots[this.heap[a]] = a;
+        this.slots[this.heap[b]] = b;
+    }
+
+    /* The cards due at some time, in the order peekDue would return them if each were rescheduled in turn, found
+       without changing the queue. A card comes after its parent in the heap, so the next card is always the first of
+       a frontier of slots whose parents have already been walked; the frontier is itself a small binary heap of
+       slots, so each step takes O(log k) for the k cards walked so far, however large the deck. The walk only holds
+       while the queue does not change. */
+    final class DueWalk {
+        private final long now;
+        private int[] frontier;
+        private int size;
+
+        // EFFECTS: constructs a walk through the cards due at time now
+        DueWalk(long now) {
+            this.now = now;
+            this.frontier = new int[16];
+            push(0);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the position of the next card due, or -1 if every due card has been walked
+        int next() {
+            if (this.size == 0) {
+                return -1;
+            }
+            int slot = this.frontier[0];
+            removeFirst();
+            push(2 * slot + 1);
+            push(2 * slot + 2);
+            return heap[slot];
+        }
+
+        // REQUIRES: the frontier is not empty
+        // MODIFIES: this
+        // EFFECTS: removes the first slot of the frontier
+        private void removeFirst() {
+            this.frontier[0] = this.frontier[--this.size];
+            int i = 0;
+            while (true) {
+                int first = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < this.size; child++) {
+                    if (before(this.frontier[child], this.frontier[first])) {
+                        first = child;
+                    }
+                }
+                if (first == i) {
+                    return;
+                }
+                swapFrontier(i, first);
+                i = first;
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds slot to the frontier if it holds a card due at time now
+        private void push(int slot) {
+            if (slot >= heap.length || keys[slot] > this.now) {
+                return;
+            }
+            if (this.size == this.frontier.length) {
+                this.frontier = Arrays.copyOf(this.frontier, 2 * this.size);
+            }
+            int i = this.size++;
+            this.frontier[i] = slot;
+            while (i > 0 && before(this.frontier[i], this.frontier[(i - 1) / 2])) {
+                swapFrontier(i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: swaps the slots at a and b in the frontier
+        private void swapFrontier(int a, int b) {
+            int slot = this.frontier[a];
+            this.frontier[a] = this.frontier[b];
+            this.frontier[b] = slot;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package model;
+
+import java.util.Arrays;
+
+/* One review session on a deck, independent of how the cards are shown, so that the Swing and console front ends run
+   the same session. Grades are kept in a GradeLog, where they can be undone, until commit applies them to the deck. */
+public class ReviewSession {
+    public static final int CORRECT_POINTS = 1;
+    public static final int INCORRECT_POINTS = -1;
+    public static final int BATCH_SIZE = 20;
+
+    private final Deck deck;
+    private final ScoreOrder order;
+    private final long start;
+    private final double startMastery;
+    private final GradeLog log;
+    private ReviewQueue.DueWalk walk;
+    private int[] again;
+    private int numAgain;
+    private int current;
+    private long shownAt;
+    private long lastMillis;
+    private long totalMillis;
+    private long committedSlowestMillis;
+    private int numReviewed;
+    private int numCorrect;
+    private int numAtBest;
+    private int numAtWorst;
+
+    // EFFECTS: constructs a session, starting at time now, on the cards of deck that are due for review then
+    public ReviewSession(Deck deck, long now) {
+        this(deck, null, now);
+    }
+
+    // EFFECTS: constructs a session, starting at time now, on every card of deck in the given order (see
+    //          Deck.weakestFirst), or on the cards due then if order is null
+    public ReviewSession(Deck deck, ScoreOrder order, long now) {
+        this.deck = deck;
+        this.order = order;
+        this.start = now;
+        this.startMastery = deck.getMastery();
+        this.log = new GradeLog();
+        this.again = new int[16];
+    }
+
+    // EFFECTS: returns the deck being reviewed
+    public Deck getDeck() {
+        return this.deck;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns n for the Nth card of the deck, the card to show next (the same one until it is graded), and
+    //          starts timing the answer to it at time now; returns 0 if the session is over
+    public int next(long now) {
+        if (this.current == 0 && this.numAgain > 0) {
+            this.current = this.again[--this.numAgain];
+        } else if (this.current == 0 && this.order != null) {
+            this.current = this.order.next();
+        } else if (this.current == 0) {
+            if (this.walk == null) {
+                this.walk = this.deck.walkDue(this.start);
+            }
+            this.current = this.walk.next() + 1;
+        }
+        this.shownAt = now;
+        return this.current;
+    }
+
+    // EFFECTS: returns n for the Nth card of the deck, the card shown and not yet graded, or 0 if there is none
+    public int getCurrent() {
+        return this.current;
+    }
+
+    // REQUIRES: getCurrent() != 0
+    // MODIFIES: this
+    // EFFECTS: grades the answer to the current card at time now, as correct or not, until commit applies it;
+    //          returns what it will do to the card's score (see Card.changeScoreSaturating)
+    public int grade(boolean correct, long now) {
+        long target = (long) this.deck.getNthScore(this.current) + (correct ? CORRECT_POINTS : INCORRECT_POINTS);
+        int outcome = target > Card.BEST_THRESHOLD ? Card.SCORE_AT_BEST
+                : target < Card.WORST_THRESHOLD ? Card.SCORE_AT_WORST : Card.SCORE_CHANGED;
+        this.lastMillis = Math.max(now - this.shownAt, 0);
+        this.log.add(this.current, correct, outcome, now, this.lastMillis);
+        this.current = 0;
+        count(this.log.size() - 1, 1);
+        return outcome;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: undoes the last grade not yet committed and returns n for the card it was for, which comes up next
+    //          (followed by the card that was being shown, if any); returns 0 if there is no grade to undo
+    public int undo() {
+        if (this.log.size() == 0) {
+            return 0;
+        }
+        if (this.current != 0) {
+            showAgain(this.current);
+            this.current = 0;
+        }
+        int last = this.log.size() - 1;
+        int n = this.log.getCard(last);
+        count(last, -1);
+        this.log.removeLast();
+        showAgain(n);
+        return n;
+    }
+
+    // EFFECTS: returns the number of grades not yet committed
+    public int getNumPending() {
+        return this.log.size();
+    }
+
+    // EFFECTS: returns true if BATCH_SIZE or more grades have not been committed yet
+    public boolean isBatchFull() {
+        return this.log.size() >= BATCH_SIZE;
+    }
+
+    // MODIFIES: this, the deck
+    // EFFECTS: applies every grade not yet committed to the deck, in order: changes each card's score, reschedules
+    //          it and adds the answer to the deck's history; returns n for each card changed
+    public int[] commit() {
+        int[] committed = new int[this.log.size()];
+        ReviewHistory history = this.deck.getHistory();
+        for (int i = 0; i < committed.length; i++) {
+            int n = this.log.getCard(i);
+            boolean correct = this.log.isCorrect(i);
+            this.deck.getNthCard(n).changeScoreSaturating(correct ? CORRECT_POINTS : INCORRECT_POINTS);
+            this.deck.reviewNthCard(n, correct, this.log.getTime(i));
+            history.record(this.deck.getNthId(n), this.log.getTime(i), correct, this.log.getMillis(i));
+            committed[i] = n;
+        }
+        this.committedSlowestMillis = getSlowestMillis();
+        this.log.clear();
+        if (this.order == null && committed.length > 0) {
+            this.walk = null;
+            this.numAgain = 0;
+            this.current = 0;
+        }
+        return committed;
+    }
+
+    // EFFECTS: returns the number of answers graded
+    public int getNumReviewed() {
+        return this.numReviewed;
+    }
+
+    // EFFECTS: returns the number of answers graded as correct
+    public int getNumCorrect() {
+        return this.numCorrect;
+    }
+
+    // EFFECTS: returns the number of answers that would have taken a card past Card.BEST_THRESHOLD, i.e. correct
+    //          answers to a card already there (graded Card.SCORE_AT_BEST); an answer that only brings a card up to
+    //          the threshold is not counted
+    public int getNumAtBest() {
+        return this.numAtBest;
+    }
+
+    // EFFECTS: returns the number of answers that would have taken a card past Card.WORST_THRESHOLD, i.e. incorrect
+    //          answers to a card already there (graded Card.SCORE_AT_WORST); an answer that only brings a card down
+    //          to the threshold is not counted
+    public int getNumAtWorst() {
+        return this.numAtWorst;
+    }
+
+    // EFFECTS: returns how long the last answer graded took, in milliseconds (0 if none has been)
+    public long getLastMillis() {
+        return this.lastMillis;
+    }
+
+    // EFFECTS: returns how long all the answers graded took together, in milliseconds
+    public long getTotalMillis() {
+        return this.totalMillis;
+    }
+
+    // EFFECTS: returns how long the slowest answer graded took, in milliseconds (0 if none has been)
+    public long getSlowestMillis() {
+        return Math.max(this.committedSlowestMillis, this.log.getSlowestMillis());
+    }
+
+    // EFFECTS: returns the mastery (%) of the deck when the session started (see Deck.getMastery)
+    public double getStartMastery() {
+        return this.startMastery;
+    }
+
+    // EFFECTS: returns a summary of the session: the number of cards reviewed and answered correctly, the average
+    //          time per answer, and how the deck's mastery has changed
+    public String summary() {
+        long average = this.numReviewed == 0 ? 0 : this.totalMillis / this.numReviewed;
+        return "You reviewed " + this.numReviewed + " cards and got " + this.numCorrect + " right, taking "
+                + average / 1000.0 + " seconds per card on average.\nYour mastery level has changed from "
+                + this.startMastery + "% to " + this.deck.getMastery() + "%!";
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the ith grade of the log to the counts and times of the session if sign is 1, or takes it away
+    //          from them if sign is -1
+    private void count(int i, int sign) {
+        this.numReviewed += sign;
+        this.totalMillis += sign * this.log.getMillis(i);
+        if (this.log.isCorrect(i)) {
+            this.numCorrect += sign;
+        }
+        if (this.log.getOutcome(i) == Card.SCORE_AT_BEST) {
+            this.numAtBest += sign;
+        } else if (this.log.getOutcome(i) == Card.SCORE_AT_WORST) {
+            this.numAtWorst += sign;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes the Nth card of the deck come up again, before any card put back earlier
+    private void showAgain(int n) {
+        if (this.numAgain == this.again.length) {
+            this.again = Arrays.copyOf(this.again, 2 * this.numAgain);
+        }
+        this.again[this.numAgain++] = n;
+    }
+}
@@ -0,0 +1,93 @@
+package model;
+
+/* When a card should next be reviewed, following the SM-2 spaced repetition algorithm. A schedule never changes;
+   reviewing a card gives it a new one, and a card that has never been reviewed has NEW. */
+public final class Schedule {
+    public static final int DEFAULT_EASE = 250;
+    public static final int MIN_EASE = 130;
+    public static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    public static final Schedule NEW = new Schedule(0, 0, DEFAULT_EASE, 0);
+
+    private static final int SECOND_INTERVAL = 6;
+    private static final int INCORRECT_EASE_PENALTY = 32;
+
+    private final int repetitions;
+    private final int interval;
+    private final int ease;
+    private final long due;
+
+    // REQUIRES: repetitions >= 0, interval >= 0, ease >= MIN_EASE
+    // EFFECTS: constructs a schedule with the given number of correct reviews in a row, interval in days, ease factor
+    //          in hundredths and due time in milliseconds since the epoch
+    public Schedule(int repetitions, int interval, int ease, long due) {
+        this.repetitions = repetitions;
+        this.interval = interval;
+        this.ease = ease;
+        this.due = due;
+    }
+
+    // EFFECTS: returns the number of reviews in a row the card was answered correctly
+    public int getRepetitions() {
+        return this.repetitions;
+    }
+
+    // EFFECTS: returns the number of days between the last review of the card and its next one
+    public int getInterval() {
+        return this.interval;
+    }
+
+    // EFFECTS: returns the ease factor of the card, in hundredths
+    public int getEase() {
+        return this.ease;
+    }
+
+    // EFFECTS: returns the time the card is next due, in milliseconds since the epoch
+    public long getDue() {
+        return this.due;
+    }
+
+    // EFFECTS: returns true if the card has never been reviewed
+    public boolean isNew() {
+        return equals(NEW);
+    }
+
+    // EFFECTS: returns true if the card is due for review at time now
+    public boolean isDue(long now) {
+        return this.due <= now;
+    }
+
+    // EFFECTS: returns the schedule of the card after it is reviewed at time now and answered correctly or not.
+    //          A correct answer moves the card 1 day ahead the first time, 6 days the second time, and then its
+    //          previous interval times its ease factor; a wrong answer moves it 1 day ahead and starts it over.
+    public Schedule next(boolean correct, long now) {
+        if (!correct) {
+            return new Schedule(0, 1, Math.max(this.ease - INCORRECT_EASE_PENALTY, MIN_EASE), now + DAY_MILLIS);
+        }
+        int nextInterval;
+        if (this.repetitions == 0) {
+            nextInterval = 1;
+        } else if (this.repetitions == 1) {
+            nextInterval = SECOND_INTERVAL;
+        } else {
+            nextInterval = (int) Math.min(Math.round(this.interval * (this.ease / 100.0)), Integer.MAX_VALUE);
+        }
+        return new Schedule(this.repetitions + 1, nextInterval, this.ease, now + nextInterval * DAY_MILLIS);
+    }
+
+    @Override
+    // EFFECTS: returns true if o is a schedule with the same repetitions, interval, ease and due time
+    public boolean equals(Object o) {
+        if (!(o instanceof Schedule)) {
+            return false;
+        }
+        Schedule other = (Schedule) o;
+        return this.repetitions == other.repetitions && this.interval == other.interval && this.ease == other.ease
+                && this.due == other.due;
+    }
+
+    @Override
+    // EFFECTS: returns a hash code consistent with equals
+    public int hashCode() {
+        return 31 * (31 * (31 * this.repetitions + this.interval) + this.ease) + Long.hashCode(this.due);
+    }
+}
@@ -0,0 +1,59 @@
+package model;
+
+/* The number of cards at each score in a list of cards, along with their score sum (counting negative scores as 0),
+   kept up to date by the list as cards are added, removed or change score. A score can only be one of the nine values
+   from Card.WORST_THRESHOLD to Card.BEST_THRESHOLD, so the counts take a fixed nine ints however large the list. */
+class ScoreHistogram {
+    static final int NUM_SCORES = Card.BEST_THRESHOLD - Card.WORST_THRESHOLD + 1;
+
+    private final int[] counts;
+    private int scoreSum;
+
+    // EFFECTS: constructs a histogram of no cards
+    ScoreHistogram() {
+        this.counts = new int[NUM_SCORES];
+    }
+
+    // EFFECTS: constructs a copy of histogram
+    ScoreHistogram(ScoreHistogram histogram) {
+        this.counts = histogram.counts.clone();
+        this.scoreSum = histogram.scoreSum;
+    }
+
+    // REQUIRES: Card.WORST_THRESHOLD <= score <= Card.BEST_THRESHOLD
+    // MODIFIES: this
+    // EFFECTS: counts a card with the given score
+    void add(int score) {
+        this.counts[score - Card.WORST_THRESHOLD]++;
+        this.scoreSum += Card.masteryPoints(score);
+    }
+
+    // REQUIRES: a card with the given score has been counted
+    // MODIFIES: this
+    // EFFECTS: stops counting a card with the given score
+    void remove(int score) {
+        this.counts[score - Card.WORST_THRESHOLD]--;
+        this.scoreSum -= Card.masteryPoints(score);
+    }
+
+    // REQUIRES: a card with oldScore has been counted, Card.WORST_THRESHOLD <= newScore <= Card.BEST_THRESHOLD
+    // MODIFIES: this
+    // EFFECTS: counts a card that changed from oldScore to newScore at its new score
+    void move(int oldScore, int newScore) {
+        remove(oldScore);
+        add(newScore);
+    }
+
+    // EFFECTS: returns the number of cards counted with the given score (0 for a score outside the thresholds)
+    int count(int score) {
+        if (score < Card.WORST_THRESHOLD || score > Card.BEST_THRESHOLD) {
+            return 0;
+        }
+        return this.counts[score - Card.WORST_THRESHOLD];
+    }
+
+    // EFFECTS: returns the sum of the scores of the cards counted, counting negative scores as 0
+    int getScoreSum() {
+        return this.scoreSum;
+    }
+}
@@ -0,0 +1,91 @@
+package model;
+
+import java.util.Random;
+
+/* An order in which to review every card of a deck based on the cards' scores (see Deck.weakestFirst,
+   Deck.strongestFirst and Deck.weightedRandom), grouping the cards into a bucket per score instead of sorting them. */
+public class ScoreOrder {
+    private final int[] positions;
+    private final int[] starts;
+    private final int[] remaining;
+    private final Random random;
+    private final int step;
+    private int bucket;
+    private long totalWeight;
+
+    // REQUIRES: step is 1 or -1 if random is null
+    // EFFECTS: constructs an order of the cards in cards that takes each bucket in turn, starting from the weakest
+    //          score if step is 1 or the strongest if step is -1, or that picks at random from random if it is
+    //          not null
+    ScoreOrder(CardStorage cards, int step, Random random) {
+        this.positions = new int[cards.size()];
+        this.starts = new int[ScoreHistogram.NUM_SCORES];
+        this.remaining = new int[ScoreHistogram.NUM_SCORES];
+        int start = 0;
+        for (int b = 0; b < ScoreHistogram.NUM_SCORES; b++) {
+            this.starts[b] = start;
+            start += cards.getScoreCount(Card.WORST_THRESHOLD + b);
+        }
+        for (int i = 0; i < cards.size(); i++) {
+            int b = cards.getScore(i) - Card.WORST_THRESHOLD;
+            this.positions[this.starts[b] + this.remaining[b]++] = i;
+            this.totalWeight += weight(b);
+        }
+        this.random = random;
+        this.step = step;
+        this.bucket = step > 0 ? 0 : ScoreHistogram.NUM_SCORES - 1;
+    }
+
+    // EFFECTS: returns the number of cards still to come
+    public int getNumRemaining() {
+        int count = 0;
+        for (int r : this.remaining) {
+            count += r;
+        }
+        return count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns n for the Nth card of the deck, the next card in this order, or 0 if every card has come up
+    public int next() {
+        if (this.random != null) {
+            return nextRandom();
+        }
+        while (this.bucket >= 0 && this.bucket < ScoreHistogram.NUM_SCORES && this.remaining[this.bucket] == 0) {
+            this.bucket += this.step;
+        }
+        if (this.bucket < 0 || this.bucket >= ScoreHistogram.NUM_SCORES) {
+            return 0;
+        }
+        this.remaining[this.bucket]--;
+        return this.positions[this.starts[this.bucket]++] + 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns n for a card picked at random from those still to come, each weighted by weight(its bucket),
+    //          or 0 if every card has come up. The card is swapped out of its bucket so it does not come up again.
+    private int nextRandom() {
+        if (this.totalWeight == 0) {
+            return 0;
+        }
+        long pick = (long) (this.random.nextDouble() * this.totalWeight);
+        int b = 0;
+        while (pick >= (long) weight(b) * this.remaining[b]) {
+            pick -= (long) weight(b) * this.remaining[b];
+            b++;
+        }
+        int last = this.starts[b] + --this.remaining[b];
+        int slot = this.starts[b] + this.random.nextInt(this.remaining[b] + 1);
+        int position = this.positions[slot];
+        this.positions[slot] = this.positions[last];
+        this.positions[last] = position;
+        this.totalWeight -= weight(b);
+        return position + 1;
+    }
+
+    // EFFECTS: returns how much more likely a card in bucket b is to be picked at random than a card at
+    //          Card.BEST_THRESHOLD: a card at Card.WORST_THRESHOLD is nine times as likely
+    private static int weight(int b) {
+        return ScoreHistogram.NUM_SCORES - b;
+    }
+}
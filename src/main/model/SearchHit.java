@@ -0,0 +1,71 @@
+package model;
+
+/* A card found by a search (see Deck.search and DeckRegistry.search): the deck it is in, its id, where it was in the
+   deck when it was found, and how well it matched the query (a higher score ranks first). */
+public class SearchHit {
+    private final Deck deck;
+    private final int id;
+    private final int position;
+    private final int score;
+    private final int deckOrder;
+
+    // EFFECTS: constructs a hit for the card at the given position (n for the Nth card) of deck, with the given id
+    //          and score; deckOrder is the order in which the deck was searched, which ranks hits with the same score
+    SearchHit(Deck deck, int id, int position, int score, int deckOrder) {
+        this.deck = deck;
+        this.id = id;
+        this.position = position;
+        this.score = score;
+        this.deckOrder = deckOrder;
+    }
+
+    // EFFECTS: returns the deck the card is in
+    public Deck getDeck() {
+        return this.deck;
+    }
+
+    // EFFECTS: returns the id of the card, which finds it in its deck (see Deck.findId) even after other cards move
+    public int getId() {
+        return this.id;
+    }
+
+    // EFFECTS: returns n for the Nth card of the deck, where the card was when it was found
+    public int getPosition() {
+        return this.position;
+    }
+
+    // EFFECTS: returns how well the card matched the query: for each term, 4 if it is a whole word on the card's
+    //          front, 3 if it starts a word on the front, and 2 or 1 likewise for its back
+    public int getScore() {
+        return this.score;
+    }
+
+    // EFFECTS: returns the front of the card, or an empty string if it has since been removed from its deck
+    public String getFront() {
+        int current = this.deck.findId(this.id);
+        return current == 0 ? "" : this.deck.getNthFront(current);
+    }
+
+    // EFFECTS: returns a negative number if this hit ranks above other (a higher score, or the same score and an
+    //          earlier deck or card), a positive number if it ranks below, and 0 if it is the same card
+    int compareRank(SearchHit other) {
+        return compareRank(other.score, other.deckOrder, other.position);
+    }
+
+    // EFFECTS: compares the rank of this hit with that of a hit for the card at the given position of a deck searched
+    //          in the given order, with the given score, as compareRank(SearchHit) does
+    int compareRank(int score, int deckOrder, int position) {
+        if (this.score != score) {
+            return Integer.compare(score, this.score);
+        }
+        if (this.deckOrder != deckOrder) {
+            return Integer.compare(this.deckOrder, deckOrder);
+        }
+        return Integer.compare(this.position, position);
+    }
+
+    @Override
+    public String toString() {
+        return this.deck.getName() + " | " + this.position + ": " + getFront();
+    }
+}
@@ -0,0 +1,129 @@
+package model;
+
+import persistence.ParallelTasks;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/* Computes the statistics of a number of decks (see DeckStats) in parallel on a fork-join pool, from snapshots of the
+   decks, and keeps them until the deck they are of changes. */
+public class StatsEngine {
+    private final ForkJoinPool pool;
+    private final Map<Deck, Cached> cache;
+
+    // EFFECTS: constructs an engine that computes on the common fork-join pool
+    public StatsEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // EFFECTS: constructs an engine that computes on pool
+    public StatsEngine(ForkJoinPool pool) {
+        this.pool = pool;
+        this.cache = new IdentityHashMap<>();
+    }
+
+    // MODIFIES: this, decks
+    // EFFECTS: returns the statistics of each of decks, in order, as of time now, only computing those of the decks
+    //          that changed; throws DeckLoadException if the cards of a deck cannot be read
+    public synchronized List<DeckStats> compute(List<Deck> decks, long now) {
+        long today = Math.floorDiv(now, Schedule.DAY_MILLIS);
+        Map<Deck, Cached> current = new IdentityHashMap<>();
+        List<Callable<DeckStats>> tasks = new ArrayList<>();
+        List<Cached> missing = new ArrayList<>();
+        for (Deck d : decks) {
+            Deck snapshot = d.snapshot();
+            ReviewHistory history = d.getHistory();
+            Cached cached = this.cache.get(d);
+            if (cached == null || !cached.matches(snapshot, history.size(), today)) {
+                cached = new Cached(snapshot, history.size(), today);
+                tasks.add(() -> statsOf(snapshot, history, today));
+                missing.add(cached);
+            }
+            current.put(d, cached);
+        }
+        List<DeckStats> computed = runAll(tasks);
+        for (int i = 0; i < missing.size(); i++) {
+            missing.get(i).stats = computed.get(i);
+        }
+        this.cache.clear();
+        this.cache.putAll(current);
+        return cachedStats(decks);
+    }
+
+    // EFFECTS: returns the cached statistics of each of decks, in order
+    private List<DeckStats> cachedStats(List<Deck> decks) {
+        List<DeckStats> stats = new ArrayList<>(decks.size());
+        for (Deck d : decks) {
+            stats.add(this.cache.get(d).stats);
+        }
+        return stats;
+    }
+
+    // EFFECTS: returns the statistics of deck d, a snapshot, and of the first history.size() rows of its history as of
+    //          day today (counted in days since the epoch)
+    static DeckStats statsOf(Deck d, ReviewHistory history, long today) {
+        List<String> fronts = new ArrayList<>();
+        for (int n = 1; n <= d.getNumOfCards() && fronts.size() < DeckStats.MAX_TROUBLE_FRONTS; n++) {
+            if (d.getNthScore(n) == Card.WORST_THRESHOLD) {
+                fronts.add(d.getNthFront(n));
+            }
+        }
+        int[] volume = new int[DeckStats.NUM_DAYS];
+        int numCorrect = 0;
+        for (int i = 0; i < history.size(); i++) {
+            long age = today - Math.floorDiv(history.getTime(i), Schedule.DAY_MILLIS);
+            if (age >= 0 && age < DeckStats.NUM_DAYS) {
+                volume[(int) age] += history.getNumCorrect(i) + history.getNumIncorrect(i);
+                numCorrect += history.getNumCorrect(i);
+            }
+        }
+        return new DeckStats(d.getName(), d.getScoreHistogram(), fronts, volume, numCorrect);
+    }
+
+    // EFFECTS: runs every task on the pool and returns their results in order; rethrows the first failure (see
+    //          ParallelTasks.unwrap)
+    private List<DeckStats> runAll(List<Callable<DeckStats>> tasks) {
+        List<DeckStats> results = new ArrayList<>(tasks.size());
+        if (tasks.isEmpty()) {
+            return results;
+        }
+        for (Future<DeckStats> future : this.pool.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while computing statistics", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to compute statistics", ParallelTasks.unwrap(e.getCause()));
+            }
+        }
+        return results;
+    }
+
+    /* The statistics computed for a deck, along with what they were computed from. */
+    private static final class Cached {
+        private final Deck snapshot;
+        private final int historySize;
+        private final long day;
+        private DeckStats stats;
+
+        // EFFECTS: constructs an entry for statistics computed from snapshot, the first historySize rows of the
+        //          deck's history and day
+        Cached(Deck snapshot, int historySize, long day) {
+            this.snapshot = snapshot;
+            this.historySize = historySize;
+            this.day = day;
+        }
+
+        // EFFECTS: returns true if statistics computed from snapshot, historySize rows and day would be these
+        boolean matches(Deck snapshot, int historySize, long day) {
+            return this.snapshot == snapshot && this.historySize == historySize && this.day == day;
+        }
+    }
+}
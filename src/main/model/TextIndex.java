@@ -0,0 +1,206 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/* An inverted index of the words on the fronts and backs of a deck's cards, so that cards can be searched for by the
+   words on them (see CardSearch). The deck keeps it up to date as it adds and removes cards itself. */
+class TextIndex {
+    static final int FRONT = 1;
+    static final int BACK = 2;
+    static final int SCORE_BITS = 8;
+    static final int MAX_SCORE = (1 << SCORE_BITS) - 1;
+    private static final int DENSE_RATIO = 32;
+
+    private final CardStorage cards;
+    private final Map<String, Postings> words;
+    private TreeMap<String, Postings> sortedWords;
+    private int numRemoved;
+    private int modifications;
+
+    // EFFECTS: constructs an index of the words on the cards currently in cards
+    TextIndex(CardStorage cards) {
+        this.cards = cards;
+        this.words = new HashMap<>();
+        for (int i = 0; i < cards.size(); i++) {
+            put(i);
+        }
+        this.sortedWords = new TreeMap<>(this.words);
+        this.modifications = cards.getModifications();
+    }
+
+    // EFFECTS: returns true if the index still matches cards, the list it was built from, and is not mostly made up
+    //          of removed cards
+    boolean isCurrent(CardStorage cards) {
+        return this.cards == cards && this.cards.getModifications() == this.modifications
+                && this.numRemoved <= this.cards.size();
+    }
+
+    // REQUIRES: isCurrent(cards) apart from a card having just been added to the end of the list
+    // MODIFIES: this
+    // EFFECTS: adds the words of the new card to the index
+    void added() {
+        put(this.cards.size() - 1);
+        this.modifications = this.cards.getModifications();
+    }
+
+    // REQUIRES: isCurrent(cards) apart from a card having just been removed from the list
+    // MODIFIES: this
+    // EFFECTS: records that a card has been removed; its id is left in the index
+    void removed() {
+        this.numRemoved++;
+        this.modifications = this.cards.getModifications();
+    }
+
+    // EFFECTS: returns the number of card ids (including those of removed cards) listed under the words starting with
+    //          prefix, i.e. the most cards that can match it
+    int countMatches(String prefix) {
+        int count = 0;
+        for (Postings p : wordsStartingWith(prefix).values()) {
+            count += p.size;
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the cards (including removed ones) with a word starting with prefix, in order of id, each as
+    //          (long) id << SCORE_BITS | the card's best score for the prefix (see score). Many matches are put in
+    //          order by marking them in an array indexed by id, and few by sorting them.
+    long[] matches(String prefix) {
+        SortedMap<String, Postings> range = wordsStartingWith(prefix);
+        int count = countMatches(prefix);
+        return (long) count * DENSE_RATIO >= this.cards.getNextId() ? markMatches(range, prefix, count)
+                : sortMatches(range, prefix, count);
+    }
+
+    // EFFECTS: returns how well a card matches a query term through one of its words: 4 if the word is on its front
+    //          and is the whole term, 3 if it is on its front and starts with the term, 2 and 1 likewise for a word
+    //          only on its back, and 0 if the card does not have the word (fields is 0)
+    static int score(int fields, boolean whole) {
+        int score = (fields & FRONT) != 0 ? 3 : (fields & BACK) != 0 ? 1 : 0;
+        return score != 0 && whole ? score + 1 : score;
+    }
+
+    // EFFECTS: returns the words in text, in order: every run of letters and digits, in lower case
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // EFFECTS: returns the part of the index holding the words that start with prefix
+    private SortedMap<String, Postings> wordsStartingWith(String prefix) {
+        return this.sortedWords.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    // EFFECTS: returns the count cards listed in range, as matches does, by marking their best scores in an array
+    //          indexed by id and then going through the array in order
+    private long[] markMatches(SortedMap<String, Postings> range, String prefix, int count) {
+        byte[] scores = new byte[this.cards.getNextId()];
+        for (Map.Entry<String, Postings> e : range.entrySet()) {
+            boolean whole = e.getKey().equals(prefix);
+            Postings p = e.getValue();
+            for (int i = 0; i < p.size; i++) {
+                int id = p.entries[i] >>> 2;
+                scores[id] = (byte) Math.max(scores[id], score(p.entries[i] & (FRONT | BACK), whole));
+            }
+        }
+        long[] found = new long[count];
+        int distinct = 0;
+        for (int id = 0; id < scores.length; id++) {
+            if (scores[id] != 0) {
+                found[distinct++] = (long) id << SCORE_BITS | scores[id];
+            }
+        }
+        return Arrays.copyOf(found, distinct);
+    }
+
+    // EFFECTS: returns the count cards listed in range, as matches does, by sorting them and keeping the best score
+    //          of each card
+    private long[] sortMatches(SortedMap<String, Postings> range, String prefix, int count) {
+        long[] found = new long[count];
+        int next = 0;
+        for (Map.Entry<String, Postings> e : range.entrySet()) {
+            boolean whole = e.getKey().equals(prefix);
+            Postings p = e.getValue();
+            for (int i = 0; i < p.size; i++) {
+                int entry = p.entries[i];
+                found[next++] = (long) (entry >>> 2) << SCORE_BITS | score(entry & (FRONT | BACK), whole);
+            }
+        }
+        Arrays.sort(found);
+        int distinct = 0;
+        for (int i = 0; i < found.length; i++) {
+            if (i + 1 == found.length || found[i] >>> SCORE_BITS != found[i + 1] >>> SCORE_BITS) {
+                found[distinct++] = found[i];
+            }
+        }
+        return Arrays.copyOf(found, distinct);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the words of the card at index to the index, each listed once for the card. A card has few words,
+    //          so repeated words are found by going through the words before them.
+    private void put(int index) {
+        int id = this.cards.getId(index);
+        List<String> front = tokenize(this.cards.getFront(index));
+        List<String> back = tokenize(this.cards.getBack(index));
+        for (int i = 0; i < front.size(); i++) {
+            String word = front.get(i);
+            if (front.indexOf(word) == i) {
+                put(word, id << 2 | FRONT | (back.contains(word) ? BACK : 0));
+            }
+        }
+        for (int i = 0; i < back.size(); i++) {
+            String word = back.get(i);
+            if (back.indexOf(word) == i && !front.contains(word)) {
+                put(word, id << 2 | BACK);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds entry to the list of cards with word, adding the word to the index if no card had it yet (while
+    //          the index is being built, the sorted map is made from every word at once at the end instead)
+    private void put(String word, int entry) {
+        Postings p = this.words.get(word);
+        if (p == null) {
+            p = new Postings();
+            this.words.put(word, p);
+            if (this.sortedWords != null) {
+                this.sortedWords.put(word, p);
+            }
+        }
+        p.add(entry);
+    }
+
+    /* The cards listed under one word: each entry is a card's id shifted left by two, along with FRONT and/or BACK
+       for where the word is on the card. */
+    private static class Postings {
+        int[] entries = new int[2];
+        int size;
+
+        // MODIFIES: this
+        // EFFECTS: adds entry to the end of the list
+        void add(int entry) {
+            if (this.size == this.entries.length) {
+                this.entries = Arrays.copyOf(this.entries, this.size * 2);
+            }
+            this.entries[this.size++] = entry;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package persistence;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/* Replaces a file without ever truncating the live copy: new contents are written to a sibling temp file, forced to
+   disk, and then renamed over the destination in one atomic step. The previous versions are kept as numbered
+   backups (destination.1 is the newest). */
+class AtomicFile {
+    private final Path destination;
+    private final int backups;
+    private Path temp;
+
+    // EFFECTS: constructs a committer for destination that keeps the given number of backups
+    AtomicFile(Path destination, int backups) {
+        this.destination = destination.toAbsolutePath();
+        this.backups = backups;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates (or truncates a stale) temp file next to the destination and returns a stream to write the
+    //          new contents to; throws IOException if the temp file cannot be created
+    FileOutputStream startWrite() throws IOException {
+        temp = destination.resolveSibling(destination.getFileName() + ".tmp");
+        return new FileOutputStream(temp.toFile());
+    }
+
+    // REQUIRES: out was returned by startWrite, and everything written to it has been flushed
+    // MODIFIES: this
+    // EFFECTS: forces the new contents to disk, rotates the backups and renames the temp file over the destination;
+    //          throws IOException (and leaves the destination untouched) if any step fails
+    void finishWrite(FileOutputStream out) throws IOException {
+        try {
+            out.getChannel().force(true);
+        } finally {
+            out.close();
+        }
+        rotateBackups();
+        try {
+            Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+        temp = null;
+        syncDirectory();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: abandons the write, closing out and deleting the temp file (even if out cannot be closed); the
+    //          destination is left untouched
+    void failWrite(FileOutputStream out) {
+        try {
+            out.close();
+        } catch (IOException e) {
+            // The temp file is deleted below either way.
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            // A stale temp file is truncated by the next startWrite; the live file was never touched.
+        }
+        temp = null;
+    }
+
+    // EFFECTS: returns the path of the nth backup of the destination
+    Path backup(int n) {
+        return destination.resolveSibling(destination.getFileName() + "." + n);
+    }
+
+    // EFFECTS: shifts every backup up by one (dropping the oldest) and keeps the current destination as backup 1.
+    //          The destination itself stays in place until it is replaced.
+    private void rotateBackups() throws IOException {
+        if (backups <= 0 || !Files.exists(destination)) {
+            return;
+        }
+        Files.deleteIfExists(backup(backups));
+        for (int i = backups - 1; i >= 1; i--) {
+            if (Files.exists(backup(i))) {
+                Files.move(backup(i), backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        try {
+            Files.createLink(backup(1), destination);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(destination, backup(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // EFFECTS: forces the rename to disk where the platform allows directories to be synced
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(destination.getParent(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the rename itself is still atomic.
+        }
+    }
+}
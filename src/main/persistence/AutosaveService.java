@@ -0,0 +1,141 @@
+package persistence;
+
+import model.Deck;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Saves decks on a background thread once the user pauses, so that neither the Swing event thread nor the console loop
+   waits for a write. */
+public class AutosaveService {
+    private final DeckWriter writer;
+    private final ReviewJournal journal;
+    private final long quietMillis;
+    private final SaveListener listener;
+    private Thread thread;
+
+    private List<Deck> pending;
+    private long pendingSequence;
+    private long dueAt;
+    private boolean urgent;
+    private boolean stopped;
+
+    // EFFECTS: constructs a service that saves snapshots with writer once quietMillis have passed without a change,
+    //          rebases journal (if not null) after each save and reports every save to listener
+    public AutosaveService(DeckWriter writer, ReviewJournal journal, long quietMillis, SaveListener listener) {
+        this.writer = writer;
+        this.journal = journal;
+        this.quietMillis = quietMillis;
+        this.listener = listener;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the background thread that saves snapshots
+    public synchronized void start() {
+        thread = new Thread(this::run, "autosave");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes a snapshot of decks and schedules it to be saved once no further change arrives for the quiet
+    //          period, replacing any snapshot still waiting; throws DeckLoadException if a deck that has to be read
+    //          before it can be saved cannot be read
+    public void changed(List<Deck> decks) {
+        schedule(decks, false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes a snapshot of decks and schedules it to be saved straight away, replacing any snapshot still
+    //          waiting; throws DeckLoadException if a deck that has to be read before it can be saved cannot be read
+    public void saveNow(List<Deck> decks) {
+        schedule(decks, true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the snapshot still waiting (if any) straight away, and stops the background thread once it is
+    //          saved
+    public void close() {
+        Thread running;
+        synchronized (this) {
+            stopped = true;
+            running = thread;
+            notifyAll();
+        }
+        if (running != null) {
+            try {
+                running.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the waiting snapshot with one of decks, due after the quiet period (or straight away if now
+    //          is true, or an earlier request to save straight away is still waiting)
+    private void schedule(List<Deck> decks, boolean now) {
+        List<Deck> snapshot = new ArrayList<>(decks.size());
+        for (Deck d : decks) {
+            snapshot.add(d.snapshot());
+        }
+        synchronized (this) {
+            pending = snapshot;
+            pendingSequence = journal == null ? 0 : journal.sequence();
+            urgent = urgent || now;
+            dueAt = urgent ? System.currentTimeMillis() : System.currentTimeMillis() + quietMillis;
+            notifyAll();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves each snapshot once it is due, until the service is closed
+    private void run() {
+        while (true) {
+            List<Deck> snapshot;
+            long sequence;
+            synchronized (this) {
+                if (!awaitDue()) {
+                    return;
+                }
+                snapshot = pending;
+                sequence = pendingSequence;
+                pending = null;
+                urgent = false;
+            }
+            save(snapshot, sequence);
+        }
+    }
+
+    // REQUIRES: the caller holds this object's lock
+    // EFFECTS: waits until the waiting snapshot is due (or the service is closed, in which case it is due straight
+    //          away), and returns false if the service is closed with no snapshot waiting
+    private boolean awaitDue() {
+        long now = System.currentTimeMillis();
+        while (!stopped && (pending == null || now < dueAt)) {
+            try {
+                wait(pending == null ? 0 : dueAt - now);
+            } catch (InterruptedException e) {
+                stopped = true;
+            }
+            now = System.currentTimeMillis();
+        }
+        return pending != null;
+    }
+
+    // EFFECTS: saves snapshot, which holds the journal up to sequence, then rebases the journal onto the new store and
+    //          reports how long it took
+    private void save(List<Deck> snapshot, long sequence) {
+        long start = System.nanoTime();
+        try {
+            writer.save(snapshot, sequence);
+            if (journal != null) {
+                journal.rebase(sequence);
+            }
+            listener.saveFinished(snapshot.size(), (System.nanoTime() - start) / 1000000);
+        } catch (IOException | RuntimeException e) {
+            listener.saveFailed(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/* Layout of the binary store written by BinaryWriter and read by BinaryReader. Version 7 (written today):
+
+       magic         4 bytes   "RVWB"
+       version       1 byte    7
+       index offset  8 bytes   big-endian long: file offset of the deck index
+       sequence      8 bytes   big-endian long: the number of journal records the store holds (see ReviewJournal)
+       deck blocks             one per deck: its card count and the id its next new card will get as varints, then
+                               each card's front, back, score, schedule and id (as a varint, see model.Deck.getNthId)
+       deck index              deck count as a varint, then for each deck: its name, card count, score sum
+                               (non-negative scores only), the 8-byte offset of its deck block, the block's length
+                               as a varlong and the 8-byte content hash of the block (see ContentHash)
+
+   The index sits at the end so it can be written once every block's offset is known, and it holds everything the
+   main menu needs (name and mastery), so a store can be opened by reading the index alone. The length and hash let
+   the next save copy the block of a deck that has not changed instead of writing it again.
+
+   A card's schedule (see model.Schedule) is a single 0 byte for a card that has never been reviewed; otherwise it is
+   its repetitions plus one, its interval and its ease as varints, followed by its due time as an 8-byte long.
+
+   Version 6 (still readable, but like every older version its blocks are never copied into a new file) has no
+   sequence. Version 5 has the block length as a varint, so it cannot hold a block of 2 GiB or more. Version 4 has
+   no card ids; its cards are given new ones when they are read. Version 3 has no schedules. Version 2 has no block
+   length or hash in the index. Version 1 has a 4-byte deck count and an offset table after the version byte instead
+   of the index offset, and deck blocks that start with the deck's name.
+
+   Strings are a varint byte length followed by UTF-8 bytes, and scores are zig-zag encoded varints, so a typical
+   card costs its text plus four to six bytes. A varlong is a varint of up to 63 bits. */
+final class BinaryFormat {
+    static final byte[] MAGIC = {'R', 'V', 'W', 'B'};
+    static final int VERSION = 7;
+    static final int VERSION_WITHOUT_SEQUENCE = 6;
+    static final int VERSION_WITH_INT_LENGTH = 5;
+    static final int VERSION_WITHOUT_IDS = 4;
+    static final int VERSION_WITHOUT_SCHEDULE = 3;
+    static final int VERSION_WITHOUT_HASH = 2;
+    static final int VERSION_WITHOUT_INDEX = 1;
+    static final int INDEX_POINTER_OFFSET = MAGIC.length + 1;
+    static final int HEADER_SIZE = INDEX_POINTER_OFFSET + 16;
+
+    private BinaryFormat() {
+    }
+
+    // EFFECTS: returns the size of the header of a file of the given version (with an index)
+    static int headerSize(int version) {
+        return version > VERSION_WITHOUT_SEQUENCE ? HEADER_SIZE : HEADER_SIZE - 8;
+    }
+
+    // EFFECTS: returns true if the file at path starts with the binary store's magic header;
+    //          throws IOException if the file exists but cannot be read
+    static boolean isBinary(Path path) throws IOException {
+        byte[] header = new byte[MAGIC.length];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read = 0;
+            while (read < header.length) {
+                int n = in.read(header, read, header.length - read);
+                if (n < 0) {
+                    return false;
+                }
+                read += n;
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        return Arrays.equals(header, MAGIC);
+    }
+
+    // EFFECTS: returns score zig-zag encoded, so that small negative scores stay small as varints
+    static int encodeScore(int score) {
+        return (score << 1) ^ (score >> 31);
+    }
+
+    // EFFECTS: returns the score that was zig-zag encoded as value
+    static int decodeScore(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
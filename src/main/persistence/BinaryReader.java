@@ -0,0 +1,417 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.Card;
+import model.Deck;
+import model.Schedule;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/* Reads decks from a file in the compact binary store format (see BinaryFormat). read loads every card up front;
+   readIndex reads only the deck index at the end of the file and leaves each deck's cards to be read from its block
+   the first time they are needed. */
+public class BinaryReader implements DeckReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String source;
+    private InputStream in;
+    private long position;
+    private long size;
+    private byte[] text;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this.source = source;
+        this.text = new byte[256];
+    }
+
+    @Override
+    // EFFECTS: reads all decks from file and returns it;
+    // throws IOException if an error occurs reading data from file, or the file is not a valid binary store
+    public List<Deck> read() throws IOException, ExceedThresholdException, InvalidCardException {
+        try (InputStream stream = open()) {
+            in = stream;
+            position = 0;
+            int version = readVersion();
+            if (version == BinaryFormat.VERSION_WITHOUT_INDEX) {
+                return readWithoutIndex();
+            }
+            long indexOffset = readHeader(version);
+            Map<Long, CardColumns> blocks = readBlocks(indexOffset, version);
+            List<Deck> decks = new ArrayList<>(blocks.size());
+            for (IndexEntry entry : readIndexEntries(indexOffset, version)) {
+                CardColumns cards = blocks.get(entry.offset);
+                if (cards == null || cards.size() != entry.numOfCards) {
+                    throw corrupt("deck index does not match deck block at " + entry.offset);
+                }
+                decks.add(toDeck(entry, cards));
+            }
+            return decks;
+        } finally {
+            in = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads every deck block (in the layout of the given version) up to the index and returns their cards
+    //          by block offset
+    private Map<Long, CardColumns> readBlocks(long indexOffset, int version) throws IOException {
+        Map<Long, CardColumns> blocks = new HashMap<>();
+        while (position < indexOffset) {
+            long offset = position;
+            blocks.put(offset, readCards(version));
+        }
+        return blocks;
+    }
+
+    // EFFECTS: returns the deck described by entry, holding the given cards
+    private static Deck toDeck(IndexEntry entry, CardColumns cards)
+            throws ExceedThresholdException, InvalidCardException {
+        Deck d = cards.toDeck(entry.name);
+        if (entry.hashed) {
+            d.markSaved(entry.hash);
+        }
+        return d;
+    }
+
+    // EFFECTS: reads only the deck index from file and returns decks whose cards are read from the file the first
+    //          time they are needed (a store saved without an index is read in full instead);
+    //          throws IOException if an error occurs reading data from file, or the file is not a valid binary store
+    public List<Deck> readIndex() throws IOException, ExceedThresholdException, InvalidCardException {
+        List<IndexEntry> entries = readEntries();
+        if (entries == null) {
+            return read();
+        }
+        List<Deck> decks = new ArrayList<>(entries.size());
+        for (IndexEntry entry : entries) {
+            Deck d;
+            if (entry.hashed) {
+                d = new Deck(entry.name, entry.numOfCards, entry.scoreSum,
+                        () -> new BinaryReader(source).readBlock(entry.name, entry.hash));
+                d.markSaved(entry.hash);
+            } else {
+                d = new Deck(entry.name, entry.numOfCards, entry.scoreSum,
+                        () -> new BinaryReader(source).readBlock(entry));
+            }
+            decks.add(d);
+        }
+        return decks;
+    }
+
+    // EFFECTS: reads and returns the deck index of the file, or null if the file was saved without one;
+    //          throws IOException if an error occurs reading data from file, or the file is not a valid binary store
+    List<IndexEntry> readEntries() throws IOException {
+        try (InputStream stream = open()) {
+            in = stream;
+            position = 0;
+            int version = readVersion();
+            if (version == BinaryFormat.VERSION_WITHOUT_INDEX) {
+                return null;
+            }
+            long indexOffset = readHeader(version);
+            skipTo(indexOffset);
+            return readIndexEntries(indexOffset, version);
+        } finally {
+            in = null;
+        }
+    }
+
+    // EFFECTS: reads the cards of the deck with the given name and content hash. Looking the deck up in the index
+    //          (rather than remembering its offset) keeps this working after the file is saved again with the deck
+    //          unchanged but moved. Throws IOException if the file no longer holds that deck.
+    private List<Card> readBlock(String name, long hash)
+            throws IOException, ExceedThresholdException, InvalidCardException {
+        List<IndexEntry> entries = readEntries();
+        if (entries != null) {
+            for (IndexEntry entry : entries) {
+                if (entry.hashed && entry.hash == hash && entry.name.equals(name)) {
+                    return readBlock(entry);
+                }
+            }
+        }
+        throw new IOException("Store no longer holds the saved cards of deck " + name + ": " + source);
+    }
+
+    // EFFECTS: reads the cards in the deck block described by entry
+    private List<Card> readBlock(IndexEntry entry) throws IOException, ExceedThresholdException, InvalidCardException {
+        try (InputStream stream = open()) {
+            in = stream;
+            position = 0;
+            skipTo(entry.offset);
+            CardColumns cards = readCards(entry.version);
+            if (cards.size() != entry.numOfCards) {
+                throw corrupt("deck block at " + entry.offset + " does not match deck index");
+            }
+            return cards.toCards();
+        } finally {
+            in = null;
+        }
+    }
+
+    // EFFECTS: returns the number of journal records the store holds (0 for a file saved without a sequence);
+    //          throws IOException if an error occurs reading data from file, or the file is not a valid binary store
+    public long readSequence() throws IOException {
+        try (InputStream stream = open()) {
+            in = stream;
+            position = 0;
+            int version = readVersion();
+            if (version <= BinaryFormat.VERSION_WITHOUT_SEQUENCE) {
+                return 0;
+            }
+            readFixed(8);
+            return readFixed(8);
+        } finally {
+            in = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the file for buffered reading and notes its size
+    private InputStream open() throws IOException {
+        Path path = Paths.get(source);
+        size = Files.size(path);
+        return new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and checks the magic header, and returns the (supported) version of the file
+    private int readVersion() throws IOException {
+        for (byte b : BinaryFormat.MAGIC) {
+            if (readByte() != b) {
+                throw corrupt("missing magic header");
+            }
+        }
+        int version = readByte();
+        if (version < BinaryFormat.VERSION_WITHOUT_INDEX || version > BinaryFormat.VERSION) {
+            throw corrupt("unsupported version " + version);
+        }
+        return version;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of the header of a file of the given version (with an index) and returns the index offset
+    private long readHeader(int version) throws IOException {
+        long indexOffset = readFixed(8);
+        if (version > BinaryFormat.VERSION_WITHOUT_SEQUENCE) {
+            readFixed(8);
+        }
+        return indexOffset;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the deck index that starts at indexOffset, in the layout of the given version
+    private List<IndexEntry> readIndexEntries(long indexOffset, int version) throws IOException {
+        if (position != indexOffset) {
+            throw corrupt("deck index at " + position + " does not match header");
+        }
+        int count = readVarint();
+        List<IndexEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            IndexEntry entry = readIndexEntry(version);
+            if (entry.offset < BinaryFormat.headerSize(version) || entry.offset >= indexOffset
+                    || entry.offset + entry.length > indexOffset) {
+                throw corrupt("deck offset " + entry.offset + " out of range");
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next entry of the deck index, in the layout of the given version
+    private IndexEntry readIndexEntry(int version) throws IOException {
+        IndexEntry entry = new IndexEntry();
+        entry.version = version;
+        entry.name = readString();
+        entry.numOfCards = readVarint();
+        entry.scoreSum = readVarint();
+        entry.offset = readFixed(8);
+        if (version > BinaryFormat.VERSION_WITH_INT_LENGTH) {
+            entry.length = readVarlong();
+            entry.hash = readFixed(8);
+            entry.hashed = true;
+        } else if (version >= BinaryFormat.VERSION_WITHOUT_SCHEDULE) {
+            entry.length = readVarint();
+            entry.hash = readFixed(8);
+            entry.hashed = true;
+        }
+        return entry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a version 1 file (deck count, offset table and named deck blocks)
+    private List<Deck> readWithoutIndex() throws IOException, ExceedThresholdException, InvalidCardException {
+        int count = (int) readFixed(4);
+        if (count < 0) {
+            throw corrupt("negative deck count");
+        }
+        long[] offsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = readFixed(8);
+        }
+        List<Deck> decks = new ArrayList<>(count);
+        for (long offset : offsets) {
+            if (position != offset) {
+                throw corrupt("deck block at " + position + " does not match offset table");
+            }
+            String name = readString();
+            decks.add(readCards(BinaryFormat.VERSION_WITHOUT_INDEX).toDeck(name));
+        }
+        return decks;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a card count (and the deck's next card id) followed by that many cards, in the layout of the
+    //          given version
+    private CardColumns readCards(int version) throws IOException {
+        int count = readVarint();
+        CardColumns cards = new CardColumns(Math.min(count, 1024));
+        boolean withIds = version > BinaryFormat.VERSION_WITHOUT_IDS;
+        if (withIds) {
+            cards.setNextId(readVarint());
+        }
+        for (int i = 0; i < count; i++) {
+            String front = readString();
+            String back = readString();
+            int score = BinaryFormat.decodeScore(readVarint());
+            Schedule schedule = version >= BinaryFormat.VERSION_WITHOUT_IDS ? readSchedule() : Schedule.NEW;
+            cards.add(front, back, score, schedule, withIds ? readVarint() : 0);
+        }
+        return cards;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the schedule of a card
+    private Schedule readSchedule() throws IOException {
+        int repetitions = readVarint() - 1;
+        if (repetitions < 0) {
+            return Schedule.NEW;
+        }
+        int interval = readVarint();
+        int ease = readVarint();
+        return new Schedule(repetitions, interval, ease, readFixed(8));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips forward to the given offset in the file
+    private void skipTo(long offset) throws IOException {
+        if (offset < position) {
+            throw corrupt("offset " + offset + " is behind the current position");
+        }
+        while (position < offset) {
+            long skipped = in.skip(offset - position);
+            if (skipped <= 0) {
+                readByte();
+            } else {
+                position += skipped;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a length-prefixed UTF-8 string; throws IOException if its length runs past the end of the file
+    private String readString() throws IOException {
+        int length = readVarint();
+        if (length > size - position) {
+            throw corrupt("string of " + length + " bytes at " + position + " runs past the end of the file");
+        }
+        if (length > text.length) {
+            text = new byte[Math.max(length, text.length * 2)];
+        }
+        int read = 0;
+        while (read < length) {
+            int n = in.read(text, read, length - read);
+            if (n < 0) {
+                throw new EOFException("Unexpected end of store: " + source);
+            }
+            read += n;
+        }
+        position += length;
+        return new String(text, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a non-negative varint
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw corrupt("varint out of range");
+                }
+                return value;
+            }
+        }
+        throw corrupt("varint too long");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a non-negative varlong
+    private long readVarlong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 63; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw corrupt("varlong out of range");
+                }
+                return value;
+            }
+        }
+        throw corrupt("varlong too long");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a big-endian number of the given width in bytes
+    private long readFixed(int width) throws IOException {
+        long value = 0;
+        for (int i = 0; i < width; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a single unsigned byte; throws EOFException at the end of the file
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Unexpected end of store: " + source);
+        }
+        position++;
+        return b;
+    }
+
+    // EFFECTS: returns an IOException describing why the file is not a valid binary store
+    private IOException corrupt(String reason) {
+        return new IOException("Not a valid binary store (" + reason + "): " + source);
+    }
+
+    /* One deck's entry in the deck index, from a file of the given version. length and hash are only known (hashed)
+       for files of version 3 and later. */
+    static class IndexEntry {
+        int version;
+        String name;
+        int numOfCards;
+        int scoreSum;
+        long offset;
+        long length;
+        long hash;
+        boolean hashed;
+    }
+}
@@ -0,0 +1,272 @@
+package persistence;
+
+import exceptions.DeckLoadException;
+import model.Deck;
+import model.Schedule;
+import persistence.BinaryReader.IndexEntry;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/* Saves decks in the compact binary store format (see BinaryFormat), copying the blocks of unchanged decks from the
+   previous file. The file is replaced atomically, like JsonWriter.save. */
+public class BinaryWriter implements DeckWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String destination;
+    private final int backups;
+    private OutputStream out;
+    private long position;
+    private long hash;
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinaryWriter(String destination) {
+        this(destination, 0);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, keeping the given number of previous versions of
+    //          the file as backups
+    public BinaryWriter(String destination, int backups) {
+        this.destination = destination;
+        this.backups = backups;
+    }
+
+    // MODIFIES: decks
+    // EFFECTS: saves decks as save(decks, 0) does
+    public void save(List<Deck> decks) throws IOException {
+        save(decks, 0);
+    }
+
+    @Override
+    // MODIFIES: decks
+    // EFFECTS: durably replaces the destination file with the binary representation of decks and sequence, and marks
+    //          every deck as saved; throws IOException (leaving the destination untouched) if saving fails
+    public void save(List<Deck> decks, long sequence) throws IOException {
+        Map<String, IndexEntry> previous = previousBlocks();
+        AtomicFile file = new AtomicFile(Paths.get(destination), backups);
+        FileOutputStream fileOut = file.startWrite();
+        IndexEntry[] entries;
+        try {
+            entries = writeStore(decks, sequence, previous, fileOut);
+            file.finishWrite(fileOut);
+        } catch (IOException | RuntimeException e) {
+            file.failWrite(fileOut);
+            throw e;
+        } finally {
+            out = null;
+        }
+        for (int i = 0; i < decks.size(); i++) {
+            decks.get(i).markSaved(entries[i].hash);
+        }
+    }
+
+    // EFFECTS: returns the hashed index entries of the file currently at the destination, by deck name. An unreadable
+    //          (or missing, or older) file has none, so every deck is written out in full; neither does a file of an
+    //          older version, whose blocks are laid out differently.
+    private Map<String, IndexEntry> previousBlocks() {
+        Map<String, IndexEntry> blocks = new HashMap<>();
+        try {
+            if (BinaryFormat.isBinary(Paths.get(destination))) {
+                List<IndexEntry> entries = new BinaryReader(destination).readEntries();
+                for (IndexEntry entry : entries == null ? new ArrayList<IndexEntry>() : entries) {
+                    if (entry.hashed && entry.version == BinaryFormat.VERSION) {
+                        blocks.put(entry.name, entry);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            blocks.clear();
+        }
+        return blocks;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the header, every deck block and the deck index to fileOut, and returns the index entries
+    private IndexEntry[] writeStore(List<Deck> decks, long sequence, Map<String, IndexEntry> previous,
+                                    FileOutputStream fileOut) throws IOException {
+        try (FileChannel old = previous.isEmpty() ? null : FileChannel.open(Paths.get(destination))) {
+            out = new BufferedOutputStream(fileOut, BUFFER_SIZE);
+            writeHeader(sequence);
+            IndexEntry[] entries = new IndexEntry[decks.size()];
+            for (int i = 0; i < decks.size(); i++) {
+                Deck d = decks.get(i);
+                IndexEntry saved = previous.get(d.getName());
+                if (saved != null && !d.isModified() && d.getSavedHash() == saved.hash) {
+                    entries[i] = copyBlock(saved, old, fileOut.getChannel());
+                } else {
+                    entries[i] = writeDeck(d);
+                }
+            }
+            long indexOffset = position;
+            writeIndex(entries);
+            out.flush();
+            writeIndexPointer(fileOut.getChannel(), indexOffset);
+            return entries;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the header, with the index offset left to be filled in by writeIndexPointer
+    private void writeHeader(long sequence) throws IOException {
+        position = 0;
+        writeBytes(BinaryFormat.MAGIC, BinaryFormat.MAGIC.length);
+        writeByte(BinaryFormat.VERSION);
+        writeFixed(0, 8);
+        writeFixed(sequence, 8);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the block described by saved from the previous file to the end of target, and returns its
+    //          entry in the new file
+    private IndexEntry copyBlock(IndexEntry saved, FileChannel old, FileChannel target) throws IOException {
+        out.flush();
+        IndexEntry entry = entryAt(saved.name, saved.numOfCards, saved.scoreSum);
+        long copied = 0;
+        while (copied < saved.length) {
+            long n = old.transferTo(saved.offset + copied, saved.length - copied, target);
+            if (n <= 0) {
+                throw new EOFException("Unexpected end of previous store: " + destination);
+            }
+            copied += n;
+        }
+        position += copied;
+        entry.length = copied;
+        entry.hash = saved.hash;
+        return entry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the block for deck d (reading its cards from the old store first if they have not been read)
+    //          and returns its index entry
+    private IndexEntry writeDeck(Deck d) throws IOException {
+        try {
+            d.load();
+        } catch (DeckLoadException e) {
+            throw new IOException(e.getMessage(), e.getCause());
+        }
+        int count = d.getNumOfCards();
+        IndexEntry entry = entryAt(d.getName(), count, d.getScoreSum());
+        hash = ContentHash.INITIAL;
+        writeVarint(count);
+        writeVarint(d.getNextId());
+        for (int n = 1; n <= count; n++) {
+            writeString(d.getNthFront(n));
+            writeString(d.getNthBack(n));
+            writeVarint(BinaryFormat.encodeScore(d.getNthScore(n)));
+            writeSchedule(d.getNthSchedule(n));
+            writeVarint(d.getNthId(n));
+        }
+        entry.length = position - entry.offset;
+        entry.hash = hash;
+        return entry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the schedule of a card (a single 0 for a card that has never been reviewed)
+    private void writeSchedule(Schedule schedule) throws IOException {
+        if (schedule.isNew()) {
+            writeVarint(0);
+        } else {
+            writeVarint(schedule.getRepetitions() + 1);
+            writeVarint(schedule.getInterval());
+            writeVarint(schedule.getEase());
+            writeFixed(schedule.getDue(), 8);
+        }
+    }
+
+    // EFFECTS: returns a new index entry for a block starting at the current position
+    private IndexEntry entryAt(String name, int numOfCards, int scoreSum) {
+        IndexEntry entry = new IndexEntry();
+        entry.version = BinaryFormat.VERSION;
+        entry.name = name;
+        entry.numOfCards = numOfCards;
+        entry.scoreSum = scoreSum;
+        entry.offset = position;
+        entry.hashed = true;
+        return entry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the deck index
+    private void writeIndex(IndexEntry[] entries) throws IOException {
+        writeVarint(entries.length);
+        for (IndexEntry entry : entries) {
+            writeString(entry.name);
+            writeVarint(entry.numOfCards);
+            writeVarint(entry.scoreSum);
+            writeFixed(entry.offset, 8);
+            writeVarlong(entry.length);
+            writeFixed(entry.hash, 8);
+        }
+    }
+
+    // EFFECTS: fills in the index offset in the header at the start of the file
+    private void writeIndexPointer(FileChannel channel, long indexOffset) throws IOException {
+        ByteBuffer pointer = ByteBuffer.allocate(8);
+        pointer.putLong(indexOffset);
+        pointer.flip();
+        long at = BinaryFormat.INDEX_POINTER_OFFSET;
+        while (pointer.hasRemaining()) {
+            at += channel.write(pointer, at);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes s as its UTF-8 byte length followed by the bytes
+    private void writeString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        writeBytes(bytes, bytes.length);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the non-negative value in as few bytes as possible, seven bits at a time
+    private void writeVarint(int value) throws IOException {
+        writeVarlong(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the non-negative value in as few bytes as possible, seven bits at a time
+    private void writeVarlong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value as a big-endian number of the given width in bytes
+    private void writeFixed(long value, int width) throws IOException {
+        for (int shift = (width - 1) * 8; shift >= 0; shift -= 8) {
+            writeByte((int) (value >>> shift));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a single byte
+    private void writeByte(int b) throws IOException {
+        out.write(b);
+        position++;
+        hash = ContentHash.update(hash, b);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the first length bytes of bytes
+    private void writeBytes(byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        position += length;
+        hash = ContentHash.update(hash, bytes, length);
+    }
+}
@@ -0,0 +1,100 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.Card;
+import model.Deck;
+import model.Schedule;
+
+import java.util.Arrays;
+import java.util.List;
+
+/* The cards read for one deck, kept in growable arrays so that the readers can build the deck with a single
+   Deck.addCards call. */
+class CardColumns {
+    static final int COMPACT_THRESHOLD = 10_000;
+
+    private String[] fronts;
+    private String[] backs;
+    private int[] scores;
+    private Schedule[] schedules;
+    private int[] ids;
+    private int nextId;
+    private int size;
+
+    // EFFECTS: constructs empty columns with room for capacity cards before they need to grow
+    CardColumns(int capacity) {
+        int initial = Math.max(capacity, 1);
+        this.fronts = new String[initial];
+        this.backs = new String[initial];
+        this.scores = new int[initial];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a card with the given front, back, score, schedule and id (0 for a card saved without one)
+    void add(String front, String back, int score, Schedule schedule, int id) {
+        if (size == fronts.length) {
+            grow();
+        }
+        if (schedules == null && !schedule.isNew()) {
+            schedules = new Schedule[fronts.length];
+        }
+        if (ids == null && id != 0) {
+            ids = new int[fronts.length];
+        }
+        if (ids != null) {
+            ids[size] = id;
+            nextId = Math.max(nextId, id + 1);
+        }
+        fronts[size] = front;
+        backs[size] = back;
+        scores[size] = score;
+        if (schedules != null) {
+            schedules[size] = schedule;
+        }
+        size++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the id the deck's next new card is to be given (0 for a deck saved without one)
+    void setNextId(int nextId) {
+        this.nextId = Math.max(this.nextId, nextId);
+    }
+
+    // EFFECTS: returns the number of cards appended
+    int size() {
+        return size;
+    }
+
+    // EFFECTS: returns a new deck with the given name holding these cards, stored compactly (see Deck.compact) if
+    //          there are at least COMPACT_THRESHOLD of them; throws InvalidCardException or ExceedThresholdException
+    //          (for the first card that is not valid) instead of returning a partial deck
+    Deck toDeck(String name) throws ExceedThresholdException, InvalidCardException {
+        Deck d = new Deck(name);
+        if (size >= COMPACT_THRESHOLD) {
+            d.compact();
+        }
+        d.reserveIds(nextId);
+        d.addCards(fronts, backs, scores, schedules, ids, size).throwIfRejected();
+        return d;
+    }
+
+    // EFFECTS: returns these cards; throws as toDeck does if any of them is not valid
+    List<Card> toCards() throws ExceedThresholdException, InvalidCardException {
+        return toDeck("").getCards();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the room for cards
+    private void grow() {
+        fronts = Arrays.copyOf(fronts, size * 2);
+        backs = Arrays.copyOf(backs, size * 2);
+        scores = Arrays.copyOf(scores, size * 2);
+        if (schedules != null) {
+            schedules = Arrays.copyOf(schedules, size * 2);
+        }
+        if (ids != null) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package persistence;
+
+/* 64-bit FNV-1a hash of stored bytes, used to recognise a deck whose saved copy can be reused as is */
+final class ContentHash {
+    static final long INITIAL = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private ContentHash() {
+    }
+
+    // EFFECTS: returns hash updated with the byte b
+    static long update(long hash, int b) {
+        return (hash ^ (b & 0xFF)) * PRIME;
+    }
+
+    // EFFECTS: returns hash updated with the first length bytes of bytes
+    static long update(long hash, byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * PRIME;
+        }
+        return hash;
+    }
+
+    // EFFECTS: returns the hash of bytes
+    static long of(byte[] bytes) {
+        return update(INITIAL, bytes, bytes.length);
+    }
+}
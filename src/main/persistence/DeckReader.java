@@ -0,0 +1,15 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.Deck;
+
+import java.io.IOException;
+import java.util.List;
+
+/* Something that can load all decks from a store */
+public interface DeckReader {
+    // EFFECTS: reads all decks from the store and returns it;
+    // throws IOException if an error occurs reading data from the store
+    List<Deck> read() throws IOException, ExceedThresholdException, InvalidCardException;
+}
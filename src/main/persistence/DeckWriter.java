@@ -0,0 +1,14 @@
+package persistence;
+
+import model.Deck;
+
+import java.io.IOException;
+import java.util.List;
+
+/* Something that can save all decks to a store */
+public interface DeckWriter {
+    // EFFECTS: replaces the contents of the store with decks, which hold the first sequence records of the store's
+    // journal (see ReviewJournal.sequence);
+    // throws IOException (leaving the store untouched) if an error occurs writing to the store
+    void save(List<Deck> decks, long sequence) throws IOException;
+}
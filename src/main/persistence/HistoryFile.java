@@ -0,0 +1,320 @@
+package persistence;
+
+import model.Deck;
+import model.ReviewHistory;
+import model.Schedule;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/* The review history of every deck of a store (see model.ReviewHistory), kept in a file of its own (store +
+   ".history") that only ever has blocks appended to it: a magic header "RVWH" and a version byte, then for each
+   block its length as a 4-byte int, the deck's name, the row count and the rows a column at a time as varints. A
+   block with no rows marks the deck as deleted (see drop). */
+public class HistoryFile {
+    public static final int MAX_BLOCKS = 256;
+    public static final long RAW_MILLIS = 90 * Schedule.DAY_MILLIS;
+    private static final byte[] MAGIC = {'R', 'V', 'W', 'H'};
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+    private static final int LENGTH_SIZE = 4;
+
+    private final Path path;
+    private int blocks;
+
+    // EFFECTS: constructs a history file for the given store file
+    public HistoryFile(String store) {
+        this.path = Paths.get(store + ".history");
+    }
+
+    // EFFECTS: returns the number of blocks in the file as of the last load, rewrite or append
+    public int getNumBlocks() {
+        return this.blocks;
+    }
+
+    // MODIFIES: this, decks
+    // EFFECTS: adds the rows in the file to the histories of decks, by deck name, and downsamples and rewrites the
+    //          file once MAX_BLOCKS blocks have built up; throws IOException if the file cannot be read or rewritten
+    public void load(List<Deck> decks, long now) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(this.path);
+        } catch (NoSuchFileException e) {
+            this.blocks = 0;
+            return;
+        }
+        if (bytes.length < HEADER_SIZE || !Arrays.equals(Arrays.copyOf(bytes, MAGIC.length), MAGIC)
+                || bytes[MAGIC.length] != VERSION) {
+            throw new IOException("Not a history file: " + this.path);
+        }
+        int end = readBlocks(bytes, byName(decks));
+        if (end < bytes.length) {
+            try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+        if (this.blocks >= MAX_BLOCKS) {
+            for (Deck d : decks) {
+                d.getHistory().downsample(now - RAW_MILLIS, Schedule.DAY_MILLIS);
+            }
+            rewrite(decks);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the rows of deck d's history from row from on to the file as one block; throws IOException
+    //          if the rows cannot be written
+    public void append(Deck d, int from) throws IOException {
+        ReviewHistory history = d.getHistory();
+        if (from < history.size()) {
+            appendBlock(encodeBlock(d.getName(), history, from));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a block with no rows for deck d (once it has been deleted), so that a deck later made with
+    //          that name starts with no history; throws IOException if the block cannot be written
+    public void drop(Deck d) throws IOException {
+        appendBlock(encodeBlock(d.getName(), new ReviewHistory(), 0));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends block to the file, creating the file if needed, and flushes it to the file system
+    private void appendBlock(byte[] block) throws IOException {
+        try (OutputStream out = Files.newOutputStream(this.path, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            if (Files.size(this.path) == 0) {
+                writeHeader(out);
+            }
+            out.write(block);
+        }
+        this.blocks++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: durably replaces the file with one holding a single block for each of decks with any history;
+    //          throws IOException (leaving the file untouched) if it cannot be written
+    public void rewrite(List<Deck> decks) throws IOException {
+        AtomicFile file = new AtomicFile(this.path, 0);
+        FileOutputStream fileOut = file.startWrite();
+        int written = 0;
+        try {
+            OutputStream out = new BufferedOutputStream(fileOut);
+            writeHeader(out);
+            for (Deck d : decks) {
+                if (d.getHistory().size() > 0) {
+                    out.write(encodeBlock(d.getName(), d.getHistory(), 0));
+                    written++;
+                }
+            }
+            out.flush();
+            file.finishWrite(fileOut);
+        } catch (IOException | RuntimeException e) {
+            file.failWrite(fileOut);
+            throw e;
+        }
+        this.blocks = written;
+    }
+
+    // MODIFIES: this, the histories in decks
+    // EFFECTS: reads the complete blocks of bytes into the histories of decks and returns where the last of them
+    //          ends; a block whose length runs past the end of bytes is left unread
+    private int readBlocks(byte[] bytes, Map<String, Deck> decks) throws IOException {
+        Decoder in = new Decoder(bytes, HEADER_SIZE);
+        this.blocks = 0;
+        while (in.pos + LENGTH_SIZE <= bytes.length) {
+            int length = in.readInt();
+            if (length < 0 || length > bytes.length - in.pos) {
+                return in.pos - LENGTH_SIZE;
+            }
+            int next = in.pos + length;
+            Deck d = decks.get(in.readString());
+            if (d != null) {
+                readRows(in, d.getHistory());
+            }
+            in.pos = next;
+            this.blocks++;
+        }
+        return in.pos;
+    }
+
+    // MODIFIES: in, history
+    // EFFECTS: reads the rows of a block from in, a column at a time, and adds them to history; a block with no rows
+    //          clears history instead
+    private static void readRows(Decoder in, ReviewHistory history) throws IOException {
+        int count = (int) in.readVarlong();
+        if (count == 0) {
+            history.clear();
+            return;
+        }
+        int[] ids = in.readColumn(count);
+        long[] times = new long[count];
+        long time = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = in.readVarlong();
+            time += (delta >>> 1) ^ -(delta & 1);
+            times[i] = time;
+        }
+        int[] correct = in.readColumn(count);
+        int[] incorrect = in.readColumn(count);
+        int[] millis = in.readColumn(count);
+        for (int i = 0; i < count; i++) {
+            history.add(ids[i], times[i], correct[i], incorrect[i], millis[i]);
+        }
+    }
+
+    // EFFECTS: returns a block holding the rows of history from row from on, for the deck with the given name,
+    //          starting with its length
+    private static byte[] encodeBlock(String name, ReviewHistory history, int from) {
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        writeVarlong(block, nameBytes.length);
+        block.write(nameBytes, 0, nameBytes.length);
+        writeVarlong(block, history.size() - from);
+        for (int i = from; i < history.size(); i++) {
+            writeVarlong(block, history.getId(i) & 0xFFFFFFFFL);
+        }
+        writeTimes(block, history, from);
+        for (int i = from; i < history.size(); i++) {
+            writeVarlong(block, history.getNumCorrect(i));
+        }
+        for (int i = from; i < history.size(); i++) {
+            writeVarlong(block, history.getNumIncorrect(i));
+        }
+        for (int i = from; i < history.size(); i++) {
+            writeVarlong(block, history.getMillis(i));
+        }
+        return withLength(block);
+    }
+
+    // MODIFIES: block
+    // EFFECTS: writes the times of the rows of history from row from on, each as the zig-zag encoded difference from
+    //          the time before it (the first from 0)
+    private static void writeTimes(ByteArrayOutputStream block, ReviewHistory history, int from) {
+        long time = 0;
+        for (int i = from; i < history.size(); i++) {
+            long delta = history.getTime(i) - time;
+            writeVarlong(block, (delta << 1) ^ (delta >> 63));
+            time = history.getTime(i);
+        }
+    }
+
+    // EFFECTS: returns the bytes of block preceded by their number as a big-endian int
+    private static byte[] withLength(ByteArrayOutputStream block) {
+        byte[] bytes = new byte[LENGTH_SIZE + block.size()];
+        int length = block.size();
+        for (int i = 0; i < LENGTH_SIZE; i++) {
+            bytes[i] = (byte) (length >>> (8 * (LENGTH_SIZE - 1 - i)));
+        }
+        System.arraycopy(block.toByteArray(), 0, bytes, LENGTH_SIZE, length);
+        return bytes;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes value, taken as unsigned, in as few bytes as possible, seven bits at a time
+    private static void writeVarlong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the magic header and version
+    private static void writeHeader(OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    // EFFECTS: returns decks by name
+    private static Map<String, Deck> byName(List<Deck> decks) {
+        Map<String, Deck> map = new HashMap<>();
+        for (Deck d : decks) {
+            map.put(d.getName(), d);
+        }
+        return map;
+    }
+
+    /* Reads the values of a history file from its bytes, from a given position on. */
+    private static final class Decoder {
+        private final byte[] bytes;
+        private int pos;
+
+        // EFFECTS: constructs a decoder reading bytes from pos on
+        Decoder(byte[] bytes, int pos) {
+            this.bytes = bytes;
+            this.pos = pos;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads a 4-byte big-endian int
+        int readInt() throws IOException {
+            int value = 0;
+            for (int i = 0; i < LENGTH_SIZE; i++) {
+                value = value << 8 | readByte();
+            }
+            return value;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads a value written seven bits at a time
+        long readVarlong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in history file");
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads count varints, as ints
+        int[] readColumn(int count) throws IOException {
+            int[] column = new int[count];
+            for (int i = 0; i < count; i++) {
+                column[i] = (int) readVarlong();
+            }
+            return column;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads a string written as its UTF-8 byte length followed by the bytes
+        String readString() throws IOException {
+            int length = (int) readVarlong();
+            if (length < 0 || length > this.bytes.length - this.pos) {
+                throw new EOFException("Unexpected end of history file");
+            }
+            String s = new String(this.bytes, this.pos, length, StandardCharsets.UTF_8);
+            this.pos += length;
+            return s;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads a single byte; throws EOFException at the end of the bytes
+        private int readByte() throws EOFException {
+            if (this.pos >= this.bytes.length) {
+                throw new EOFException("Unexpected end of history file");
+            }
+            return this.bytes[this.pos++] & 0xFF;
+        }
+    }
+}
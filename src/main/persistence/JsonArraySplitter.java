@@ -0,0 +1,187 @@
+package persistence;
+
+import org.json.JSONException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Finds where each element of an array held under one key of a JSON document's top-level object starts and ends,
+   without parsing the elements, so that they can be parsed independently (see JsonReader.readParallel). */
+final class JsonArraySplitter {
+    private final byte[] data;
+    private int pos;
+
+    // EFFECTS: constructs a splitter for the UTF-8 JSON document in data
+    JsonArraySplitter(byte[] data) {
+        this.data = data;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the {start, end} byte offsets (end exclusive) of each element of the array under key in the
+    //          top-level object, in order. The key must be written without escapes; if it appears more than once the
+    //          last one is used. Throws JSONException if the document is not an object holding an array under key.
+    List<int[]> split(String key) {
+        byte[] name = ('"' + key + '"').getBytes(StandardCharsets.UTF_8);
+        List<int[]> elements = null;
+        pos = 0;
+        expect('{');
+        boolean more = peek() != '}';
+        while (more) {
+            int nameStart = skipWhitespace();
+            skipString();
+            boolean wanted = matches(name, nameStart);
+            expect(':');
+            if (wanted) {
+                elements = splitArray();
+            } else {
+                skipValue();
+            }
+            more = next(',');
+        }
+        expect('}');
+        if (skipWhitespace() < data.length) {
+            throw error("unexpected content after document");
+        }
+        return JsonReader.require(elements, key);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes an array and returns the byte range of each of its elements
+    private List<int[]> splitArray() {
+        List<int[]> elements = new ArrayList<>();
+        expect('[');
+        boolean more = peek() != ']';
+        while (more) {
+            int start = skipWhitespace();
+            skipValue();
+            elements.add(new int[] {start, pos});
+            more = next(',');
+        }
+        expect(']');
+        return elements;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next value, whatever its type
+    private void skipValue() {
+        byte b = peek();
+        if (b == '"') {
+            skipString();
+        } else if (b == '{' || b == '[') {
+            skipNested();
+        } else {
+            int start = pos;
+            while (pos < data.length && !isDelimiter(data[pos])) {
+                pos++;
+            }
+            if (pos == start) {
+                throw error("expected a value");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes an object or array, including everything nested in it
+    private void skipNested() {
+        int depth = 0;
+        do {
+            if (pos >= data.length) {
+                throw error("unterminated object or array");
+            }
+            byte b = data[pos];
+            if (b == '"') {
+                skipString();
+                continue;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+            pos++;
+        } while (depth > 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a string, including its quotes; throws JSONException if the next value is not a string
+    private void skipString() {
+        if (peek() != '"') {
+            throw error("expected a string");
+        }
+        pos++;
+        while (pos < data.length) {
+            byte b = data[pos++];
+            if (b == '\\') {
+                pos++;
+            } else if (b == '"') {
+                return;
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    // EFFECTS: returns true if the bytes from start up to the current position are exactly expected
+    private boolean matches(byte[] expected, int start) {
+        if (pos - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (data[start + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes c if it is the next character, and returns whether it was
+    private boolean next(char c) {
+        if (pos < data.length && peek() == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes c; throws JSONException if it is not the next character
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the next byte without consuming it; throws JSONException at the end
+    private byte peek() {
+        if (skipWhitespace() >= data.length) {
+            throw error("unexpected end of document");
+        }
+        return data[pos];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the new position
+    private int skipWhitespace() {
+        while (pos < data.length && isWhitespace(data[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    // EFFECTS: returns true if b ends a number or literal
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '}' || b == ']' || b == ':' || isWhitespace(b);
+    }
+
+    // EFFECTS: returns true if b is JSON whitespace
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    // EFFECTS: returns a JSONException describing a problem at the current position
+    private JSONException error(String reason) {
+        return new JSONException("Malformed JSON (" + reason + ") at byte " + pos);
+    }
+}
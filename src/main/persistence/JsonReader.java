@@ -1,23 +1,32 @@
 package persistence;
 
 import exceptions.InvalidCardException;
-import model.Card;
 import model.Deck;
+import model.Schedule;
 import exceptions.ExceedThresholdException;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 /* Reads JSON file and loads the data automatically
    Made with reference: https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo */
-public class JsonReader {
+public class JsonReader implements DeckReader {
+    private static final int MIN_TASK_BYTES = 64 * 1024;
+    private static final List<String> NUMBER_KEYS = Arrays.asList("repetitions", "interval", "ease", "due", "id");
+
     private String source;
 
     // EFFECTS: constructs reader to read from source file
@@ -25,6 +34,7 @@ public class JsonReader {
         this.source = source;
     }
 
+    @Override
     // EFFECTS: reads all decks from file and returns it;
     // throws IOException if an error occurs reading data from file
     public List<Deck> read() throws IOException, ExceedThresholdException, InvalidCardException {
@@ -33,6 +43,65 @@ public class JsonReader {
         return parseDecks(jsonObject);
     }
 
+    // EFFECTS: reads all decks from file one token at a time and returns it, without holding the whole file or a
+    //          JSONObject tree in memory (only the deck being parsed is buffered);
+    //          throws IOException if an error occurs reading data from file
+    public List<Deck> readStreaming() throws IOException, ExceedThresholdException, InvalidCardException {
+        try (JsonStreamReader in = new JsonStreamReader(
+                new InputStreamReader(Files.newInputStream(Paths.get(source)), StandardCharsets.UTF_8))) {
+            return streamDecks(in);
+        }
+    }
+
+    // EFFECTS: reads all decks from file one token at a time, then replays the changes recorded in journal on top of
+    //          them and returns the result;
+    //          throws IOException if an error occurs reading data from file or journal
+    public List<Deck> readStreaming(ReviewJournal journal)
+            throws IOException, ExceedThresholdException, InvalidCardException {
+        List<Deck> decks = readStreaming();
+        journal.replay(decks);
+        return decks;
+    }
+
+    // EFFECTS: returns the number of journal records the file holds (0 for a file saved without one), reading no
+    //          further than needed; throws IOException if an error occurs reading data from file
+    public long readSequence() throws IOException {
+        try (JsonStreamReader in = new JsonStreamReader(
+                new InputStreamReader(Files.newInputStream(Paths.get(source)), StandardCharsets.UTF_8))) {
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("journal")) {
+                    return in.nextLong();
+                }
+                in.skipValue();
+            }
+            return 0;
+        }
+    }
+
+    // EFFECTS: reads all decks from file, parsing them on the common fork-join pool at the same time, and returns
+    //          them in file order; throws IOException if an error occurs reading data from file
+    public List<Deck> readParallel() throws IOException, ExceedThresholdException, InvalidCardException {
+        return readParallel(ForkJoinPool.commonPool());
+    }
+
+    // EFFECTS: reads all decks from file, parsing batches of them on pool at the same time, and returns them in file
+    //          order; throws IOException if an error occurs reading data from file
+    public List<Deck> readParallel(ForkJoinPool pool)
+            throws IOException, ExceedThresholdException, InvalidCardException {
+        byte[] data = Files.readAllBytes(Paths.get(source));
+        List<int[]> ranges = new JsonArraySplitter(data).split("decks");
+        List<Callable<List<Deck>>> tasks = new ArrayList<>();
+        for (List<int[]> batch : batches(ranges)) {
+            tasks.add(() -> parseRanges(data, batch));
+        }
+        List<Deck> decks = new ArrayList<>(ranges.size());
+        for (List<Deck> parsed : ParallelTasks.runAll(pool, tasks, source)) {
+            decks.addAll(parsed);
+        }
+        return decks;
+    }
+
     // EFFECTS: reads source file as string and returns it
     private String readFile(String source) throws IOException {
         StringBuilder contentBuilder = new StringBuilder();
@@ -44,6 +113,33 @@ public class JsonReader {
         return contentBuilder.toString();
     }
 
+    // EFFECTS: groups consecutive deck ranges into batches of at least MIN_TASK_BYTES (except the last), so that a
+    //          store of many small decks is not split into tasks too small to be worth scheduling
+    private static List<List<int[]>> batches(List<int[]> ranges) {
+        List<List<int[]>> batches = new ArrayList<>();
+        int first = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            if (i == ranges.size() - 1 || ranges.get(i)[1] - ranges.get(first)[0] >= MIN_TASK_BYTES) {
+                batches.add(ranges.subList(first, i + 1));
+                first = i + 1;
+            }
+        }
+        return batches;
+    }
+
+    // EFFECTS: parses the deck in each of the given byte ranges of data and returns them in order
+    private List<Deck> parseRanges(byte[] data, List<int[]> ranges)
+            throws IOException, ExceedThresholdException, InvalidCardException {
+        List<Deck> decks = new ArrayList<>(ranges.size());
+        for (int[] range : ranges) {
+            try (JsonStreamReader in = new JsonStreamReader(new InputStreamReader(
+                    new ByteArrayInputStream(data, range[0], range[1] - range[0]), StandardCharsets.UTF_8))) {
+                decks.add(streamDeck(in));
+            }
+        }
+        return decks;
+    }
+
     // EFFECTS: parses all decks from JSON object and returns it
     public List<Deck> parseDecks(JSONObject jsonObject) throws ExceedThresholdException, InvalidCardException {
         JSONArray jsonArray = jsonObject.getJSONArray("decks");
@@ -59,29 +155,131 @@ public class JsonReader {
     // EFFECTS: parses deck from JSON object and returns it
     private Deck parseDeck(JSONObject jsonObject) throws ExceedThresholdException, InvalidCardException {
         String name = jsonObject.getString("name");
-        Deck d = new Deck(name);
-        addCards(d, jsonObject);
-        return d;
+        return parseCards(jsonObject).toDeck(name);
     }
 
-    // MODIFIES: d
-    // EFFECTS: parses cards from JSON object (deck) and adds them to deck
-    private void addCards(Deck d, JSONObject jsonObject) throws ExceedThresholdException, InvalidCardException {
+    // EFFECTS: parses cards from JSON object (deck) and returns them
+    private CardColumns parseCards(JSONObject jsonObject) {
         JSONArray jsonArray = jsonObject.getJSONArray("flashcards");
+        CardColumns cards = new CardColumns(jsonArray.length());
         for (Object json : jsonArray) {
-            JSONObject nextThingy = (JSONObject) json;
-            addCard(d, nextThingy);
+            JSONObject card = (JSONObject) json;
+            cards.add(card.getString("front"), card.getString("back"), card.getInt("score"), parseSchedule(card),
+                    card.optInt("id"));
+        }
+        cards.setNextId(jsonObject.optInt("nextId"));
+        return cards;
+    }
+
+    // EFFECTS: parses the schedule of a card from its JSON object; a card saved without one has never been reviewed
+    private static Schedule parseSchedule(JSONObject card) {
+        if (!card.has("due")) {
+            return Schedule.NEW;
+        }
+        return new Schedule(card.optInt("repetitions"), card.optInt("interval"),
+                card.optInt("ease", Schedule.DEFAULT_EASE), card.getLong("due"));
+    }
+
+    // EFFECTS: parses all decks from the token stream and returns it
+    private List<Deck> streamDecks(JsonStreamReader in)
+            throws IOException, ExceedThresholdException, InvalidCardException {
+        List<Deck> decks = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("decks")) {
+                decks = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    decks.add(streamDeck(in));
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return require(decks, "decks");
+    }
+
+    // EFFECTS: parses the next deck from the token stream and returns it
+    private Deck streamDeck(JsonStreamReader in) throws IOException, ExceedThresholdException, InvalidCardException {
+        String name = null;
+        CardColumns cards = null;
+        int nextId = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            if (key.equals("name")) {
+                name = in.nextString();
+            } else if (key.equals("nextId")) {
+                nextId = in.nextInt();
+            } else if (key.equals("flashcards")) {
+                cards = streamCards(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        require(name, "name");
+        require(cards, "flashcards").setNextId(nextId);
+        return cards.toDeck(name);
+    }
+
+    // EFFECTS: parses the next array of cards from the token stream and returns it
+    private CardColumns streamCards(JsonStreamReader in) throws IOException {
+        CardColumns cards = new CardColumns(16);
+        in.beginArray();
+        while (in.hasNext()) {
+            streamCard(in, cards);
         }
+        in.endArray();
+        return cards;
     }
 
-    // MODIFIES: d
-    // EFFECTS: parses card from JSON object and adds it to deck
-    private void addCard(Deck d, JSONObject jsonObject) throws ExceedThresholdException, InvalidCardException {
-        String front = jsonObject.getString("front");
-        String back = jsonObject.getString("back");
-        int score = jsonObject.getInt("score");
-        Card c = new Card(front, back);
-        c.changeScoreBy(score);
-        d.addCard(c);
+    // MODIFIES: cards
+    // EFFECTS: parses the next card from the token stream and appends it to cards
+    private void streamCard(JsonStreamReader in, CardColumns cards) throws IOException {
+        String front = null;
+        String back = null;
+        Integer score = null;
+        long[] numbers = {0, 0, Schedule.DEFAULT_EASE, Long.MIN_VALUE, 0};
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            int field = NUMBER_KEYS.indexOf(key);
+            if (key.equals("front")) {
+                front = in.nextString();
+            } else if (key.equals("back")) {
+                back = in.nextString();
+            } else if (key.equals("score")) {
+                score = in.nextInt();
+            } else if (field >= 0) {
+                numbers[field] = in.nextLong();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        cards.add(require(front, "front"), require(back, "back"), require(score, "score"), toSchedule(numbers),
+                (int) numbers[4]);
+    }
+
+    // EFFECTS: returns the schedule with the repetitions, interval, ease and due time in the first four of fields (in
+    //          the order of NUMBER_KEYS), or Schedule.NEW if the card had no due time (as parseSchedule does)
+    private static Schedule toSchedule(long[] fields) {
+        if (fields[3] == Long.MIN_VALUE) {
+            return Schedule.NEW;
+        }
+        return new Schedule((int) fields[0], (int) fields[1], (int) fields[2], fields[3]);
+    }
+
+    // EFFECTS: returns value; throws JSONException (like JSONObject does) if the key it belongs to was missing
+    static <T> T require(T value, String key) {
+        if (value == null) {
+            throw new JSONException("JSONObject[\"" + key + "\"] not found.");
+        }
+        return value;
     }
 }
@@ -0,0 +1,338 @@
+package persistence;
+
+import org.json.JSONException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/* Pull parser that reads a JSON document one token at a time from a Reader, so that callers can build objects
+   straight from the stream without holding the whole document (or a JSONObject tree) in memory.
+   Malformed documents are reported with JSONException, the same way org.json reports them. */
+public class JsonStreamReader implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int DOCUMENT = 0;
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+
+    private final Reader in;
+    private final char[] buffer;
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private int[] stack;
+    private int depth;
+    private final StringBuilder text;
+
+    // EFFECTS: constructs a parser that reads tokens from in
+    public JsonStreamReader(Reader in) {
+        this.in = in;
+        this.buffer = new char[BUFFER_SIZE];
+        this.stack = new int[32];
+        this.stack[0] = DOCUMENT;
+        this.depth = 1;
+        this.text = new StringBuilder();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the start of an object; throws JSONException if the next token is not '{'
+    public void beginObject() throws IOException {
+        beforeValue();
+        expect('{');
+        push(EMPTY_OBJECT);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the end of the current object; throws JSONException if the next token is not '}'
+    public void endObject() throws IOException {
+        expect('}');
+        depth--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the start of an array; throws JSONException if the next token is not '['
+    public void beginArray() throws IOException {
+        beforeValue();
+        expect('[');
+        push(EMPTY_ARRAY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the end of the current array; throws JSONException if the next token is not ']'
+    public void endArray() throws IOException {
+        expect(']');
+        depth--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if the current object or array has another element
+    public boolean hasNext() throws IOException {
+        int c = peekNonWhitespace();
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next property name (and the ':' after it) in the current object and returns it
+    public String nextName() throws IOException {
+        int scope = stack[depth - 1];
+        if (scope == NONEMPTY_OBJECT) {
+            expect(',');
+        } else if (scope != EMPTY_OBJECT) {
+            throw syntaxError("Expected a property name");
+        }
+        expect('"');
+        String name = readString();
+        expect(':');
+        stack[depth - 1] = DANGLING_NAME;
+        return name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next value and returns it as a string; throws JSONException if it is not a string
+    public String nextString() throws IOException {
+        beforeValue();
+        expect('"');
+        return readString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next value and returns it as an int; throws JSONException if it is not a number
+    public int nextInt() throws IOException {
+        String literal = nextNumber();
+        try {
+            return (int) Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Expected a number but was " + literal);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next value and returns it as a long; throws JSONException if it is not a number
+    public long nextLong() throws IOException {
+        String literal = nextNumber();
+        try {
+            return Long.parseLong(literal);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(literal);
+            } catch (NumberFormatException notDouble) {
+                throw syntaxError("Expected a number but was " + literal);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and discards the next value, including everything nested in it
+    public void skipValue() throws IOException {
+        beforeValue();
+        int c = peekNonWhitespace();
+        if (c == '{') {
+            read();
+            push(EMPTY_OBJECT);
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        } else if (c == '[') {
+            read();
+            push(EMPTY_ARRAY);
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else if (c == '"') {
+            read();
+            readString();
+        } else {
+            readLiteral();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the underlying reader
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next value and returns its text (without quotes, if it is a quoted number)
+    private String nextNumber() throws IOException {
+        beforeValue();
+        if (peekNonWhitespace() == '"') {
+            read();
+            return readString();
+        }
+        return readLiteral();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the ',' separating array elements if needed, and marks the current scope as non-empty
+    private void beforeValue() throws IOException {
+        int scope = stack[depth - 1];
+        if (scope == NONEMPTY_ARRAY) {
+            expect(',');
+        } else if (scope == EMPTY_ARRAY) {
+            stack[depth - 1] = NONEMPTY_ARRAY;
+        } else if (scope == DANGLING_NAME) {
+            stack[depth - 1] = NONEMPTY_OBJECT;
+        } else if (scope != DOCUMENT) {
+            throw syntaxError("Expected a property name before value");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens a new nested scope
+    private void push(int scope) {
+        if (depth == stack.length) {
+            int[] bigger = new int[depth * 2];
+            System.arraycopy(stack, 0, bigger, 0, depth);
+            stack = bigger;
+        }
+        stack[depth++] = scope;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next non-whitespace character; throws JSONException if it is not c
+    private void expect(char c) throws IOException {
+        int next = peekNonWhitespace();
+        if (next != c) {
+            throw syntaxError("Expected '" + c + "' but was " + describe(next));
+        }
+        read();
+    }
+
+    // REQUIRES: the opening quote has already been consumed
+    // MODIFIES: this
+    // EFFECTS: consumes a string up to and including its closing quote and returns its unescaped contents
+    private String readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return text.toString();
+            } else if (c == '\\') {
+                text.append(readEscape());
+            } else if (c == -1 || c == '\n' || c == '\r') {
+                throw syntaxError("Unterminated string");
+            } else {
+                text.append((char) c);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the character(s) after a backslash and returns the character they stand for
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'f':
+                return '\f';
+            case 'r':
+                return '\r';
+            case 'u':
+                return readUnicodeEscape();
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                return (char) c;
+            default:
+                throw syntaxError("Illegal escape " + describe(c));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes four hex digits and returns the character they encode
+    private char readUnicodeEscape() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw syntaxError("Illegal unicode escape");
+            }
+            value = (value << 4) + digit;
+        }
+        return (char) value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes an unquoted literal (number, true, false or null) and returns it
+    private String readLiteral() throws IOException {
+        text.setLength(0);
+        int c = peekNonWhitespace();
+        while (Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.') {
+            text.append((char) read());
+            c = peek();
+        }
+        if (text.length() == 0) {
+            throw syntaxError("Expected a value but was " + describe(c));
+        }
+        return text.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the next character without consuming it, or -1 at end of input
+    private int peekNonWhitespace() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character without consuming it, or -1 at end of input
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next character, or -1 at end of input
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos++];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refills the buffer from the reader; returns false if the reader has no more characters
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    // EFFECTS: returns a readable description of character c for error messages
+    private static String describe(int c) {
+        return c == -1 ? "end of input" : "'" + (char) c + "'";
+    }
+
+    // EFFECTS: returns a JSONException with the given message and the current position in the input
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at character " + (consumed + pos));
+    }
+}
@@ -0,0 +1,199 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/* Emits a JSON document one token at a time to a Writer, so that objects can be serialized while they are walked
+   without building a JSONObject tree or the whole document as a String first.
+   An indent of 0 gives compact output with no whitespace at all. */
+public class JsonStreamWriter implements Closeable, Flushable {
+    private static final int DOCUMENT = 0;
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+
+    private final Writer out;
+    private final int indent;
+    private int[] stack;
+    private int depth;
+
+    // EFFECTS: constructs an emitter that writes to out, indenting nested values by indent spaces
+    //          (or writing compact output if indent is 0)
+    public JsonStreamWriter(Writer out, int indent) {
+        this.out = out;
+        this.indent = indent;
+        this.stack = new int[32];
+        this.stack[0] = DOCUMENT;
+        this.depth = 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the start of an object
+    public void beginObject() throws IOException {
+        beforeValue();
+        out.write('{');
+        push(EMPTY_OBJECT);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the end of the current object
+    public void endObject() throws IOException {
+        closeScope(NONEMPTY_OBJECT, '}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the start of an array
+    public void beginArray() throws IOException {
+        beforeValue();
+        out.write('[');
+        push(EMPTY_ARRAY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the end of the current array
+    public void endArray() throws IOException {
+        closeScope(NONEMPTY_ARRAY, ']');
+    }
+
+    // REQUIRES: the current scope is an object that is not waiting for a value
+    // MODIFIES: this
+    // EFFECTS: writes a property name; the next value written belongs to it
+    public void name(String name) throws IOException {
+        if (stack[depth - 1] == NONEMPTY_OBJECT) {
+            out.write(',');
+        }
+        newline();
+        string(name);
+        out.write(':');
+        if (indent > 0) {
+            out.write(' ');
+        }
+        stack[depth - 1] = DANGLING_NAME;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a string value
+    public void value(String value) throws IOException {
+        beforeValue();
+        string(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a number value
+    public void value(int value) throws IOException {
+        beforeValue();
+        out.write(Integer.toString(value));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a number value
+    public void value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes the underlying writer
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the underlying writer
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the separator needed before the next value and marks the current scope as non-empty
+    private void beforeValue() throws IOException {
+        int scope = stack[depth - 1];
+        if (scope == NONEMPTY_ARRAY) {
+            out.write(',');
+            newline();
+        } else if (scope == EMPTY_ARRAY) {
+            stack[depth - 1] = NONEMPTY_ARRAY;
+            newline();
+        } else if (scope == DANGLING_NAME) {
+            stack[depth - 1] = NONEMPTY_OBJECT;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the current scope with the given bracket, putting it on its own line if the scope has elements
+    private void closeScope(int nonEmpty, char bracket) throws IOException {
+        depth--;
+        if (stack[depth] == nonEmpty) {
+            newline();
+        }
+        out.write(bracket);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens a new nested scope
+    private void push(int scope) {
+        if (depth == stack.length) {
+            int[] bigger = new int[depth * 2];
+            System.arraycopy(stack, 0, bigger, 0, depth);
+            stack = bigger;
+        }
+        stack[depth++] = scope;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new line indented to the current depth (does nothing in compact mode)
+    private void newline() throws IOException {
+        if (indent > 0) {
+            out.write('\n');
+            for (int i = 0; i < (depth - 1) * indent; i++) {
+                out.write(' ');
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes s as a quoted JSON string, escaping characters as needed
+    private void string(String s) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String escape = escape(c);
+            if (escape != null) {
+                out.write(s, start, i - start);
+                out.write(escape);
+                start = i + 1;
+            }
+        }
+        out.write(s, start, s.length() - start);
+        out.write('"');
+    }
+
+    // EFFECTS: returns the escape sequence for c, or null if c can be written as is
+    private static String escape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            case '\b':
+                return "\\b";
+            case '\f':
+                return "\\f";
+            default:
+                return c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+        }
+    }
+}
@@ -4,28 +4,50 @@ import model.Deck;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.List;
 
 /* Writes existing data to file when the application is closed
    Made with reference: https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo */
-public class JsonWriter {
+public class JsonWriter implements DeckWriter {
     private static final int TAB = 4;
     private PrintWriter writer;
     private String destination;
+    private boolean compact;
+    private int backups;
 
     // EFFECTS: constructs writer to write to destination file
     public JsonWriter(String destination) {
+        this(destination, false);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, with no indentation at all if compact is true
+    public JsonWriter(String destination, boolean compact) {
+        this(destination, compact, 0);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, with no indentation at all if compact is true.
+    //          save keeps the given number of previous versions of the file as backups.
+    public JsonWriter(String destination, boolean compact, int backups) {
         this.destination = destination;
+        this.compact = compact;
+        this.backups = backups;
     }
 
     // MODIFIES: this
     // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
     // be opened for writing
     public void open() throws FileNotFoundException {
-        writer = new PrintWriter(new File(destination));
+        writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(destination), StandardCharsets.UTF_8)));
     }
 
     // MODIFIES: this
@@ -33,7 +55,57 @@ public class JsonWriter {
     public void write(List<Deck> decks) {
         JSONObject json = new JSONObject();
         json.put("decks", addDecks(decks));
-        saveToFile(json.toString(TAB));
+        saveToFile(compact ? json.toString() : json.toString(TAB));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of decks in application to file one token at a time, as the decks are
+    //          walked, without building a JSONObject tree or the whole document in memory;
+    //          throws IOException if an error occurs writing to the file
+    public void writeStreaming(List<Deck> decks) throws IOException {
+        writeTokens(decks, 0, writer);
+        if (writer.checkError()) {
+            throw new IOException("Unable to write to file: " + destination);
+        }
+    }
+
+    // EFFECTS: saves decks as save(decks, 0) does
+    public void save(List<Deck> decks) throws IOException {
+        save(decks, 0);
+    }
+
+    @Override
+    // EFFECTS: durably replaces the destination file with the JSON representation of decks and sequence (see
+    //          AtomicFile); throws IOException (leaving the destination untouched) if saving fails
+    public void save(List<Deck> decks, long sequence) throws IOException {
+        AtomicFile file = new AtomicFile(Paths.get(destination), backups);
+        FileOutputStream out = file.startWrite();
+        try {
+            Writer tempWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeTokens(decks, sequence, tempWriter);
+            file.finishWrite(out);
+        } catch (IOException | RuntimeException e) {
+            file.failWrite(out);
+            throw e;
+        }
+    }
+
+    // EFFECTS: streams the JSON representation of decks to out, preceded by sequence unless it is 0, and flushes it
+    private void writeTokens(List<Deck> decks, long sequence, Writer out) throws IOException {
+        JsonStreamWriter json = new JsonStreamWriter(out, compact ? 0 : TAB);
+        json.beginObject();
+        if (sequence != 0) {
+            json.name("journal");
+            json.value(sequence);
+        }
+        json.name("decks");
+        json.beginArray();
+        for (Deck d : decks) {
+            d.writeJson(json);
+        }
+        json.endArray();
+        json.endObject();
+        json.flush();
     }
 
     // EFFECTS: returns decks in this application as a JSONArray
@@ -0,0 +1,66 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/* Runs a batch of tasks that read or write a store on a fork-join pool, and reports a failed task with the exception
+   it threw rather than the wrappers the pool adds around it. Other code running tasks on a pool (such as
+   model.StatsEngine) unwraps their failures with unwrap. */
+public final class ParallelTasks {
+    private ParallelTasks() {
+    }
+
+    // EFFECTS: runs every task on pool and returns their results in order. Rethrows the first failure; store names
+    //          the store being accessed in the message reported if the calling thread is interrupted.
+    static <T> List<T> runAll(ForkJoinPool pool, List<Callable<T>> tasks, Object store)
+            throws IOException, ExceedThresholdException, InvalidCardException {
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Future<T> future : pool.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while accessing store: " + store);
+            } catch (ExecutionException e) {
+                rethrow(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    // EFFECTS: rethrows cause (see unwrap), wrapping any checked exception a store does not report in an
+    //          IOException
+    private static void rethrow(Throwable cause) throws IOException, ExceedThresholdException, InvalidCardException {
+        Throwable failure = unwrap(cause);
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure instanceof ExceedThresholdException) {
+            throw (ExceedThresholdException) failure;
+        } else if (failure instanceof InvalidCardException) {
+            throw (InvalidCardException) failure;
+        }
+        throw new IOException(failure);
+    }
+
+    // EFFECTS: given the cause of an ExecutionException, strips the RuntimeExceptions ForkJoinPool wraps a task's
+    //          exception in, throws the exception if it is unchecked and otherwise returns it
+    public static Throwable unwrap(Throwable cause) {
+        while (cause.getClass() == RuntimeException.class && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause;
+    }
+}
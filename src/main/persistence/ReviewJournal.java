@@ -0,0 +1,362 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.Card;
+import model.Deck;
+import model.Schedule;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Write-ahead journal kept next to the store (as store.journal), a compact JSON record per line after a base line
+   holding the sequence of the store it follows on from (see DeckWriter.save). Replaying it skips the records the
+   store already holds, so a crash between saving the store and rebasing the journal loses nothing. */
+public class ReviewJournal {
+    public static final String OP_NEW_DECK = "newDeck";
+    public static final String OP_DELETE_DECK = "deleteDeck";
+    public static final String OP_ADD_CARD = "addCard";
+    public static final String OP_REMOVE_CARD = "removeCard";
+    public static final String OP_SCORE = "score";
+    public static final String OP_SCHEDULE = "schedule";
+    private static final String OP_BASE = "base";
+
+    private final String store;
+    private final Path journal;
+    private Writer writer;
+    private long base;
+    private int records;
+
+    // EFFECTS: constructs a journal for the given store file
+    public ReviewJournal(String store) {
+        this.store = store;
+        this.journal = Paths.get(store + ".journal");
+    }
+
+    // EFFECTS: returns a record of deck d being created
+    public static JSONObject newDeck(Deck d) {
+        return record(OP_NEW_DECK, d);
+    }
+
+    // EFFECTS: returns a record of deck d being deleted
+    public static JSONObject deleteDeck(Deck d) {
+        return record(OP_DELETE_DECK, d);
+    }
+
+    // EFFECTS: returns a record of card c being added to the end of deck d
+    public static JSONObject addCard(Deck d, Card c) {
+        JSONObject json = record(OP_ADD_CARD, d);
+        json.put("front", c.getFront());
+        json.put("back", c.getBack());
+        json.put("score", c.getScore());
+        return json;
+    }
+
+    // REQUIRES: 1 <= n <= d.getNumOfCards() before the card was removed
+    // EFFECTS: returns a record of the nth card being removed from deck d
+    public static JSONObject removeCard(Deck d, int n) {
+        JSONObject json = record(OP_REMOVE_CARD, d);
+        json.put("card", n);
+        return json;
+    }
+
+    // REQUIRES: 1 <= n <= d.getNumOfCards()
+    // EFFECTS: returns a record of the score of the nth card in deck d changing to score
+    public static JSONObject score(Deck d, int n, int score) {
+        JSONObject json = record(OP_SCORE, d);
+        json.put("card", n);
+        json.put("score", score);
+        return json;
+    }
+
+    // REQUIRES: 1 <= n <= d.getNumOfCards()
+    // EFFECTS: returns a record of the nth card in deck d being rescheduled to schedule
+    public static JSONObject schedule(Deck d, int n, Schedule schedule) {
+        JSONObject json = record(OP_SCHEDULE, d);
+        json.put("card", n);
+        json.put("repetitions", schedule.getRepetitions());
+        json.put("interval", schedule.getInterval());
+        json.put("ease", schedule.getEase());
+        json.put("due", schedule.getDue());
+        return json;
+    }
+
+    // REQUIRES: 1 <= n <= d.getNumOfCards() for each n in cards
+    // EFFECTS: returns records of the score and schedule each of the given cards (by n) of deck d has now, e.g. for
+    //          the cards a review session has just committed its grades to (see ReviewSession.commit)
+    public static List<JSONObject> reviews(Deck d, int[] cards) {
+        List<JSONObject> records = new ArrayList<>(2 * cards.length);
+        for (int n : cards) {
+            records.add(score(d, n, d.getNthScore(n)));
+            records.add(schedule(d, n, d.getNthSchedule(n)));
+        }
+        return records;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal for appending, keeping only the records the store does not hold yet (none if the
+    //          journal does not follow on from the store); throws IOException if the journal cannot be opened
+    public synchronized void open() throws IOException {
+        close();
+        long saved = StoreReader.readSequence(store);
+        rewrite(saved, unsavedRecords(saved));
+        writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    // EFFECTS: returns true if the journal is open for appending
+    public synchronized boolean isOpen() {
+        return writer != null;
+    }
+
+    // REQUIRES: isOpen()
+    // MODIFIES: this
+    // EFFECTS: appends record to the journal and flushes it to the file system;
+    //          throws IOException if the record cannot be written
+    public synchronized void append(JSONObject record) throws IOException {
+        writer.write(record.toString());
+        writer.write('\n');
+        writer.flush();
+        records++;
+    }
+
+    // REQUIRES: isOpen()
+    // MODIFIES: this
+    // EFFECTS: appends each of batch to the journal, in order, and flushes them to the file system together;
+    //          throws IOException if the records cannot be written
+    public synchronized void append(List<JSONObject> batch) throws IOException {
+        for (JSONObject record : batch) {
+            writer.write(record.toString());
+            writer.write('\n');
+        }
+        writer.flush();
+        records += batch.size();
+    }
+
+    // EFFECTS: returns the number of records in the journal that the store does not hold yet, as of when it was last
+    //          opened, replayed or rebased
+    public synchronized int size() {
+        return records;
+    }
+
+    // EFFECTS: returns the sequence of the last record appended: the number of records a store saved with every
+    //          change so far holds (see DeckWriter.save)
+    public synchronized long sequence() {
+        return base + records;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: empties the journal so that it follows on from the store as it is now;
+    //          throws IOException if the journal cannot be written
+    public synchronized void reset() throws IOException {
+        boolean wasOpen = writer != null;
+        close();
+        rewrite(StoreReader.readSequence(store), new ArrayList<>());
+        reopen(wasOpen);
+    }
+
+    // REQUIRES: sequence() >= saved
+    // MODIFIES: this
+    // EFFECTS: drops the first saved records from the journal, as the store has been saved with them, keeping the
+    //          ones after; throws IOException if the journal cannot be rewritten
+    public synchronized void rebase(long saved) throws IOException {
+        boolean wasOpen = writer != null;
+        close();
+        rewrite(saved, unsavedRecords(saved));
+        reopen(wasOpen);
+    }
+
+    // MODIFIES: decks
+    // EFFECTS: applies the records in the journal that the store does not hold to decks, in order, and returns the
+    //          number applied; throws IOException if the journal cannot be read or does not match decks
+    public synchronized int replay(List<Deck> decks)
+            throws IOException, ExceedThresholdException, InvalidCardException {
+        long saved = StoreReader.readSequence(store);
+        List<JSONObject> unsaved = unsavedRecords(saved);
+        for (JSONObject record : unsaved) {
+            apply(decks, record);
+        }
+        base = saved;
+        records = unsaved.size();
+        return records;
+    }
+
+    // EFFECTS: returns the records in the journal after the first saved, or none if there is no journal or it does
+    //          not follow on from a store holding saved records. A torn last line (from a crash part way through an
+    //          append) is ignored; throws IOException if the journal cannot be read or holds a corrupt record.
+    private List<JSONObject> unsavedRecords(long saved) throws IOException {
+        List<JSONObject> unsaved = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            long sequence = baseSequence(in.readLine());
+            if (sequence < 0 || sequence > saved) {
+                return unsaved;
+            }
+            String line = in.readLine();
+            while (line != null) {
+                String next = in.readLine();
+                JSONObject record = parseRecord(line, next == null);
+                if (record != null && ++sequence > saved) {
+                    unsaved.add(record);
+                }
+                line = next;
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing journaled yet.
+        }
+        return unsaved;
+    }
+
+    // EFFECTS: returns the record on line, or null if it is torn and last; throws IOException if it is corrupt
+    private static JSONObject parseRecord(String line, boolean last) throws IOException {
+        try {
+            return new JSONObject(line);
+        } catch (JSONException e) {
+            if (last) {
+                return null;
+            }
+            throw new IOException("Corrupt journal record: " + line);
+        }
+    }
+
+    // EFFECTS: returns the sequence held by the base line of a journal, or -1 if line is not a base line
+    private static long baseSequence(String line) {
+        if (line == null) {
+            return -1;
+        }
+        try {
+            JSONObject base = new JSONObject(line);
+            return base.getString("op").equals(OP_BASE) ? base.getLong("sequence") : -1;
+        } catch (JSONException e) {
+            return -1;
+        }
+    }
+
+    // REQUIRES: the journal is closed
+    // MODIFIES: this
+    // EFFECTS: atomically replaces the journal with one holding records, following on from a store holding saved
+    //          records; throws IOException (leaving the journal untouched) if it cannot be written
+    private void rewrite(long saved, List<JSONObject> unsaved) throws IOException {
+        AtomicFile file = new AtomicFile(journal, 0);
+        FileOutputStream out = file.startWrite();
+        try {
+            Writer lines = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            lines.write(baseRecord(saved).toString());
+            lines.write('\n');
+            for (JSONObject record : unsaved) {
+                lines.write(record.toString());
+                lines.write('\n');
+            }
+            lines.flush();
+            file.finishWrite(out);
+        } catch (IOException | RuntimeException e) {
+            file.failWrite(out);
+            throw e;
+        }
+        base = saved;
+        records = unsaved.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal for appending again if wasOpen
+    private void reopen(boolean wasOpen) throws IOException {
+        if (wasOpen) {
+            writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the journal if it is open
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    // MODIFIES: decks
+    // EFFECTS: applies a single record to decks; throws IOException if the record does not match decks
+    private void apply(List<Deck> decks, JSONObject record)
+            throws IOException, ExceedThresholdException, InvalidCardException {
+        String op = record.getString("op");
+        String name = record.getString("deck");
+        if (op.equals(OP_NEW_DECK)) {
+            decks.add(new Deck(name));
+            return;
+        }
+        Deck d = findDeck(decks, name);
+        if (op.equals(OP_DELETE_DECK)) {
+            decks.remove(d);
+        } else if (op.equals(OP_ADD_CARD)) {
+            Card c = new Card(record.getString("front"), record.getString("back"));
+            c.changeScoreBy(record.getInt("score"));
+            d.addCard(c);
+        } else {
+            applyToCard(d, op, record);
+        }
+    }
+
+    // MODIFIES: d
+    // EFFECTS: applies a record of the given operation on one of the cards of d; throws IOException if the record
+    //          does not match d
+    private static void applyToCard(Deck d, String op, JSONObject record)
+            throws IOException, ExceedThresholdException {
+        if (op.equals(OP_REMOVE_CARD)) {
+            d.removeNthCard(checkCard(d, record.getInt("card")));
+        } else if (op.equals(OP_SCORE)) {
+            Card c = d.getNthCard(checkCard(d, record.getInt("card")));
+            c.changeScoreBy(record.getInt("score") - c.getScore());
+        } else if (op.equals(OP_SCHEDULE)) {
+            d.setNthSchedule(checkCard(d, record.getInt("card")), new Schedule(record.getInt("repetitions"),
+                    record.getInt("interval"), record.getInt("ease"), record.getLong("due")));
+        } else {
+            throw new IOException("Unknown journal record: " + record);
+        }
+    }
+
+    // EFFECTS: returns the first deck with the given name; throws IOException if there is none
+    private static Deck findDeck(List<Deck> decks, String name) throws IOException {
+        for (Deck d : decks) {
+            if (d.getName().equals(name)) {
+                return d;
+            }
+        }
+        throw new IOException("Journal refers to missing deck: " + name);
+    }
+
+    // EFFECTS: returns n; throws IOException if d has no nth card
+    private static int checkCard(Deck d, int n) throws IOException {
+        if (n < 1 || n > d.getNumOfCards()) {
+            throw new IOException("Journal refers to missing card " + n + " of deck: " + d.getName());
+        }
+        return n;
+    }
+
+    // EFFECTS: returns the base line of a journal following on from a store holding saved records
+    private static JSONObject baseRecord(long saved) {
+        JSONObject base = new JSONObject();
+        base.put("op", OP_BASE);
+        base.put("sequence", saved);
+        return base;
+    }
+
+    // EFFECTS: returns a new record of the given operation on deck d
+    private static JSONObject record(String op, Deck d) {
+        JSONObject json = new JSONObject();
+        json.put("op", op);
+        json.put("deck", d.getName());
+        return json;
+    }
+}
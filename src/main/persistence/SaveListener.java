@@ -0,0 +1,12 @@
+package persistence;
+
+/* Something that is told about the saves made in the background by an AutosaveService. Its methods are called on the
+   service's own thread. */
+public interface SaveListener {
+    // EFFECTS: reports that a snapshot of numOfDecks decks was saved, taking the given number of milliseconds
+    void saveFinished(int numOfDecks, long millis);
+
+    // EFFECTS: reports that saving a snapshot failed with e. Changes recorded in the journal are kept, and are saved
+    //          along with the next snapshot.
+    void saveFailed(Exception e);
+}
@@ -0,0 +1,233 @@
+package persistence;
+
+import exceptions.DeckLoadException;
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.Deck;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/* Stores every deck in its own JSON file (a shard) in a directory, alongside a manifest that lists the shards in deck
+   order. Shards are read and written in parallel, and the manifest is replaced atomically as the commit point. */
+public class ShardedStore implements DeckReader, DeckWriter {
+    public static final String MANIFEST = "manifest.json";
+    private static final String SHARD_PREFIX = "deck-";
+    private static final String SHARD_SUFFIX = ".json";
+
+    private final Path directory;
+    private final ForkJoinPool pool;
+
+    // EFFECTS: constructs a store in the given directory that reads and writes shards on the common fork-join pool
+    public ShardedStore(String directory) {
+        this(directory, ForkJoinPool.commonPool());
+    }
+
+    // EFFECTS: constructs a store in the given directory that reads and writes shards on pool
+    public ShardedStore(String directory, ForkJoinPool pool) {
+        this.directory = Paths.get(directory);
+        this.pool = pool;
+    }
+
+    // EFFECTS: returns true if path is a directory holding a sharded store
+    public static boolean isSharded(Path path) {
+        return Files.isRegularFile(path.resolve(MANIFEST));
+    }
+
+    @Override
+    // EFFECTS: reads every shard listed in the manifest in parallel and returns the decks in manifest order;
+    // throws IOException if an error occurs reading the manifest or a shard, or a shard does not match the manifest
+    public List<Deck> read() throws IOException, ExceedThresholdException, InvalidCardException {
+        JSONArray shards = readManifest().getJSONArray("shards");
+        List<Callable<Deck>> tasks = new ArrayList<>(shards.length());
+        for (int i = 0; i < shards.length(); i++) {
+            JSONObject shard = shards.getJSONObject(i);
+            tasks.add(() -> readShard(shard));
+        }
+        return runAll(tasks);
+    }
+
+    // EFFECTS: returns the number of journal records the store holds (0 for a store saved without one);
+    //          throws IOException if the manifest is missing or malformed
+    public long readSequence() throws IOException {
+        return readManifest().optLong("journal", 0);
+    }
+
+    // MODIFIES: decks
+    // EFFECTS: saves decks as save(decks, 0) does
+    public void save(List<Deck> decks) throws IOException {
+        save(decks, 0);
+    }
+
+    @Override
+    // MODIFIES: decks
+    // EFFECTS: writes every deck that changed since it was last saved here to a new shard in parallel (unchanged decks
+    //          keep their existing shard), then replaces the manifest, marks every deck as saved and deletes shards
+    //          that are no longer listed; throws IOException (leaving the previous save readable) if an error occurs
+    public void save(List<Deck> decks, long sequence) throws IOException {
+        Files.createDirectories(directory);
+        JSONObject previous = previousManifest();
+        Map<String, JSONObject> saved = shardsByDeck(previous);
+        long generation = previous.optLong("generation", 0) + 1;
+        JSONArray shards = new JSONArray();
+        List<Callable<Long>> tasks = new ArrayList<>(decks.size());
+        for (int i = 0; i < decks.size(); i++) {
+            Deck d = decks.get(i);
+            JSONObject shard = saved.get(d.getName());
+            if (!isSavedIn(d, shard)) {
+                JSONObject written = new JSONObject();
+                written.put("deck", d.getName());
+                written.put("file", SHARD_PREFIX + generation + "-" + i + SHARD_SUFFIX);
+                tasks.add(() -> writeShard(d, written));
+                shard = written;
+            }
+            shards.put(shard);
+        }
+        runAllWrites(tasks);
+        writeManifest(generation, sequence, shards);
+        markSaved(decks, shards);
+        deleteUnlisted(shards);
+    }
+
+    // MODIFIES: decks
+    // EFFECTS: marks each deck as saved with the hash of its shard
+    private static void markSaved(List<Deck> decks, JSONArray shards) {
+        for (int i = 0; i < decks.size(); i++) {
+            decks.get(i).markSaved(shards.getJSONObject(i).getLong("hash"));
+        }
+    }
+
+    // EFFECTS: returns true if shard holds deck d exactly as it is now
+    private static boolean isSavedIn(Deck d, JSONObject shard) {
+        return shard != null && shard.has("hash") && !d.isModified() && d.getSavedHash() == shard.getLong("hash");
+    }
+
+    // EFFECTS: reads the single deck in the given shard and returns it, marked as saved if the shard has a hash;
+    //          throws IOException if it cannot be read or does not hold exactly one deck with the shard's name
+    private Deck readShard(JSONObject shard) throws IOException, ExceedThresholdException, InvalidCardException {
+        String name = shard.getString("deck");
+        Path file = directory.resolve(shard.getString("file"));
+        List<Deck> decks = new JsonReader(file.toString()).readStreaming();
+        if (decks.size() != 1 || !decks.get(0).getName().equals(name)) {
+            throw new IOException("Shard does not match manifest entry for deck " + name + ": " + file);
+        }
+        if (shard.has("hash")) {
+            decks.get(0).markSaved(shard.getLong("hash"));
+        }
+        return decks.get(0);
+    }
+
+    // MODIFIES: shard
+    // EFFECTS: writes deck d to the file named in shard, records the hash of the file's contents in shard and
+    //          returns it
+    private long writeShard(Deck d, JSONObject shard) throws IOException {
+        Path file = directory.resolve(shard.getString("file"));
+        new JsonWriter(file.toString(), true).save(Collections.singletonList(d));
+        long hash = ContentHash.of(Files.readAllBytes(file));
+        shard.put("hash", hash);
+        return hash;
+    }
+
+    // EFFECTS: runs every shard write on the pool; throws IOException if any of them fails
+    private void runAllWrites(List<Callable<Long>> tasks) throws IOException {
+        try {
+            runAll(tasks);
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            throw new IOException(e);
+        }
+    }
+
+    // EFFECTS: runs every task on the pool and returns their results in order. Rethrows the first failure; an
+    //          unreadable lazily loaded deck or malformed shard is reported as an IOException.
+    private <T> List<T> runAll(List<Callable<T>> tasks)
+            throws IOException, ExceedThresholdException, InvalidCardException {
+        try {
+            return ParallelTasks.runAll(pool, tasks, directory);
+        } catch (DeckLoadException | JSONException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    // EFFECTS: reads and returns the manifest; throws IOException if it is missing or malformed
+    private JSONObject readManifest() throws IOException {
+        Path manifest = directory.resolve(MANIFEST);
+        try {
+            return new JSONObject(new String(Files.readAllBytes(manifest), StandardCharsets.UTF_8));
+        } catch (JSONException e) {
+            throw new IOException("Corrupt manifest: " + manifest, e);
+        }
+    }
+
+    // EFFECTS: returns the manifest of the current save, or an empty one if there is none (or it is unreadable, in
+    //          which case the new save replaces it)
+    private JSONObject previousManifest() {
+        try {
+            return readManifest();
+        } catch (IOException e) {
+            return new JSONObject();
+        }
+    }
+
+    // EFFECTS: returns the shards listed in manifest, by deck name
+    private static Map<String, JSONObject> shardsByDeck(JSONObject manifest) {
+        Map<String, JSONObject> shards = new HashMap<>();
+        JSONArray listed = manifest.optJSONArray("shards");
+        for (int i = 0; listed != null && i < listed.length(); i++) {
+            JSONObject shard = listed.getJSONObject(i);
+            shards.put(shard.getString("deck"), shard);
+        }
+        return shards;
+    }
+
+    // EFFECTS: atomically replaces the manifest with one listing shards for the given generation and sequence
+    private void writeManifest(long generation, long sequence, JSONArray shards) throws IOException {
+        JSONObject manifest = new JSONObject();
+        manifest.put("generation", generation);
+        manifest.put("journal", sequence);
+        manifest.put("shards", shards);
+        AtomicFile file = new AtomicFile(directory.resolve(MANIFEST), 0);
+        FileOutputStream out = file.startWrite();
+        try {
+            out.write(manifest.toString().getBytes(StandardCharsets.UTF_8));
+            file.finishWrite(out);
+        } catch (IOException | RuntimeException e) {
+            file.failWrite(out);
+            throw e;
+        }
+    }
+
+    // EFFECTS: deletes every shard in the directory that is not listed in shards. Failing to delete one only wastes
+    //          space, so it is left for the next save to clean up.
+    private void deleteUnlisted(JSONArray shards) {
+        Set<String> listed = new HashSet<>();
+        for (int i = 0; i < shards.length(); i++) {
+            listed.add(shards.getJSONObject(i).getString("file"));
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SHARD_PREFIX + "*")) {
+            for (Path file : files) {
+                if (!listed.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            // Stale shards are harmless; the next save tries again.
+        }
+    }
+}
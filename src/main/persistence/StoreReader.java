@@ -0,0 +1,77 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.Deck;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/* Reads decks from a store in whichever format it was saved in: a sharded store directory, a binary store (recognised
+   by its magic header) or JSON. */
+public class StoreReader implements DeckReader {
+    private final String source;
+    private final String fallback;
+
+    // EFFECTS: constructs reader to read from source file
+    public StoreReader(String source) {
+        this(source, null);
+    }
+
+    // EFFECTS: constructs reader to read from source file, or from fallback if source does not exist yet
+    //          (e.g. a store saved by an older version under another name)
+    public StoreReader(String source, String fallback) {
+        this.source = source;
+        this.fallback = fallback;
+    }
+
+    @Override
+    // EFFECTS: reads all decks from the store, detecting its format, and returns it (the cards of a binary store are
+    //          read lazily, see BinaryReader.readIndex);
+    // throws IOException if an error occurs reading data from the store
+    public List<Deck> read() throws IOException, ExceedThresholdException, InvalidCardException {
+        Path path = Paths.get(usesFallback() ? fallback : source);
+        if (ShardedStore.isSharded(path)) {
+            return new ShardedStore(path.toString()).read();
+        } else if (BinaryFormat.isBinary(path)) {
+            return new BinaryReader(path.toString()).readIndex();
+        } else {
+            return new JsonReader(path.toString()).readStreaming();
+        }
+    }
+
+    // EFFECTS: reads all decks from the store and replays journal on top of them (after the fallback's own journal,
+    //          if read from the fallback); throws IOException if an error occurs reading the store or either journal
+    public List<Deck> read(ReviewJournal journal) throws IOException, ExceedThresholdException, InvalidCardException {
+        boolean fromFallback = usesFallback();
+        List<Deck> decks = read();
+        if (fromFallback) {
+            new ReviewJournal(fallback).replay(decks);
+        }
+        journal.replay(decks);
+        return decks;
+    }
+
+    // EFFECTS: returns the number of journal records the store at the given path holds, detecting its format (0 if
+    //          there is no store there yet); throws IOException if an error occurs reading data from the store
+    public static long readSequence(String store) throws IOException {
+        Path path = Paths.get(store);
+        if (ShardedStore.isSharded(path)) {
+            return new ShardedStore(store).readSequence();
+        } else if (!Files.exists(path)) {
+            return 0;
+        } else if (BinaryFormat.isBinary(path)) {
+            return new BinaryReader(store).readSequence();
+        } else {
+            return new JsonReader(store).readSequence();
+        }
+    }
+
+    // EFFECTS: returns true if the decks are read from the fallback, as the source does not exist yet
+    private boolean usesFallback() {
+        return fallback != null && !Files.exists(Paths.get(source));
+    }
+}
@@ -2,9 +2,14 @@ package persistence;
 
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /* Class for writing JSON
    Made with reference: https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo */
 public interface Writable {
     // EFFECTS: returns this as JSON object
     JSONObject toJson();
+
+    // EFFECTS: writes this to out one token at a time, without building a JSON object first
+    void writeJson(JsonStreamWriter out) throws IOException;
 }
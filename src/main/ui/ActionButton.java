@@ -50,6 +50,8 @@ public class ActionButton implements ActionListener {
             controller.saveDecks();
         } else if (MainMenu.COMMAND_LOAD.equals(action)) {
             controller.loadDecks();
+        } else if (MainMenu.COMMAND_STATS.equals(action)) {
+            controller.showStats();
         } else {
             actionPerformedExtension(e);
         }
@@ -65,6 +67,8 @@ public class ActionButton implements ActionListener {
             controller.reviewDeckAction(ReviewMenu.COMMAND_ANSWER_CORRECT);
         } else if (ReviewMenu.COMMAND_ANSWER_INCORRECT.equals(action)) {
             controller.reviewDeckAction(ReviewMenu.COMMAND_ANSWER_INCORRECT);
+        } else if (ReviewMenu.COMMAND_UNDO.equals(action)) {
+            controller.reviewDeckAction(ReviewMenu.COMMAND_UNDO);
         } else if (EditMenu.COMMAND_NEW_CARD.equals(action)) {
             controller.editDeckAction(EditMenu.COMMAND_NEW_CARD);
         } else if (EditMenu.COMMAND_DELETE_CARD.equals(action)) {
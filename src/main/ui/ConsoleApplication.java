@@ -1,32 +1,61 @@
 package ui;
 
+import exceptions.DeckLoadException;
 import exceptions.ExceedThresholdException;
 import exceptions.InvalidCardException;
 import model.Card;
+import model.CardCursor;
 import model.Deck;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import model.DeckRegistry;
+import model.DeckStats;
+import model.ReviewSession;
+import model.SearchHit;
+import model.ScoreOrder;
+import model.StatsEngine;
+import org.json.JSONObject;
+import persistence.AutosaveService;
+import persistence.BinaryWriter;
+import persistence.DeckWriter;
+import persistence.HistoryFile;
+import persistence.ReviewJournal;
+import persistence.SaveListener;
+import persistence.StoreReader;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Scanner;
 
 /* Launches the application
    Save & Load features via JSON Made with reference: https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo */
-public class ConsoleApplication {
-    private List<Deck> decks;
-    private static final int CORRECT_POINTS = 1;
-    private static final int INCORRECT_POINTS = -1;
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
-    private static final String JSON_STORE = "./data/reviewer.json";
+public class ConsoleApplication implements SaveListener {
+    private DeckRegistry decks;
+    private DeckWriter storeWriter;
+    private StoreReader storeReader;
+    private ReviewJournal journal;
+    private HistoryFile history;
+    private StatsEngine stats;
+    private AutosaveService autosave;
+    private volatile boolean announceSave;
+    private static final String STORE = "./data/reviewer.dat";
+    private static final String LEGACY_JSON_STORE = "./data/reviewer.json";
+    private static final int STORE_BACKUPS = 3;
+    private static final int JOURNAL_LIMIT = 500;
+    private static final long AUTOSAVE_QUIET_MILLIS = 3000;
+    private static final int SEARCH_LIMIT = 20;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] DECK_ACTIONS = {"review", "edit", "drill", "shuffle"};
 
     public ConsoleApplication() {
-        this.decks = new ArrayList<>();
-        this.jsonWriter = new JsonWriter(JSON_STORE);
-        this.jsonReader = new JsonReader(JSON_STORE);
+        this.decks = new DeckRegistry();
+        this.storeWriter = new BinaryWriter(STORE, STORE_BACKUPS);
+        this.storeReader = new StoreReader(STORE, LEGACY_JSON_STORE);
+        this.journal = new ReviewJournal(STORE);
+        this.history = new HistoryFile(STORE);
+        this.stats = new StatsEngine();
+        this.autosave = new AutosaveService(storeWriter, journal, AUTOSAVE_QUIET_MILLIS, this);
+        autosave.start();
         init();
     }
 
@@ -37,36 +66,85 @@ public class ConsoleApplication {
         System.out.println("Your current decks:");
         listDecks();
         System.out.println("Type 'review name' to review the deck with the given name.");
+        System.out.println("Type 'drill name' to review every card in the deck with the given name, weakest first.");
+        System.out.println("Type 'shuffle name' to review every card in the deck with the given name in random order, "
+                + "weaker cards sooner.");
         System.out.println("Type 'new name' to create a new deck with the given name.");
         System.out.println("Type 'edit name' to edit the deck with the given name.");
         System.out.println("Type 'mastery' to see the level of mastery attained for all decks.");
+        System.out.println("Type 'due' to see how many cards are due for review in each deck.");
+        System.out.println("Type 'stats' to see the scores, trouble cards and recent reviews of every deck.");
+        System.out.println("Type 'search terms' to find the cards in any deck with words starting with the terms.");
         System.out.println("Type 'save' to save the current state of the application.");
         System.out.println("Type 'load' to save the current state of the application.");
         System.out.println("Type 'exit' to end the application.");
         getAction();
     }
 
-    // EFFECTS: saves the decks to file
+    // EFFECTS: saves the decks to file in the background, and reports when they are saved
     private void saveDecks() {
         try {
-            jsonWriter.open();
-            jsonWriter.write(this.decks);
-            jsonWriter.close();
-            System.out.println("Saved all decks to " + JSON_STORE);
-        } catch (FileNotFoundException e) {
-            System.out.println("Unable to write to file: " + JSON_STORE);
-            System.exit(0);
+            announceSave = true;
+            autosave.saveNow(this.decks);
+            System.out.println("Saving all decks to " + STORE + "...");
+        } catch (DeckLoadException e) {
+            System.out.println("Unable to write to file: " + STORE + " - " + e.getMessage());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a change to the decks to the review journal and schedules the file to be saved in the
+    //          background; does nothing until the decks have been loaded from file
+    private void journal(JSONObject record) {
+        journal(Collections.singletonList(record));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a batch of changes to the decks to the review journal together, flushing them to the file once
+    //          (e.g. the grades a review session has committed), and schedules the file to be saved as journal does
+    private void journal(List<JSONObject> records) {
+        if (!journal.isOpen()) {
+            return;
+        }
+        try {
+            journal.append(records);
+            if (journal.size() >= JOURNAL_LIMIT) {
+                autosave.saveNow(this.decks);
+            } else {
+                autosave.changed(this.decks);
+            }
+        } catch (IOException | DeckLoadException e) {
+            System.out.println("Unable to record your changes in " + STORE + " - type 'save' to keep them.");
+        }
+    }
+
+    @Override
+    // EFFECTS: reports a finished background save if the user asked for it
+    public void saveFinished(int numOfDecks, long millis) {
+        if (announceSave) {
+            announceSave = false;
+            System.out.println("Saved all decks to " + STORE + " in " + millis + " ms");
         }
     }
 
+    @Override
+    // EFFECTS: reports a failed background save
+    public void saveFailed(Exception e) {
+        announceSave = false;
+        System.out.println("Unable to write to file: " + STORE + " - your changes are kept in the journal until the "
+                + "next save.");
+    }
+
     // MODIFIES: this
-    // EFFECTS: loads decks from file
+    // EFFECTS: loads decks from file and replays the changes recorded in the journal since it was last saved
     private void loadDecks() {
         try {
-            this.decks = jsonReader.read();
-            System.out.println("Loaded all decks from " + JSON_STORE);
+            this.decks = new DeckRegistry(storeReader.read(journal));
+            journal.open();
+            loadHistory();
+            System.out.println("Loaded all decks from " + STORE);
         } catch (IOException e) {
-            System.out.println("Unable to read from file: " + JSON_STORE);
+            System.out.println("Unable to read from file: " + STORE);
             System.exit(0);
         } catch (InvalidCardException | ExceedThresholdException e) {
             System.out.println("Save file error.");
@@ -74,12 +152,23 @@ public class ConsoleApplication {
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: reads the review history of the decks from file (see HistoryFile); warns the user if it cannot be
+    //          read, in which case the decks start with no history
+    private void loadHistory() {
+        try {
+            history.load(this.decks, System.currentTimeMillis());
+        } catch (IOException e) {
+            System.out.println("Unable to read the review history from " + STORE + ".history - " + e.getMessage());
+        }
+    }
+
     // EFFECTS: List all the decks currently available.
     private void listDecks() {
         if (decks.size() == 0) {
             System.out.println("You have no decks right now - make one using 'new name'!");
         } else {
-            for (Deck d : decks) {
+            for (Deck d : decks.snapshot()) {
                 System.out.println(d.getName());
             }
         }
@@ -90,61 +179,145 @@ public class ConsoleApplication {
         if (decks.size() == 0) {
             System.out.println("You currently have no decks! Make one using the command 'new name'!");
         } else {
-            for (Deck d : decks) {
+            for (Deck d : decks.snapshot()) {
                 System.out.println(d.getName() + " | MASTERY LEVEL: " + d.getMastery() + "%");
             }
         }
     }
 
+    // EFFECTS: Lists all decks and the number of cards due for review in each (reading the cards of each deck).
+    private void showDue() {
+        if (decks.size() == 0) {
+            System.out.println("You currently have no decks! Make one using the command 'new name'!");
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Deck d : decks.snapshot()) {
+            try {
+                System.out.println(d.getName() + " | DUE: " + d.getNumDue(now) + " of " + d.getNumOfCards());
+            } catch (DeckLoadException e) {
+                System.out.println(d.getName() + " | DUE: unable to read its cards from file: " + STORE);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Shows the statistics of each deck and of all decks together (reading the cards of each deck).
+    private void showStats() {
+        if (decks.size() == 0) {
+            System.out.println("You currently have no decks! Make one using the command 'new name'!");
+            return;
+        }
+        List<DeckStats> all;
+        try {
+            all = stats.compute(decks.snapshot(), System.currentTimeMillis());
+        } catch (DeckLoadException e) {
+            System.out.println("Unable to read the cards of every deck from file: " + STORE);
+            return;
+        }
+        for (DeckStats s : all) {
+            System.out.println(s.summary());
+        }
+        System.out.println(DeckStats.combine("ALL DECKS", all).summary());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Lists the cards in any deck that have, for every term, a word on their front or back starting with it,
+    //          best matches first (reading the cards of each deck).
+    private void search(String terms) {
+        List<SearchHit> hits;
+        try {
+            hits = decks.search(terms, SEARCH_LIMIT);
+        } catch (DeckLoadException e) {
+            System.out.println("Unable to read the cards of every deck from file: " + STORE);
+            return;
+        }
+        if (hits.isEmpty()) {
+            System.out.println("No cards found - try fewer or shorter terms!");
+        }
+        for (SearchHit hit : hits) {
+            System.out.println(hit);
+        }
+    }
+
     // MODIFIES: this
     // EFFECT: Get input from user to go to next action
     private void getAction() {
         Scanner s = new Scanner(System.in);
         String input = s.nextLine();
-        if (input.startsWith("review") && input.length() >= 8) {
-            tryStartAction(input.substring(7), "review");
+        String action = deckAction(input);
+        if (action != null) {
+            tryStartAction(input.substring(action.length() + 1), action);
         } else if (input.startsWith("new") && input.length() >= 5) {
             addDeck(input);
-        } else if (input.startsWith("edit") && input.length() >= 6) {
-            tryStartAction(input.substring(5), "edit");
-        } else if (input.equals("mastery")) {
-            showMastery();
         } else if (input.equals("save")) {
             saveDecks();
         } else if (input.equals("load")) {
             loadDecks();
         } else if (input.equals("exit")) {
+            autosave.close();
             System.exit(0);
-        } else {
+        } else if (!tryShowInfo(input)) {
             System.out.println("Invalid command - please try again!");
         }
         init();
     }
 
+    // EFFECTS: Carries out input if it is a command that shows information about the decks ('mastery', 'due',
+    //          'stats' or 'search terms') and returns true, or returns false if it is not one
+    private boolean tryShowInfo(String input) {
+        if (input.equals("mastery")) {
+            showMastery();
+        } else if (input.equals("due")) {
+            showDue();
+        } else if (input.equals("stats")) {
+            showStats();
+        } else if (input.startsWith("search ")) {
+            search(input.substring(7));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    // EFFECTS: returns the action of a command naming a deck ('review name', 'edit name', 'drill name' or
+    //          'shuffle name'), or null if input is not one
+    private static String deckAction(String input) {
+        for (String action : DECK_ACTIONS) {
+            if (input.startsWith(action + " ") && input.length() >= action.length() + 2) {
+                return action;
+            }
+        }
+        return null;
+    }
+
     // REQUIRES: deck cannot be an empty string.
     // MODIFIES: this, d
     // EFFECTS: Starts desired action for user if the given deck is found
     private void tryStartAction(String deck, String action) {
         Deck d = findDeckWithName(deck);
         if (d != null) {
+            try {
+                d.load();
+            } catch (DeckLoadException e) {
+                System.out.println("Unable to read the cards of " + d.getName() + " from file: " + STORE);
+                return;
+            }
             if (action.equals("edit")) {
                 startEdit(d);
             } else if (action.equals("review")) {
                 startReview(d);
+            } else {
+                startDrill(d, action.equals("drill") ? d.weakestFirst() : d.weightedRandom(System.nanoTime()));
             }
         } else {
             System.out.println("Deck not found - please try again!");
         }
     }
 
-    // EFFECTS: Attempts to find deck with given name from decks.
+    // EFFECTS: Attempts to find deck with given name from decks, or else one whose name only differs from it in case.
     private Deck findDeckWithName(String name) {
-        for (Deck d : decks) {
-            if (d.getName().equals(name)) {
-                return d;
-            }
-        }
-        return null;
+        return decks.findIgnoreCase(name);
     }
 
     // MODIFIES: this
@@ -152,8 +325,9 @@ public class ConsoleApplication {
     //          as long as the name does not overlap with another deck
     private void addDeck(String input) {
         String name = input.substring(4);
-        if (findDeckWithName(name) == null && !name.trim().isEmpty()) {
-            decks.add(new Deck(name.trim()));
+        Deck d = decks.create(name);
+        if (d != null) {
+            journal(ReviewJournal.newDeck(d));
             System.out.println("A new deck with the name " + name + " has been successfully created!");
         } else {
             System.out.println("Invalid name! Please choose a non-duplicate, non-empty name.");
@@ -161,69 +335,127 @@ public class ConsoleApplication {
     }
 
     // MODIFIES: this, d
-    // EFFECTS: Start review session with given deck.
+    // EFFECTS: Start review session with given deck, going through the cards that are due for review when it starts
+    //          (the one that has been due the longest first). Each answer reschedules the card out of the session.
     private void startReview(Deck d) {
-        double oldMastery = d.getMastery();
-        if (d.getNumOfCards() > 0) {
-            System.out.println("\nStarting review session for " + d.getName());
-            Scanner s = new Scanner(System.in);
-            for (int i = 1; i <= d.getNumOfCards(); i++) {
-                Card c = d.getNthCard(i);
-                System.out.println(c.getFront());
-                System.out.println("Type anything when you are ready to reveal the back of the card!");
-                s.nextLine();
-                System.out.println(c.getBack());
-                System.out.println("Did you get it right? Type y for yes, and n for no.");
-                boolean b = recordScore(c, s.nextLine());
-                while (!b) {
-                    System.out.println("Invalid input! Please try again. Type y for yes, and n for no.");
-                    b = recordScore(c, s.nextLine());
-                }
-            }
-            System.out.println("Review complete!");
-            System.out.println("Your mastery level has changed from " + oldMastery + "% to " + d.getMastery() + "%!");
+        long sessionStart = System.currentTimeMillis();
+        if (d.getNumOfCards() == 0) {
+            System.out.println("Your deck has no cards! Please add some cards before trying to review.");
+        } else if (d.getNextDue(sessionStart) == 0) {
+            System.out.println("None of the cards in this deck are due for review yet - come back later!");
         } else {
+            runSession(new ReviewSession(d, sessionStart));
+        }
+    }
+
+    // MODIFIES: this, d
+    // EFFECTS: Start review session with given deck, going through every card whether it is due or not, in the given
+    //          order. Each answer reschedules the card as in a regular review.
+    private void startDrill(Deck d, ScoreOrder order) {
+        if (d.getNumOfCards() == 0) {
             System.out.println("Your deck has no cards! Please add some cards before trying to review.");
+            return;
         }
+        runSession(new ReviewSession(d, order, System.currentTimeMillis()));
     }
 
-    // MODIFIES: this, c
-    // EFFECTS: Adds or deducts mastery point to card depending on response
-    //          - returns true if response can be parsed ( 'y' or 'n' ), false otherwise.
-    private boolean recordScore(Card c, String response) {
-        if (response.equals("y")) {
-            try {
-                c.changeScoreBy(CORRECT_POINTS);
-            } catch (ExceedThresholdException e) {
-                //
+    // MODIFIES: this, session
+    // EFFECTS: shows each card of the session in turn and records the user's answers, committing them to the deck
+    //          every ReviewSession.BATCH_SIZE answers and at the end, then sums the session up
+    private void runSession(ReviewSession session) {
+        System.out.println("\nStarting review session for " + session.getDeck().getName());
+        Scanner s = new Scanner(System.in);
+        for (int n = session.next(System.currentTimeMillis()); n != 0; n = session.next(System.currentTimeMillis())) {
+            reviewCard(session, n, s);
+            if (session.isBatchFull()) {
+                commit(session);
+            }
+        }
+        commit(session);
+        System.out.println("Review complete!");
+        System.out.println(session.summary());
+    }
+
+    // REQUIRES: n is the current card of session
+    // MODIFIES: this, session
+    // EFFECTS: shows the nth card of the session's deck (and when it was last missed, if it has been) and records
+    //          the user's answer to it
+    private void reviewCard(ReviewSession session, int n, Scanner s) {
+        Deck d = session.getDeck();
+        System.out.println(d.getNthFront(n));
+        System.out.println("Type anything when you are ready to reveal the back of the card!");
+        s.nextLine();
+        System.out.println(d.getNthBack(n));
+        long missed = d.getHistory().getLastMiss(d.getNthId(n));
+        if (missed != 0) {
+            System.out.println("(You last missed this card on " + new Date(missed) + ")");
+        }
+        System.out.println("Did you get it right? Type y for yes, n for no, or u to undo your last answer.");
+        boolean b = recordScore(session, s.nextLine());
+        while (!b) {
+            System.out.println("Please try again. Type y for yes, n for no, or u to undo your last answer.");
+            b = recordScore(session, s.nextLine());
+        }
+    }
+
+    // REQUIRES: session has a current card
+    // MODIFIES: session
+    // EFFECTS: grades the answer to the current card of the session as correct or not depending on response, or
+    //          undoes the last answer not yet committed (which comes up again next) if response is 'u'
+    //          - returns true if response can be parsed ( 'y', 'n' or 'u' with an answer to undo ), false otherwise.
+    private boolean recordScore(ReviewSession session, String response) {
+        if (response.equals("u")) {
+            if (session.undo() == 0) {
+                System.out.println("There are no answers to undo.");
+                return false;
             }
             return true;
-        } else if (response.equals("n")) {
+        } else if (!response.equals("y") && !response.equals("n")) {
+            System.out.println("Invalid input!");
+            return false;
+        }
+        session.grade(response.equals("y"), System.currentTimeMillis());
+        return true;
+    }
+
+    // MODIFIES: this, session
+    // EFFECTS: applies the answers of the session not yet committed to its deck, journals the changes together and
+    //          appends the answers to the review history file
+    private void commit(ReviewSession session) {
+        Deck d = session.getDeck();
+        int from = d.getHistory().size();
+        int[] committed = session.commit();
+        if (committed.length > 0) {
+            journal(ReviewJournal.reviews(d, committed));
             try {
-                c.changeScoreBy(INCORRECT_POINTS);
-            } catch (ExceedThresholdException e) {
-                //
+                history.append(d, from);
+            } catch (IOException e) {
+                System.out.println("Unable to record your review history in " + STORE + ".history");
             }
-            return true;
         }
-        return false;
     }
 
     // MODIFIES: this, d
-    // EFFECTS: Start edit session with given deck.
+    // EFFECTS: Start edit mode on the given deck, listing the first page of its cards
     private void startEdit(Deck d) {
+        startEdit(d, d.listing(null));
+    }
+
+    // MODIFIES: this, d
+    // EFFECTS: Edit mode on the given deck, listing the next page of the cards in cursor
+    private void startEdit(Deck d, CardCursor cursor) {
         System.out.println("\nYou are now editing deck " + d.getName());
-        System.out.println("Here are the cards in this deck:\n");
-        System.out.println(d.listCards());
-        System.out.println("\nType 'new' to create a new card");
-        System.out.println("Type 'delete n', where n is the nth card to delete the nth card.");
-        System.out.println("Type 'delete deck' to delete this deck completely!");
-        System.out.println("Type anything else to go back to the main menu.");
+        printPage(cursor);
+        printEditCommands(cursor.hasNext());
         Scanner s = new Scanner(System.in);
         String input = s.nextLine();
-        if (input.startsWith("new")) {
+        if (input.equals("more") && cursor.hasNext()) {
+            startEdit(d, cursor);
+        } else if (input.equals("find") || input.startsWith("find ")) {
+            startEdit(d, d.listing(input.substring(4)));
+        } else if (input.startsWith("new")) {
             addCard(d);
-            startEdit(d);
+            startEdit(d, d.listing(cursor.getFilter()));
         } else if (input.startsWith("delete deck")) {
             deleteDeck(d);
         } else if (input.startsWith("delete") && input.length() >= 8) {
@@ -231,8 +463,39 @@ public class ConsoleApplication {
         }
     }
 
+    // MODIFIES: cursor
+    // EFFECTS: Prints the next page of the cards in cursor, straight to the console
+    private void printPage(CardCursor cursor) {
+        String filter = cursor.getFilter();
+        boolean firstPage = cursor.getNumListed() == 0;
+        if (firstPage) {
+            System.out.println(filter.isEmpty() ? "Here are the cards in this deck:\n"
+                    : "Here are the cards in this deck with '" + filter + "' on them:\n");
+        }
+        try {
+            if (cursor.writePage(System.out, PAGE_SIZE) == 0 && firstPage) {
+                System.out.println(filter.isEmpty() ? Deck.ERROR_MESSAGE : "No cards have '" + filter + "' on them.");
+            }
+        } catch (IOException e) {
+            // System.out does not throw IOException
+        }
+    }
+
+    // EFFECTS: Prints the commands of edit mode, including 'more' if there are more cards to list
+    private static void printEditCommands(boolean more) {
+        if (more) {
+            System.out.println("\nType 'more' to see the next " + PAGE_SIZE + " cards.");
+        }
+        System.out.println("\nType 'new' to create a new card");
+        System.out.println("Type 'find text' to only list the cards with the given text on them, "
+                + "or 'find' to list them all.");
+        System.out.println("Type 'delete n', where n is the nth card to delete the nth card.");
+        System.out.println("Type 'delete deck' to delete this deck completely!");
+        System.out.println("Type anything else to go back to the main menu.");
+    }
+
     // MODIFIES: this, d
-    // EFFECTS: creates and adds a card to the deck.
+    // EFFECTS: creates and adds a card to the deck, unless the deck already has a card with the same front.
     private void addCard(Deck d) {
         Scanner s = new Scanner(System.in);
         System.out.println("Enter the front side of the card");
@@ -240,7 +503,12 @@ public class ConsoleApplication {
         System.out.println("Enter the back side of the card");
         String back = s.nextLine();
         try {
-            d.addCard(new Card(front, back));
+            Card c = d.addCardIfAbsent(new Card(front, back));
+            if (c == null) {
+                System.out.println("Card #" + d.findFront(front) + " of the deck already has this front side!");
+                return;
+            }
+            journal(ReviewJournal.addCard(d, c));
         } catch (InvalidCardException e) {
             //
         }
@@ -249,9 +517,15 @@ public class ConsoleApplication {
 
     // REQUIRES: deck must be in list of decks
     // MODIFIES: this
-    // EFFECTS: deletes deck from list of decks in the application.
+    // EFFECTS: deletes deck from list of decks in the application, along with its review history.
     private void deleteDeck(Deck d) {
         decks.remove(d);
+        journal(ReviewJournal.deleteDeck(d));
+        try {
+            history.drop(d);
+        } catch (IOException e) {
+            System.out.println("Unable to record your review history in " + STORE + ".history");
+        }
         System.out.println("The deck '" + d.getName() + "' has been removed.");
     }
 
@@ -261,6 +535,7 @@ public class ConsoleApplication {
         try {
             int card = Integer.parseInt(n);
             d.removeNthCard(card);
+            journal(ReviewJournal.removeCard(d, card));
             System.out.println("The " + "#" + n + " card of the deck has been removed successfully.");
         } catch (Exception e) {
             System.out.println("Error: The nth card does not exist, or you entered a invalid input."
@@ -1,10 +1,19 @@
 package ui;
 
+import exceptions.DeckLoadException;
 import exceptions.InvalidCardException;
 import model.Deck;
+import model.DeckRegistry;
+import model.StatsEngine;
 import exceptions.ExceedThresholdException;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import org.json.JSONObject;
+import persistence.AutosaveService;
+import persistence.BinaryWriter;
+import persistence.DeckWriter;
+import persistence.HistoryFile;
+import persistence.ReviewJournal;
+import persistence.SaveListener;
+import persistence.StoreReader;
 import ui.tabs.EditMenu;
 import ui.tabs.MainMenu;
 import ui.tabs.ReviewMenu;
@@ -12,10 +21,12 @@ import ui.tabs.ReviewMenu;
 import javax.sound.sampled.*;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /*
@@ -48,12 +59,14 @@ Citations:
     https://docs.oracle.com/javase/tutorial/sound/converters.html
  */
 
-/* Constructs and controller the user interface for the application */
-public class Controller {
+/* Constructs and controller the user interface for the application.
+   Changes are saved in the background by an AutosaveService, which reports each save back here. Closing the window
+   commits the answers of a review session still in progress and waits for the last save. */
+public class Controller implements SaveListener {
     public static final int GUI_SIZE_X = 400;
     public static final int GUI_SIZE_Y = 300;
 
-    private List<Deck> decks;
+    private DeckRegistry decks;
     private Deck selectedDeck;
     private JFrame mainframe;
     private JPanel mainMenu;
@@ -65,16 +78,30 @@ public class Controller {
     public static final String SOUND_ALERT = "./data/sound/alert.wav";
     public static final String SOUND_REVIEW = "./data/sound/review.wav";
 
-    private final JsonWriter jsonWriter;
-    private final JsonReader jsonReader;
-    private static final String JSON_STORE = "./data/reviewer.json";
+    private final DeckWriter storeWriter;
+    private final StoreReader storeReader;
+    private final ReviewJournal journal;
+    private final HistoryFile history;
+    private final StatsEngine stats;
+    private final AutosaveService autosave;
+    private boolean announceSave;
+    private static final String STORE = "./data/reviewer.dat";
+    private static final String LEGACY_JSON_STORE = "./data/reviewer.json";
+    private static final int STORE_BACKUPS = 3;
+    private static final int JOURNAL_LIMIT = 500;
+    private static final long AUTOSAVE_QUIET_MILLIS = 3000;
 
     // EFFECTS: constructs the UI
     public Controller() throws FileNotFoundException {
-        this.decks = new ArrayList<>();
-        this.jsonWriter = new JsonWriter(JSON_STORE);
-        this.jsonReader = new JsonReader(JSON_STORE);
+        this.decks = new DeckRegistry();
+        this.storeWriter = new BinaryWriter(STORE, STORE_BACKUPS);
+        this.storeReader = new StoreReader(STORE, LEGACY_JSON_STORE);
+        this.journal = new ReviewJournal(STORE);
+        this.history = new HistoryFile(STORE);
+        this.stats = new StatsEngine();
+        this.autosave = new AutosaveService(storeWriter, journal, AUTOSAVE_QUIET_MILLIS, this);
         loadDecks();
+        autosave.start();
         initializeGUI();
         mainframe.setLocationRelativeTo(null);
     }
@@ -88,19 +115,40 @@ public class Controller {
 
         this.mainMenu = new MainMenu(this);
         mainframe.setVisible(true);
+        mainframe.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                closeApplication();
+            }
+        });
         mainframe.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
     }
 
+    // MODIFIES: this
+    // EFFECTS: commits the answers of a review session still in progress and saves the changes still waiting to be
+    //          saved, before the window closes and the application exits
+    private void closeApplication() {
+        if (reviewMenu != null) {
+            ((ReviewMenu) reviewMenu).commitPending();
+        }
+        autosave.close();
+    }
+
     // EFFECTS: returns the mainframe (JFrame) of the UI
     public JFrame getMainframe() {
         return this.mainframe;
     }
 
     // EFFECTS: returns all decks
-    public List<Deck> getDecks() {
+    public DeckRegistry getDecks() {
         return this.decks;
     }
 
+    // EFFECTS: returns the engine that computes (and keeps) the statistics of the decks
+    public StatsEngine getStats() {
+        return this.stats;
+    }
+
     // EFFECTS: sets the selected deck that is being interacted with
     public void setSelectedDeck(Deck d) {
         this.selectedDeck = d;
@@ -116,8 +164,12 @@ public class Controller {
     public void reviewDeck() {
         if (selectedDeck == null) {
             makeAlert("You need to have selected a deck to review it!");
+        } else if (!loadSelectedDeck()) {
+            // Do nothing - user has already been alerted.
         } else if (selectedDeck.getNumOfCards() == 0) {
             makeAlert("Your deck needs to have cards to be able to review!");
+        } else if (selectedDeck.getNumDue(System.currentTimeMillis()) == 0) {
+            makeNotification("None of the cards in this deck are due for review yet - come back later!");
         } else {
             this.reviewMenu = new ReviewMenu(this);
         }
@@ -140,6 +192,9 @@ public class Controller {
                 playSound(SOUND_INCORRECT);
                 reviewMenu.answer(0);
                 break;
+            case ReviewMenu.COMMAND_UNDO:
+                reviewMenu.undo();
+                break;
         }
     }
 
@@ -163,8 +218,8 @@ public class Controller {
 
     // REQUIRES: reviewMenu != null
     // MODIFIES: this
-    // EFFECTS: ends review session and returns user back to main menu
-    public void endReview() {
+    // EFFECTS: ends review session and returns user back to main menu, showing the summary of the session
+    public void endReview(String summary) {
         reviewMenu.setVisible(false);
         mainframe.remove(reviewMenu);
         this.reviewMenu = null;
@@ -172,7 +227,7 @@ public class Controller {
         this.mainMenu = new MainMenu(this);
         mainframe.repaint();
         playSound(SOUND_REVIEW);
-        makeNotification("You have finished your review!");
+        makeNotification("You have finished your review!\n" + summary);
     }
 
     // REQUIRES: editMenu != null
@@ -192,11 +247,27 @@ public class Controller {
     public void editDeck() {
         if (selectedDeck == null) {
             makeAlert("You need to have selected a deck to edit it!");
+        } else if (!loadSelectedDeck()) {
+            // Do nothing - user has already been alerted.
         } else {
             this.editMenu = new EditMenu(this);
         }
     }
 
+    // REQUIRES: selectedDeck != null
+    // MODIFIES: this
+    // EFFECTS: reads the cards of selectedDeck from file if they have not been read yet, and returns true if they
+    //          are available. Alerts the user and returns false if they cannot be read.
+    private boolean loadSelectedDeck() {
+        try {
+            selectedDeck.load();
+            return true;
+        } catch (DeckLoadException e) {
+            makeAlert("Unable to read the cards of " + selectedDeck.getName() + " from file:" + STORE);
+            return false;
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: creates a new deck if no current decks have the given name & the name is valid.
     //          if deck creation is successful, sets new deck as selected deck.
@@ -216,30 +287,81 @@ public class Controller {
         mainMenu.deleteDeck();
     }
 
-    // EFFECTS: saves the decks to file
+    // EFFECTS: shows the statistics of every deck
+    public void showStats() {
+        MainMenu mainMenu = (MainMenu) this.mainMenu;
+        mainMenu.showStats();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the decks to file in the background, and notifies the user once they are saved
     public void saveDecks() {
         try {
-            jsonWriter.open();
-            jsonWriter.write(this.decks);
-            jsonWriter.close();
-            makeNotification("Saved all decks to " + JSON_STORE);
-        } catch (FileNotFoundException e) {
-            makeAlert("Unable to write file to " + JSON_STORE);
-            System.exit(0);
+            announceSave = true;
+            autosave.saveNow(this.decks);
+        } catch (DeckLoadException e) {
+            makeAlert("Unable to write file to " + STORE + " - " + e.getMessage());
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: loads decks from file. Closes application if a error makes it so that save file cannot be read.
+    // EFFECTS: appends a change to the decks to the review journal and schedules the file to be saved in the
+    //          background
+    public void journal(JSONObject record) {
+        journal(Collections.singletonList(record));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a batch of changes to the decks to the review journal together, flushing them to the file once
+    //          (e.g. the grades a review session has committed), and schedules the file to be saved as journal does
+    public void journal(List<JSONObject> records) {
+        try {
+            journal.append(records);
+            if (journal.size() >= JOURNAL_LIMIT) {
+                autosave.saveNow(this.decks);
+            } else {
+                autosave.changed(this.decks);
+            }
+        } catch (IOException | DeckLoadException e) {
+            makeAlert("Unable to record your changes in " + STORE + " - use 'Save Decks' to keep them.");
+        }
+    }
+
+    @Override
+    // EFFECTS: reports a finished background save; notifies the user if they asked for it
+    public void saveFinished(int numOfDecks, long millis) {
+        SwingUtilities.invokeLater(() -> {
+            if (announceSave) {
+                announceSave = false;
+                makeNotification("Saved all decks to " + STORE + " (" + millis + " ms)");
+            }
+        });
+    }
+
+    @Override
+    // EFFECTS: alerts the user that a background save failed
+    public void saveFailed(Exception e) {
+        SwingUtilities.invokeLater(() -> {
+            announceSave = false;
+            makeAlert("Unable to write file to " + STORE + " - your changes are kept in the journal until the next "
+                    + "save.");
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads decks from file and replays the changes recorded in the journal since it was last saved.
+    //          Closes application if a error makes it so that save file cannot be read.
     public void loadDecks() {
         try {
-            this.decks = jsonReader.read();
+            this.decks = new DeckRegistry(storeReader.read(journal));
+            journal.open();
+            loadHistory();
             if (this.mainMenu != null) {
                 this.mainMenu = new MainMenu(this);
             }
-            makeNotification("Loaded all decks from " + JSON_STORE);
+            makeNotification("Loaded all decks from " + STORE);
         } catch (IOException e) {
-            makeAlert("Unable to read from file:" + JSON_STORE);
+            makeAlert("Unable to read from file:" + STORE);
             System.exit(1);
         } catch (ExceedThresholdException e) {
             makeAlert("Problem with loading cards due to threshold issue. Please consider expanding BEST and WORST "
@@ -252,6 +374,39 @@ public class Controller {
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: reads the review history of the decks from file (see HistoryFile); alerts the user if it cannot be
+    //          read, in which case the decks start with no history
+    private void loadHistory() {
+        try {
+            history.load(this.decks, System.currentTimeMillis());
+        } catch (IOException e) {
+            makeAlert("Unable to read the review history from " + STORE + ".history - " + e.getMessage());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the rows of deck d's review history from row from on (e.g. those a review session has just
+    //          committed) to the history file
+    public void recordHistory(Deck d, int from) {
+        try {
+            history.append(d, from);
+        } catch (IOException e) {
+            makeAlert("Unable to record your review history in " + STORE + ".history");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the review history of deck d, which has just been deleted, from the history file, so that a deck
+    //          later made with the same name does not take it over
+    public void dropHistory(Deck d) {
+        try {
+            history.drop(d);
+        } catch (IOException e) {
+            makeAlert("Unable to record your review history in " + STORE + ".history");
+        }
+    }
+
     // EFFECTS: constructs a popup for user to notify them of message in specified container
     public void makeNotification(String message) {
         JOptionPane.showMessageDialog(null, message, "Notification", JOptionPane.INFORMATION_MESSAGE);
@@ -3,6 +3,7 @@ package ui.tabs;
 import exceptions.InvalidCardException;
 import model.Card;
 import model.Deck;
+import persistence.ReviewJournal;
 import ui.ActionButton;
 import ui.Controller;
 
@@ -132,13 +133,7 @@ public class EditMenu extends Tab {
                 String front = JOptionPane.showInputDialog("Please enter the front side of the card").trim();
                 String back = JOptionPane.showInputDialog("Please enter the back side for the new deck").trim();
                 try {
-                    Card c = new Card(front, back);
-                    this.selectedDeck.addCard(c);
-                    this.selectedCard = c;
-                    cardComboBox.addElement(c);
-                    cardComboBox.setSelectedItem(c);
-                    controller.makeNotification("Card created!");
-                    newCardSuccessful = true;
+                    newCardSuccessful = addNewCard(new Card(front, back));
                 } catch (InvalidCardException e) {
                     controller.makeAlert("Your front-side and back-side cannot be empty!");
                 }
@@ -148,6 +143,23 @@ public class EditMenu extends Tab {
         }
     }
 
+    // MODIFIES: this, selectedDeck
+    // EFFECTS: adds c to selectedDeck and selects it, and returns true, unless the deck already has a card with the
+    //          same front side, in which case the user is told so and false is returned
+    private boolean addNewCard(Card c) {
+        Card added = this.selectedDeck.addCardIfAbsent(c);
+        if (added == null) {
+            controller.makeAlert("This deck already has a card with that front side!");
+            return false;
+        }
+        controller.journal(ReviewJournal.addCard(selectedDeck, added));
+        this.selectedCard = added;
+        cardComboBox.addElement(added);
+        cardComboBox.setSelectedItem(added);
+        controller.makeNotification("Card created!");
+        return true;
+    }
+
     // MODIFIES: this, selectedCard, selectedDeck
     // EFFECTS: deletes selectedCard from the selectedDeck if selectedCard != null.
     public void deleteSelectedCard() {
@@ -155,11 +167,13 @@ public class EditMenu extends Tab {
             controller.makeAlert("You need to select a card to delete!");
         } else {
             try {
-                List<Card> cards = selectedDeck.getCards();
-                cards.remove(this.selectedCard);
+                int n = selectedDeck.findCard(this.selectedCard);
+                selectedDeck.removeNthCard(n);
+                controller.journal(ReviewJournal.removeCard(selectedDeck, n));
                 controller.makeNotification("Removed card '" + this.selectedCard.getFront() + "'");
                 cardComboBox.removeElement(this.selectedCard);
-                this.selectedCard = cards.size() != 0 ? cards.get(cards.size() - 1) : null;
+                int remaining = selectedDeck.getNumOfCards();
+                this.selectedCard = remaining != 0 ? selectedDeck.getNthCard(remaining) : null;
                 cardComboBox.setSelectedItem(this.selectedCard);
             } catch (Exception e) {
                 controller.makeAlert("An error has occurred. Please try again!");
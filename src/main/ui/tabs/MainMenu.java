@@ -1,6 +1,11 @@
 package ui.tabs;
 
 import model.Deck;
+import exceptions.DeckLoadException;
+import model.DeckRegistry;
+import model.DeckStats;
+import model.SearchHit;
+import persistence.ReviewJournal;
 import ui.ActionButton;
 import ui.Controller;
 
@@ -38,12 +43,17 @@ public class MainMenu extends Tab {
     public static final String COMMAND_DELETE_DECK = "delete";
     public static final String COMMAND_SAVE = "save";
     public static final String COMMAND_LOAD = "load";
+    public static final String COMMAND_STATS = "stats";
+
+    private static final int SEARCH_LIMIT = 20;
 
     private DefaultComboBoxModel<Deck> deckComboBox;
+    private DefaultListModel<SearchHit> searchResults;
 
     public MainMenu(Controller controller) {
         super(controller);
         this.deckComboBox = new DefaultComboBoxModel<>();
+        this.searchResults = new DefaultListModel<>();
         initializeMainMenu();
     }
 
@@ -57,6 +67,7 @@ public class MainMenu extends Tab {
 
         initializeMainMenuTitle(mainMenu);
         initializeMainMenuDeckList(mainMenu);
+        initializeMainMenuSearch(mainMenu);
         initializeMainMenuButtons(mainMenu);
         mainframe.add("Menu", mainMenu);
         mainframe.setContentPane(mainMenu);
@@ -80,7 +91,7 @@ public class MainMenu extends Tab {
         decksUI.setBorder(new EmptyBorder(10,20,20,20));
         mainMenu.add(decksUI);
 
-        List<Deck> decks = controller.getDecks();
+        List<Deck> decks = controller.getDecks().snapshot();
         JComboBox<Deck> deckList = new JComboBox<>(deckComboBox);
 
         for (Deck d : decks) {
@@ -97,6 +108,55 @@ public class MainMenu extends Tab {
         decksUI.add(deckList);
     }
 
+    // MODIFIES: this
+    // EFFECTS: creates a search box that finds the cards in any deck with words starting with the terms typed into it
+    //          (when the user presses enter), and a list of the cards found; choosing a card selects its deck
+    private void initializeMainMenuSearch(Container mainMenu) {
+        JPanel searchUI = new JPanel();
+        searchUI.setLayout(new BorderLayout(0, 5));
+        searchUI.setBorder(new EmptyBorder(0, 20, 10, 20));
+        searchUI.setMaximumSize(new Dimension(GUI_SIZE_X - (GUI_SIZE_X / 4), 140));
+        mainMenu.add(searchUI);
+
+        JTextField searchBox = new JTextField();
+        searchBox.setToolTipText("Search cards in every deck");
+        JList<SearchHit> resultList = new JList<>(searchResults);
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        // lambda: searches the decks for the terms in the search box whenever the user presses enter in it
+        searchBox.addActionListener(e -> search(searchBox.getText()));
+        // lambda: selects the deck of the card the user chooses from the results
+        resultList.addListSelectionListener(e -> selectDeckOf(resultList.getSelectedValue()));
+        searchUI.add(searchBox, BorderLayout.NORTH);
+        searchUI.add(new JScrollPane(resultList), BorderLayout.CENTER);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the cards in any deck that match the given terms, best matches first
+    private void search(String terms) {
+        searchResults.clear();
+        try {
+            for (SearchHit hit : controller.getDecks().search(terms, SEARCH_LIMIT)) {
+                searchResults.addElement(hit);
+            }
+        } catch (DeckLoadException e) {
+            controller.makeAlert("Unable to read the cards of every deck from file - please try again!");
+            return;
+        }
+        if (searchResults.isEmpty() && !terms.trim().isEmpty()) {
+            controller.makeNotification("No cards found - try fewer or shorter terms!");
+        }
+    }
+
+    // MODIFIES: this, controller
+    // EFFECTS: selects the deck that the card found is in, if a card is chosen
+    private void selectDeckOf(SearchHit hit) {
+        if (hit != null) {
+            controller.setSelectedDeck(hit.getDeck());
+            deckComboBox.setSelectedItem(hit.getDeck());
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: creates buttons that users can press to use the application
     private void initializeMainMenuButtons(Container mainMenu) {
@@ -111,6 +171,7 @@ public class MainMenu extends Tab {
         ActionButton deleteDeckButton = new ActionButton(controller, "Delete Deck", buttonPanel);
         ActionButton saveDeckButton = new ActionButton(controller, "Save Decks", buttonPanel);
         ActionButton loadDeckButton = new ActionButton(controller, "Load Decks", buttonPanel);
+        ActionButton statsButton = new ActionButton(controller, "Statistics", buttonPanel);
 
         newDeckButton.setActionCommand(COMMAND_NEW_DECK);
         reviewDeckButton.setActionCommand(COMMAND_REVIEW);
@@ -118,18 +179,42 @@ public class MainMenu extends Tab {
         deleteDeckButton.setActionCommand(COMMAND_DELETE_DECK);
         saveDeckButton.setActionCommand(COMMAND_SAVE);
         loadDeckButton.setActionCommand(COMMAND_LOAD);
+        statsButton.setActionCommand(COMMAND_STATS);
         mainMenu.add(buttonPanel);
     }
 
+    // EFFECTS: shows a panel with the statistics of all decks together and of each deck (see DeckStats), reading the
+    //          cards of each deck; alerts the user if they cannot be read
+    public void showStats() {
+        List<DeckStats> stats;
+        try {
+            stats = controller.getStats().compute(controller.getDecks().snapshot(), System.currentTimeMillis());
+        } catch (DeckLoadException e) {
+            controller.makeAlert("Unable to read the cards of every deck from file - please try again!");
+            return;
+        }
+        StringBuilder text = new StringBuilder(DeckStats.combine("All decks", stats).summary());
+        for (DeckStats s : stats) {
+            text.append("\n\n").append(s.summary());
+        }
+        JTextArea statsPanel = new JTextArea(text.toString(), 20, 60);
+        statsPanel.setEditable(false);
+        JOptionPane.showMessageDialog(controller.getMainframe(), new JScrollPane(statsPanel), "Statistics",
+                JOptionPane.PLAIN_MESSAGE);
+    }
+
     // MODIFIES: this, controller
     // EFFECTS: deletes selectedDeck if selectedDeck is not null and removes deck from visual UI.
     public void deleteDeck() {
         Deck selectedDeck = controller.getSelectedDeck();
-        List<Deck> decks = controller.getDecks();
+        DeckRegistry decks = controller.getDecks();
         if (selectedDeck != null) {
             try {
                 decks.remove(selectedDeck);
+                controller.journal(ReviewJournal.deleteDeck(selectedDeck));
+                controller.dropHistory(selectedDeck);
                 this.deckComboBox.removeElement(selectedDeck);
+                this.searchResults.clear();
                 controller.makeNotification("Deleted deck: " + selectedDeck.getName());
                 selectedDeck = decks.size() != 0 ? decks.get(decks.size() - 1) : null;
                 controller.setSelectedDeck(selectedDeck);
@@ -149,23 +234,16 @@ public class MainMenu extends Tab {
     // MODIFIES: this, controller
     // EFFECTS: creates a new deck and adds it if the name is valid. Sets new deck as selected deck in UI
     public void newDeck() {
-        List<Deck> decks = controller.getDecks();
+        DeckRegistry decks = controller.getDecks();
         String input = JOptionPane.showInputDialog("Please enter a name for the new deck").trim();
         if (input.isEmpty()) {
             controller.makeAlert("You cannot have a deck with an empty name!");
         } else {
-            boolean deckOfSameNameExists = false;
-            for (Deck d : decks) {
-                if (d.getName().equals(input)) {
-                    deckOfSameNameExists = true;
-                    break;
-                }
-            }
-            if (deckOfSameNameExists) {
+            Deck deck = decks.create(input);
+            if (deck == null) {
                 controller.makeAlert("You cannot have a deck with the same name as one of the existing decks!");
             } else {
-                Deck deck = new Deck(input);
-                decks.add(deck);
+                controller.journal(ReviewJournal.newDeck(deck));
                 deckComboBox.addElement(deck);
                 controller.setSelectedDeck(deck);
                 deckComboBox.setSelectedItem(deck);
@@ -2,7 +2,8 @@ package ui.tabs;
 
 import model.Card;
 import model.Deck;
-import exceptions.ExceedThresholdException;
+import model.ReviewSession;
+import persistence.ReviewJournal;
 import ui.ActionButton;
 import ui.Controller;
 
@@ -31,13 +32,17 @@ Citations:
     https://stackoverflow.com/questions/10904639/how-to-refresh-the-jcombobox-data
  */
 
-/* Review menu (UI) that allows user to review their decks */
+/* Review menu (UI) that allows user to review their decks. A session only shows the cards that are due for review when
+   it starts, the one that has been due the longest first; each answer reschedules the card (see Deck.reviewNthCard),
+   which moves it out of this session. The session itself (which card comes next, and grading the answers) is run by
+   a ReviewSession, which this menu shows. The answers are committed to the deck (and journalled) in batches of
+   ReviewSession.BATCH_SIZE, at the end of the session and when the application is closed in the middle of it (see
+   commitPending), and the last answers not yet committed can be undone. */
 public class ReviewMenu extends Tab {
-    public static final int CORRECT_POINTS = 1;
-    public static final int INCORRECT_POINTS = -1;
     public static final String COMMAND_ANSWER_CORRECT = "yes";
     public static final String COMMAND_ANSWER_INCORRECT = "no";
     public static final String COMMAND_REVEAL = "reveal";
+    public static final String COMMAND_UNDO = "undo";
 
     private static final String FRAME_FRONT_INSTRUCTIONS = "front";
     private static final String FRAME_BACK_INSTRUCTIONS = "back";
@@ -48,18 +53,21 @@ public class ReviewMenu extends Tab {
     private static final String BACK_INSTRUCTIONS = "Did you get it right? Click 'YES' or 'NO'!";
 
     private Deck selectedDeck;
+    private ReviewSession session;
     private int cardNum;
-    private Card selectedCard;
+    private JLabel frontLabel;
+    private JLabel backLabel;
     private JPanel instructions;
     private JPanel contentPanel;
     private JPanel buttons;
 
-    // REQUIRES: selectedDeck != null, selectedDeck.getNumOfCards() >= 1.
+    // REQUIRES: selectedDeck != null, selectedDeck has at least one card due for review now.
     public ReviewMenu(Controller controller) {
         super(controller);
-        this.cardNum = 1;
         this.selectedDeck = controller.getSelectedDeck();
-        this.selectedCard = controller.getSelectedDeck().getNthCard(1);
+        long now = System.currentTimeMillis();
+        this.session = new ReviewSession(selectedDeck, now);
+        this.cardNum = session.next(now);
         initializeReviewMenu();
     }
 
@@ -111,20 +119,17 @@ public class ReviewMenu extends Tab {
     }
 
     // MODIFIES: this
-    // EFFECTS: sets up the information (card front/back) to show for this review session
+    // EFFECTS: sets up the information (card front/back) to show for this review session, starting with the
+    //          selected card (the labels are filled in again for each card)
     private void initializeReviewMenuCardLayout(Container reviewMenu) {
         JPanel contentPanel = new JPanel(new CardLayout());
         contentPanel.setMaximumSize(new Dimension(GUI_SIZE_X, 140));
         contentPanel.setBorder(new EmptyBorder(20, 0, 20, 0));
 
-        for (int i = 1; i <= selectedDeck.getNumOfCards(); i++) {
-            Card c = selectedDeck.getNthCard(i);
-            JLabel front = new JLabel(c.getFront(), SwingConstants.CENTER);
-            JLabel back = new JLabel(c.getBack(), SwingConstants.CENTER);
-
-            contentPanel.add(front);
-            contentPanel.add(back);
-        }
+        this.frontLabel = new JLabel(selectedDeck.getNthFront(cardNum), SwingConstants.CENTER);
+        this.backLabel = new JLabel(selectedDeck.getNthBack(cardNum), SwingConstants.CENTER);
+        contentPanel.add(frontLabel);
+        contentPanel.add(backLabel);
         this.contentPanel = contentPanel;
         reviewMenu.add(contentPanel);
     }
@@ -135,9 +140,11 @@ public class ReviewMenu extends Tab {
         JPanel buttonsUI = new JPanel(new CardLayout());
         buttonsUI.setMaximumSize(new Dimension(GUI_SIZE_X - (GUI_SIZE_X / 4), 20));
 
-        JPanel okButtonUI = new JPanel(new GridLayout(1, 1, 0, 0));
+        JPanel okButtonUI = new JPanel(new GridLayout(1, 2, 5, 0));
         ActionButton okButton = new ActionButton(controller, "OK", okButtonUI);
+        ActionButton undoButton = new ActionButton(controller, "Undo", okButtonUI);
         okButton.setActionCommand(COMMAND_REVEAL);
+        undoButton.setActionCommand(COMMAND_UNDO);
 
         JPanel responseUI = new JPanel(new GridLayout(1, 2, 5, 0));
         ActionButton yesButton = new ActionButton(controller, "Yes", responseUI);
@@ -157,28 +164,71 @@ public class ReviewMenu extends Tab {
     //             alert player if player reaches threshold (mastered the card)
     //          if response == 0; then answer is incorrect. remove point from card.
     //             alert player if player reaches threshold (card at lowest possible level of mastery)
-    //          move to next card if there are still cards in the deck. Otherwise, end session and return to Menu.
+    //          commits the batch of answers to the deck once it is full.
+    //          move to next due card if there are still cards due. Otherwise, end session and return to Menu.
     public void answer(int response) {
-        if (response == 1) {
-            try {
-                selectedCard.changeScoreBy(CORRECT_POINTS);
-            } catch (ExceedThresholdException e) {
-                controller.makeNotification("You have mastered this card!");
-                controller.playSound(controller.SOUND_REVIEW);
-            }
-        } else if (response == 0) {
-            try {
-                selectedCard.changeScoreBy(INCORRECT_POINTS);
-            } catch (ExceedThresholdException e) {
-                controller.makeAlert("Try to pay extra attention to this card! You seem to have trouble with it.");
-            }
+        long now = System.currentTimeMillis();
+        alertThreshold(session.grade(response == 1, now));
+        if (session.isBatchFull()) {
+            commit();
         }
-        if (cardNum + 1 <= selectedDeck.getNumOfCards()) {
-            this.cardNum += 1;
-            this.selectedCard = selectedDeck.getNthCard(cardNum);
+        int next = session.next(now);
+        if (next != 0) {
+            this.cardNum = next;
+            showCard();
             showNextCardFrame();
         } else {
-            controller.endReview();
+            commit();
+            controller.endReview(session.summary());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: undoes the last answer not yet committed and shows the front of its card again; notifies the player if
+    //          there is no such answer
+    public void undo() {
+        if (session.undo() == 0) {
+            controller.makeNotification("There are no answers to undo.");
+            return;
+        }
+        this.cardNum = session.next(System.currentTimeMillis());
+        showCard();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: commits the answers of the session not yet committed (see commit), e.g. when the application is closed
+    //          in the middle of the session; they can no longer be undone
+    public void commitPending() {
+        commit();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: fills the labels in with the front and back of the card being shown
+    private void showCard() {
+        frontLabel.setText(selectedDeck.getNthFront(cardNum));
+        backLabel.setText(selectedDeck.getNthBack(cardNum));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies the answers of the session not yet committed to the deck, journals the changes together and
+    //          records the answers in the review history
+    private void commit() {
+        int from = selectedDeck.getHistory().size();
+        int[] committed = session.commit();
+        if (committed.length > 0) {
+            controller.journal(ReviewJournal.reviews(selectedDeck, committed));
+            controller.recordHistory(selectedDeck, from);
+        }
+    }
+
+    // EFFECTS: alerts the player if the answer just graded was to a card already at a threshold, which it would have
+    //          taken past it (see ReviewSession.grade)
+    private void alertThreshold(int outcome) {
+        if (outcome == Card.SCORE_AT_BEST) {
+            controller.makeNotification("You have mastered this card!");
+            controller.playSound(controller.SOUND_REVIEW);
+        } else if (outcome == Card.SCORE_AT_WORST) {
+            controller.makeAlert("Try to pay extra attention to this card! You seem to have trouble with it.");
         }
     }
 
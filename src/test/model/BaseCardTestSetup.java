@@ -24,4 +24,30 @@ public abstract class BaseCardTestSetup {
             fail("No exception expected");
         }
     }
+
+    // EFFECTS: returns true if the contents of d1 is the same as the contents of d2, otherwise returns false
+    protected static boolean sameDeck(Deck d1, Deck d2) {
+        boolean sameNoOfCards = d1.getNumOfCards() == d2.getNumOfCards();
+        boolean sameName = d1.getName().equals(d2.getName());
+        boolean result = false;
+        if (sameNoOfCards && sameName) {
+            result = true;
+            for (int i = 1; i <= d1.getNumOfCards(); i++) {
+                Card c1 = d1.getNthCard(i);
+                Card c2 = d2.getNthCard(i);
+                if (!sameCard(c1, c2)) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns true if the contents of c1 is the same as the contents of c2, otherwise returns false
+    protected static boolean sameCard(Card c1, Card c2) {
+        return c1.getFront().equals(c2.getFront()) &&
+                c1.getBack().equals(c2.getBack()) &&
+                c1.getScore() == c2.getScore();
+    }
 }
@@ -0,0 +1,73 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardCursorTest extends BaseCardTestSetup {
+    private Deck deck;
+
+    @BeforeEach @Override
+    void setup() {
+        super.setup();
+        deck = new Deck("Trivia");
+        deck.addCard(c1);
+        deck.addCard(c2);
+        deck.addCard(c3);
+        deck.addCard(c4);
+        deck.addCard(c5);
+    }
+
+    @Test
+    void testPages() throws IOException {
+        CardCursor cursor = deck.listing(null);
+        StringBuilder page = new StringBuilder();
+        assertEquals(2, cursor.writePage(page, 2));
+        assertEquals("1: " + c1.getFront() + "\n2: " + c2.getFront() + "\n", page.toString());
+        assertTrue(cursor.hasNext());
+        page.setLength(0);
+        assertEquals(2, cursor.writePage(page, 2));
+        assertEquals("3: " + c3.getFront() + "\n4: " + c4.getFront() + "\n", page.toString());
+        assertEquals(1, cursor.writePage(page, 2));
+        assertFalse(cursor.hasNext());
+        assertEquals(0, cursor.writePage(page, 2));
+        assertEquals(5, cursor.getNumListed());
+        assertEquals("", cursor.getFilter());
+    }
+
+    @Test
+    void testPagesMatchListCards() throws IOException {
+        StringBuilder pages = new StringBuilder();
+        CardCursor cursor = deck.listing("");
+        while (cursor.writePage(pages, 3) > 0) {
+            assertTrue(pages.length() > 0);
+        }
+        assertEquals(deck.listCards(), pages.toString());
+    }
+
+    @Test
+    void testFilter() throws IOException {
+        CardCursor cursor = deck.listing("  WHAT is ");
+        assertEquals("WHAT is", cursor.getFilter());
+        assertEquals(1, cursor.next());
+        assertEquals(2, cursor.next());
+        assertEquals(4, cursor.next());
+        assertEquals(0, cursor.next());
+        assertEquals(3, cursor.getNumListed());
+
+        StringBuilder page = new StringBuilder();
+        assertEquals(1, deck.listing("vancouver").writePage(page, 10));
+        assertEquals("3: " + c3.getFront() + "\n", page.toString());
+        assertFalse(deck.listing("nothing like this").hasNext());
+    }
+
+    @Test
+    void testEmptyDeck() throws IOException {
+        CardCursor cursor = new Deck("Empty").listing(null);
+        assertFalse(cursor.hasNext());
+        assertEquals(0, cursor.writePage(new StringBuilder(), 10));
+    }
+}
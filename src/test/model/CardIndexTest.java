@@ -0,0 +1,73 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardIndexTest {
+    @Test
+    void testNormalize() {
+        assertEquals("what is 1+1?", CardIndex.normalize("  What   is\t1+1?\n"));
+        assertEquals("", CardIndex.normalize(" \t "));
+        assertEquals("a b", CardIndex.normalize("A B"));
+    }
+
+    @Test
+    void testMatchesScanAfterChanges() {
+        checkAgainstScan(new CardList());
+        checkAgainstScan(new CompactCardList(0));
+    }
+
+    @Test
+    void testNotCurrentAfterChangesElsewhere() {
+        CardList cards = new CardList();
+        cards.append("Front", "Back", 0);
+        CardIndex index = new CardIndex(cards);
+        assertTrue(index.isCurrent(cards));
+        assertFalse(index.isCurrent(new CardList()));
+        cards.get(0).changeScoreSaturating(1);
+        assertTrue(index.isCurrent(cards));
+        cards.append("Front 2", "Back 2", 0);
+        assertFalse(index.isCurrent(cards));
+    }
+
+    @Test
+    void testSharedFrontsRebuild() {
+        CardList cards = new CardList();
+        cards.append("Front", "Back", 0);
+        cards.append("front", "Other back", 0);
+        CardIndex index = new CardIndex(cards);
+        assertEquals(0, index.positionOfFront("FRONT"));
+        cards.remove(0);
+        index.removed(0, 1, "Front", null);
+        assertFalse(index.isCurrent(cards));
+        assertEquals(0, new CardIndex(cards).positionOfFront("Front"));
+    }
+
+    // EFFECTS: adds and removes cards in cards at random, keeping an index up to date as a deck does, and checks
+    //          every lookup against a scan of every card along the way
+    private static void checkAgainstScan(CardStorage cards) {
+        Random random = new Random(16);
+        CardIndex index = new CardIndex(cards);
+        for (int round = 0; round < 1000; round++) {
+            if (cards.isEmpty() || random.nextInt(3) > 0) {
+                cards.append("Front " + round, "Back", 0);
+                index.added();
+            } else {
+                int at = random.nextInt(cards.size());
+                int id = cards.getId(at);
+                String front = cards.getFront(at);
+                Card removed = cards.remove(at);
+                index.removed(at, id, front, removed);
+            }
+            assertTrue(index.isCurrent(cards));
+            int probe = random.nextInt(cards.size());
+            assertEquals(probe, index.positionOfId(cards.getId(probe)));
+            assertEquals(probe, index.positionOfFront(cards.getFront(probe).toUpperCase()));
+            assertEquals(probe, index.positionOf(cards.get(probe)));
+            assertEquals(-1, index.positionOfId(cards.getNextId()));
+        }
+    }
+}
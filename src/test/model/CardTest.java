@@ -102,6 +102,53 @@ public class CardTest extends BaseCardTestSetup {
         }
     }
 
+    @Test
+    void testChangeScoreSaturatingWithinRange() {
+        assertEquals(Card.SCORE_CHANGED, c1.changeScoreSaturating(3));
+        assertEquals(3, c1.getScore());
+        assertEquals(Card.SCORE_CHANGED, c1.changeScoreSaturating(-6));
+        assertEquals(Card.WORST_THRESHOLD, c1.getScore());
+        assertEquals(Card.SCORE_CHANGED, c1.changeScoreSaturating(0));
+        assertEquals(Card.WORST_THRESHOLD, c1.getScore());
+    }
+
+    @Test
+    void testChangeScoreSaturatingAtBest() {
+        assertEquals(Card.SCORE_AT_BEST, c1.changeScoreSaturating(400));
+        assertEquals(Card.BEST_THRESHOLD, c1.getScore());
+        Deck d = new Deck("Deck");
+        d.addCard(c1);
+        d.markSaved(1);
+        assertEquals(Card.SCORE_AT_BEST, c1.changeScoreSaturating(1));
+        assertEquals(Card.BEST_THRESHOLD, c1.getScore());
+        assertFalse(d.isModified());
+        assertEquals(Card.SCORE_AT_BEST, c1.changeScoreSaturating(Integer.MAX_VALUE));
+        assertEquals(Card.BEST_THRESHOLD, c1.getScore());
+    }
+
+    @Test
+    void testChangeScoreSaturatingAtWorst() {
+        assertEquals(Card.SCORE_CHANGED, c2.changeScoreSaturating(-1));
+        assertEquals(Card.SCORE_AT_WORST, c2.changeScoreSaturating(-5));
+        assertEquals(Card.WORST_THRESHOLD, c2.getScore());
+        assertEquals(Card.SCORE_AT_WORST, c2.changeScoreSaturating(Integer.MIN_VALUE));
+        assertEquals(Card.WORST_THRESHOLD, c2.getScore());
+        assertEquals(Card.SCORE_CHANGED, c2.changeScoreSaturating(1));
+        assertEquals(Card.WORST_THRESHOLD + 1, c2.getScore());
+    }
+
+    @Test
+    void testValidate() {
+        assertEquals(CardReport.VALID, Card.validate("front", "back", 0));
+        assertEquals(CardReport.VALID, Card.validate("front", "back", Card.BEST_THRESHOLD));
+        assertEquals(CardReport.VALID, Card.validate("front", "back", Card.WORST_THRESHOLD));
+        assertEquals(CardReport.EMPTY_SIDE, Card.validate("", "back", 0));
+        assertEquals(CardReport.EMPTY_SIDE, Card.validate("front", null, 0));
+        assertEquals(CardReport.EMPTY_SIDE, Card.validate("", "", 99));
+        assertEquals(CardReport.SCORE_OUT_OF_RANGE, Card.validate("front", "back", Card.BEST_THRESHOLD + 1));
+        assertEquals(CardReport.SCORE_OUT_OF_RANGE, Card.validate("front", "back", Card.WORST_THRESHOLD - 1));
+    }
+
     @Test
     void testToString() {
         assertEquals(c1.toString(), c1.getFront());
@@ -0,0 +1,209 @@
+package model;
+
+import exceptions.ExceedThresholdException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactCardListTest extends BaseCardTestSetup {
+    private CompactCardList list;
+
+    @BeforeEach
+    void makeList() {
+        list = new CompactCardList(2);
+        list.append("Front A", "Back A", 1);
+        list.append("Front B", "Back B", -2);
+        list.append("Café ☕", "日本語", Card.BEST_THRESHOLD);
+    }
+
+    @Test
+    void testAppendAndRead() {
+        assertEquals(3, list.size());
+        assertEquals("Front A", list.getFront(0));
+        assertEquals("Back B", list.getBack(1));
+        assertEquals(-2, list.getScore(1));
+        assertEquals("Café ☕", list.getFront(2));
+        assertEquals("日本語", list.getBack(2));
+        assertEquals(Card.BEST_THRESHOLD, list.getScore(2));
+    }
+
+    @Test
+    void testViews() {
+        Card b = list.get(1);
+        assertSame(b, list.get(1));
+        assertEquals("Front B", b.getFront());
+        assertEquals("Back B", b.getBack());
+        assertEquals(-2, b.getScore());
+        assertEquals(1, list.indexOf(b));
+        assertEquals(-1, list.indexOf(c1));
+        assertTrue(list.contains(b));
+        assertFalse(list.contains(c1));
+
+        long versions = list.getCardVersions();
+        int modifications = list.getModifications();
+        assertEquals(Card.SCORE_CHANGED, b.changeScoreSaturating(3));
+        assertEquals(1, list.getScore(1));
+        assertEquals(1, b.getScore());
+        assertNotEquals(versions, list.getCardVersions());
+        assertEquals(modifications, list.getModifications());
+    }
+
+    @Test
+    void testViewChangeScoreBy() {
+        Card a = list.get(0);
+        try {
+            a.changeScoreBy(-4);
+            assertEquals(Card.WORST_THRESHOLD, list.getScore(0));
+            a.changeScoreBy(-1);
+            fail("ExceedThresholdException expected");
+        } catch (ExceedThresholdException e) {
+            assertEquals(Card.WORST_THRESHOLD, list.getScore(0));
+        }
+    }
+
+    @Test
+    void testAddCopiesCard() {
+        list.add(c1);
+        assertEquals(4, list.size());
+        Card added = list.get(3);
+        assertNotSame(c1, added);
+        assertTrue(sameCard(c1, added));
+        assertEquals(-1, list.indexOf(c1));
+    }
+
+    @Test
+    void testInsertMovesViews() {
+        Card a = list.get(0);
+        Card b = list.get(1);
+        list.add(1, c2);
+        assertEquals(4, list.size());
+        assertSame(a, list.get(0));
+        assertSame(b, list.get(2));
+        assertEquals(2, list.indexOf(b));
+        assertEquals("Front B", b.getFront());
+        assertTrue(sameCard(c2, list.get(1)));
+        assertEquals("Café ☕", list.getFront(3));
+        assertEquals("日本語", list.getBack(3));
+    }
+
+    @Test
+    void testRemoveDetachesCard() {
+        Card a = list.get(0);
+        Card c = list.get(2);
+        int modifications = list.getModifications();
+        Card removed = list.remove(0);
+        assertSame(a, removed);
+        assertEquals(2, list.size());
+        assertNotEquals(modifications, list.getModifications());
+        assertEquals(-1, list.indexOf(a));
+        assertEquals("Front A", a.getFront());
+        assertEquals("Back A", a.getBack());
+        assertEquals(1, a.getScore());
+
+        long versions = list.getCardVersions();
+        a.changeScoreSaturating(1);
+        assertEquals(2, a.getScore());
+        assertEquals(versions, list.getCardVersions());
+
+        assertSame(c, list.get(1));
+        assertEquals("日本語", c.getBack());
+        assertEquals("Front B", list.getFront(0));
+        assertEquals(-2, list.getScore(0));
+    }
+
+    @Test
+    void testRemoveObjectAndLast() {
+        assertTrue(list.remove(list.get(2)));
+        assertFalse(list.remove(c1));
+        assertEquals(2, list.size());
+        list.remove(1);
+        list.remove(0);
+        assertTrue(list.isEmpty());
+        list.append("Again", "Back", 0);
+        assertEquals("Again", list.get(0).getFront());
+    }
+
+    @Test
+    void testSetReplacesCard() {
+        Card b = list.get(1);
+        int modifications = list.getModifications();
+        Card replaced = list.set(1, c3);
+        assertSame(b, replaced);
+        assertEquals("Front B", replaced.getFront());
+        assertTrue(sameCard(c3, list.get(1)));
+        assertEquals(3, list.size());
+        assertNotEquals(modifications, list.getModifications());
+        assertEquals("Café ☕", list.getFront(2));
+    }
+
+    @Test
+    void testIndexOutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.remove(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.add(5, c1));
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        Card a = list.get(0);
+        CardStorage copy = list.copy();
+        a.changeScoreSaturating(1);
+        list.remove(1);
+        assertEquals(3, copy.size());
+        assertEquals(1, copy.getScore(0));
+        assertEquals("Front B", copy.getFront(1));
+        assertEquals("日本語", copy.getBack(2));
+        copy.append("Front D", "Back D", 0);
+        assertEquals(4, copy.size());
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    void testSnapshotSharesUntilChanged() {
+        CardStorage snapshot = list.snapshot();
+        list.append("Front D", "Back D", 2);
+        list.get(3).changeScoreSaturating(1);
+        list.get(3).setSchedule(new Schedule(1, 1, Schedule.DEFAULT_EASE, 5));
+        assertEquals(3, snapshot.size());
+        assertEquals(Card.BEST_THRESHOLD, snapshot.getScore(2));
+        assertEquals("日本語", snapshot.getBack(2));
+
+        list.get(1).setSchedule(new Schedule(1, 1, Schedule.DEFAULT_EASE, 5));
+        list.get(0).changeScoreSaturating(2);
+        list.add(0, c1);
+        assertEquals(5, list.size());
+        assertEquals(3, list.getScore(1));
+        assertEquals(3, snapshot.size());
+        assertEquals("Front A", snapshot.getFront(0));
+        assertEquals(1, snapshot.getScore(0));
+        assertTrue(snapshot.getSchedule(1).isNew());
+        assertEquals(Card.BEST_THRESHOLD + 1, snapshot.getScoreSum());
+
+        ((CompactCardList) snapshot).setScore(2, 0);
+        assertEquals(Card.BEST_THRESHOLD, list.getScore(3));
+    }
+
+    @Test
+    void testIteratorAndGrowth() {
+        CompactCardList big = new CompactCardList(0);
+        for (int i = 0; i < 1000; i++) {
+            big.append("Question " + i, "Answer " + i, i % 9 - 3);
+        }
+        Iterator<Card> it = big.iterator();
+        for (int i = 0; i < 1000; i++) {
+            Card c = it.next();
+            assertEquals("Question " + i, c.getFront());
+            assertEquals(i % 9 - 3, c.getScore());
+        }
+        assertFalse(it.hasNext());
+        for (int i = 999; i >= 0; i -= 2) {
+            big.remove(i);
+        }
+        assertEquals(500, big.size());
+        assertEquals("Answer 998", big.getBack(499));
+    }
+}
@@ -0,0 +1,229 @@
+package model;
+
+import exceptions.InvalidCardException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentDeckTest extends BaseCardTestSetup {
+    private static final int NUM_THREADS = 8;
+    private static final int NUM_CARDS = 2000;
+
+    private Deck deck;
+    private ConcurrentDeck concurrent;
+
+    @BeforeEach
+    void makeDecks() {
+        deck = new Deck("Shared");
+        for (int i = 0; i < NUM_CARDS; i++) {
+            deck.addCard(makeCard("Front " + i, "Back " + i, Card.WORST_THRESHOLD));
+        }
+        concurrent = new ConcurrentDeck(deck, 4);
+    }
+
+    @Test
+    void testCopiesDeck() {
+        assertEquals("Shared", concurrent.getName());
+        assertEquals(NUM_CARDS, concurrent.getNumOfCards());
+        assertEquals(0, concurrent.getScoreSum());
+        assertEquals(NUM_CARDS, concurrent.getScoreHistogram()[0]);
+        Card c = concurrent.getCard(deck.getNthId(7));
+        assertEquals("Front 6", c.getFront());
+        assertNotSame(deck.getNthCard(7), c);
+        assertNull(concurrent.getCard(0));
+        assertNull(concurrent.getCard(deck.getNextId()));
+
+        deck.removeNthCard(1);
+        assertEquals(NUM_CARDS, concurrent.getNumOfCards());
+        assertTrue(sameDeck(concurrent.toDeck(), withFirst(deck, "Front 0")));
+    }
+
+    @Test
+    void testAddRemoveAndReview() {
+        int id = concurrent.addCard(c1);
+        assertEquals(deck.getNextId(), id);
+        assertEquals(id + 1, concurrent.addCard(c2));
+        assertEquals(c1.getFront(), concurrent.getCard(id).getFront());
+
+        assertEquals(Card.SCORE_CHANGED, concurrent.review(id, 3, true, 0));
+        assertEquals(3, concurrent.getCard(id).getScore());
+        assertEquals(1, concurrent.getCard(id).getSchedule().getRepetitions());
+        assertEquals(0, c1.getScore());
+        assertEquals(Card.SCORE_AT_BEST, concurrent.review(id, 9, true, 0));
+        assertEquals(Card.BEST_THRESHOLD, concurrent.getScoreSum());
+
+        assertTrue(concurrent.removeCard(id));
+        assertFalse(concurrent.removeCard(id));
+        assertEquals(ConcurrentDeck.NO_CARD, concurrent.review(id, 1, true, 0));
+        assertEquals(NUM_CARDS + 1, concurrent.getNumOfCards());
+        assertEquals(id + 2, concurrent.addCard(c3));
+    }
+
+    @Test
+    void testDue() {
+        long now = 1000;
+        assertEquals(NUM_CARDS, concurrent.getNumDue(now));
+        assertEquals(deck.getNthId(1), concurrent.getNextDue(now));
+        concurrent.review(deck.getNthId(1), 1, true, now);
+        concurrent.review(deck.getNthId(2), 1, true, now);
+        assertEquals(NUM_CARDS - 2, concurrent.getNumDue(now));
+        assertEquals(deck.getNthId(3), concurrent.getNextDue(now));
+        assertEquals(0, new ConcurrentDeck(new Deck("Empty"), 2).getNextDue(now));
+    }
+
+    @Test
+    void testToDeckKeepsIdsAndCompact() {
+        deck.compact();
+        ConcurrentDeck compact = new ConcurrentDeck(deck, 3);
+        int id = compact.addCard(c1);
+        Deck copy = compact.toDeck();
+        assertTrue(copy.isCompact());
+        assertEquals(NUM_CARDS + 1, copy.getNumOfCards());
+        for (int n = 1; n <= NUM_CARDS; n++) {
+            assertEquals(deck.getNthId(n), copy.getNthId(n));
+        }
+        assertEquals(id, copy.getNthId(NUM_CARDS + 1));
+        assertEquals(id + 1, copy.getNextId());
+    }
+
+    @Test
+    void testConcurrentReviewsLoseNoUpdates() throws InterruptedException {
+        int[] ids = new int[NUM_CARDS];
+        for (int n = 1; n <= NUM_CARDS; n++) {
+            ids[n - 1] = deck.getNthId(n);
+        }
+        List<Set<Integer>> added = new ArrayList<>();
+        runThreads(t -> {
+            Set<Integer> mine = new HashSet<>();
+            for (int i = 0; i < NUM_CARDS; i++) {
+                concurrent.review(ids[(i + t * 97) % NUM_CARDS], 1, true, 0);
+                if (i % 10 == 0) {
+                    int id = concurrent.addCard(makeCard("Extra " + t + " " + i, "Back", 0));
+                    assertTrue(mine.add(id));
+                    if (i % 20 == 0) {
+                        assertTrue(concurrent.removeCard(id));
+                        mine.remove(id);
+                    }
+                }
+            }
+            synchronized (added) {
+                added.add(mine);
+            }
+        });
+
+        int numAdded = 0;
+        Set<Integer> allAdded = new HashSet<>();
+        for (Set<Integer> mine : added) {
+            numAdded += mine.size();
+            allAdded.addAll(mine);
+        }
+        assertEquals(numAdded, allAdded.size());
+        assertEquals(NUM_CARDS + numAdded, concurrent.getNumOfCards());
+        for (int id : ids) {
+            Card c = concurrent.getCard(id);
+            assertEquals(Card.WORST_THRESHOLD + NUM_THREADS, c.getScore());
+            assertEquals(NUM_THREADS, c.getSchedule().getRepetitions());
+        }
+        assertCountsMatch(concurrent.toDeck());
+    }
+
+    @Test
+    void testReadersSeeConsistentTotals() throws InterruptedException {
+        int[] ids = new int[NUM_CARDS];
+        for (int n = 1; n <= NUM_CARDS; n++) {
+            ids[n - 1] = deck.getNthId(n);
+        }
+        runThreads(t -> {
+            for (int i = 0; i < NUM_CARDS / 4; i++) {
+                if (t % 2 == 0) {
+                    concurrent.review(ids[(i * 7 + t) % NUM_CARDS], 1, true, 0);
+                } else {
+                    int[] histogram = concurrent.getScoreHistogram();
+                    int total = 0;
+                    for (int count : histogram) {
+                        total += count;
+                    }
+                    assertEquals(NUM_CARDS, total);
+                    assertEquals(NUM_CARDS, concurrent.toDeck().getNumOfCards());
+                }
+            }
+        });
+        assertCountsMatch(concurrent.toDeck());
+    }
+
+    // EFFECTS: runs task on NUM_THREADS threads at once (passing each its number), waits for all of them and fails if
+    //          any of them did
+    private static void runThreads(ThreadTask task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < NUM_THREADS; t++) {
+            int number = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(number);
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), failures.toString());
+    }
+
+    // EFFECTS: fails unless the concurrent deck's totals match those counted from copy, a deck made from it
+    private void assertCountsMatch(Deck copy) {
+        assertEquals(copy.getNumOfCards(), concurrent.getNumOfCards());
+        assertEquals(copy.getScoreSum(), concurrent.getScoreSum());
+        assertArrayEquals(copy.getScoreHistogram(), concurrent.getScoreHistogram());
+        int sum = 0;
+        for (int n = 1; n <= copy.getNumOfCards(); n++) {
+            sum += Math.max(copy.getNthScore(n), 0);
+            assertTrue(n == 1 || copy.getNthId(n - 1) < copy.getNthId(n));
+        }
+        assertEquals(sum, copy.getScoreSum());
+    }
+
+    // EFFECTS: returns a copy of d with a card with the given front (and back "Back 0") before its other cards
+    private static Deck withFirst(Deck d, String front) {
+        Deck copy = new Deck(d.getName());
+        copy.addCard(makeCard(front, "Back 0", Card.WORST_THRESHOLD));
+        for (int n = 1; n <= d.getNumOfCards(); n++) {
+            copy.addCard(makeCard(d.getNthFront(n), d.getNthBack(n), d.getNthScore(n)));
+        }
+        return copy;
+    }
+
+    // EFFECTS: returns a card with the given front, back and score
+    private static Card makeCard(String front, String back, int score) {
+        try {
+            Card c = new Card(front, back);
+            c.changeScoreSaturating(score);
+            return c;
+        } catch (InvalidCardException e) {
+            fail("No exception expected");
+            return null;
+        }
+    }
+
+    /* A task run by each of the threads of runThreads. */
+    private interface ThreadTask {
+        // EFFECTS: runs the task as thread number t
+        void run(int t) throws Exception;
+    }
+}
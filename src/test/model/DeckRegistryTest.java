@@ -0,0 +1,131 @@
+package model;
+
+import exceptions.InvalidCardException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeckRegistryTest {
+    private DeckRegistry registry;
+    private Deck spanish;
+    private Deck french;
+
+    @BeforeEach
+    void runBefore() {
+        registry = new DeckRegistry();
+        spanish = registry.create("Spanish");
+        french = registry.create("  French ");
+    }
+
+    @Test
+    void testCreate() {
+        assertEquals(Arrays.asList(spanish, french), registry);
+        assertEquals("French", french.getName());
+        assertNull(registry.create("  "));
+        assertNull(registry.create("Spanish"));
+        assertNull(registry.create("sPANISH "));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void testFind() {
+        assertEquals(spanish, registry.find("Spanish"));
+        assertNull(registry.find("spanish"));
+        assertNull(registry.find("German"));
+        assertEquals(spanish, registry.findIgnoreCase("spanish"));
+        assertEquals(french, registry.findIgnoreCase("FRENCH"));
+        assertNull(registry.findIgnoreCase("German"));
+        assertTrue(registry.isNameTaken("fRENCH"));
+        assertFalse(registry.isNameTaken("German"));
+        assertTrue(registry.contains(spanish));
+        assertFalse(registry.contains(new Deck("Spanish")));
+        assertFalse(registry.contains("Spanish"));
+    }
+
+    @Test
+    void testAddDuplicateName() {
+        assertThrows(IllegalArgumentException.class, () -> registry.add(new Deck("Spanish")));
+        assertThrows(IllegalArgumentException.class, () -> registry.set(1, new Deck("Spanish")));
+        assertEquals(2, registry.size());
+        Deck renamed = new Deck("French");
+        assertEquals(french, registry.set(1, renamed));
+        assertEquals(renamed, registry.find("French"));
+        assertFalse(registry.contains(french));
+    }
+
+    @Test
+    void testRemove() {
+        assertTrue(registry.remove(spanish));
+        assertNull(registry.find("Spanish"));
+        assertFalse(registry.isNameTaken("spanish"));
+        assertEquals(french, registry.remove(0));
+        assertTrue(registry.isEmpty());
+        assertNotNull(registry.create("Spanish"));
+    }
+
+    @Test
+    void testChangesThroughIterators() {
+        registry.create("German");
+        Iterator<Deck> it = registry.iterator();
+        it.next();
+        it.remove();
+        assertNull(registry.find("Spanish"));
+        registry.removeIf(d -> d.getName().startsWith("G"));
+        assertNull(registry.find("German"));
+        registry.subList(0, 1).clear();
+        assertTrue(registry.isEmpty());
+        assertFalse(registry.isNameTaken("French"));
+    }
+
+    @Test
+    void testClashingNamesFromStore() {
+        Deck lower = new Deck("spanish");
+        Deck copy = new Deck("Spanish");
+        Deck upper = new Deck("Spanish");
+        DeckRegistry read = new DeckRegistry(Arrays.asList(lower, upper, copy));
+        assertEquals(3, read.size());
+        assertEquals(upper, read.find("Spanish"));
+        assertEquals(lower, read.findIgnoreCase("SPANISH"));
+        read.remove(upper);
+        assertEquals(copy, read.find("Spanish"));
+        read.remove(lower);
+        assertEquals(copy, read.findIgnoreCase("SPANISH"));
+        read.remove(copy);
+        assertFalse(read.isNameTaken("Spanish"));
+    }
+
+    @Test
+    void testSearchAcrossDecks() throws InvalidCardException {
+        spanish.addCard(new Card("El gato", "The cat"));
+        spanish.addCard(new Card("El perro", "The dog"));
+        french.addCard(new Card("Le chat", "The cat"));
+        french.addCard(new Card("Cat", "Le chat"));
+        List<SearchHit> hits = registry.search("cat", 10);
+        assertEquals(3, hits.size());
+        assertEquals(french, hits.get(0).getDeck());
+        assertEquals(2, hits.get(0).getPosition());
+        assertEquals(spanish, hits.get(1).getDeck());
+        assertEquals(french, hits.get(2).getDeck());
+        assertEquals(1, hits.get(2).getPosition());
+        assertEquals("Spanish | 1: El gato", hits.get(1).toString());
+        assertEquals(2, registry.search("the c", 2).size());
+        assertTrue(registry.search("the bird", 10).isEmpty());
+    }
+
+    @Test
+    void testSnapshot() {
+        List<Deck> snapshot = registry.snapshot();
+        assertEquals(Arrays.asList(spanish, french), snapshot);
+        assertSame(snapshot, registry.snapshot());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new Deck("German")));
+        Deck german = registry.create("German");
+        assertEquals(2, snapshot.size());
+        assertEquals(Arrays.asList(spanish, french, german), registry.snapshot());
+        assertNotSame(snapshot, registry.snapshot());
+    }
+}
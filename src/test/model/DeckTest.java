@@ -1,10 +1,19 @@
 package model;
 
+import exceptions.DeckLoadException;
 import exceptions.ExceedThresholdException;
 import exceptions.InvalidCardException;
+import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class DeckTest extends BaseCardTestSetup {
@@ -67,6 +76,88 @@ public class DeckTest extends BaseCardTestSetup {
         assertEquals(c1, d1.getNthCard(6));
     }
 
+    @Test
+    void testAddCardsAllValid() {
+        String[] fronts = {"Front A", "Front B", "Front C"};
+        String[] backs = {"Back A", "Back B", "Back C"};
+        int[] scores = {0, Card.BEST_THRESHOLD, Card.WORST_THRESHOLD};
+        CardReport report = d1.addCards(fronts, backs, scores, 3);
+        assertTrue(report.isValid());
+        assertEquals(3, report.getNumAdded());
+        assertEquals(0, report.getNumRejected());
+        assertEquals(6, d1.getNumOfCards());
+        assertEquals("Front A", d1.getNthCard(4).getFront());
+        assertEquals("Back C", d1.getNthCard(6).getBack());
+        assertEquals(Card.WORST_THRESHOLD, d1.getNthCard(6).getScore());
+        try {
+            report.throwIfRejected();
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testAddCardsSkipsInvalid() {
+        String[] fronts = new String[8];
+        String[] backs = new String[8];
+        int[] scores = new int[8];
+        for (int i = 0; i < 8; i++) {
+            fronts[i] = "Front " + i;
+            backs[i] = "Back " + i;
+        }
+        backs[1] = "";
+        scores[3] = Card.BEST_THRESHOLD + 1;
+        fronts[4] = "";
+        scores[5] = -100;
+        scores[6] = 4;
+        fronts[7] = "Not added";
+        CardReport report = d2.addCards(fronts, backs, scores, 7);
+        assertFalse(report.isValid());
+        assertEquals(3, report.getNumAdded());
+        assertEquals(4, report.getNumRejected());
+        assertEquals(1, report.getRejectedIndex(0));
+        assertEquals(CardReport.EMPTY_SIDE, report.getRejectedReason(0));
+        assertEquals(3, report.getRejectedIndex(1));
+        assertEquals(CardReport.SCORE_OUT_OF_RANGE, report.getRejectedReason(1));
+        assertEquals(5, report.getRejectedIndex(3));
+        assertEquals(CardReport.SCORE_OUT_OF_RANGE, report.getRejectedReason(3));
+        assertEquals(8, d2.getNumOfCards());
+        assertEquals("Front 2", d2.getNthCard(7).getFront());
+        assertEquals(4, d2.getNthCard(8).getScore());
+        try {
+            report.throwIfRejected();
+            fail("InvalidCardException expected");
+        } catch (InvalidCardException e) {
+            // pass
+        } catch (ExceedThresholdException e) {
+            fail("ExceedThresholdException not expected");
+        }
+    }
+
+    @Test
+    void testAddCardsReportsScoreFirst() {
+        CardReport report = new Deck("Scores").addCards(new String[] {"a", ""}, new String[] {"b", "c"},
+                new int[] {Card.WORST_THRESHOLD - 1, 0}, 2);
+        assertEquals(0, report.getNumAdded());
+        try {
+            report.throwIfRejected();
+            fail("ExceedThresholdException expected");
+        } catch (ExceedThresholdException e) {
+            // pass
+        } catch (InvalidCardException e) {
+            fail("InvalidCardException not expected");
+        }
+    }
+
+    @Test
+    void testAddCardsModifiesDeck() {
+        d1.markSaved(1);
+        d1.addCards(new String[] {"a"}, new String[] {"b"}, new int[] {0}, 0);
+        assertFalse(d1.isModified());
+        d1.addCards(new String[] {"a"}, new String[] {"b"}, new int[] {0}, 1);
+        assertTrue(d1.isModified());
+    }
+
     @Test
     void testRemoveNthCardFirst() {
         Card c1 = d1.getNthCard(1);
@@ -230,4 +321,671 @@ public class DeckTest extends BaseCardTestSetup {
         Deck d = new Deck("Test");
         assertEquals(d.getName() + " | MASTERY: " + d.getMastery() + "%", d.toString());
     }
+
+    @Test
+    void testLazyDeckUsesIndex() {
+        int[] loads = {0};
+        Deck lazy = new Deck("Lazy", 4, 10, () -> {
+            loads[0]++;
+            return Arrays.asList(c1, c2, c3, c4);
+        });
+
+        assertFalse(lazy.isLoaded());
+        assertEquals("Lazy", lazy.getName());
+        assertEquals(4, lazy.getNumOfCards());
+        assertEquals(10, lazy.getScoreSum());
+        assertEquals(Math.round(100.0 * 10 / (4 * Card.BEST_THRESHOLD)), lazy.getMastery());
+        assertEquals(0, loads[0]);
+    }
+
+    @Test
+    void testLazyDeckLoadsOnFirstAccess() {
+        int[] loads = {0};
+        Deck lazy = new Deck("Lazy", 2, 0, () -> {
+            loads[0]++;
+            return Arrays.asList(c1, c2);
+        });
+
+        assertEquals(c2, lazy.getNthCard(2));
+        assertTrue(lazy.isLoaded());
+        assertEquals(c3, lazy.addCard(c3));
+        assertEquals(3, lazy.getNumOfCards());
+        assertEquals(c1, lazy.removeNthCard(1));
+        assertEquals(2, lazy.getCards().size());
+        assertEquals(1, loads[0]);
+    }
+
+    @Test
+    void testLazyDeckScoreSumAfterLoad() {
+        Deck lazy = new Deck("Lazy", 2, 0, () -> new ArrayList<>(Arrays.asList(c1, c2)));
+        lazy.load();
+        try {
+            c1.changeScoreBy(3);
+            c2.changeScoreBy(-2);
+        } catch (ExceedThresholdException e) {
+            fail("No exception expected");
+        }
+        assertEquals(3, lazy.getScoreSum());
+    }
+
+    @Test
+    void testLazyDeckLoadFailure() {
+        List<Card> cards = new ArrayList<>();
+        boolean[] fail = {true};
+        Deck lazy = new Deck("Broken", 1, 0, () -> {
+            if (fail[0]) {
+                throw new IOException("unreadable");
+            }
+            cards.add(c5);
+            return cards;
+        });
+
+        try {
+            lazy.listCards();
+            fail("DeckLoadException expected");
+        } catch (DeckLoadException e) {
+            assertTrue(e.getMessage().contains("Broken"));
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertFalse(lazy.isLoaded());
+        assertEquals(1, lazy.getNumOfCards());
+
+        fail[0] = false;
+        assertEquals(c5, lazy.getNthCard(1));
+        assertTrue(lazy.isLoaded());
+    }
+
+    @Test
+    void testNewDeckIsModified() {
+        assertTrue(new Deck("New").isModified());
+        assertTrue(d1.isModified());
+    }
+
+    @Test
+    void testMarkSaved() {
+        d1.markSaved(42);
+        assertFalse(d1.isModified());
+        assertEquals(42, d1.getSavedHash());
+        d1.listCards();
+        d1.getMastery();
+        assertFalse(d1.isModified());
+    }
+
+    @Test
+    void testModifiedByScoreChange() {
+        d1.markSaved(1);
+        d2.markSaved(2);
+        try {
+            c1.changeScoreBy(1);
+        } catch (ExceedThresholdException e) {
+            fail("No exception expected");
+        }
+        assertTrue(d1.isModified());
+        assertTrue(d2.isModified());
+    }
+
+    @Test
+    void testNotModifiedByRejectedScoreChange() {
+        d1.markSaved(1);
+        try {
+            c1.changeScoreBy(Card.BEST_THRESHOLD + 1);
+            fail("ExceedThresholdException expected");
+        } catch (ExceedThresholdException e) {
+            // pass
+        }
+        assertFalse(d1.isModified());
+    }
+
+    @Test
+    void testModifiedByAddAndRemove() {
+        d1.markSaved(1);
+        d1.addCard(c4);
+        assertTrue(d1.isModified());
+
+        d1.markSaved(2);
+        d1.removeNthCard(4);
+        assertTrue(d1.isModified());
+    }
+
+    @Test
+    void testModifiedThroughGetCards() {
+        d1.markSaved(1);
+        d1.getCards().remove(c2);
+        assertTrue(d1.isModified());
+
+        d1.markSaved(2);
+        d1.getCards().set(0, c5);
+        assertTrue(d1.isModified());
+
+        d1.markSaved(3);
+        Collections.swap(d1.getCards(), 0, 1);
+        assertTrue(d1.isModified());
+
+        d1.markSaved(4);
+        d1.getCards().subList(0, 1).set(0, c2);
+        assertTrue(d1.isModified());
+
+        d1.markSaved(5);
+        d1.getCards().iterator().next();
+        assertFalse(d1.isModified());
+    }
+
+    @Test
+    void testLazyDeckModifiedAfterLoad() {
+        Deck lazy = new Deck("Lazy", 2, 0, () -> Arrays.asList(c1, c2));
+        lazy.markSaved(7);
+        assertFalse(lazy.isModified());
+        lazy.load();
+        assertFalse(lazy.isModified());
+        assertEquals(7, lazy.getSavedHash());
+        lazy.addCard(c3);
+        assertTrue(lazy.isModified());
+    }
+
+    @Test
+    void testSnapshotIsIndependentCopy() {
+        Deck copy = d1.snapshot();
+        assertTrue(sameDeck(d1, copy));
+        assertNotSame(c1, copy.getNthCard(1));
+
+        try {
+            c1.changeScoreBy(2);
+        } catch (ExceedThresholdException e) {
+            fail("No exception expected");
+        }
+        d1.addCard(c4);
+        assertEquals(0, copy.getNthCard(1).getScore());
+        assertEquals(3, copy.getNumOfCards());
+    }
+
+    @Test
+    void testSnapshotReusedUntilChanged() {
+        Deck copy = d1.snapshot();
+        assertSame(copy, d1.snapshot());
+
+        d1.getCards().remove(0);
+        Deck changed = d1.snapshot();
+        assertNotSame(copy, changed);
+        assertEquals(2, changed.getNumOfCards());
+        assertSame(changed, d1.snapshot());
+    }
+
+    @Test
+    void testSnapshotKeepsSavedState() {
+        assertTrue(d1.snapshot().isModified());
+        d1.markSaved(9);
+        Deck copy = d1.snapshot();
+        assertFalse(copy.isModified());
+        assertEquals(9, copy.getSavedHash());
+    }
+
+    @Test
+    void testSavedSnapshotMarksDeck() {
+        Deck copy = d1.snapshot();
+        copy.markSaved(7);
+        assertTrue(d1.isModified());
+        assertSame(copy, d1.snapshot());
+        assertFalse(d1.isModified());
+        assertEquals(7, d1.getSavedHash());
+
+        d1.getCards().remove(0);
+        assertTrue(d1.isModified());
+        assertTrue(d1.snapshot().isModified());
+    }
+
+    @Test
+    void testSavedSnapshotOfChangedDeckIgnored() {
+        Deck copy = d1.snapshot();
+        d1.getCards().remove(0);
+        copy.markSaved(7);
+        assertTrue(d1.snapshot().isModified());
+        assertTrue(d1.isModified());
+    }
+
+    @Test
+    void testSnapshotOfLazyDeck() {
+        int[] loads = {0};
+        Deck lazy = new Deck("Lazy", 2, 3, () -> {
+            loads[0]++;
+            return Arrays.asList(c1, c2);
+        });
+        lazy.markSaved(5);
+        Deck copy = lazy.snapshot();
+        assertFalse(lazy.isLoaded());
+        assertFalse(copy.isLoaded());
+        assertEquals(2, copy.getNumOfCards());
+        assertEquals(0, loads[0]);
+
+        lazy.load();
+        assertNotSame(copy, lazy.snapshot());
+    }
+
+    @Test
+    void testSnapshotLoadsUnsavedLazyDeck() {
+        Deck lazy = new Deck("Lazy", 1, 0, () -> Arrays.asList(c1));
+        Deck copy = lazy.snapshot();
+        assertTrue(lazy.isLoaded());
+        assertTrue(copy.isLoaded());
+        assertEquals(c1.getFront(), copy.getNthCard(1).getFront());
+    }
+
+    @Test
+    void testCompactKeepsCards() {
+        c2.changeScoreSaturating(4);
+        c3.changeScoreSaturating(-2);
+        Deck before = d1.snapshot();
+        double mastery = d1.getMastery();
+        d1.compact();
+        assertTrue(d1.isCompact());
+        assertFalse(d2.isCompact());
+        assertTrue(sameDeck(before, d1));
+        assertEquals(mastery, d1.getMastery());
+        assertEquals(4, d1.getScoreSum());
+        assertEquals(c2.getFront(), d1.getNthFront(2));
+        assertEquals(c2.getBack(), d1.getNthBack(2));
+        assertEquals(-2, d1.getNthScore(3));
+        assertEquals(d1.listCards(), before.listCards());
+        assertEquals(before.toJson().toString(), d1.toJson().toString());
+    }
+
+    @Test
+    void testCompactDeckCardsAreViews() {
+        d1.compact();
+        Card card = d1.getNthCard(2);
+        assertNotSame(c2, card);
+        assertSame(card, d1.getNthCard(2));
+        card.changeScoreSaturating(3);
+        assertEquals(3, d1.getNthScore(2));
+        assertEquals(0, c2.getScore());
+
+        Card added = d1.addCard(c4);
+        assertNotSame(c4, added);
+        assertTrue(sameCard(c4, added));
+        assertEquals(4, d1.getNumOfCards());
+
+        Card removed = d1.removeNthCard(2);
+        assertSame(card, removed);
+        assertEquals(3, removed.getScore());
+        assertEquals(3, d1.getNumOfCards());
+        assertEquals(0, d1.getScoreSum());
+        assertEquals(2, d1.getCards().indexOf(added));
+    }
+
+    @Test
+    void testCompactModifiedTracking() {
+        d1.markSaved(4);
+        d1.compact();
+        assertFalse(d1.isModified());
+        d1.getNthCard(1).changeScoreSaturating(1);
+        assertTrue(d1.isModified());
+        d1.markSaved(5);
+        assertFalse(d1.isModified());
+        d1.getCards().remove(0);
+        assertTrue(d1.isModified());
+
+        d2.markSaved(6);
+        d2.addCard(c1);
+        d2.compact();
+        assertTrue(d2.isModified());
+    }
+
+    @Test
+    void testCompactSnapshot() {
+        d1.compact();
+        Deck copy = d1.snapshot();
+        assertTrue(copy.isCompact());
+        assertSame(copy, d1.snapshot());
+        d1.getNthCard(1).changeScoreSaturating(2);
+        assertEquals(0, copy.getNthScore(1));
+        Deck changed = d1.snapshot();
+        assertNotSame(copy, changed);
+        assertEquals(2, changed.getNthScore(1));
+    }
+
+    @Test
+    void testCompactAddCards() {
+        Deck large = new Deck("Large");
+        large.compact();
+        large.compact();
+        CardReport report = large.addCards(new String[] {"a", "", "c"}, new String[] {"b", "x", "d"},
+                new int[] {1, 0, -1}, 3);
+        assertEquals(2, report.getNumAdded());
+        assertEquals(2, large.getNumOfCards());
+        assertEquals("c", large.getNthFront(2));
+        assertEquals(-1, large.getNthScore(2));
+        assertEquals(1, large.getScoreSum());
+    }
+
+    @Test
+    void testCompactLazyDeck() {
+        Deck lazy = new Deck("Lazy", 1, 0, () -> Arrays.asList(c1));
+        lazy.compact();
+        assertTrue(lazy.isLoaded());
+        assertTrue(lazy.isCompact());
+        assertEquals(c1.getFront(), lazy.getNthFront(1));
+    }
+
+    @Test
+    void testScoreSumFollowsScoreChanges() throws ExceedThresholdException {
+        c1.changeScoreBy(2);
+        c4.changeScoreSaturating(-20);
+        assertEquals(countedScoreSum(d1), d1.getScoreSum());
+        assertEquals(countedScoreSum(d2), d2.getScoreSum());
+        c4.changeScoreSaturating(20);
+        assertEquals(countedScoreSum(d2), d2.getScoreSum());
+    }
+
+    @Test
+    void testScoreSumFollowsAddAndRemove() {
+        d1.addCard(c5);
+        assertEquals(countedScoreSum(d1), d1.getScoreSum());
+        Card removed = d1.removeNthCard(1);
+        assertEquals(countedScoreSum(d1), d1.getScoreSum());
+        removed.changeScoreSaturating(5);
+        assertEquals(countedScoreSum(d1), d1.getScoreSum());
+        d2.removeNthCard(1);
+        c4.changeScoreSaturating(3);
+        assertEquals(countedScoreSum(d2), d2.getScoreSum());
+    }
+
+    @Test
+    void testScoreSumFollowsChangesThroughGetCards() {
+        Iterator<Card> it = d2.getCards().iterator();
+        it.next();
+        it.remove();
+        assertEquals(countedScoreSum(d2), d2.getScoreSum());
+        d2.getCards().set(0, c2);
+        c5.changeScoreSaturating(4);
+        c2.changeScoreSaturating(4);
+        assertEquals(countedScoreSum(d2), d2.getScoreSum());
+        d2.getCards().subList(1, 3).clear();
+        assertEquals(countedScoreSum(d2), d2.getScoreSum());
+        d2.getCards().removeIf(c -> c == c4);
+        c4.changeScoreSaturating(-3);
+        assertEquals(countedScoreSum(d2), d2.getScoreSum());
+        d2.getCards().clear();
+        assertEquals(0, d2.getScoreSum());
+        c2.changeScoreSaturating(1);
+        assertEquals(0, d2.getScoreSum());
+    }
+
+    @Test
+    void testCompactScoreSum() {
+        d2.compact();
+        assertEquals(countedScoreSum(d2), d2.getScoreSum());
+        d2.getNthCard(2).changeScoreSaturating(-20);
+        d2.getNthCard(3).changeScoreSaturating(20);
+        assertEquals(countedScoreSum(d2), d2.getScoreSum());
+        d2.removeNthCard(3);
+        d2.addCard(c2);
+        d2.getCards().set(0, c5);
+        assertEquals(countedScoreSum(d2), d2.getScoreSum());
+        assertEquals(d2.getScoreSum(), d2.snapshot().getScoreSum());
+    }
+
+    @Test
+    void testToStringKeptUntilChanged() {
+        String label = d1.toString();
+        assertEquals(d1.getName() + " | MASTERY: " + d1.getMastery() + "%", label);
+        assertSame(label, d1.toString());
+        c1.changeScoreSaturating(2);
+        String changed = d1.toString();
+        assertNotSame(label, changed);
+        assertEquals(d1.getName() + " | MASTERY: " + d1.getMastery() + "%", changed);
+        d1.addCard(c4);
+        assertEquals(d1.getName() + " | MASTERY: " + d1.getMastery() + "%", d1.toString());
+    }
+
+    @Test
+    void testReviewWalksDueCardsOnly() {
+        long now = 1_000_000L;
+        assertEquals(3, d1.getNumDue(now));
+        assertEquals(1, d1.getNextDue(now));
+        Schedule schedule = d1.reviewNthCard(1, true, now);
+        assertEquals(schedule, d1.getNthSchedule(1));
+        assertEquals(schedule, c1.getSchedule());
+        assertEquals(2, d1.getNextDue(now));
+        d1.reviewNthCard(2, false, now);
+        d1.reviewNthCard(3, true, now);
+        assertEquals(0, d1.getNextDue(now));
+        assertEquals(0, d1.getNumDue(now));
+        assertEquals(3, d1.getNumDue(now + Schedule.DAY_MILLIS));
+
+        d1.reviewNthCard(2, true, now + Schedule.DAY_MILLIS);
+        assertEquals(1, d1.getNextDue(now + Schedule.DAY_MILLIS));
+        assertEquals(2, d1.getNumDue(now + Schedule.DAY_MILLIS));
+    }
+
+    @Test
+    void testRescheduleModifiesDeck() {
+        d1.markSaved(1);
+        d1.reviewNthCard(2, true, 0);
+        assertTrue(d1.isModified());
+        Deck copy = d1.snapshot();
+        assertEquals(d1.getNthSchedule(2), copy.getNthSchedule(2));
+        d1.reviewNthCard(2, true, 0);
+        assertNotEquals(d1.getNthSchedule(2), copy.getNthSchedule(2));
+    }
+
+    @Test
+    void testDueOrderFollowsChangesElsewhere() {
+        long now = 1_000_000L;
+        assertEquals(1, d2.getNextDue(now));
+        d2.removeNthCard(1);
+        assertEquals(1, d2.getNextDue(now));
+        assertSame(c5, d2.getNthCard(1));
+        d1.reviewNthCard(1, true, now);
+        d1.reviewNthCard(3, true, now);
+        assertEquals(2, d2.getNumDue(now));
+        assertEquals(1, d2.getNextDue(now));
+        d2.addCard(c2);
+        assertEquals(3, d2.getNumDue(now));
+    }
+
+    @Test
+    void testCompactDeckKeepsSchedules() {
+        long now = 1_000_000L;
+        d2.reviewNthCard(2, true, now);
+        Schedule schedule = d2.getNthSchedule(2);
+        d2.compact();
+        assertEquals(schedule, d2.getNthSchedule(2));
+        assertEquals(Schedule.NEW, d2.getNthSchedule(1));
+        assertEquals(4, d2.getNumDue(now));
+        d2.reviewNthCard(1, false, now);
+        assertEquals(3, d2.getNextDue(now));
+        Card removed = d2.removeNthCard(2);
+        assertEquals(schedule, removed.getSchedule());
+        assertEquals(2, d2.getNextDue(now));
+        assertEquals(3, d2.getNumDue(now));
+    }
+
+    @Test
+    void testScheduleInJson() {
+        d1.reviewNthCard(1, true, 5);
+        JSONObject card = d1.toJson().getJSONArray("flashcards").getJSONObject(0);
+        assertEquals(1, card.getInt("repetitions"));
+        assertEquals(1, card.getInt("interval"));
+        assertEquals(Schedule.DEFAULT_EASE, card.getInt("ease"));
+        assertEquals(5 + Schedule.DAY_MILLIS, card.getLong("due"));
+        assertFalse(d1.toJson().getJSONArray("flashcards").getJSONObject(1).has("due"));
+    }
+
+    @Test
+    void testScoreHistogramFollowsChanges() {
+        assertArrayEquals(countedHistogram(d2), d2.getScoreHistogram());
+        c4.changeScoreSaturating(-2);
+        c1.changeScoreSaturating(5);
+        assertArrayEquals(countedHistogram(d2), d2.getScoreHistogram());
+        assertEquals(2, d2.getScoreHistogram()[1]);
+        d2.removeNthCard(1);
+        d2.getCards().set(0, c2);
+        assertArrayEquals(countedHistogram(d2), d2.getScoreHistogram());
+        d2.compact();
+        d2.getNthCard(1).changeScoreSaturating(-20);
+        d2.removeNthCard(2);
+        assertArrayEquals(countedHistogram(d2), d2.getScoreHistogram());
+        assertArrayEquals(countedHistogram(d2), d2.snapshot().getScoreHistogram());
+    }
+
+    @Test
+    void testWeakestAndStrongestFirst() {
+        c4.changeScoreSaturating(-1);
+        c5.changeScoreSaturating(2);
+        c3.changeScoreSaturating(2);
+        ScoreOrder weakest = d2.weakestFirst();
+        assertEquals(5, weakest.getNumRemaining());
+        assertArrayEquals(new int[] {1, 5, 3, 2, 4}, drain(weakest));
+        assertEquals(0, weakest.getNumRemaining());
+        assertEquals(0, weakest.next());
+        assertArrayEquals(new int[] {2, 4, 3, 1, 5}, drain(d2.strongestFirst()));
+        assertEquals(0, new Deck("empty").weakestFirst().next());
+    }
+
+    @Test
+    void testWeightedRandomIsSeeded() {
+        c4.changeScoreSaturating(-3);
+        c5.changeScoreSaturating(5);
+        int[] order = drain(d2.weightedRandom(15));
+        assertArrayEquals(order, drain(d2.weightedRandom(15)));
+        int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, sorted);
+        assertEquals(0, new Deck("empty").weightedRandom(15).next());
+    }
+
+    @Test
+    void testIdsStayWithCards() {
+        assertEquals(1, d1.getNthId(1));
+        assertEquals(3, d1.getNthId(3));
+        d1.removeNthCard(1);
+        assertEquals(2, d1.getNthId(1));
+        assertEquals(1, d1.findId(2));
+        assertEquals(2, d1.findId(3));
+        assertEquals(0, d1.findId(1));
+        d1.removeNthCard(2);
+        d1.addCard(c4);
+        assertEquals(4, d1.getNthId(2));
+        assertEquals(2, d1.findId(4));
+        assertEquals(0, d1.findId(99));
+        d1.getCards().add(0, c5);
+        assertEquals(5, d1.getNthId(1));
+        assertEquals(2, d1.findId(2));
+    }
+
+    @Test
+    void testFindFrontAndCard() {
+        assertEquals(2, d1.findFront("What is 1+1?"));
+        assertEquals(2, d1.findFront("  what IS   1+1? "));
+        assertEquals(0, d1.findFront("What is 2+2?"));
+        assertEquals(3, d1.findCard(c3));
+        assertEquals(0, d1.findCard(c4));
+        assertEquals(1, d2.findCard(c4));
+        d2.removeNthCard(1);
+        assertEquals(4, d2.findCard(c4));
+        assertEquals(4, d2.findFront(c4.getFront()));
+        d2.removeNthCard(4);
+        assertEquals(0, d2.findCard(c4));
+        assertEquals(2, d2.findFront(c1.getFront()));
+        d2.compact();
+        assertEquals(2, d2.findCard(d2.getNthCard(2)));
+        assertEquals(0, d2.findCard(c1));
+        assertEquals(3, d2.findFront(c3.getFront()));
+    }
+
+    @Test
+    void testAddCardIfAbsent() throws InvalidCardException {
+        assertNull(d1.addCardIfAbsent(new Card("what is 1+1? ", "Two")));
+        assertEquals(3, d1.getNumOfCards());
+        Card added = d1.addCardIfAbsent(new Card("What is 2+2?", "4"));
+        assertEquals(4, d1.getNumOfCards());
+        assertEquals(4, d1.findCard(added));
+        d1.removeNthCard(2);
+        assertNotNull(d1.addCardIfAbsent(new Card("What is 1+1?", "2")));
+        assertEquals(4, d1.findFront("What is 1+1?"));
+    }
+
+    @Test
+    void testIdsKeptByCompactAndSnapshot() {
+        d2.removeNthCard(2);
+        d2.compact();
+        assertEquals(3, d2.getNthId(2));
+        assertEquals(6, d2.getNextId());
+        d2.addCard(c5);
+        assertEquals(6, d2.getNthId(5));
+        d2.removeNthCard(1);
+        Deck copy = d2.snapshot();
+        assertEquals(3, copy.getNthId(1));
+        assertEquals(7, copy.getNextId());
+        assertEquals(4, copy.findId(6));
+    }
+
+    @Test
+    void testSearchRanksFrontAboveBack() {
+        List<SearchHit> hits = d1.search("what", 10);
+        assertEquals(2, hits.size());
+        assertEquals(1, hits.get(0).getPosition());
+        assertEquals(2, hits.get(1).getPosition());
+        assertEquals(4, hits.get(0).getScore());
+        assertEquals(c2.getFront(), hits.get(1).getFront());
+        assertEquals(1, d1.search("the CELL", 10).size());
+        assertEquals(1, d1.search("mito", 10).get(0).getScore());
+        assertEquals(4, d1.search("vancouver, bc", 10).get(0).getScore());
+        assertEquals(3, d1.search("wh", 10).size());
+        assertEquals(3, d1.search("wh", 10).get(2).getPosition());
+        assertTrue(d1.search("what where", 10).isEmpty());
+        assertTrue(d1.search(" ?! ", 10).isEmpty());
+    }
+
+    @Test
+    void testSearchLimit() {
+        List<SearchHit> hits = d2.search("application", 1);
+        assertEquals(1, hits.size());
+        assertEquals(1, hits.get(0).getPosition());
+        assertEquals(2, d2.search("application", 10).size());
+        assertEquals(hits.get(0).getId(), d2.getNthId(1));
+    }
+
+    @Test
+    void testSearchFollowsChanges() {
+        assertEquals(3, d1.search("where", 10).get(0).getPosition());
+        d1.removeNthCard(3);
+        assertTrue(d1.search("where", 10).isEmpty());
+        d1.addCard(c3);
+        assertEquals(3, d1.search("where", 10).get(0).getPosition());
+        d1.getCards().add(0, c4);
+        assertEquals(1, d1.search("application", 10).get(0).getPosition());
+        assertEquals(4, d1.search("where", 10).get(0).getPosition());
+        d1.compact();
+        d1.removeNthCard(1);
+        assertTrue(d1.search("application", 10).isEmpty());
+        assertEquals(3, d1.search("ubc", 10).get(0).getPosition());
+    }
+
+    // EFFECTS: returns the sum of the non-negative scores of the cards in d, counted card by card
+    private static int countedScoreSum(Deck d) {
+        int sum = 0;
+        for (Card c : d.getCards()) {
+            sum += Math.max(c.getScore(), 0);
+        }
+        return sum;
+    }
+
+    // EFFECTS: returns the number of cards in d at each score from Card.WORST_THRESHOLD, counted card by card
+    private static int[] countedHistogram(Deck d) {
+        int[] histogram = new int[Card.BEST_THRESHOLD - Card.WORST_THRESHOLD + 1];
+        for (Card c : d.getCards()) {
+            histogram[c.getScore() - Card.WORST_THRESHOLD]++;
+        }
+        return histogram;
+    }
+
+    // MODIFIES: order
+    // EFFECTS: returns every card position left in order, in the order they come
+    private static int[] drain(ScoreOrder order) {
+        int[] positions = new int[order.getNumRemaining()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = order.next();
+        }
+        return positions;
+    }
 }
@@ -0,0 +1,95 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrozenCardListTest extends BaseCardTestSetup {
+    private static final int NUM_CARDS = 3 * FrozenCardList.CHUNK_SIZE + 10;
+
+    private CardList list;
+
+    @BeforeEach
+    void makeList() {
+        list = new CardList();
+        for (int i = 0; i < NUM_CARDS; i++) {
+            list.append("Front " + i, "Back " + i, i % 9 - 3, Schedule.NEW, CardStorage.NEW_ID);
+        }
+    }
+
+    @Test
+    void testHoldsContents() {
+        list.get(5).setSchedule(new Schedule(1, 1, Schedule.DEFAULT_EASE, 5));
+        CardStorage snapshot = list.snapshot();
+        assertEquals(NUM_CARDS, snapshot.size());
+        for (int i = 0; i < NUM_CARDS; i += 97) {
+            assertEquals(list.getId(i), snapshot.getId(i));
+            assertEquals(list.getFront(i), snapshot.getFront(i));
+            assertEquals(list.getBack(i), snapshot.getBack(i));
+            assertEquals(list.getScore(i), snapshot.getScore(i));
+        }
+        assertSame(list.getSchedule(5), snapshot.getSchedule(5));
+        assertEquals(list.getNextId(), snapshot.getNextId());
+        assertEquals(list.getScoreSum(), snapshot.getScoreSum());
+        for (int score = Card.WORST_THRESHOLD; score <= Card.BEST_THRESHOLD; score++) {
+            assertEquals(list.getScoreCount(score), snapshot.getScoreCount(score));
+        }
+        assertEquals(0, snapshot.getScoreCount(Card.BEST_THRESHOLD + 1));
+    }
+
+    @Test
+    void testIndependentOfList() {
+        CardStorage snapshot = list.snapshot();
+        int sum = snapshot.getScoreSum();
+        list.get(0).changeScoreSaturating(1);
+        list.remove(1);
+        list.add(c1);
+        assertEquals(NUM_CARDS, snapshot.size());
+        assertEquals(-3, snapshot.getScore(0));
+        assertEquals("Front 1", snapshot.getFront(1));
+        assertEquals(sum, snapshot.getScoreSum());
+
+        Card card = snapshot.get(0);
+        assertNotSame(card, snapshot.get(0));
+        card.changeScoreSaturating(2);
+        assertEquals(-3, snapshot.getScore(0));
+    }
+
+    @Test
+    void testSharesUnchangedChunks() {
+        FrozenCardList first = (FrozenCardList) list.snapshot();
+        list.get(FrozenCardList.CHUNK_SIZE + 3).changeScoreSaturating(1);
+        FrozenCardList second = (FrozenCardList) list.snapshot();
+        assertEquals(3, second.countSharedChunks(first));
+        assertEquals(list.getScore(FrozenCardList.CHUNK_SIZE + 3), second.getScore(FrozenCardList.CHUNK_SIZE + 3));
+        assertNotEquals(first.getScore(FrozenCardList.CHUNK_SIZE + 3), second.getScore(FrozenCardList.CHUNK_SIZE + 3));
+
+        list.add(c1);
+        FrozenCardList third = (FrozenCardList) list.snapshot();
+        assertEquals(3, third.countSharedChunks(second));
+        assertEquals(NUM_CARDS + 1, third.size());
+        assertEquals(c1.getFront(), third.getFront(NUM_CARDS));
+
+        list.remove(0);
+        FrozenCardList fourth = (FrozenCardList) list.snapshot();
+        assertEquals(0, fourth.countSharedChunks(third));
+        assertEquals("Front 1", fourth.getFront(0));
+    }
+
+    @Test
+    void testUnchangeable() {
+        CardStorage snapshot = list.snapshot();
+        assertSame(snapshot, snapshot.copy());
+        assertSame(snapshot, snapshot.snapshot());
+        assertEquals(0, snapshot.getModifications());
+        assertEquals(0, snapshot.getCardVersions());
+        assertEquals(0, snapshot.getScheduleChanges());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.append("F", "B", 0));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(c1));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.ensureCapacity(1));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.reserveIds(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(NUM_CARDS));
+    }
+}
@@ -0,0 +1,85 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReviewHistoryTest {
+    private static final long DAY = Schedule.DAY_MILLIS;
+
+    private ReviewHistory history;
+
+    @BeforeEach
+    void makeHistory() {
+        history = new ReviewHistory();
+    }
+
+    @Test
+    void testRecordAndQuery() {
+        assertEquals(0, history.size());
+        assertEquals(0, history.getLastMiss(1));
+        assertEquals(0, history.getLastReview(1));
+        history.record(1, 100, false, 2500);
+        history.record(2, 200, true, 800);
+        history.record(1, 300, true, 1200);
+
+        assertEquals(3, history.size());
+        assertEquals(2, history.getId(1));
+        assertEquals(200, history.getTime(1));
+        assertEquals(1, history.getNumCorrect(1));
+        assertEquals(0, history.getNumIncorrect(1));
+        assertEquals(800, history.getMillis(1));
+        assertEquals(100, history.getLastMiss(1));
+        assertEquals(300, history.getLastReview(1));
+        assertEquals(0, history.getLastMiss(2));
+        assertEquals(2, history.getNumReviews(1));
+        assertEquals(0, history.getNumReviews(3));
+    }
+
+    @Test
+    void testClear() {
+        history.record(1, 100, false, 2500);
+        history.record(2, 200, true, 800);
+        history.clear();
+        assertEquals(0, history.size());
+        assertEquals(0, history.getLastReview(1));
+        history.record(3, 300, true, 100);
+        assertEquals(1, history.size());
+        assertEquals(3, history.getId(0));
+    }
+
+    @Test
+    void testDownsample() {
+        for (int i = 0; i < 100; i++) {
+            history.record(1 + i % 2, i * DAY / 10, i % 3 == 0, 1000);
+        }
+        history.record(1, 20 * DAY, false, 500);
+        assertEquals(80, history.downsample(10 * DAY, DAY));
+
+        assertEquals(21, history.size());
+        assertEquals(1, history.getId(0));
+        assertEquals(8 * DAY / 10, history.getTime(0));
+        assertEquals(2, history.getNumCorrect(0));
+        assertEquals(3, history.getNumIncorrect(0));
+        assertEquals(5000, history.getMillis(0));
+        assertEquals(2, history.getId(1));
+        assertEquals(9 * DAY / 10, history.getTime(1));
+        assertEquals(20 * DAY, history.getTime(20));
+        assertEquals(51, history.getNumReviews(1));
+        assertEquals(50, history.getNumReviews(2));
+        assertEquals(20 * DAY, history.getLastMiss(1));
+        assertEquals(0, history.downsample(10 * DAY, DAY));
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        for (int i = 0; i < 1000; i++) {
+            history.record(i, i, true, i);
+        }
+        assertEquals(1000, history.size());
+        assertEquals(999, history.getLastReview(999));
+        assertEquals(0, history.downsample(0, DAY));
+        assertEquals(1000, history.size());
+    }
+}
@@ -0,0 +1,121 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReviewQueueTest {
+    @Test
+    void testEmptyQueue() {
+        ReviewQueue queue = new ReviewQueue(new CardList());
+        assertEquals(-1, queue.peekDue(Long.MAX_VALUE));
+        assertEquals(0, queue.countDue(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testTiesComeInDeckOrder() {
+        CardList cards = new CardList();
+        for (int i = 0; i < 5; i++) {
+            cards.append("Front " + i, "Back " + i, 0);
+        }
+        cards.get(0).setSchedule(new Schedule(1, 1, Schedule.DEFAULT_EASE, 50));
+        ReviewQueue queue = new ReviewQueue(cards);
+        assertEquals(1, queue.peekDue(0));
+        assertEquals(4, queue.countDue(0));
+        assertEquals(5, queue.countDue(50));
+        assertEquals(-1, queue.peekDue(-1));
+    }
+
+    @Test
+    void testWalkDueInOrder() {
+        CardList cards = new CardList();
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            cards.append("Front " + i, "Back " + i, 0, new Schedule(1, 1, Schedule.DEFAULT_EASE,
+                    random.nextInt(100)), CardStorage.NEW_ID);
+        }
+        ReviewQueue queue = new ReviewQueue(cards);
+        ReviewQueue.DueWalk walk = queue.walkDue(60);
+        long lastDue = -1;
+        int last = -1;
+        int count = 0;
+        for (int i = walk.next(); i != -1; i = walk.next()) {
+            long due = cards.getSchedule(i).getDue();
+            assertTrue(due <= 60);
+            assertTrue(due > lastDue || due == lastDue && i > last);
+            lastDue = due;
+            last = i;
+            count++;
+        }
+        assertEquals(queue.countDue(60), count);
+        assertEquals(-1, walk.next());
+        assertEquals(-1, new ReviewQueue(new CardList()).walkDue(60).next());
+    }
+
+    @Test
+    void testMatchesScanAfterUpdates() {
+        checkAgainstScan(new CardList());
+        checkAgainstScan(new CompactCardList(0));
+    }
+
+    // EFFECTS: fills cards with randomly scheduled cards, reschedules them at random through a queue, and checks the
+    //          queue against a scan of every card along the way
+    private static void checkAgainstScan(CardStorage cards) {
+        Random random = new Random(14);
+        for (int i = 0; i < 500; i++) {
+            cards.append("Front " + i, "Back " + i, 0, new Schedule(1, 1, Schedule.DEFAULT_EASE, random.nextInt(100)));
+        }
+        ReviewQueue queue = new ReviewQueue(cards);
+        for (int round = 0; round < 2000; round++) {
+            int index = random.nextInt(cards.size());
+            cards.get(index).setSchedule(new Schedule(1, 1, Schedule.DEFAULT_EASE, random.nextInt(100)));
+            queue.update(index);
+            assertTrue(queue.isCurrent());
+            long now = random.nextInt(100);
+            assertEquals(firstDue(cards, now), queue.peekDue(now));
+            assertEquals(countDue(cards, now), queue.countDue(now));
+        }
+    }
+
+    @Test
+    void testNotCurrentAfterChanges() {
+        CardList cards = new CardList();
+        cards.append("Front", "Back", 0);
+        cards.append("Front 2", "Back 2", 0);
+        ReviewQueue queue = new ReviewQueue(cards);
+        assertTrue(queue.isCurrent());
+        cards.get(0).changeScoreSaturating(1);
+        assertTrue(queue.isCurrent());
+        cards.get(1).setSchedule(Schedule.NEW.next(true, 0));
+        assertFalse(queue.isCurrent());
+
+        queue = new ReviewQueue(cards);
+        cards.remove(0);
+        assertFalse(queue.isCurrent());
+    }
+
+    // EFFECTS: returns the position of the earliest due card at time now (the first of them on a tie), or -1
+    private static int firstDue(CardStorage cards, long now) {
+        int first = -1;
+        for (int i = 0; i < cards.size(); i++) {
+            long due = cards.getSchedule(i).getDue();
+            if (due <= now && (first == -1 || due < cards.getSchedule(first).getDue())) {
+                first = i;
+            }
+        }
+        return first;
+    }
+
+    // EFFECTS: returns the number of cards due at time now
+    private static int countDue(CardStorage cards, long now) {
+        int count = 0;
+        for (int i = 0; i < cards.size(); i++) {
+            if (cards.getSchedule(i).isDue(now)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,180 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReviewSessionTest extends BaseCardTestSetup {
+    private static final long NOW = 1_000_000;
+
+    private Deck deck;
+
+    @BeforeEach
+    void makeDeck() {
+        deck = new Deck("Session");
+        deck.addCard(c1);
+        deck.addCard(c2);
+        deck.addCard(c3);
+    }
+
+    @Test
+    void testDueSession() {
+        deck.reviewNthCard(2, true, NOW - 1);
+        ReviewSession session = new ReviewSession(deck, NOW);
+        assertSame(deck, session.getDeck());
+        assertEquals(0, session.getCurrent());
+
+        assertEquals(1, session.next(NOW));
+        assertEquals(1, session.next(NOW + 10));
+        assertEquals(1, session.getCurrent());
+        assertEquals(Card.SCORE_CHANGED, session.grade(true, NOW + 250));
+        assertEquals(0, session.getCurrent());
+        assertEquals(0, c1.getScore());
+        assertEquals(1, session.getNumPending());
+        assertEquals(240, session.getLastMillis());
+
+        assertEquals(3, session.next(NOW + 300));
+        session.grade(false, NOW + 1300);
+        assertEquals(0, session.next(NOW + 1400));
+        assertArrayEquals(new int[] {1, 3}, session.commit());
+        assertEquals(0, session.getNumPending());
+        assertEquals(1, c1.getScore());
+        assertEquals(1, deck.getNthSchedule(1).getRepetitions());
+        assertEquals(NOW + 250 + Schedule.DAY_MILLIS, deck.getNthSchedule(1).getDue());
+        assertEquals(-1, c3.getScore());
+        assertEquals(0, session.next(NOW + 1500));
+        ReviewHistory history = deck.getHistory();
+        assertEquals(2, history.size());
+        assertEquals(deck.getNthId(1), history.getId(0));
+        assertEquals(NOW + 250, history.getLastReview(deck.getNthId(1)));
+        assertEquals(NOW + 1300, history.getLastMiss(deck.getNthId(3)));
+        assertEquals(1000, history.getMillis(1));
+
+        assertEquals(2, session.getNumReviewed());
+        assertEquals(1, session.getNumCorrect());
+        assertEquals(1240, session.getTotalMillis());
+        assertEquals(1000, session.getSlowestMillis());
+    }
+
+    @Test
+    void testDrillSession() {
+        c3.changeScoreSaturating(-2);
+        c1.changeScoreSaturating(Card.BEST_THRESHOLD);
+        ReviewSession session = new ReviewSession(deck, deck.weakestFirst(), NOW);
+        assertEquals(3, session.next(NOW));
+        session.grade(false, NOW);
+        assertEquals(2, session.next(NOW));
+        session.grade(true, NOW);
+        assertEquals(1, session.next(NOW));
+        assertEquals(Card.SCORE_AT_BEST, session.grade(true, NOW));
+        assertEquals(0, session.next(NOW));
+        session.commit();
+
+        assertEquals(3, session.getNumReviewed());
+        assertEquals(1, session.getNumAtBest());
+        assertEquals(0, session.getNumAtWorst());
+        assertEquals(Card.WORST_THRESHOLD, c3.getScore());
+        assertEquals(Card.BEST_THRESHOLD, c1.getScore());
+    }
+
+    @Test
+    void testReachingThresholdNotCounted() {
+        c1.changeScoreSaturating(Card.BEST_THRESHOLD - 1);
+        c2.changeScoreSaturating(Card.WORST_THRESHOLD + 1);
+        ReviewSession session = new ReviewSession(deck, NOW);
+        assertEquals(1, session.next(NOW));
+        assertEquals(Card.SCORE_CHANGED, session.grade(true, NOW));
+        assertEquals(2, session.next(NOW));
+        assertEquals(Card.SCORE_CHANGED, session.grade(false, NOW));
+        session.commit();
+        assertEquals(Card.BEST_THRESHOLD, c1.getScore());
+        assertEquals(Card.WORST_THRESHOLD, c2.getScore());
+        assertEquals(0, session.getNumAtBest());
+        assertEquals(0, session.getNumAtWorst());
+    }
+
+    @Test
+    void testThresholdsAndSummary() {
+        c1.changeScoreSaturating(Card.WORST_THRESHOLD);
+        ReviewSession session = new ReviewSession(deck, NOW);
+        assertEquals(0.0, session.getStartMastery());
+        session.next(NOW);
+        assertEquals(Card.SCORE_AT_WORST, session.grade(false, NOW + 2000));
+        assertEquals(1, session.getNumAtWorst());
+        session.next(NOW);
+        session.grade(true, NOW + 1000);
+        session.commit();
+        assertTrue(session.summary().startsWith("You reviewed 2 cards and got 1 right, taking 1.5 seconds"));
+        assertTrue(session.summary().endsWith("from 0.0% to 7.0%!"));
+    }
+
+    @Test
+    void testUndo() {
+        ReviewSession session = new ReviewSession(deck, NOW);
+        assertEquals(0, session.undo());
+        session.next(NOW);
+        session.grade(true, NOW + 100);
+        assertEquals(2, session.next(NOW + 100));
+        session.grade(false, NOW + 600);
+        assertEquals(3, session.next(NOW + 600));
+
+        assertEquals(2, session.undo());
+        assertEquals(1, session.getNumReviewed());
+        assertEquals(1, session.getNumCorrect());
+        assertEquals(100, session.getTotalMillis());
+        assertEquals(100, session.getSlowestMillis());
+        assertEquals(2, session.next(NOW + 700));
+        session.grade(true, NOW + 800);
+        assertEquals(3, session.next(NOW + 800));
+        assertEquals(2, session.undo());
+        assertEquals(1, session.undo());
+        assertEquals(0, session.undo());
+        assertEquals(0, session.getNumReviewed());
+
+        assertEquals(1, session.next(NOW + 900));
+        session.grade(false, NOW + 900);
+        assertEquals(2, session.next(NOW + 900));
+        assertArrayEquals(new int[] {1}, session.commit());
+        assertEquals(0, session.undo());
+        assertEquals(-1, c1.getScore());
+        assertEquals(0, c2.getScore());
+        assertEquals(2, session.next(NOW + 900));
+        session.grade(true, NOW + 900);
+        assertEquals(3, session.next(NOW + 900));
+        session.grade(true, NOW + 900);
+        assertEquals(0, session.next(NOW + 900));
+        assertArrayEquals(new int[] {2, 3}, session.commit());
+        assertEquals(0, deck.getNumDue(NOW));
+    }
+
+    @Test
+    void testEmptySession() {
+        ReviewSession session = new ReviewSession(new Deck("Empty"), NOW);
+        assertEquals(0, session.next(NOW));
+        assertEquals(0, session.getNumReviewed());
+        assertEquals(0, session.getLastMillis());
+        assertTrue(session.summary().startsWith("You reviewed 0 cards"));
+    }
+
+    @Test
+    void testLongSession() {
+        Deck big = new Deck("Big");
+        for (int i = 0; i < 10_000; i++) {
+            big.addCard(new Card("Front " + i, "Back " + i, 0));
+        }
+        ReviewSession session = new ReviewSession(big, NOW);
+        int reviewed = 0;
+        for (int n = session.next(NOW); n != 0; n = session.next(NOW)) {
+            session.grade(n % 2 == 0, NOW);
+            reviewed++;
+            if (session.isBatchFull()) {
+                assertEquals(ReviewSession.BATCH_SIZE, session.commit().length);
+            }
+        }
+        session.commit();
+        assertEquals(10_000, reviewed);
+        assertEquals(5_000, session.getNumCorrect());
+        assertEquals(0, big.getNumDue(NOW));
+    }
+}
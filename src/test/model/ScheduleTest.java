@@ -0,0 +1,64 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleTest {
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void testNewSchedule() {
+        assertTrue(Schedule.NEW.isNew());
+        assertTrue(Schedule.NEW.isDue(0));
+        assertEquals(0, Schedule.NEW.getRepetitions());
+        assertEquals(Schedule.DEFAULT_EASE, Schedule.NEW.getEase());
+        assertTrue(new Schedule(0, 0, Schedule.DEFAULT_EASE, 0).isNew());
+        assertFalse(new Schedule(0, 0, Schedule.DEFAULT_EASE, 1).isNew());
+    }
+
+    @Test
+    void testCorrectAnswersGrowInterval() {
+        Schedule first = Schedule.NEW.next(true, NOW);
+        assertEquals(1, first.getRepetitions());
+        assertEquals(1, first.getInterval());
+        assertEquals(NOW + Schedule.DAY_MILLIS, first.getDue());
+        assertFalse(first.isDue(NOW));
+        assertTrue(first.isDue(NOW + Schedule.DAY_MILLIS));
+
+        Schedule second = first.next(true, first.getDue());
+        assertEquals(6, second.getInterval());
+        Schedule third = second.next(true, second.getDue());
+        assertEquals(15, third.getInterval());
+        assertEquals(3, third.getRepetitions());
+        assertEquals(Schedule.DEFAULT_EASE, third.getEase());
+        assertEquals(second.getDue() + 15 * Schedule.DAY_MILLIS, third.getDue());
+    }
+
+    @Test
+    void testWrongAnswerStartsOver() {
+        Schedule learned = new Schedule(4, 40, 200, NOW);
+        Schedule missed = learned.next(false, NOW);
+        assertEquals(0, missed.getRepetitions());
+        assertEquals(1, missed.getInterval());
+        assertEquals(168, missed.getEase());
+        assertEquals(NOW + Schedule.DAY_MILLIS, missed.getDue());
+
+        Schedule schedule = missed;
+        for (int i = 0; i < 5; i++) {
+            schedule = schedule.next(false, NOW);
+        }
+        assertEquals(Schedule.MIN_EASE, schedule.getEase());
+        assertEquals(1, schedule.next(true, NOW).getInterval());
+    }
+
+    @Test
+    void testEquals() {
+        Schedule a = new Schedule(2, 6, 230, NOW);
+        assertEquals(a, new Schedule(2, 6, 230, NOW));
+        assertEquals(a.hashCode(), new Schedule(2, 6, 230, NOW).hashCode());
+        assertNotEquals(a, new Schedule(2, 6, 230, NOW + 1));
+        assertNotEquals(a, new Schedule(3, 6, 230, NOW));
+        assertNotEquals(a, "a");
+    }
+}
@@ -0,0 +1,78 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreOrderTest {
+    @Test
+    void testWeakestFirstMatchesStableSort() {
+        checkOrdered(randomCards(new CardList()));
+        checkOrdered(randomCards(new CompactCardList(0)));
+    }
+
+    @Test
+    void testWeightedRandomVisitsEveryCardOnce() {
+        CardStorage cards = randomCards(new CardList());
+        ScoreOrder order = new ScoreOrder(cards, 1, new Random(15));
+        boolean[] seen = new boolean[cards.size()];
+        for (int n = order.next(); n != 0; n = order.next()) {
+            assertFalse(seen[n - 1]);
+            seen[n - 1] = true;
+        }
+        for (boolean s : seen) {
+            assertTrue(s);
+        }
+        assertEquals(0, order.getNumRemaining());
+    }
+
+    @Test
+    void testWeightedRandomFavoursWeakCards() {
+        CardList cards = new CardList();
+        cards.append("Weak", "Back", Card.WORST_THRESHOLD);
+        cards.append("Strong", "Back", Card.BEST_THRESHOLD);
+        Random random = new Random(15);
+        int weakFirst = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (new ScoreOrder(cards, 1, random).next() == 1) {
+                weakFirst++;
+            }
+        }
+        // the weak card has weight 9 against the strong card's 1, so it should come first about 900 times in 1000
+        assertTrue(weakFirst > 850 && weakFirst < 950);
+    }
+
+    // MODIFIES: cards
+    // EFFECTS: fills cards with 300 cards with random scores, and returns it
+    private static CardStorage randomCards(CardStorage cards) {
+        Random random = new Random(15);
+        for (int i = 0; i < 300; i++) {
+            int score = Card.WORST_THRESHOLD + random.nextInt(Card.BEST_THRESHOLD - Card.WORST_THRESHOLD + 1);
+            cards.append("Front " + i, "Back " + i, score);
+        }
+        return cards;
+    }
+
+    // EFFECTS: checks that the weakest-first and strongest-first orders of cards come by score, and in deck order
+    //          among cards with the same score
+    private static void checkOrdered(CardStorage cards) {
+        ScoreOrder weakest = new ScoreOrder(cards, 1, null);
+        ScoreOrder strongest = new ScoreOrder(cards, -1, null);
+        int previousWeak = weakest.next();
+        int previousStrong = strongest.next();
+        for (int i = 1; i < cards.size(); i++) {
+            int weak = weakest.next();
+            int strong = strongest.next();
+            int weakChange = cards.getScore(weak - 1) - cards.getScore(previousWeak - 1);
+            int strongChange = cards.getScore(strong - 1) - cards.getScore(previousStrong - 1);
+            assertTrue(weakChange > 0 || (weakChange == 0 && weak > previousWeak));
+            assertTrue(strongChange < 0 || (strongChange == 0 && strong > previousStrong));
+            previousWeak = weak;
+            previousStrong = strong;
+        }
+        assertEquals(0, weakest.next());
+        assertEquals(0, strongest.next());
+    }
+}
@@ -0,0 +1,140 @@
+package model;
+
+import exceptions.DeckLoadException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatsEngineTest extends BaseCardTestSetup {
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long DAY = Schedule.DAY_MILLIS;
+
+    private StatsEngine engine;
+    private Deck a;
+    private Deck b;
+
+    @BeforeEach
+    void makeDecks() {
+        engine = new StatsEngine(new ForkJoinPool(4));
+        a = new Deck("Deck A");
+        a.addCard(c1);
+        a.addCard(c2);
+        a.addCard(c3);
+        b = new Deck("Deck B");
+        b.addCard(c4);
+        b.addCard(c5);
+        c2.changeScoreSaturating(Card.WORST_THRESHOLD);
+        c3.changeScoreSaturating(3);
+        c5.changeScoreSaturating(Card.WORST_THRESHOLD);
+    }
+
+    @Test
+    void testDeckStats() {
+        a.getHistory().record(a.getNthId(1), NOW, true, 100);
+        a.getHistory().record(a.getNthId(2), NOW - 2 * DAY, false, 100);
+        a.getHistory().add(a.getNthId(3), NOW - 3 * DAY, 3, 1, 100);
+        a.getHistory().record(a.getNthId(3), NOW - DeckStats.NUM_DAYS * DAY, true, 100);
+        DeckStats stats = engine.compute(Arrays.asList(a, b), NOW).get(0);
+
+        assertEquals("Deck A", stats.getName());
+        assertEquals(3, stats.getNumOfCards());
+        assertArrayEquals(a.getScoreHistogram(), stats.getScoreHistogram());
+        assertEquals(a.getMastery(), stats.getMastery());
+        assertEquals(1, stats.getNumTrouble());
+        assertEquals(Arrays.asList(c2.getFront()), stats.getTroubleFronts());
+        int[] volume = stats.getVolume();
+        assertEquals(DeckStats.NUM_DAYS, volume.length);
+        assertEquals(1, volume[0]);
+        assertEquals(1, volume[2]);
+        assertEquals(4, volume[3]);
+        assertEquals(6, stats.getNumAnswered());
+        assertEquals(66.7, stats.getRetention());
+        assertTrue(stats.summary().startsWith("Deck A | CARDS: 3 | MASTERY LEVEL: " + a.getMastery() + "%"));
+        assertTrue(stats.summary().contains("Trouble cards: 1 - " + c2.getFront()));
+    }
+
+    @Test
+    void testCombine() {
+        List<DeckStats> stats = engine.compute(Arrays.asList(a, b), NOW);
+        DeckStats all = DeckStats.combine("All", stats);
+        assertEquals(5, all.getNumOfCards());
+        assertEquals(2, all.getNumTrouble());
+        assertEquals(Arrays.asList(c2.getFront(), c5.getFront()), all.getTroubleFronts());
+        assertEquals(0, all.getNumAnswered());
+        assertEquals(0.0, all.getRetention());
+        assertEquals(Math.round(300.0 / (5 * Card.BEST_THRESHOLD)), all.getMastery());
+
+        DeckStats none = DeckStats.combine("None", new ArrayList<>());
+        assertEquals(0, none.getNumOfCards());
+        assertEquals(100.0, none.getMastery());
+    }
+
+    @Test
+    void testCachedUntilDeckChanges() {
+        List<DeckStats> first = engine.compute(Arrays.asList(a, b), NOW);
+        List<DeckStats> second = engine.compute(Arrays.asList(a, b), NOW + 1);
+        assertSame(first.get(0), second.get(0));
+        assertSame(first.get(1), second.get(1));
+
+        ReviewSession session = new ReviewSession(a, NOW);
+        session.next(NOW);
+        session.grade(true, NOW);
+        List<DeckStats> pending = engine.compute(Arrays.asList(a, b), NOW);
+        assertSame(first.get(0), pending.get(0));
+        session.commit();
+        List<DeckStats> third = engine.compute(Arrays.asList(a, b), NOW);
+        assertNotSame(first.get(0), third.get(0));
+        assertSame(first.get(1), third.get(1));
+        assertEquals(1, third.get(0).getNumAnswered());
+        assertEquals(a.getMastery(), third.get(0).getMastery());
+        assertTrue(third.get(0).getMastery() > first.get(0).getMastery());
+
+        a.getHistory().record(a.getNthId(2), NOW, false, 10);
+        assertNotSame(third.get(0), engine.compute(Arrays.asList(a, b), NOW).get(0));
+        assertNotSame(first.get(1), engine.compute(Arrays.asList(a, b), NOW + DAY).get(1));
+    }
+
+    @Test
+    void testManyDecksInParallel() {
+        List<Deck> decks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Deck d = new Deck("Deck " + i);
+            for (int j = 0; j < 200; j++) {
+                d.addCard(new Card("Front " + j, "Back", j % ScoreHistogram.NUM_SCORES + Card.WORST_THRESHOLD));
+                d.getHistory().record(j + 1, NOW - (j % 40) * DAY, j % 3 != 0, 100);
+            }
+            decks.add(d);
+        }
+        List<DeckStats> stats = engine.compute(decks, NOW);
+        assertEquals(decks.size(), stats.size());
+        long today = Math.floorDiv(NOW, DAY);
+        for (int i = 0; i < decks.size(); i++) {
+            DeckStats expected = StatsEngine.statsOf(decks.get(i), decks.get(i).getHistory(), today);
+            assertEquals("Deck " + i, stats.get(i).getName());
+            assertArrayEquals(expected.getScoreHistogram(), stats.get(i).getScoreHistogram());
+            assertArrayEquals(expected.getVolume(), stats.get(i).getVolume());
+            assertEquals(expected.getRetention(), stats.get(i).getRetention());
+            assertEquals(DeckStats.MAX_TROUBLE_FRONTS, stats.get(i).getTroubleFronts().size());
+        }
+    }
+
+    @Test
+    void testUnreadableDeck() {
+        Deck broken = new Deck("Broken", 1, 0, () -> {
+            throw new IOException("unreadable");
+        });
+        try {
+            engine.compute(Arrays.asList(a, broken), NOW);
+            fail("DeckLoadException expected");
+        } catch (DeckLoadException e) {
+            assertTrue(e.getMessage().contains("Broken"));
+        }
+    }
+}
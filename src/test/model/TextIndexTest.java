@@ -0,0 +1,62 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextIndexTest {
+    @Test
+    void testTokenize() {
+        assertEquals(Arrays.asList("what", "is", "1", "1"), TextIndex.tokenize("What is 1+1?"));
+        assertEquals(Arrays.asList("x", "2", "café"), TextIndex.tokenize("  x^2\tCafé. "));
+        assertEquals(Collections.emptyList(), TextIndex.tokenize(" ?! "));
+    }
+
+    @Test
+    void testMatches() {
+        CardList cards = new CardList();
+        cards.append("Cell biology", "The cell wall", 0);
+        cards.append("Cellar", "Basement", 0);
+        cards.append("Wall", "Cell", 0);
+        TextIndex index = new TextIndex(cards);
+        assertEquals(3, index.countMatches("cell"));
+        long[] matches = index.matches("cell");
+        assertEquals(3, matches.length);
+        assertEquals((long) cards.getId(0) << TextIndex.SCORE_BITS | 4, matches[0]);
+        assertEquals((long) cards.getId(1) << TextIndex.SCORE_BITS | 3, matches[1]);
+        assertEquals((long) cards.getId(2) << TextIndex.SCORE_BITS | 2, matches[2]);
+        assertEquals(0, index.matches("cells").length);
+        assertEquals(0, index.countMatches("z"));
+    }
+
+    @Test
+    void testScore() {
+        assertEquals(4, TextIndex.score(TextIndex.FRONT | TextIndex.BACK, true));
+        assertEquals(3, TextIndex.score(TextIndex.FRONT, false));
+        assertEquals(2, TextIndex.score(TextIndex.BACK, true));
+        assertEquals(1, TextIndex.score(TextIndex.BACK, false));
+        assertEquals(0, TextIndex.score(0, true));
+    }
+
+    @Test
+    void testRebuiltOnceMostlyRemoved() {
+        CardList cards = new CardList();
+        cards.append("One", "Back", 0);
+        cards.append("Two", "Back", 0);
+        TextIndex index = new TextIndex(cards);
+        cards.append("Three", "Back", 0);
+        index.added();
+        assertEquals(1, index.countMatches("three"));
+        cards.remove(0);
+        index.removed();
+        assertTrue(index.isCurrent(cards));
+        assertEquals(1, index.countMatches("one"));
+        cards.remove(0);
+        index.removed();
+        assertFalse(index.isCurrent(cards));
+        assertFalse(index.isCurrent(new CardList()));
+    }
+}
@@ -0,0 +1,62 @@
+package persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AtomicFileTest {
+    private static final Path DESTINATION = Paths.get("./data/testAtomicFile.json");
+    private static final Path TEMP = Paths.get("./data/testAtomicFile.json.tmp");
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(DESTINATION);
+        Files.deleteIfExists(TEMP);
+    }
+
+    @Test
+    void testFinishWriteReplacesDestination() throws IOException {
+        Files.write(DESTINATION, "old".getBytes());
+        AtomicFile file = new AtomicFile(DESTINATION, 0);
+        FileOutputStream out = file.startWrite();
+        out.write("new".getBytes());
+        file.finishWrite(out);
+        assertEquals("new", new String(Files.readAllBytes(DESTINATION)));
+        assertFalse(Files.exists(TEMP));
+    }
+
+    @Test
+    void testFailWriteDeletesTemp() throws IOException {
+        Files.write(DESTINATION, "old".getBytes());
+        AtomicFile file = new AtomicFile(DESTINATION, 0);
+        FileOutputStream out = file.startWrite();
+        out.write("new".getBytes());
+        file.failWrite(out);
+        assertEquals("old", new String(Files.readAllBytes(DESTINATION)));
+        assertFalse(Files.exists(TEMP));
+    }
+
+    @Test
+    void testFailWriteDeletesTempWhenCloseFails() throws IOException {
+        AtomicFile file = new AtomicFile(DESTINATION, 0);
+        FileOutputStream started = file.startWrite();
+        FileOutputStream failing = new FileOutputStream(started.getFD()) {
+            @Override
+            public void close() throws IOException {
+                started.close();
+                throw new IOException("close failed");
+            }
+        };
+        assertTrue(Files.exists(TEMP));
+        file.failWrite(failing);
+        assertFalse(Files.exists(TEMP));
+        assertFalse(Files.exists(DESTINATION));
+    }
+}
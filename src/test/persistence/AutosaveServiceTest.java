@@ -0,0 +1,246 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.BaseCardTestSetup;
+import model.Deck;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutosaveServiceTest extends BaseCardTestSetup {
+    private static final long QUIET_MILLIS = 200;
+
+    private List<Deck> decks;
+    private List<List<Deck>> saved;
+    private List<Long> timings;
+    private List<Exception> failures;
+    private boolean failSaves;
+    private AutosaveService autosave;
+
+    @BeforeEach
+    void setupService() {
+        decks = new ArrayList<>();
+        Deck d = new Deck("Deck A");
+        d.addCard(c1);
+        d.addCard(c2);
+        decks.add(d);
+        saved = new ArrayList<>();
+        timings = new ArrayList<>();
+        failures = new ArrayList<>();
+        failSaves = false;
+
+        DeckWriter writer = (snapshot, sequence) -> {
+            if (failSaves) {
+                throw new IOException("disk full");
+            }
+            synchronized (saved) {
+                saved.add(snapshot);
+            }
+        };
+        autosave = new AutosaveService(writer, null, QUIET_MILLIS, new SaveListener() {
+            @Override
+            public void saveFinished(int numOfDecks, long millis) {
+                synchronized (timings) {
+                    timings.add(millis);
+                }
+            }
+
+            @Override
+            public void saveFailed(Exception e) {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            }
+        });
+        autosave.start();
+    }
+
+    @AfterEach
+    void stopService() {
+        autosave.close();
+    }
+
+    @Test
+    void testChangesCoalesced() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            decks.get(0).addCard(c3);
+            autosave.changed(decks);
+        }
+        assertEquals(0, savedCount());
+        Thread.sleep(QUIET_MILLIS * 5);
+        assertEquals(1, savedCount());
+        assertEquals(7, saved.get(0).get(0).getNumOfCards());
+        assertEquals(1, timings.size());
+        assertTrue(timings.get(0) >= 0);
+    }
+
+    @Test
+    void testSnapshotNotAffectedByLaterChanges() throws ExceedThresholdException {
+        autosave.changed(decks);
+        decks.get(0).getNthCard(1).changeScoreBy(3);
+        decks.add(new Deck("Deck B"));
+        autosave.close();
+
+        assertEquals(1, savedCount());
+        List<Deck> snapshot = saved.get(0);
+        assertEquals(1, snapshot.size());
+        assertEquals(0, snapshot.get(0).getNthCard(1).getScore());
+    }
+
+    @Test
+    void testSaveNowSkipsQuietPeriod() throws InterruptedException {
+        autosave.changed(decks);
+        autosave.saveNow(decks);
+        autosave.changed(decks);
+        long deadline = System.currentTimeMillis() + QUIET_MILLIS / 2;
+        while (savedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, savedCount());
+    }
+
+    @Test
+    void testSaveFailureReported() {
+        failSaves = true;
+        autosave.saveNow(decks);
+        autosave.close();
+        assertEquals(0, savedCount());
+        assertEquals(1, failures.size());
+        assertEquals("disk full", failures.get(0).getMessage());
+    }
+
+    @Test
+    void testCloseWithNothingPending() {
+        autosave.close();
+        assertEquals(0, savedCount());
+        assertEquals(0, failures.size());
+    }
+
+    @Test
+    void testJournalRebasedAfterSave() {
+        String store = "./data/testAutosave.dat";
+        try {
+            new BinaryWriter(store).save(new ArrayList<>());
+            ReviewJournal journal = new ReviewJournal(store);
+            journal.open();
+            AutosaveService service = new AutosaveService(new BinaryWriter(store), journal, QUIET_MILLIS,
+                    new SaveListener() {
+                        @Override
+                        public void saveFinished(int numOfDecks, long millis) {
+                        }
+
+                        @Override
+                        public void saveFailed(Exception e) {
+                            fail("Save should not have failed");
+                        }
+                    });
+            service.start();
+            journal.append(ReviewJournal.newDeck(decks.get(0)));
+            journal.append(ReviewJournal.addCard(decks.get(0), c1));
+            journal.append(ReviewJournal.addCard(decks.get(0), c2));
+            service.changed(decks);
+            Deck b = new Deck("Deck B");
+            decks.add(b);
+            journal.append(ReviewJournal.newDeck(b));
+            service.close();
+            journal.close();
+
+            assertEquals(1, new BinaryReader(store).read().size());
+            List<Deck> read = new StoreReader(store).read(new ReviewJournal(store));
+            assertEquals(2, read.size());
+            assertTrue(sameDeck(decks.get(0), read.get(0)));
+            assertEquals("Deck B", read.get(1).getName());
+            Files.deleteIfExists(Paths.get(store));
+            Files.deleteIfExists(Paths.get(store + ".journal"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testJournalKeptWhenSaveNotFollowedByRebase() {
+        String store = "./data/testAutosaveCrash.dat";
+        try {
+            new BinaryWriter(store).save(new ArrayList<>());
+            ReviewJournal journal = new ReviewJournal(store);
+            journal.open();
+            DeckWriter crashing = (snapshot, sequence) -> {
+                new BinaryWriter(store).save(snapshot, sequence);
+                throw new IOException("crash before the journal is rebased");
+            };
+            AutosaveService service = new AutosaveService(crashing, journal, QUIET_MILLIS, new SaveListener() {
+                @Override
+                public void saveFinished(int numOfDecks, long millis) {
+                }
+
+                @Override
+                public void saveFailed(Exception e) {
+                }
+            });
+            service.start();
+            journal.append(ReviewJournal.newDeck(decks.get(0)));
+            journal.append(ReviewJournal.addCard(decks.get(0), c1));
+            journal.append(ReviewJournal.addCard(decks.get(0), c2));
+            service.saveNow(decks);
+            service.close();
+            Deck b = new Deck("Deck B");
+            journal.append(ReviewJournal.newDeck(b));
+            journal.close();
+
+            assertEquals(1, new BinaryReader(store).read().size());
+            List<Deck> read = new StoreReader(store).read(new ReviewJournal(store));
+            assertEquals(2, read.size());
+            assertTrue(sameDeck(decks.get(0), read.get(0)));
+            assertEquals("Deck B", read.get(1).getName());
+            Files.deleteIfExists(Paths.get(store));
+            Files.deleteIfExists(Paths.get(store + ".journal"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testSavedDecksMarkedSaved() {
+        String store = "./data/testAutosaveMarked.dat";
+        try {
+            AutosaveService service = new AutosaveService(new BinaryWriter(store), null, QUIET_MILLIS,
+                    new SaveListener() {
+                        @Override
+                        public void saveFinished(int numOfDecks, long millis) {
+                        }
+
+                        @Override
+                        public void saveFailed(Exception e) {
+                            fail("Save should not have failed");
+                        }
+                    });
+            service.start();
+            service.saveNow(decks);
+            service.close();
+            Deck d = decks.get(0);
+            assertTrue(d.isModified());
+            assertFalse(d.snapshot().isModified());
+            assertFalse(d.isModified());
+            assertEquals(new BinaryReader(store).readIndex().get(0).getSavedHash(), d.getSavedHash());
+            Files.deleteIfExists(Paths.get(store));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: returns the number of snapshots saved so far
+    private int savedCount() {
+        synchronized (saved) {
+            return saved.size();
+        }
+    }
+}
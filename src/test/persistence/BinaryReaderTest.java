@@ -0,0 +1,277 @@
+package persistence;
+
+import exceptions.DeckLoadException;
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.Deck;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryReaderTest {
+    @Test
+    void testReaderNonExistentFile() {
+        try {
+            new BinaryReader("./data/noSuchFile.dat").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderJsonFile() {
+        try {
+            new BinaryReader("./data/testReaderNormal.json").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderUnsupportedVersion() {
+        try {
+            byte[] bytes = {'R', 'V', 'W', 'B', 99, 0, 0, 0, 0};
+            Files.write(Paths.get("./data/testBinaryVersion.dat"), bytes);
+            new BinaryReader("./data/testBinaryVersion.dat").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("version"));
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderTruncatedFile() {
+        try {
+            byte[] bytes = Files.readAllBytes(Paths.get("./data/testBinaryReaderNormal.dat"));
+            Files.write(Paths.get("./data/testBinaryTruncated.dat"), Arrays.copyOf(bytes, bytes.length - 3));
+            new BinaryReader("./data/testBinaryTruncated.dat").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderStringPastEndOfFile() {
+        try {
+            byte[] bytes = {'R', 'V', 'W', 'B', 1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 17,
+                    (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 'D', 'e', 'c', 'k'};
+            Files.write(Paths.get("./data/testBinaryString.dat"), bytes);
+            new BinaryReader("./data/testBinaryString.dat").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("past the end"));
+            assertTrue(new File("./data/testBinaryString.dat").delete());
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderVersionWithIntLength() {
+        try {
+            byte[] bytes = {'R', 'V', 'W', 'B', 5, 0, 0, 0, 0, 0, 0, 0, 22, 1, 2, 1, 'Q', 1, 'A', 2, 0, 1,
+                    1, 3, 'O', 'l', 'd', 1, 1, 0, 0, 0, 0, 0, 0, 0, 13, 9, 0, 0, 0, 0, 0, 0, 0, 42};
+            Files.write(Paths.get("./data/testBinaryIntLength.dat"), bytes);
+            Deck d = new BinaryReader("./data/testBinaryIntLength.dat").readIndex().get(0);
+            assertEquals("Old", d.getName());
+            assertEquals("Q", d.getNthFront(1));
+            assertEquals(1, d.getNthScore(1));
+            assertEquals(2, d.getNextId());
+            Files.deleteIfExists(Paths.get("./data/testBinaryIntLength.dat"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderLongLengthOutOfRange() {
+        try {
+            byte[] bytes = {'R', 'V', 'W', 'B', 6, 0, 0, 0, 0, 0, 0, 0, 22, 1, 2, 1, 'Q', 1, 'A', 2, 0, 1,
+                    1, 3, 'O', 'l', 'd', 1, 1, 0, 0, 0, 0, 0, 0, 0, 13, (byte) 0x89, (byte) 0x80, (byte) 0x80,
+                    (byte) 0x80, (byte) 0x80, 0x01, 0, 0, 0, 0, 0, 0, 0, 42};
+            Files.write(Paths.get("./data/testBinaryLongLength.dat"), bytes);
+            new BinaryReader("./data/testBinaryLongLength.dat").readIndex();
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("out of range"));
+            assertTrue(new File("./data/testBinaryLongLength.dat").delete());
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderGeneralDeck() {
+        try {
+            StoreReaderTest.assertReaderNormal(new BinaryReader("./data/testBinaryReaderNormal.dat").read());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderIndexedFile() {
+        try {
+            StoreReaderTest.assertReaderNormal(new BinaryReader("./data/testBinaryReaderIndexed.dat").read());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderHashedFile() {
+        try {
+            List<Deck> decks = new BinaryReader("./data/testBinaryReaderHashed.dat").read();
+            StoreReaderTest.assertReaderNormal(decks);
+            assertFalse(decks.get(0).isModified());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReadIndexHashedFile() {
+        try {
+            List<Deck> decks = new BinaryReader("./data/testBinaryReaderHashed.dat").readIndex();
+            assertFalse(decks.get(0).isLoaded());
+            assertFalse(decks.get(0).isModified());
+            StoreReaderTest.assertReaderNormal(decks);
+            assertFalse(decks.get(0).isModified());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReadIndexDeckNoLongerInStore() {
+        try {
+            Files.copy(Paths.get("./data/testBinaryReaderHashed.dat"), Paths.get("./data/testBinaryGone.dat"),
+                    StandardCopyOption.REPLACE_EXISTING);
+            List<Deck> decks = new BinaryReader("./data/testBinaryGone.dat").readIndex();
+            new BinaryWriter("./data/testBinaryGone.dat").save(new ArrayList<>());
+            decks.get(0).load();
+            fail("DeckLoadException expected");
+        } catch (DeckLoadException e) {
+            assertTrue(e.getCause().getMessage().contains("Deck One"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReadIndexIsLazy() {
+        try {
+            List<Deck> decks = new BinaryReader("./data/testBinaryReaderIndexed.dat").readIndex();
+            List<Deck> expected = new BinaryReader("./data/testBinaryReaderIndexed.dat").read();
+            assertEquals(expected.size(), decks.size());
+            for (int i = 0; i < decks.size(); i++) {
+                Deck d = decks.get(i);
+                assertFalse(d.isLoaded());
+                assertEquals(expected.get(i).getName(), d.getName());
+                assertEquals(expected.get(i).getNumOfCards(), d.getNumOfCards());
+                assertEquals(expected.get(i).getMastery(), d.getMastery());
+            }
+            StoreReaderTest.assertReaderNormal(decks);
+            assertTrue(decks.get(0).isLoaded());
+            assertFalse(decks.get(1).isLoaded());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReadIndexWithoutIndex() {
+        try {
+            List<Deck> decks = new BinaryReader("./data/testBinaryReaderNormal.dat").readIndex();
+            for (Deck d : decks) {
+                assertTrue(d.isLoaded());
+            }
+            StoreReaderTest.assertReaderNormal(decks);
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReadIndexTruncatedFile() {
+        try {
+            byte[] bytes = Files.readAllBytes(Paths.get("./data/testBinaryReaderIndexed.dat"));
+            Files.write(Paths.get("./data/testBinaryIndexTruncated.dat"), Arrays.copyOf(bytes, bytes.length - 3));
+            new BinaryReader("./data/testBinaryIndexTruncated.dat").readIndex();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReadIndexDeckBlockChanged() {
+        try {
+            Files.copy(Paths.get("./data/testBinaryReaderIndexed.dat"), Paths.get("./data/testBinaryLazy.dat"),
+                    StandardCopyOption.REPLACE_EXISTING);
+            List<Deck> decks = new BinaryReader("./data/testBinaryLazy.dat").readIndex();
+            Files.write(Paths.get("./data/testBinaryLazy.dat"), new byte[0]);
+            decks.get(0).getCards();
+            fail("DeckLoadException expected");
+        } catch (DeckLoadException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderCompactsLargeDecks() {
+        String store = "./data/testBinaryCompact.dat";
+        try {
+            Deck large = new Deck("Large");
+            String[] fronts = new String[CardColumns.COMPACT_THRESHOLD];
+            String[] backs = new String[fronts.length];
+            int[] scores = new int[fronts.length];
+            for (int i = 0; i < fronts.length; i++) {
+                fronts[i] = "Question " + i;
+                backs[i] = "Answer " + i;
+                scores[i] = i % 9 - 3;
+            }
+            large.addCards(fronts, backs, scores, fronts.length);
+            new BinaryWriter(store).save(Arrays.asList(large, new Deck("Small")));
+
+            List<Deck> read = new BinaryReader(store).read();
+            assertTrue(read.get(0).isCompact());
+            assertFalse(read.get(1).isCompact());
+            assertEquals(large.toJson().toString(), read.get(0).toJson().toString());
+            assertFalse(read.get(0).isModified());
+
+            List<Deck> lazy = new BinaryReader(store).readIndex();
+            lazy.get(0).load();
+            assertTrue(lazy.get(0).isCompact());
+            assertEquals(large.getScoreSum(), lazy.get(0).getScoreSum());
+            assertFalse(lazy.get(0).isModified());
+            Files.deleteIfExists(Paths.get(store));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.BaseCardTestSetup;
+import model.Card;
+import model.Deck;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryWriterTest extends BaseCardTestSetup {
+    @Test
+    void testWriterInvalidFile() {
+        try {
+            new BinaryWriter("./data/noSuchDirectory/testBinary.dat").save(new ArrayList<>());
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testWriterEmptyDeck() {
+        try {
+            new BinaryWriter("./data/testBinaryEmpty.dat").save(new ArrayList<>());
+
+            List<Deck> decks = new BinaryReader("./data/testBinaryEmpty.dat").read();
+            assertEquals(0, decks.size());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterGeneralDeck() {
+        try {
+            List<Deck> decks = new ArrayList<>();
+            Deck d1 = new Deck("Deck A");
+            Deck d2 = new Deck("Deck B (Empty)");
+            Deck d3 = new Deck("Deck C é漢字");
+            decks.add(d1);
+            decks.add(d2);
+            decks.add(d3);
+
+            d1.addCard(c1);
+            d1.addCard(c3);
+            c2.changeScoreBy(Card.WORST_THRESHOLD);
+            c4.changeScoreBy(Card.BEST_THRESHOLD);
+            d3.addCard(c2);
+            d3.addCard(c4);
+            d3.addCard(c5);
+
+            new BinaryWriter("./data/testBinaryNormal.dat").save(decks);
+
+            List<Deck> read = new BinaryReader("./data/testBinaryNormal.dat").read();
+            assertEquals(3, read.size());
+            for (int i = 0; i < decks.size(); i++) {
+                assertTrue(sameDeck(decks.get(i), read.get(i)));
+            }
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterSmallerThanJson() {
+        try {
+            List<Deck> decks = new ArrayList<>();
+            Deck d = new Deck("Big Deck");
+            for (int i = 0; i < 200; i++) {
+                d.addCard(new Card("Question number " + i, "Answer " + i));
+            }
+            decks.add(d);
+
+            new BinaryWriter("./data/testBinaryLarge.dat").save(decks);
+            new JsonWriter("./data/testBinaryLarge.json", true).save(decks);
+
+            assertTrue(Files.size(Paths.get("./data/testBinaryLarge.dat"))
+                    < Files.size(Paths.get("./data/testBinaryLarge.json")));
+            assertTrue(sameDeck(d, new BinaryReader("./data/testBinaryLarge.dat").read().get(0)));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterReusesUnchangedDecks() {
+        try {
+            List<Deck> decks = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Deck d = new Deck("Deck " + i);
+                for (int j = 0; j < 10; j++) {
+                    d.addCard(new Card("Question " + j + " of deck " + i, "Answer " + j));
+                }
+                decks.add(d);
+            }
+            new BinaryWriter("./data/testBinaryReuse.dat").save(decks);
+            for (Deck d : decks) {
+                assertFalse(d.isModified());
+            }
+
+            List<Deck> lazy = new BinaryReader("./data/testBinaryReuse.dat").readIndex();
+            lazy.get(1).getNthCard(3).changeScoreBy(2);
+            decks.get(1).getNthCard(3).changeScoreBy(2);
+            new BinaryWriter("./data/testBinaryReuse.dat").save(lazy);
+
+            assertFalse(lazy.get(0).isLoaded());
+            assertFalse(lazy.get(2).isLoaded());
+            assertFalse(lazy.get(1).isModified());
+            List<Deck> read = new BinaryReader("./data/testBinaryReuse.dat").read();
+            for (int i = 0; i < decks.size(); i++) {
+                assertTrue(sameDeck(decks.get(i), read.get(i)));
+                assertTrue(sameDeck(decks.get(i), lazy.get(i)));
+            }
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterRewritesDeckMovedFromOtherStore() {
+        try {
+            Files.deleteIfExists(Paths.get("./data/testBinaryMoved.dat"));
+            List<Deck> decks = new BinaryReader("./data/testBinaryReaderHashed.dat").readIndex();
+            new BinaryWriter("./data/testBinaryMoved.dat").save(decks);
+
+            assertTrue(decks.get(0).isLoaded());
+            StoreReaderTest.assertReaderNormal(new BinaryReader("./data/testBinaryMoved.dat").read());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterSchedules() {
+        try {
+            List<Deck> decks = new ArrayList<>();
+            Deck d = new Deck("Scheduled");
+            d.addCard(c1);
+            d.addCard(c2);
+            d.addCard(c3);
+            d.reviewNthCard(1, true, 1_700_000_000_000L);
+            d.reviewNthCard(3, false, 1_700_000_000_000L);
+            decks.add(d);
+            new BinaryWriter("./data/testBinarySchedules.dat").save(decks);
+
+            Deck read = new BinaryReader("./data/testBinarySchedules.dat").read().get(0);
+            Deck lazy = new BinaryReader("./data/testBinarySchedules.dat").readIndex().get(0);
+            for (int n = 1; n <= 3; n++) {
+                assertEquals(d.getNthSchedule(n), read.getNthSchedule(n));
+                assertEquals(d.getNthSchedule(n), lazy.getNthSchedule(n));
+            }
+            assertTrue(read.getNthSchedule(2).isNew());
+            assertEquals(2, read.getNextDue(1_700_000_000_000L));
+            Files.deleteIfExists(Paths.get("./data/testBinarySchedules.dat"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterIds() {
+        try {
+            List<Deck> decks = new ArrayList<>();
+            Deck d = new Deck("Ids");
+            d.addCard(c1);
+            d.addCard(c2);
+            d.addCard(c3);
+            d.removeNthCard(3);
+            d.removeNthCard(1);
+            decks.add(d);
+            new BinaryWriter("./data/testBinaryIds.dat").save(decks);
+
+            Deck read = new BinaryReader("./data/testBinaryIds.dat").read().get(0);
+            Deck lazy = new BinaryReader("./data/testBinaryIds.dat").readIndex().get(0);
+            for (Deck r : new Deck[] {read, lazy}) {
+                assertEquals(2, r.getNthId(1));
+                assertEquals(4, r.getNextId());
+                assertEquals(1, r.findFront(c2.getFront()));
+            }
+            read.addCard(c4);
+            assertEquals(4, read.getNthId(2));
+            Files.deleteIfExists(Paths.get("./data/testBinaryIds.dat"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterRewritesDecksFromOlderVersion() {
+        try {
+            byte[] block = {1, 1, 'Q', 1, 'A', 2};
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            bytes.write(new byte[] {'R', 'V', 'W', 'B', 3, 0, 0, 0, 0, 0, 0, 0, 19});
+            bytes.write(block);
+            bytes.write(new byte[] {1, 3, 'O', 'l', 'd', 1, 1, 0, 0, 0, 0, 0, 0, 0, 13, 6, 0, 0, 0, 0, 0, 0, 0, 42});
+            Files.write(Paths.get("./data/testBinaryOldVersion.dat"), bytes.toByteArray());
+
+            List<Deck> decks = new BinaryReader("./data/testBinaryOldVersion.dat").readIndex();
+            assertFalse(decks.get(0).isModified());
+            new BinaryWriter("./data/testBinaryOldVersion.dat").save(decks);
+
+            Deck read = new BinaryReader("./data/testBinaryOldVersion.dat").read().get(0);
+            assertEquals("Old", read.getName());
+            assertEquals(1, read.getNumOfCards());
+            assertEquals("Q", read.getNthFront(1));
+            assertEquals("A", read.getNthBack(1));
+            assertEquals(1, read.getNthScore(1));
+            assertTrue(read.getNthSchedule(1).isNew());
+            assertEquals(1, read.getNthId(1));
+            assertEquals(2, read.getNextId());
+            Files.deleteIfExists(Paths.get("./data/testBinaryOldVersion.dat"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package persistence;
+
+import model.Deck;
+import model.ReviewHistory;
+import model.Schedule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoryFileTest {
+    private static final String STORE = "./data/testHistory.dat";
+    private static final Path PATH = Paths.get(STORE + ".history");
+    private static final long NOW = 1_700_000_000_000L;
+
+    private Deck a;
+    private Deck b;
+
+    @BeforeEach
+    void makeDecks() {
+        a = new Deck("Deck A");
+        b = new Deck("Deck B");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        Files.deleteIfExists(PATH);
+    }
+
+    @Test
+    void testLoadMissingFile() {
+        try {
+            HistoryFile file = new HistoryFile(STORE);
+            file.load(Arrays.asList(a, b), NOW);
+            assertEquals(0, file.getNumBlocks());
+            assertEquals(0, a.getHistory().size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testAppendAndLoad() {
+        try {
+            HistoryFile file = new HistoryFile(STORE);
+            a.getHistory().record(1, NOW, true, 1500);
+            a.getHistory().record(7, NOW - 5000, false, 300_000);
+            file.append(a, 0);
+            b.getHistory().record(2, NOW + 10, true, 0);
+            file.append(b, 0);
+            a.getHistory().record(1, NOW + 20, false, 900);
+            file.append(a, 2);
+            file.append(a, 3);
+            assertEquals(3, file.getNumBlocks());
+
+            List<Deck> read = freshDecks();
+            HistoryFile reread = new HistoryFile(STORE);
+            reread.load(read, NOW);
+            assertEquals(3, reread.getNumBlocks());
+            assertSameHistory(a.getHistory(), read.get(0).getHistory());
+            assertSameHistory(b.getHistory(), read.get(1).getHistory());
+            assertEquals(NOW + 20, read.get(0).getHistory().getLastMiss(1));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testDroppedDeckHistoryNotInherited() {
+        try {
+            HistoryFile file = new HistoryFile(STORE);
+            a.getHistory().record(1, NOW, true, 1500);
+            file.append(a, 0);
+            b.getHistory().record(2, NOW, false, 700);
+            file.append(b, 0);
+            file.drop(a);
+            Deck recreated = new Deck("Deck A");
+            recreated.getHistory().record(3, NOW + 10, false, 200);
+            file.append(recreated, 0);
+            assertEquals(4, file.getNumBlocks());
+
+            List<Deck> read = freshDecks();
+            new HistoryFile(STORE).load(read, NOW);
+            assertSameHistory(recreated.getHistory(), read.get(0).getHistory());
+            assertSameHistory(b.getHistory(), read.get(1).getHistory());
+
+            file.drop(recreated);
+            read = freshDecks();
+            new HistoryFile(STORE).load(read, NOW);
+            assertEquals(0, read.get(0).getHistory().size());
+            assertEquals(1, read.get(1).getHistory().size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testTornBlockDropped() {
+        try {
+            HistoryFile file = new HistoryFile(STORE);
+            a.getHistory().record(1, NOW, true, 100);
+            file.append(a, 0);
+            long size = Files.size(PATH);
+            a.getHistory().record(2, NOW + 1, false, 100);
+            file.append(a, 1);
+            try (FileChannel channel = FileChannel.open(PATH, StandardOpenOption.WRITE)) {
+                channel.truncate(Files.size(PATH) - 3);
+            }
+
+            List<Deck> read = freshDecks();
+            new HistoryFile(STORE).load(read, NOW);
+            assertEquals(1, read.get(0).getHistory().size());
+            assertEquals(size, Files.size(PATH));
+            file.append(a, 1);
+            read = freshDecks();
+            new HistoryFile(STORE).load(read, NOW);
+            assertSameHistory(a.getHistory(), read.get(0).getHistory());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testDownsampledOnceBlocksBuildUp() {
+        try {
+            HistoryFile file = new HistoryFile(STORE);
+            long old = NOW - 2 * HistoryFile.RAW_MILLIS;
+            for (int i = 0; i < HistoryFile.MAX_BLOCKS; i++) {
+                a.getHistory().record(1, old + i, i % 2 == 0, 10);
+                file.append(a, i);
+            }
+            a.getHistory().record(1, NOW, true, 10);
+            file.append(a, HistoryFile.MAX_BLOCKS);
+            b.getHistory().record(3, old, true, 10);
+            file.append(b, 0);
+            long size = Files.size(PATH);
+
+            List<Deck> read = freshDecks();
+            HistoryFile reread = new HistoryFile(STORE);
+            reread.load(read.subList(0, 1), NOW);
+            assertEquals(1, reread.getNumBlocks());
+            assertTrue(Files.size(PATH) < size / 10);
+            ReviewHistory history = read.get(0).getHistory();
+            assertEquals(2, history.size());
+            assertEquals(HistoryFile.MAX_BLOCKS / 2, history.getNumIncorrect(0));
+            assertEquals(10 * HistoryFile.MAX_BLOCKS, history.getMillis(0));
+            assertEquals(NOW, history.getLastReview(1));
+
+            read = freshDecks();
+            new HistoryFile(STORE).load(read, NOW);
+            assertEquals(2, read.get(0).getHistory().size());
+            assertEquals(0, read.get(1).getHistory().size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testNotAHistoryFile() {
+        try {
+            Files.write(PATH, new byte[] {'R', 'V', 'W', 'B', 5});
+            new HistoryFile(STORE).load(freshDecks(), NOW);
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    // EFFECTS: returns new, empty decks with the names of a and b
+    private List<Deck> freshDecks() {
+        List<Deck> decks = new ArrayList<>();
+        decks.add(new Deck(a.getName()));
+        decks.add(new Deck(b.getName()));
+        return decks;
+    }
+
+    // EFFECTS: fails unless actual holds the same rows as expected
+    private static void assertSameHistory(ReviewHistory expected, ReviewHistory actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getId(i), actual.getId(i));
+            assertEquals(expected.getTime(i), actual.getTime(i));
+            assertEquals(expected.getNumCorrect(i), actual.getNumCorrect(i));
+            assertEquals(expected.getNumIncorrect(i), actual.getNumIncorrect(i));
+            assertEquals(expected.getMillis(i), actual.getMillis(i));
+        }
+    }
+}
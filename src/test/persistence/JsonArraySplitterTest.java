@@ -0,0 +1,83 @@
+package persistence;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonArraySplitterTest {
+    @Test
+    void testSplitElements() {
+        String json = " {\"before\": [1, {\"decks\": [9]}], "
+                + "\"decks\" : [ {\"a\": \"x]},\\\"\"} ,[1,[2]], \"s\", -1.5e3 ], \"after\": null }\n";
+        List<String> elements = split(json, "decks");
+        assertEquals(4, elements.size());
+        assertEquals("{\"a\": \"x]},\\\"\"}", elements.get(0));
+        assertEquals("[1,[2]]", elements.get(1));
+        assertEquals("\"s\"", elements.get(2));
+        assertEquals("-1.5e3", elements.get(3));
+    }
+
+    @Test
+    void testSplitMultiByteText() {
+        List<String> elements = split("{\"decks\":[\"Café ]\",{\"n\":\"日本\"}]}", "decks");
+        assertEquals(2, elements.size());
+        assertEquals("\"Café ]\"", elements.get(0));
+        assertEquals("{\"n\":\"日本\"}", elements.get(1));
+    }
+
+    @Test
+    void testSplitEmptyArray() {
+        assertEquals(0, split("{\"decks\": [ ]}", "decks").size());
+    }
+
+    @Test
+    void testSplitUsesLastKey() {
+        List<String> elements = split("{\"decks\": [1], \"decks\": [2, 3]}", "decks");
+        assertEquals(2, elements.size());
+        assertEquals("2", elements.get(0));
+    }
+
+    @Test
+    void testSplitMissingKey() {
+        assertMalformed("{}");
+        assertMalformed("{\"cards\": []}");
+    }
+
+    @Test
+    void testSplitMalformed() {
+        assertMalformed("");
+        assertMalformed("[]");
+        assertMalformed("{\"decks\": {}}");
+        assertMalformed("{\"decks\": [1, ]}");
+        assertMalformed("{\"decks\": [{\"a\": 1}");
+        assertMalformed("{\"decks\": [\"unterminated]}");
+        assertMalformed("{\"decks\": [] \"other\": 1}");
+        assertMalformed("{\"decks\": []} trailing");
+        assertMalformed("{decks: []}");
+    }
+
+    // EFFECTS: returns the text of each element of the array under key in json
+    private static List<String> split(String json, String key) {
+        byte[] data = json.getBytes(StandardCharsets.UTF_8);
+        List<String> elements = new ArrayList<>();
+        for (int[] range : new JsonArraySplitter(data).split(key)) {
+            elements.add(new String(data, range[0], range[1] - range[0], StandardCharsets.UTF_8));
+        }
+        return elements;
+    }
+
+    // EFFECTS: checks that splitting the decks array out of json fails
+    private static void assertMalformed(String json) {
+        try {
+            split(json, "decks");
+            fail("JSONException expected for " + json);
+        } catch (JSONException e) {
+            // pass
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.Card;
+import model.Deck;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/* Compares the sequential and parallel ways JsonReader reads a store, on synthetic stores of 10k to 1M cards.
+   Not run with the tests; run it on its own with enough heap for the largest store, e.g.
+       java -Xmx4g -cp <classes>:lib/json-20200518.jar persistence.JsonReaderBenchmark [cardsPerDeck] [rounds]
+   and it prints the median time of each reader for each store size. */
+public class JsonReaderBenchmark {
+    private static final int[] STORE_SIZES = {10_000, 100_000, 1_000_000};
+    private static final int WARMUP_ROUNDS = 3;
+
+    private interface Read {
+        List<Deck> read(JsonReader reader) throws IOException, ExceedThresholdException, InvalidCardException;
+    }
+
+    // EFFECTS: runs the benchmark for each store size and prints the results
+    public static void main(String[] args) throws Exception {
+        int cardsPerDeck = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        System.out.println("cards    decks  MB      read ms  streaming ms  parallel ms  speedup   ("
+                + ForkJoinPool.getCommonPoolParallelism() + " pool threads)");
+        for (int cards : STORE_SIZES) {
+            Path store = Files.createTempFile("reviewer-bench", ".json");
+            try {
+                new JsonWriter(store.toString(), true).save(makeDecks(cards, cardsPerDeck));
+                JsonReader reader = new JsonReader(store.toString());
+                long sequential = median(reader, JsonReader::read, rounds, cards);
+                long streaming = median(reader, JsonReader::readStreaming, rounds, cards);
+                long parallel = median(reader, JsonReader::readParallel, rounds, cards);
+                System.out.printf("%-8d %-6d %-7.1f %-8d %-13d %-12d %.2fx%n", cards,
+                        (cards + cardsPerDeck - 1) / cardsPerDeck, Files.size(store) / 1e6,
+                        sequential, streaming, parallel, (double) Math.min(sequential, streaming) / parallel);
+            } finally {
+                Files.deleteIfExists(store);
+            }
+        }
+    }
+
+    // EFFECTS: returns the median time in ms of reading the store with read over the given number of rounds (after
+    //          a few warm-up reads); throws IllegalStateException if a read does not return every card
+    private static long median(JsonReader reader, Read read, int rounds, int cards) throws Exception {
+        long[] times = new long[rounds];
+        for (int i = -WARMUP_ROUNDS; i < rounds; i++) {
+            long start = System.nanoTime();
+            List<Deck> decks = read.read(reader);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            if (countCards(decks) != cards) {
+                throw new IllegalStateException("Read " + countCards(decks) + " of " + cards + " cards");
+            }
+            if (i >= 0) {
+                times[i] = millis;
+            }
+        }
+        Arrays.sort(times);
+        return times[rounds / 2];
+    }
+
+    // EFFECTS: returns decks holding the given number of cards in total, cardsPerDeck to a deck
+    private static List<Deck> makeDecks(int cards, int cardsPerDeck) throws ExceedThresholdException,
+            InvalidCardException {
+        List<Deck> decks = new ArrayList<>();
+        for (int i = 0; i < cards; i++) {
+            if (i % cardsPerDeck == 0) {
+                decks.add(new Deck("Deck " + decks.size()));
+            }
+            Card c = new Card("What is the answer to question number " + i + "?", "Answer " + i);
+            c.changeScoreBy(i % 7 - 3);
+            decks.get(decks.size() - 1).addCard(c);
+        }
+        return decks;
+    }
+
+    // EFFECTS: returns the number of cards in decks
+    private static int countCards(List<Deck> decks) {
+        int count = 0;
+        for (Deck d : decks) {
+            count += d.getNumOfCards();
+        }
+        return count;
+    }
+}
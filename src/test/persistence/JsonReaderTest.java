@@ -1,19 +1,25 @@
 package persistence;
 
 import exceptions.InvalidCardException;
+import model.BaseCardTestSetup;
 import model.Card;
 import model.Deck;
 import exceptions.ExceedThresholdException;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /* Made with reference: https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo */
-public class JsonReaderTest {
+public class JsonReaderTest extends BaseCardTestSetup {
 
     @Test
     void testReaderNonExistentFile() {
@@ -102,4 +108,210 @@ public class JsonReaderTest {
             // pass
         }
     }
+
+    @Test
+    void testReaderStreamingNonExistentFile() {
+        JsonReader reader = new JsonReader("./data/noSuchFile.json");
+        try {
+            reader.readStreaming();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderStreamingNoDecks() {
+        JsonReader reader = new JsonReader("./data/testReaderEmpty.json");
+        try {
+            List<Deck> decks = reader.readStreaming();
+            assertEquals(0, decks.size());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderStreamingGeneralDeck() {
+        JsonReader reader = new JsonReader("./data/testReaderNormal.json");
+        try {
+            List<Deck> decks = reader.readStreaming();
+            assertEquals(2, decks.size());
+
+            Deck d1 = decks.get(0);
+            Deck d2 = decks.get(1);
+
+            Card c1 = d1.getNthCard(1);
+            Card c2 = d1.getNthCard(2);
+
+            assertEquals("Deck One", d1.getName());
+            assertEquals(2, d1.getNumOfCards());
+            assertEquals("Where is UBC located?", c1.getFront());
+            assertEquals("BC", c1.getBack());
+            assertEquals(1, c1.getScore());
+            assertEquals("What is 1+1?", c2.getFront());
+            assertEquals("2", c2.getBack());
+            assertEquals(-3, c2.getScore());
+
+            assertEquals("Empty Deck", d2.getName());
+            assertEquals(0, d2.getNumOfCards());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderStreamingThresholdExceptionDeck() {
+        JsonReader reader = new JsonReader("./data/testReaderException.json");
+        try {
+            reader.readStreaming();
+            fail("ExceedThresholdException expected from Card 2");
+        } catch (ExceedThresholdException e) {
+            // pass
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderStreamingInvalidCardExceptionDeck() {
+        JsonReader reader = new JsonReader("./data/testReaderCardException.json");
+        try {
+            reader.readStreaming();
+            fail("InvalidCardException expected from Card 2");
+        } catch (ExceedThresholdException e) {
+            fail("Exception not expected");
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (InvalidCardException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testReaderParallelNonExistentFile() {
+        JsonReader reader = new JsonReader("./data/noSuchFile.json");
+        try {
+            reader.readParallel();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderParallelNoDecks() {
+        JsonReader reader = new JsonReader("./data/testReaderEmpty.json");
+        try {
+            List<Deck> decks = reader.readParallel();
+            assertEquals(0, decks.size());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderParallelGeneralDeck() {
+        try {
+            StoreReaderTest.assertReaderNormal(new JsonReader("./data/testReaderNormal.json").readParallel());
+            List<Deck> escaped = new JsonReader("./data/testWriterEscapes.json").readParallel();
+            assertEquals(1, escaped.size());
+            assertEquals("Quotes \"and\" \\slashes\\", escaped.get(0).getName());
+            assertEquals("Caf\u00e9 \u0001", escaped.get(0).getNthCard(1).getBack());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderParallelKeepsDeckOrder() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Deck> decks = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                Deck d = new Deck("Deck " + i);
+                for (int j = 0; j < i; j++) {
+                    d.addCard(new Card("Front " + i + "/" + j, "Back {[\"" + j + "\"]}"));
+                }
+                decks.add(d);
+            }
+            new JsonWriter("./data/testReaderParallel.json").save(decks);
+
+            List<Deck> read = new JsonReader("./data/testReaderParallel.json").readParallel(pool);
+            assertEquals(decks.size(), read.size());
+            for (int i = 0; i < decks.size(); i++) {
+                assertTrue(sameDeck(decks.get(i), read.get(i)));
+            }
+            Files.deleteIfExists(Paths.get("./data/testReaderParallel.json"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testReaderParallelMatchesSequential() {
+        try {
+            List<Deck> decks = new ArrayList<>();
+            Deck d = new Deck("Big Deck");
+            for (int i = 0; i < 200; i++) {
+                d.addCard(new Card("Question number " + i, "Answer " + i));
+            }
+            decks.add(d);
+            new JsonWriter("./data/testReaderParallel.json", true).save(decks);
+
+            List<Deck> expected = new JsonReader("./data/testReaderParallel.json").read();
+            List<Deck> read = new JsonReader("./data/testReaderParallel.json").readParallel();
+            Files.deleteIfExists(Paths.get("./data/testReaderParallel.json"));
+            assertEquals(expected.size(), read.size());
+            assertTrue(sameDeck(expected.get(0), read.get(0)));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderParallelThresholdExceptionDeck() {
+        JsonReader reader = new JsonReader("./data/testReaderException.json");
+        try {
+            reader.readParallel();
+            fail("ExceedThresholdException expected from Card 2");
+        } catch (ExceedThresholdException e) {
+            // pass
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderParallelInvalidCardExceptionDeck() {
+        JsonReader reader = new JsonReader("./data/testReaderCardException.json");
+        try {
+            reader.readParallel();
+            fail("InvalidCardException expected from Card 2");
+        } catch (ExceedThresholdException e) {
+            fail("Exception not expected");
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        } catch (InvalidCardException e) {
+            // pass
+        }
+    }
 }
@@ -0,0 +1,98 @@
+package persistence;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonStreamReaderTest {
+
+    @Test
+    void testReadNestedDocument() {
+        JsonStreamReader in = new JsonStreamReader(new StringReader(
+                "{ \"a\": [1, -2, \"3\"], \"b\": {\"c\": \"d\"}, \"e\": [] }"));
+        try {
+            in.beginObject();
+            assertEquals("a", in.nextName());
+            in.beginArray();
+            assertEquals(1, in.nextInt());
+            assertEquals(-2, in.nextInt());
+            assertEquals(3, in.nextInt());
+            assertFalse(in.hasNext());
+            in.endArray();
+            assertEquals("b", in.nextName());
+            in.beginObject();
+            assertEquals("c", in.nextName());
+            assertEquals("d", in.nextString());
+            in.endObject();
+            assertEquals("e", in.nextName());
+            in.beginArray();
+            assertFalse(in.hasNext());
+            in.endArray();
+            assertFalse(in.hasNext());
+            in.endObject();
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReadEscapes() {
+        JsonStreamReader in = new JsonStreamReader(new StringReader("[\"a\\\"b\\\\c\\/d\\n\\u00e9\"]"));
+        try {
+            in.beginArray();
+            assertEquals("a\"b\\c/d\né", in.nextString());
+            in.endArray();
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testSkipValue() {
+        JsonStreamReader in = new JsonStreamReader(new StringReader(
+                "{\"skip\": {\"x\": [true, null, 1.5, {\"y\": \"]\"}]}, \"keep\": \"yes\"}"));
+        try {
+            in.beginObject();
+            assertEquals("skip", in.nextName());
+            in.skipValue();
+            assertEquals("keep", in.nextName());
+            assertEquals("yes", in.nextString());
+            in.endObject();
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testMalformedDocument() {
+        JsonStreamReader in = new JsonStreamReader(new StringReader("{\"a\" 1}"));
+        try {
+            in.beginObject();
+            in.nextName();
+            fail("JSONException expected");
+        } catch (JSONException e) {
+            // pass
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testMissingComma() {
+        JsonStreamReader in = new JsonStreamReader(new StringReader("[1 2]"));
+        try {
+            in.beginArray();
+            in.nextInt();
+            in.nextInt();
+            fail("JSONException expected");
+        } catch (JSONException e) {
+            // pass
+        } catch (IOException e) {
+            fail("Exception not expected");
+        }
+    }
+}
@@ -8,8 +8,13 @@ import exceptions.ExceedThresholdException;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -82,30 +87,198 @@ public class JsonWriterTest extends BaseCardTestSetup {
         }
     }
 
-    // EFFECTS: returns true if the contents of d1 is the same as the contents of d2, otherwise returns false
-    private boolean sameDeck(Deck d1, Deck d2) {
-        boolean sameNoOfCards = d1.getNumOfCards() == d2.getNumOfCards();
-        boolean sameName = d1.getName().equals(d2.getName());
-        boolean result = false;
-        if (sameNoOfCards && sameName) {
-            result = true;
-            for (int i = 1; i <= d1.getNumOfCards(); i++) {
-                Card c1 = d1.getNthCard(i);
-                Card c2 = d2.getNthCard(i);
-                if (!sameCard(c1, c2)) {
-                    result = false;
-                    break;
-                }
+    @Test
+    void testWriterStreamingGeneralDeck() {
+        try {
+            List<Deck> decks = makeGeneralDecks();
+
+            JsonWriter writer = new JsonWriter("./data/testWriterStreaming.json");
+            writer.open();
+            writer.writeStreaming(decks);
+            writer.close();
+
+            JsonReader reader = new JsonReader("./data/testWriterStreaming.json");
+            List<Deck> read = reader.read();
+            assertEquals(3, read.size());
+            for (int i = 0; i < decks.size(); i++) {
+                assertTrue(sameDeck(decks.get(i), read.get(i)));
             }
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
         }
-        return result;
     }
 
-    // EFFECTS: returns true if the contents of c1 is the same as the contents of c2, otherwise returns false
-    private boolean sameCard(Card c1, Card c2) {
-        return c1.getFront().equals(c2.getFront()) &&
-                c1.getBack().equals(c2.getBack()) &&
-                c1.getScore() == c2.getScore();
+    @Test
+    void testWriterStreamingCompact() {
+        try {
+            List<Deck> decks = makeGeneralDecks();
+
+            JsonWriter writer = new JsonWriter("./data/testWriterCompact.json", true);
+            writer.open();
+            writer.writeStreaming(decks);
+            writer.close();
+
+            String contents = new String(Files.readAllBytes(Paths.get("./data/testWriterCompact.json")),
+                    StandardCharsets.UTF_8);
+            assertFalse(contents.contains("\n"));
+            assertFalse(contents.contains(" \""));
+
+            List<Deck> read = new JsonReader("./data/testWriterCompact.json").readStreaming();
+            assertEquals(3, read.size());
+            for (int i = 0; i < decks.size(); i++) {
+                assertTrue(sameDeck(decks.get(i), read.get(i)));
+            }
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
     }
 
+    @Test
+    void testWriterStreamingEscapes() {
+        try {
+            List<Deck> decks = new ArrayList<>();
+            Deck d = new Deck("Quotes \"and\" \\slashes\\");
+            d.addCard(new Card("Line one\nLine two\ttab", "Caf\u00e9 \u0001"));
+            decks.add(d);
+
+            JsonWriter writer = new JsonWriter("./data/testWriterEscapes.json");
+            writer.open();
+            writer.writeStreaming(decks);
+            writer.close();
+
+            List<Deck> read = new JsonReader("./data/testWriterEscapes.json").read();
+            assertTrue(sameDeck(d, read.get(0)));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterSaveAtomic() {
+        try {
+            List<Deck> decks = makeGeneralDecks();
+            JsonWriter writer = new JsonWriter("./data/testWriterAtomic.json");
+            writer.save(decks);
+
+            List<Deck> read = new JsonReader("./data/testWriterAtomic.json").readStreaming();
+            assertEquals(3, read.size());
+            for (int i = 0; i < decks.size(); i++) {
+                assertTrue(sameDeck(decks.get(i), read.get(i)));
+            }
+            assertEquals(0, countTempFiles());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterSaveRotatesBackups() {
+        try {
+            Files.deleteIfExists(Paths.get("./data/testWriterBackups.json.1"));
+            Files.deleteIfExists(Paths.get("./data/testWriterBackups.json.2"));
+            List<Deck> decks = new ArrayList<>();
+            JsonWriter writer = new JsonWriter("./data/testWriterBackups.json", true, 2);
+
+            decks.add(new Deck("First"));
+            writer.save(decks);
+            decks.add(new Deck("Second"));
+            writer.save(decks);
+            decks.add(new Deck("Third"));
+            writer.save(decks);
+            decks.add(new Deck("Fourth"));
+            writer.save(decks);
+
+            assertEquals(4, new JsonReader("./data/testWriterBackups.json").read().size());
+            assertEquals(3, new JsonReader("./data/testWriterBackups.json.1").read().size());
+            assertEquals(2, new JsonReader("./data/testWriterBackups.json.2").read().size());
+            assertFalse(Files.exists(Paths.get("./data/testWriterBackups.json.3")));
+            assertEquals(0, countTempFiles());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterSaveInvalidFile() {
+        try {
+            JsonWriter writer = new JsonWriter("./data/noSuchDirectory/testWriterAtomic.json");
+            writer.save(new ArrayList<>());
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testWriterSchedules() {
+        try {
+            List<Deck> decks = makeGeneralDecks();
+            decks.get(0).reviewNthCard(2, true, 1_700_000_000_000L);
+            decks.get(2).reviewNthCard(1, false, 1_700_000_000_000L);
+            new JsonWriter("./data/testWriterSchedules.json").save(decks);
+
+            List<List<Deck>> reads = new ArrayList<>();
+            reads.add(new JsonReader("./data/testWriterSchedules.json").read());
+            reads.add(new JsonReader("./data/testWriterSchedules.json").readStreaming());
+            reads.add(new JsonReader("./data/testWriterSchedules.json").readParallel());
+            for (List<Deck> read : reads) {
+                assertEquals(decks.get(0).getNthSchedule(2), read.get(0).getNthSchedule(2));
+                assertEquals(decks.get(2).getNthSchedule(1), read.get(2).getNthSchedule(1));
+                assertTrue(read.get(0).getNthSchedule(1).isNew());
+            }
+            Files.deleteIfExists(Paths.get("./data/testWriterSchedules.json"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterIds() {
+        try {
+            List<Deck> decks = makeGeneralDecks();
+            decks.get(2).removeNthCard(3);
+            decks.get(2).removeNthCard(1);
+            new JsonWriter("./data/testWriterIds.json").save(decks);
+
+            List<List<Deck>> reads = new ArrayList<>();
+            reads.add(new JsonReader("./data/testWriterIds.json").read());
+            reads.add(new JsonReader("./data/testWriterIds.json").readStreaming());
+            reads.add(new JsonReader("./data/testWriterIds.json").readParallel());
+            for (List<Deck> read : reads) {
+                assertEquals(2, read.get(2).getNthId(1));
+                assertEquals(4, read.get(2).getNextId());
+                assertEquals(1, read.get(2).findId(2));
+                assertEquals(0, read.get(2).findId(3));
+                assertEquals(decks.get(0).getNthId(2), read.get(0).getNthId(2));
+            }
+            Files.deleteIfExists(Paths.get("./data/testWriterIds.json"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: returns the number of temp files left behind in the data directory
+    private long countTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get("./data"))) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".tmp")).count();
+        }
+    }
+
+    // EFFECTS: returns three decks (one of them empty) filled with the shared test cards
+    private List<Deck> makeGeneralDecks() {
+        List<Deck> decks = new ArrayList<>();
+        Deck d1 = new Deck("Deck A");
+        Deck d2 = new Deck("Deck B (Empty)");
+        Deck d3 = new Deck("Deck C");
+        decks.add(d1);
+        decks.add(d2);
+        decks.add(d3);
+
+        d1.addCard(c1);
+        d1.addCard(c3);
+        d3.addCard(c2);
+        d3.addCard(c4);
+        d3.addCard(c5);
+        return decks;
+    }
 }
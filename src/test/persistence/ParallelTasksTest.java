@@ -0,0 +1,64 @@
+package persistence;
+
+import exceptions.InvalidCardException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelTasksTest {
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void runBefore() {
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterEach
+    void runAfter() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testRunAllInOrder() throws Exception {
+        List<Callable<Integer>> tasks = Arrays.asList(() -> 1, () -> 2, () -> 3);
+        assertEquals(Arrays.asList(1, 2, 3), ParallelTasks.runAll(pool, tasks, "store"));
+    }
+
+    @Test
+    void testRunAllRethrowsStoreExceptions() {
+        IOException io = new IOException("bad shard");
+        assertSame(io, assertThrows(IOException.class, () -> runOne(() -> {
+            throw io;
+        })));
+        assertThrows(InvalidCardException.class, () -> runOne(() -> {
+            throw new InvalidCardException();
+        }));
+        assertThrows(IllegalStateException.class, () -> runOne(() -> {
+            throw new IllegalStateException();
+        }));
+    }
+
+    @Test
+    void testRunAllWrapsOtherCheckedExceptions() {
+        TimeoutException timeout = new TimeoutException();
+        IOException e = assertThrows(IOException.class, () -> runOne(() -> {
+            throw timeout;
+        }));
+        assertSame(timeout, e.getCause());
+    }
+
+    // EFFECTS: runs task alone on the pool and returns its result
+    private Integer runOne(Callable<Integer> task) throws Exception {
+        return ParallelTasks.runAll(pool, Collections.singletonList(task), "store").get(0);
+    }
+}
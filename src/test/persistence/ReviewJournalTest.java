@@ -0,0 +1,268 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.BaseCardTestSetup;
+import model.Deck;
+import model.Schedule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReviewJournalTest extends BaseCardTestSetup {
+    private static final String STORE = "./data/testJournal.json";
+
+    private List<Deck> decks;
+    private ReviewJournal journal;
+
+    @BeforeEach
+    void setupStore() {
+        decks = new ArrayList<>();
+        Deck d = new Deck("Deck A");
+        d.addCard(c1);
+        d.addCard(c2);
+        decks.add(d);
+        try {
+            new JsonWriter(STORE).save(decks);
+            journal = new ReviewJournal(STORE);
+            journal.open();
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        journal.close();
+        Files.deleteIfExists(Paths.get(STORE));
+        Files.deleteIfExists(Paths.get(STORE + ".journal"));
+    }
+
+    @Test
+    void testReplayAllRecords() {
+        try {
+            Deck a = decks.get(0);
+            Deck b = new Deck("Deck B");
+            journal.append(ReviewJournal.score(a, 2, -1));
+            journal.append(ReviewJournal.addCard(a, c3));
+            journal.append(ReviewJournal.removeCard(a, 1));
+            journal.append(ReviewJournal.newDeck(b));
+            journal.append(ReviewJournal.addCard(b, c4));
+            journal.append(ReviewJournal.newDeck(new Deck("Deck C")));
+            journal.append(ReviewJournal.deleteDeck(new Deck("Deck C")));
+            assertEquals(7, journal.size());
+            journal.close();
+
+            List<Deck> read = new JsonReader(STORE).readStreaming(new ReviewJournal(STORE));
+            assertEquals(2, read.size());
+            assertEquals("Deck A", read.get(0).getName());
+            assertEquals(2, read.get(0).getNumOfCards());
+            assertEquals(c2.getFront(), read.get(0).getNthCard(1).getFront());
+            assertEquals(-1, read.get(0).getNthCard(1).getScore());
+            assertEquals(c3.getFront(), read.get(0).getNthCard(2).getFront());
+            assertEquals("Deck B", read.get(1).getName());
+            assertEquals(c4.getBack(), read.get(1).getNthCard(1).getBack());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testResetAfterSnapshot() {
+        try {
+            journal.append(ReviewJournal.newDeck(new Deck("Deck B")));
+            decks.add(new Deck("Deck B"));
+            new JsonWriter(STORE).save(decks);
+            journal.reset();
+            assertEquals(0, journal.size());
+
+            List<Deck> read = new JsonReader(STORE).readStreaming(new ReviewJournal(STORE));
+            assertEquals(2, read.size());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testRebaseKeepsLaterRecords() {
+        try {
+            Deck a = decks.get(0);
+            journal.append(ReviewJournal.newDeck(new Deck("Deck B")));
+            decks.add(new Deck("Deck B"));
+            List<Deck> snapshot = new ArrayList<>(decks);
+            journal.append(ReviewJournal.score(a, 1, 2));
+            journal.append(ReviewJournal.newDeck(new Deck("Deck C")));
+
+            new JsonWriter(STORE).save(snapshot, 1);
+            journal.rebase(1);
+            assertEquals(2, journal.size());
+            journal.append(ReviewJournal.newDeck(new Deck("Deck D")));
+            journal.close();
+
+            List<Deck> read = new JsonReader(STORE).readStreaming(new ReviewJournal(STORE));
+            assertEquals(4, read.size());
+            assertEquals(2, read.get(0).getNthCard(1).getScore());
+            assertEquals("Deck B", read.get(1).getName());
+            assertEquals("Deck C", read.get(2).getName());
+            assertEquals("Deck D", read.get(3).getName());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testSavedRecordsSkipped() {
+        try {
+            journal.append(ReviewJournal.newDeck(new Deck("Deck B")));
+            decks.add(new Deck("Deck B"));
+            // crash after saving the snapshot, before the journal is rebased
+            new JsonWriter(STORE).save(decks, journal.sequence());
+
+            List<Deck> read = new JsonReader(STORE).readStreaming(new ReviewJournal(STORE));
+            assertEquals(2, read.size());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCrashBetweenSaveAndRebase() {
+        try {
+            Deck a = decks.get(0);
+            journal.append(ReviewJournal.newDeck(new Deck("Deck B")));
+            decks.add(new Deck("Deck B"));
+            List<Deck> snapshot = new ArrayList<>(decks);
+            long sequence = journal.sequence();
+            journal.append(ReviewJournal.score(a, 1, 2));
+            new JsonWriter(STORE).save(snapshot, sequence);
+            journal.append(ReviewJournal.newDeck(new Deck("Deck C")));
+            // crash before journal.rebase(sequence)
+            journal.close();
+
+            ReviewJournal reopened = new ReviewJournal(STORE);
+            List<Deck> read = new JsonReader(STORE).readStreaming(reopened);
+            assertEquals(3, read.size());
+            assertEquals(2, read.get(0).getNthCard(1).getScore());
+            assertEquals("Deck B", read.get(1).getName());
+            assertEquals("Deck C", read.get(2).getName());
+            assertEquals(2, reopened.size());
+            assertEquals(3, reopened.sequence());
+
+            reopened.open();
+            reopened.close();
+            assertEquals(3, new JsonReader(STORE).readStreaming(new ReviewJournal(STORE)).size());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testJournalAheadOfStoreIgnored() {
+        try {
+            journal.append(ReviewJournal.newDeck(new Deck("Deck B")));
+            decks.add(new Deck("Deck B"));
+            new JsonWriter(STORE).save(decks, 1);
+            journal.rebase(1);
+            journal.append(ReviewJournal.newDeck(new Deck("Deck C")));
+            // the store is replaced by one from before any of the journal's records
+            new JsonWriter(STORE).save(decks.subList(0, 1));
+
+            List<Deck> read = new JsonReader(STORE).readStreaming(new ReviewJournal(STORE));
+            assertEquals(1, read.size());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testReplaySchedule() {
+        try {
+            Deck a = decks.get(0);
+            Schedule schedule = a.reviewNthCard(2, true, 1_700_000_000_000L);
+            journal.append(ReviewJournal.schedule(a, 2, schedule));
+            journal.close();
+
+            List<Deck> read = new JsonReader(STORE).readStreaming(new ReviewJournal(STORE));
+            assertEquals(schedule, read.get(0).getNthSchedule(2));
+            assertTrue(read.get(0).getNthSchedule(1).isNew());
+            assertEquals(1, read.get(0).getNextDue(1_700_000_000_000L));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testReplayBatchOfReviews() {
+        try {
+            Deck a = decks.get(0);
+            a.getNthCard(1).changeScoreSaturating(2);
+            a.reviewNthCard(1, true, 1_700_000_000_000L);
+            a.getNthCard(2).changeScoreSaturating(-1);
+            a.reviewNthCard(2, false, 1_700_000_000_000L);
+            journal.append(ReviewJournal.reviews(a, new int[] {2, 1}));
+            assertEquals(4, journal.size());
+            journal.close();
+
+            List<Deck> read = new JsonReader(STORE).readStreaming(new ReviewJournal(STORE));
+            for (int n = 1; n <= 2; n++) {
+                assertEquals(a.getNthScore(n), read.get(0).getNthScore(n));
+                assertEquals(a.getNthSchedule(n), read.get(0).getNthSchedule(n));
+            }
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testTornLastRecordIgnored() {
+        try {
+            journal.append(ReviewJournal.score(decks.get(0), 1, 3));
+            journal.close();
+            Files.write(Paths.get(STORE + ".journal"), "{\"op\":\"score\",\"de".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+
+            ReviewJournal reopened = new ReviewJournal(STORE);
+            List<Deck> read = new JsonReader(STORE).readStreaming(reopened);
+            assertEquals(1, reopened.size());
+            assertEquals(3, read.get(0).getNthCard(1).getScore());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testRecordForMissingDeck() {
+        try {
+            journal.append(ReviewJournal.score(new Deck("No such deck"), 1, 3));
+            new JsonReader(STORE).readStreaming(new ReviewJournal(STORE));
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testRecordForMissingCard() {
+        try {
+            journal.append(ReviewJournal.removeCard(decks.get(0), 3));
+            new JsonReader(STORE).readStreaming(new ReviewJournal(STORE));
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+}
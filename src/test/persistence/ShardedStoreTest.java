@@ -0,0 +1,219 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.BaseCardTestSetup;
+import model.Card;
+import model.Deck;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedStoreTest extends BaseCardTestSetup {
+    private static final String OUTPUT = "./data/testShardedOutput";
+
+    @AfterEach
+    void cleanup() throws IOException {
+        if (Files.exists(Paths.get(OUTPUT))) {
+            try (Stream<Path> files = Files.walk(Paths.get(OUTPUT))) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testReaderNonExistentDirectory() {
+        try {
+            new ShardedStore("./data/noSuchDirectory").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderGeneralDeck() {
+        try {
+            StoreReaderTest.assertReaderNormal(new ShardedStore("./data/testShardedReader").read());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testStoreReaderDetectsShards() {
+        try {
+            StoreReaderTest.assertReaderNormal(new StoreReader("./data/testShardedReader").read());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testSequenceInManifest() {
+        try {
+            List<Deck> decks = new ShardedStore("./data/testShardedReader").read();
+            new ShardedStore(OUTPUT).save(decks, 9);
+            assertEquals(9, StoreReader.readSequence(OUTPUT));
+            assertEquals(0, new ShardedStore("./data/testShardedReader").readSequence());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderShardDoesNotMatchManifest() {
+        try {
+            new ShardedStore("./data/testShardedMismatch").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Deck Two"));
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testWriterEmptyDeck() {
+        try {
+            ShardedStore store = new ShardedStore(OUTPUT + "/empty");
+            store.save(new ArrayList<>());
+            assertEquals(0, store.read().size());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterGeneralDeck() {
+        try {
+            List<Deck> decks = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Deck d = new Deck("Deck " + i);
+                for (int j = 0; j < i; j++) {
+                    Card c = new Card("Question " + j + " of deck " + i, "Answer " + j);
+                    c.changeScoreBy(j % 5 - 2);
+                    d.addCard(c);
+                }
+                decks.add(d);
+            }
+            ShardedStore store = new ShardedStore(OUTPUT + "/normal", new ForkJoinPool(4));
+            store.save(decks);
+
+            List<Deck> read = store.read();
+            assertEquals(decks.size(), read.size());
+            for (int i = 0; i < decks.size(); i++) {
+                assertTrue(sameDeck(decks.get(i), read.get(i)));
+            }
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterReplacesPreviousShards() {
+        try {
+            ShardedStore store = new ShardedStore(OUTPUT + "/resave");
+            List<Deck> decks = new ArrayList<>();
+            Deck d1 = new Deck("Deck A");
+            Deck d2 = new Deck("Deck B");
+            d1.addCard(c1);
+            d2.addCard(c2);
+            decks.add(d1);
+            decks.add(d2);
+            store.save(decks);
+
+            decks.remove(d1);
+            d2.addCard(c3);
+            store.save(decks);
+
+            List<Deck> read = store.read();
+            assertEquals(1, read.size());
+            assertTrue(sameDeck(d2, read.get(0)));
+            assertEquals(2, countFiles(Paths.get(OUTPUT + "/resave")));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterKeepsUnchangedShards() {
+        try {
+            ShardedStore store = new ShardedStore(OUTPUT + "/reuse");
+            List<Deck> decks = new ArrayList<>();
+            Deck d1 = new Deck("Deck A");
+            Deck d2 = new Deck("Deck B");
+            d1.addCard(c1);
+            d2.addCard(c2);
+            decks.add(d1);
+            decks.add(d2);
+            store.save(decks);
+            assertFalse(d1.isModified());
+            assertFalse(d2.isModified());
+
+            List<Deck> read = store.read();
+            assertFalse(read.get(0).isModified());
+            read.get(1).addCard(c3);
+            store.save(read);
+
+            assertTrue(Files.exists(Paths.get(OUTPUT + "/reuse/deck-1-0.json")));
+            assertTrue(Files.exists(Paths.get(OUTPUT + "/reuse/deck-2-1.json")));
+            assertFalse(Files.exists(Paths.get(OUTPUT + "/reuse/deck-1-1.json")));
+            List<Deck> reread = store.read();
+            assertTrue(sameDeck(d1, reread.get(0)));
+            assertTrue(sameDeck(read.get(1), reread.get(1)));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterLazyDeck() {
+        try {
+            List<Deck> decks = new BinaryReader("./data/testBinaryReaderIndexed.dat").readIndex();
+            ShardedStore store = new ShardedStore(OUTPUT + "/frombinary");
+            store.save(decks);
+            StoreReaderTest.assertReaderNormal(store.read());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterInvalidDirectory() {
+        try {
+            new ShardedStore("./data/testReaderNormal.json/shards").save(new ArrayList<>());
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    // EFFECTS: returns the number of files in directory
+    private static int countFiles(Path directory) throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path ignored : files) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,165 @@
+package persistence;
+
+import exceptions.ExceedThresholdException;
+import exceptions.InvalidCardException;
+import model.Card;
+import model.Deck;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StoreReaderTest {
+    @Test
+    void testReaderDetectsJson() {
+        try {
+            assertReaderNormal(new StoreReader("./data/testReaderNormal.json").read());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderDetectsBinary() {
+        try {
+            assertReaderNormal(new StoreReader("./data/testBinaryReaderNormal.dat").read());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderIndexedBinaryIsLazy() {
+        try {
+            List<Deck> decks = new StoreReader("./data/testBinaryReaderIndexed.dat").read();
+            assertFalse(decks.get(0).isLoaded());
+            assertReaderNormal(decks);
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderUsesFallback() {
+        try {
+            assertReaderNormal(new StoreReader("./data/noSuchFile.dat", "./data/testReaderNormal.json").read());
+            assertReaderNormal(new StoreReader("./data/testBinaryReaderNormal.dat", "./data/noSuchFile.json").read());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReadSequence() {
+        try {
+            List<Deck> decks = new StoreReader("./data/testReaderNormal.json").read();
+            new JsonWriter("./data/testSequence.json").save(decks, 7);
+            new BinaryWriter("./data/testSequence.dat").save(decks, 8);
+            assertEquals(7, StoreReader.readSequence("./data/testSequence.json"));
+            assertEquals(8, StoreReader.readSequence("./data/testSequence.dat"));
+            assertReaderNormal(new StoreReader("./data/testSequence.json").read());
+            assertReaderNormal(new StoreReader("./data/testSequence.dat").read());
+
+            assertEquals(0, StoreReader.readSequence("./data/testReaderNormal.json"));
+            assertEquals(0, StoreReader.readSequence("./data/testBinaryReaderNormal.dat"));
+            assertEquals(0, StoreReader.readSequence("./data/noSuchFile.dat"));
+            Files.deleteIfExists(Paths.get("./data/testSequence.json"));
+            Files.deleteIfExists(Paths.get("./data/testSequence.dat"));
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderNonExistentFile() {
+        try {
+            new StoreReader("./data/noSuchFile.dat", "./data/noSuchFile.json").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } catch (ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        }
+    }
+
+    @Test
+    void testReaderReplaysJournal() {
+        try {
+            Files.copy(Paths.get("./data/testBinaryReaderNormal.dat"), Paths.get("./data/testStoreJournal.dat"),
+                    java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            ReviewJournal journal = new ReviewJournal("./data/testStoreJournal.dat");
+            journal.open();
+            journal.append(ReviewJournal.newDeck(new Deck("Journaled Deck")));
+            journal.close();
+
+            List<Deck> decks = new StoreReader("./data/testStoreJournal.dat").read(journal);
+            assertEquals(3, decks.size());
+            assertEquals("Journaled Deck", decks.get(2).getName());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        } finally {
+            try {
+                Files.deleteIfExists(Paths.get("./data/testStoreJournal.dat"));
+                Files.deleteIfExists(Paths.get("./data/testStoreJournal.dat.journal"));
+            } catch (IOException e) {
+                // nothing to clean up
+            }
+        }
+    }
+
+    @Test
+    void testReaderReplaysFallbackJournal() {
+        String legacy = "./data/testStoreLegacy.json";
+        String store = "./data/testStoreMoved.dat";
+        try {
+            Files.copy(Paths.get("./data/testReaderNormal.json"), Paths.get(legacy),
+                    java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            ReviewJournal legacyJournal = new ReviewJournal(legacy);
+            legacyJournal.open();
+            legacyJournal.append(ReviewJournal.newDeck(new Deck("Legacy Deck")));
+            legacyJournal.close();
+            ReviewJournal journal = new ReviewJournal(store);
+
+            List<Deck> decks = new StoreReader(store, legacy).read(journal);
+            assertEquals(3, decks.size());
+            assertEquals("Legacy Deck", decks.get(2).getName());
+
+            Files.copy(Paths.get("./data/testBinaryReaderNormal.dat"), Paths.get(store));
+            assertEquals(2, new StoreReader(store, legacy).read(journal).size());
+        } catch (IOException | ExceedThresholdException | InvalidCardException e) {
+            fail("Exception not expected");
+        } finally {
+            try {
+                Files.deleteIfExists(Paths.get(legacy));
+                Files.deleteIfExists(Paths.get(legacy + ".journal"));
+                Files.deleteIfExists(Paths.get(store));
+            } catch (IOException e) {
+                // nothing to clean up
+            }
+        }
+    }
+
+    // EFFECTS: checks that decks has the contents of testReaderNormal.json
+    static void assertReaderNormal(List<Deck> decks) {
+        assertEquals(2, decks.size());
+        Deck d1 = decks.get(0);
+        Deck d2 = decks.get(1);
+        Card c1 = d1.getNthCard(1);
+        Card c2 = d1.getNthCard(2);
+
+        assertEquals("Deck One", d1.getName());
+        assertEquals(2, d1.getNumOfCards());
+        assertEquals("Where is UBC located?", c1.getFront());
+        assertEquals("BC", c1.getBack());
+        assertEquals(1, c1.getScore());
+        assertEquals("What is 1+1?", c2.getFront());
+        assertEquals("2", c2.getBack());
+        assertEquals(-3, c2.getScore());
+        assertEquals("Empty Deck", d2.getName());
+        assertEquals(0, d2.getNumOfCards());
+    }
+}